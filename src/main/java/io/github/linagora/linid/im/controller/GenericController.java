@@ -26,18 +26,45 @@
 
 package io.github.linagora.linid.im.controller;
 
+import io.github.linagora.linid.im.controller.binding.ContentFormat;
+import io.github.linagora.linid.im.controller.binding.ContentFormatMappers;
+import io.github.linagora.linid.im.controller.binding.EntityBody;
+import io.github.linagora.linid.im.controller.model.BatchGetRequest;
 import io.github.linagora.linid.im.controller.model.PaginationRequest;
+import io.github.linagora.linid.im.controller.stream.BulkOperationReader;
+import io.github.linagora.linid.im.controller.stream.EntityPageWriter;
+import io.github.linagora.linid.im.controller.stream.JsonSequenceWriter;
 import io.github.linagora.linid.im.corelib.exception.ApiException;
 import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.corelib.i18n.I18nService;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
 import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntityMapper;
 import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntityService;
+import io.github.linagora.linid.im.plugin.entity.BulkItemResult;
+import io.github.linagora.linid.im.plugin.entity.CursorPage;
+import io.github.linagora.linid.im.plugin.entity.DynamicEntityBatchService;
+import io.github.linagora.linid.im.plugin.entity.EntityTagService;
+import io.github.linagora.linid.im.plugin.entity.FieldProjection;
+import io.github.linagora.linid.im.plugin.entity.FilterWriteJob;
+import io.github.linagora.linid.im.plugin.entity.ProjectingEntityMapper;
+import io.github.linagora.linid.im.plugin.entity.WriteBehindOperation;
+import io.github.linagora.linid.im.plugin.entity.WriteBehindService;
+import io.github.linagora.linid.im.plugin.entity.WriteBehindStatus;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -60,7 +87,12 @@ import org.springframework.web.bind.annotation.RestController;
  * based on the entity name provided in the URL path.
  *
  * <p>
- * It delegates business logic to the {@link DynamicEntityService}.
+ * It delegates business logic to the {@link DynamicEntityService}, and to the {@link DynamicEntityBatchService} for
+ * operations targeting several entities at once.
+ *
+ * <p>
+ * Write request bodies are bound with {@link EntityBody}, so that they are parsed according to the entity configuration
+ * and rejected before the request is authenticated when they are too large or malformed.
  */
 @RestController
 @RequestMapping("/api/{entity}")
@@ -71,6 +103,16 @@ public class GenericController {
 
   private final DynamicEntityMapper mapper;
 
+  private final DynamicEntityBatchService batchService;
+
+  private final I18nService i18nService;
+
+  private final EntityTagService tagService;
+
+  private final WriteBehindService writeBehindService;
+
+  private final ContentFormatMappers formatMappers;
+
   /**
    * Determines the HTTP status code for a paged response. Returns 206 (Partial Content) if multiple pages exist,
    * otherwise 200 (OK).
@@ -87,17 +129,70 @@ public class GenericController {
     return HttpStatus.OK.value();
   }
 
+  /**
+   * Returns the function converting the entities returned by a read request, keeping only the attributes requested with
+   * the {@code fields} parameter, if any.
+   *
+   * @param request the HTTP request
+   * @return the function converting the entities
+   */
+  public Function<DynamicEntity, Map<String, Object>> getMapper(HttpServletRequest request) {
+    var fields = FieldProjection.parse(request.getParameter(FieldProjection.PARAMETER));
+
+    if (fields == null) {
+      return mapper;
+    }
+    if (mapper instanceof ProjectingEntityMapper projectingMapper) {
+      return dynamicEntity -> projectingMapper.apply(dynamicEntity, fields);
+    }
+
+    return mapper.andThen(attributes -> {
+      Map<String, Object> projection = new HashMap<>();
+      attributes.forEach((name, value) -> {
+        if (fields.contains(name)) {
+          projection.put(name, value);
+        }
+      });
+      return projection;
+    });
+  }
+
+  /**
+   * Returns the source of the converted attributes of the entities returned by a read request, keeping only the
+   * attributes requested with the {@code fields} parameter, if any.
+   *
+   * @param request the HTTP request
+   * @return the source of the converted attributes
+   */
+  public EntityPageWriter.AttributeSource getAttributeSource(HttpServletRequest request) {
+    if (mapper instanceof ProjectingEntityMapper projectingMapper) {
+      var fields = FieldProjection.parse(request.getParameter(FieldProjection.PARAMETER));
+      return (dynamicEntity, action) -> projectingMapper.forEachAttribute(dynamicEntity, fields, action);
+    }
+
+    var entityMapper = getMapper(request);
+    return (dynamicEntity, action) -> entityMapper.apply(dynamicEntity).forEach(action);
+  }
+
   /**
    * Creates a new entity instance.
    *
+   * <p>
+   * When the entity is in write-behind mode, the creation is only validated and recorded, and HTTP status 202 is returned
+   * with the identifier of the operation.
+   *
    * @param entity the name of the entity type to create
    * @param body   a map of attribute names and values for the new entity
    * @return a ResponseEntity containing the created entity and HTTP 201 status
    */
   @PostMapping
   public ResponseEntity<Map<String, Object>> createEntity(@PathVariable String entity,
-                                                          @RequestBody Map<String, Object> body,
+                                                          @EntityBody Map<String, Object> body,
                                                           HttpServletRequest request) {
+    if (writeBehindService.isEnabled(request, entity)) {
+      return toAccepted(writeBehindService.handleWrite(request, entity, "create", null, body));
+    }
+
     var dynamicEntity = service.handleCreate(request, entity, body);
 
     return ResponseEntity.status(HttpStatus.CREATED)
@@ -107,41 +202,187 @@ public class GenericController {
   /**
    * Retrieves a paginated list of entities filtered by optional criteria.
    *
+   * <p>
+   * As for every read endpoint, the optional {@code fields} parameter holds the comma-separated names of the attributes
+   * to return, the other attributes being neither read by providers that support it nor returned.
+   *
+   * <p>
+   * The page is written to the response by an {@link EntityPageWriter} with the mapper of the application, each entity
+   * being serialized as its attributes are converted rather than through an intermediate map. It is encoded in JSON,
+   * CBOR or Smile according to the {@code Accept} header.
+   *
    * @param entity   the name of the entity type to retrieve
    * @param filters  a map of filters to apply to the query
    * @param paginationRequest pagination information including page number and size
-   * @return a ResponseEntity containing the page of entities and HTTP status 200 or 206
+   * @param request the HTTP request
+   * @param response the HTTP response, receiving the page of entities with HTTP status 200 or 206
+   * @throws IOException if the response cannot be written
    */
   @GetMapping()
-  public ResponseEntity<Page<Map<String, Object>>> getEntities(@PathVariable String entity,
-                                                               @RequestParam MultiValueMap<String, String> filters,
-                                                               @Valid PaginationRequest paginationRequest,
-                                                               HttpServletRequest request) {
-    Page<Map<String, Object>> resources = service
-        .handleFindAll(request, entity, filters, paginationRequest.toPageable())
-        .map(mapper);
+  public void getEntities(@PathVariable String entity, @RequestParam MultiValueMap<String, String> filters,
+                          @Valid PaginationRequest paginationRequest, HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+    var resources = service.handleFindAll(request, entity, filters, paginationRequest.toPageable());
+
+    var format = ContentFormat.fromAccept(request.getHeader(HttpHeaders.ACCEPT));
+
+    response.setStatus(this.getStatus(resources));
+    response.setContentType(format.getMediaType().toString());
+    new EntityPageWriter(response.getOutputStream(), formatMappers.getMapper(format))
+        .write(resources, getAttributeSource(request));
+  }
+
+  /**
+   * Retrieves the entities matching optional criteria using cursor pagination.
+   *
+   * <p>
+   * This mapping is selected when the {@code cursor} query parameter is present, even empty for the first page. The
+   * response body contains the entities under {@code content} and, if more entities remain, the token to send as
+   * {@code cursor} to read them under {@code next}. The page number is ignored, and the sort of the first page is kept
+   * by the following ones.
+   *
+   * @param entity the name of the entity type to retrieve
+   * @param filters a map of filters to apply to the query
+   * @param paginationRequest pagination information including the cursor and page size
+   * @return a ResponseEntity containing the entities and the next cursor, with HTTP status 206 if more entities remain,
+   *     200 otherwise
+   */
+  @GetMapping(params = "cursor")
+  public ResponseEntity<Map<String, Object>> getEntitiesByCursor(@PathVariable String entity,
+                                                                 @RequestParam MultiValueMap<String, String> filters,
+                                                                 @Valid PaginationRequest paginationRequest,
+                                                                 HttpServletRequest request) {
+    CursorPage result = batchService.handleFindAllByCursor(request, entity, filters, paginationRequest.getCursor(),
+        paginationRequest.getSize(), paginationRequest.toSort());
+
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("content", result.content().stream().map(getMapper(request)).toList());
+    body.put("size", paginationRequest.getSize());
+    body.put("next", result.next());
 
-    return ResponseEntity.status(this.getStatus(resources))
-        .body(resources);
+    return ResponseEntity.status(result.next() == null ? HttpStatus.OK : HttpStatus.PARTIAL_CONTENT)
+        .body(body);
+  }
+
+  /**
+   * Exports every entity matching the given filters as NDJSON, one entity per line.
+   *
+   * <p>
+   * Unlike {@link #getEntities}, entities are written to the response as they are read from the provider and flushed
+   * chunk by chunk, so that memory usage does not depend on the number of exported entities. Writing blocks while the
+   * client does not read, which in turn pauses the reading.
+   *
+   * @param entity the name of the entity type to export
+   * @param filters a map of filters to apply to the query
+   * @param request the HTTP request
+   * @param response the HTTP response
+   * @throws IOException if the response cannot be written
+   */
+  @GetMapping(value = "/_stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public void streamEntities(@PathVariable String entity, @RequestParam MultiValueMap<String, String> filters,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+    response.setStatus(HttpStatus.OK.value());
+    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+
+    var writer = new JsonSequenceWriter(response.getOutputStream(), formatMappers.getJsonMapper(), true);
+    var entityMapper = getMapper(request);
+    batchService.handleStream(request, entity, filters, chunk -> {
+      chunk.forEach(dynamicEntity -> writer.write(entityMapper.apply(dynamicEntity)));
+      writer.flush();
+    });
+    writer.close();
   }
 
   /**
    * Retrieves a single entity by its ID.
    *
+   * <p>
+   * The response holds an {@code ETag} header, and the {@code Cache-Control} header configured for the entity type, if
+   * any. When the {@code If-None-Match} header matches the current tag, HTTP status 304 is returned without body. If the
+   * provider gives entity versions, the tag is compared before fetching the entity.
+   *
    * @param entity the name of the entity type to retrieve
    * @param id     the ID of the entity to retrieve
-   * @return a ResponseEntity containing the entity and HTTP status 200
+   * @return a ResponseEntity containing the entity and HTTP status 200, or HTTP status 304 if the client copy is up to
+   *     date
    */
   @GetMapping("/{id}")
   public ResponseEntity<Map<String, Object>> getEntityById(@PathVariable String entity, @PathVariable String id,
                                                            HttpServletRequest request) {
-    var dynamicEntity = service.handleFindById(request, entity, id);
-    return ResponseEntity.ok(mapper.apply(dynamicEntity));
+    var ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+    var cacheControl = tagService.getCacheControl(entity);
+
+    var read = tagService.handleFindById(request, entity, id, ifNoneMatch);
+    if (read.isNotModified()) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(toCacheHeaders(read.etag(), cacheControl)).build();
+    }
+
+    var dynamicEntity = read.entity();
+    var body = getMapper(request).apply(dynamicEntity);
+    var etag = tagService.getEtag(request, dynamicEntity, body);
+
+    if (tagService.matches(ifNoneMatch, etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(toCacheHeaders(etag, cacheControl)).build();
+    }
+
+    return ResponseEntity.ok()
+        .headers(toCacheHeaders(etag, cacheControl))
+        .body(body);
+  }
+
+  /**
+   * Builds the caching headers of a single entity read.
+   *
+   * @param etag the entity tag, may be {@code null}
+   * @param cacheControl the {@code Cache-Control} directives, may be {@code null}
+   * @return the headers holding the given values
+   */
+  public HttpHeaders toCacheHeaders(String etag, String cacheControl) {
+    var headers = new HttpHeaders();
+
+    if (etag != null) {
+      headers.setETag(etag);
+    }
+    if (cacheControl != null) {
+      headers.setCacheControl(cacheControl);
+    }
+
+    return headers;
+  }
+
+  /**
+   * Retrieves several entities by their IDs in a single request.
+   *
+   * <p>
+   * The response body contains the found entities under {@code content}, in the order of the requested IDs, and the IDs
+   * that did not match any entity under {@code missing}.
+   *
+   * @param entity the name of the entity type to retrieve
+   * @param batchGetRequest the IDs of the entities to retrieve
+   * @return a ResponseEntity containing the found entities and the missing IDs, with HTTP status 200
+   */
+  @PostMapping("/_batchGet")
+  public ResponseEntity<Map<String, Object>> getEntitiesByIds(@PathVariable String entity,
+                                                              @Valid @RequestBody BatchGetRequest batchGetRequest,
+                                                              HttpServletRequest request) {
+    var result = batchService.handleFindByIds(request, entity, batchGetRequest.getIds());
+
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("content", result.entities().stream().map(getMapper(request)).toList());
+    body.put("missing", result.missing());
+
+    return ResponseEntity.ok(body);
   }
 
   /**
    * Updates an existing entity by replacing it completely.
    *
+   * <p>
+   * The response holds the {@code ETag} header of the updated entity. When the request holds an {@code If-Match} header
+   * that does not match the current tag of the entity, HTTP status 412 is returned. When the entity is in write-behind
+   * mode and the request has no {@code If-Match} header, the update is only validated and recorded, and HTTP status 202 is
+   * returned with the identifier of the operation.
+   *
    * @param entity the name of the entity type to update
    * @param id     the ID of the entity to update
    * @param body   a map of attribute names and values for the updated entity
@@ -149,15 +390,29 @@ public class GenericController {
    */
   @PutMapping("/{id}")
   public ResponseEntity<Map<String, Object>> putEntity(@PathVariable String entity, @PathVariable String id,
-                                                       @RequestBody Map<String, Object> body,
+                                                       @EntityBody Map<String, Object> body,
                                                        HttpServletRequest request) {
+    if (writeBehindService.isEnabled(request, entity)) {
+      return toAccepted(writeBehindService.handleWrite(request, entity, "update", id, body));
+    }
+
     var dynamicEntity = service.handleUpdate(request, entity, id, body);
-    return ResponseEntity.ok(mapper.apply(dynamicEntity));
+    var result = mapper.apply(dynamicEntity);
+
+    return ResponseEntity.ok()
+        .headers(toCacheHeaders(tagService.getEtag(request, dynamicEntity, result), null))
+        .body(result);
   }
 
   /**
    * Partially updates an existing entity.
    *
+   * <p>
+   * The response holds the {@code ETag} header of the patched entity. When the request holds an {@code If-Match} header
+   * that does not match the current tag of the entity, HTTP status 412 is returned. When the entity is in write-behind
+   * mode and the request has no {@code If-Match} header, the patch is only validated and recorded, and HTTP status 202 is
+   * returned with the identifier of the operation.
+   *
    * @param entity the name of the entity type to patch
    * @param id     the ID of the entity to patch
    * @param body   a map of attribute names and values to patch in the entity
@@ -166,15 +421,45 @@ public class GenericController {
   @PatchMapping("/{id}")
   public ResponseEntity<Map<String, Object>> patchEntity(@PathVariable String entity,
                                                          @PathVariable String id,
-                                                         @RequestBody Map<String, Object> body,
+                                                         @EntityBody Map<String, Object> body,
                                                          HttpServletRequest request) {
+    if (writeBehindService.isEnabled(request, entity)) {
+      return toAccepted(writeBehindService.handleWrite(request, entity, "patch", id, body));
+    }
+
     var dynamicEntity = service.handlePatch(request, entity, id, body);
-    return ResponseEntity.ok(mapper.apply(dynamicEntity));
+    var result = mapper.apply(dynamicEntity);
+
+    return ResponseEntity.ok()
+        .headers(toCacheHeaders(tagService.getEtag(request, dynamicEntity, result), null))
+        .body(result);
+  }
+
+  /**
+   * Builds the response of a write accepted in write-behind mode.
+   *
+   * @param operation the recorded operation
+   * @return a ResponseEntity containing the operation and HTTP status 202 (Accepted), its status being available at
+   *     {@code /api/{entity}/_operations/{operationId}}
+   */
+  public ResponseEntity<Map<String, Object>> toAccepted(WriteBehindOperation operation) {
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("operationId", operation.operationId());
+    body.put("entity", operation.entity());
+    body.put("action", operation.action());
+    body.put("id", operation.id());
+    body.put("queuedAt", operation.queuedAt());
+
+    return ResponseEntity.accepted().body(body);
   }
 
   /**
    * Deletes an entity by its ID.
    *
+   * <p>
+   * When the request holds an {@code If-Match} header that does not match the current tag of the entity, HTTP status 412
+   * is returned.
+   *
    * @param entity the name of the entity type to delete
    * @param id     the ID of the entity to delete
    * @return a ResponseEntity with HTTP status 204 (No Content)
@@ -192,6 +477,209 @@ public class GenericController {
     return ResponseEntity.noContent().build();
   }
 
+  /**
+   * Applies a sequence of create, update, patch and delete operations in a single request.
+   *
+   * <p>
+   * The request body is either a JSON array of operations or NDJSON, one operation per line. Each operation holds an
+   * {@code action} ({@code create}, {@code update}, {@code patch} or {@code delete}), an {@code id} for all actions but
+   * {@code create}, and a {@code body} for all actions but {@code delete}.
+   *
+   * <p>
+   * Operations are read and executed incrementally, and their results are streamed back in the same format as the request
+   * body, in the order of the operations. A failing operation does not stop the following ones: its result holds its own
+   * status and error instead of the entity.
+   *
+   * @param entity the name of the entity type to write
+   * @param request the HTTP request
+   * @param response the HTTP response
+   * @throws IOException if the request body cannot be read or the response cannot be written
+   */
+  @PostMapping(value = "/_bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+  public void bulk(@PathVariable String entity, HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    var ndjson = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()));
+    var operations = new BulkOperationReader(request.getInputStream());
+
+    response.setStatus(HttpStatus.OK.value());
+    response.setContentType(ndjson ? MediaType.APPLICATION_NDJSON_VALUE : MediaType.APPLICATION_JSON_VALUE);
+
+    var writer = new JsonSequenceWriter(response.getOutputStream(), formatMappers.getJsonMapper(), ndjson);
+    batchService.handleBulk(request, entity, operations, result -> {
+      writer.write(toBulkItem(result));
+      writer.flush();
+    });
+    writer.close();
+  }
+
+  /**
+   * Builds the response item of a bulk operation result.
+   *
+   * @param result the bulk operation result
+   * @return the response item, holding either the resulting entity or the translated error
+   */
+  public Map<String, Object> toBulkItem(BulkItemResult result) {
+    Map<String, Object> item = new LinkedHashMap<>();
+    item.put("index", result.operation().index());
+    item.put("action", result.operation().action());
+    item.put("id", result.operation().id());
+    item.put("status", result.status());
+
+    if (result.error() != null) {
+      item.putAll(toErrorItem(result.error()));
+    } else if (result.entity() != null) {
+      item.put("entity", mapper.apply(result.entity()));
+    }
+
+    return item;
+  }
+
+  /**
+   * Deletes every entity matching the given filters.
+   *
+   * <p>
+   * The deletion runs in the background, the lifecycle of a single deletion being applied to each matched entity. The
+   * returned job can be polled until its status is no longer {@code RUNNING}.
+   *
+   * @param entity the name of the entity type to delete
+   * @param filters the filters selecting the entities to delete, at least one is required
+   * @return a ResponseEntity containing the started job and HTTP status 202 (Accepted)
+   */
+  @DeleteMapping
+  public ResponseEntity<Map<String, Object>> deleteEntities(@PathVariable String entity,
+                                                            @RequestParam MultiValueMap<String, String> filters,
+                                                            HttpServletRequest request) {
+    var job = batchService.handleDeleteByFilter(request, entity, filters);
+
+    return ResponseEntity.accepted()
+        .location(URI.create(String.format("%s/_jobs/%s", request.getRequestURI(), job.getId())))
+        .body(toJobBody(job));
+  }
+
+  /**
+   * Partially updates every entity matching the given filters.
+   *
+   * <p>
+   * The patch runs in the background, the lifecycle of a single patch being applied to each matched entity. The returned
+   * job can be polled until its status is no longer {@code RUNNING}.
+   *
+   * @param entity the name of the entity type to patch
+   * @param filters the filters selecting the entities to patch, at least one is required
+   * @param body a map of attribute names and values to patch in every matched entity
+   * @return a ResponseEntity containing the started job and HTTP status 202 (Accepted)
+   */
+  @PatchMapping
+  public ResponseEntity<Map<String, Object>> patchEntities(@PathVariable String entity,
+                                                           @RequestParam MultiValueMap<String, String> filters,
+                                                           @EntityBody Map<String, Object> body,
+                                                           HttpServletRequest request) {
+    var job = batchService.handlePatchByFilter(request, entity, filters, body);
+
+    return ResponseEntity.accepted()
+        .location(URI.create(String.format("%s/_jobs/%s", request.getRequestURI(), job.getId())))
+        .body(toJobBody(job));
+  }
+
+  /**
+   * Retrieves the progress of a delete or patch by filter.
+   *
+   * @param entity the name of the entity type targeted by the job
+   * @param jobId the identifier of the job
+   * @return a ResponseEntity containing the job and HTTP status 200
+   */
+  @GetMapping("/_jobs/{jobId}")
+  public ResponseEntity<Map<String, Object>> getJob(@PathVariable String entity, @PathVariable String jobId,
+                                                    HttpServletRequest request) {
+    return ResponseEntity.ok(toJobBody(batchService.handleFindJob(request, entity, jobId)));
+  }
+
+  /**
+   * Retrieves the status of a write accepted in write-behind mode.
+   *
+   * @param entity the name of the entity type targeted by the write
+   * @param operationId the identifier of the operation
+   * @return a ResponseEntity containing the operation status and HTTP status 200
+   */
+  @GetMapping("/_operations/{operationId}")
+  public ResponseEntity<Map<String, Object>> getOperation(@PathVariable String entity, @PathVariable String operationId,
+                                                          HttpServletRequest request) {
+    return ResponseEntity.ok(toOperationBody(writeBehindService.handleFindOperation(request, entity, operationId)));
+  }
+
+  /**
+   * Builds the response body of a write accepted in write-behind mode.
+   *
+   * @param status the status of the operation
+   * @return the response body, holding the operation, its state and the error recorded if it was rejected
+   */
+  public Map<String, Object> toOperationBody(WriteBehindStatus status) {
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("operationId", status.operationId());
+    body.put("entity", status.entity());
+    body.put("action", status.action());
+    body.put("id", status.id());
+    body.put("queuedAt", status.queuedAt());
+    body.put("status", status.state());
+    body.put("finishedAt", status.finishedAt() == null ? null : status.finishedAt().toEpochMilli());
+
+    if (status.error() != null) {
+      body.put("error", status.error());
+    }
+
+    return body;
+  }
+
+  /**
+   * Builds the response body of a delete or patch by filter job.
+   *
+   * @param job the job
+   * @return the response body, holding the job status, counters and first failures
+   */
+  public Map<String, Object> toJobBody(FilterWriteJob job) {
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("id", job.getId());
+    body.put("entity", job.getEntity());
+    body.put("action", job.getAction());
+    body.put("status", job.getStatus());
+    body.put("startedAt", job.getStartedAt().toEpochMilli());
+    body.put("finishedAt", job.getFinishedAt() == null ? null : job.getFinishedAt().toEpochMilli());
+    body.put("processed", job.getProcessed().get());
+    body.put("succeeded", job.getSucceeded().get());
+    body.put("failed", job.getFailed().get());
+
+    synchronized (job.getFailures()) {
+      body.put("failures", job.getFailures().stream().map(failure -> {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("id", failure.id());
+        item.put("status", failure.error().getStatusCode());
+        item.putAll(toErrorItem(failure.error()));
+        return item;
+      }).toList());
+    }
+
+    if (job.getError() != null) {
+      body.put("error", toErrorItem(job.getError()));
+    }
+
+    return body;
+  }
+
+  /**
+   * Builds the description of an error reported for a single item of a multi-entity operation.
+   *
+   * @param exception the error
+   * @return the translated error message, its key, context and details
+   */
+  public Map<String, Object> toErrorItem(ApiException exception) {
+    Map<String, Object> item = new LinkedHashMap<>();
+    item.put("error", i18nService.translate(exception.getError()));
+    item.put("errorKey", exception.getError().key());
+    item.put("errorContext", exception.getError().context());
+    item.putAll(exception.getDetails());
+
+    return item;
+  }
+
   /**
    * Validates a single attribute value for a dynamic entity.
    *
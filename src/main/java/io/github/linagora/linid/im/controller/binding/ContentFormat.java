@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.controller.binding;
+
+import lombok.Getter;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+/**
+ * Encodings of the documents exchanged by the REST controllers.
+ *
+ * <p>
+ * Binary encodings carry the same logical document as JSON, but are more compact and cheaper to encode and decode. They
+ * are selected with the {@code Accept} header for responses and the {@code Content-Type} header for request bodies, and
+ * read and written with the mappers of {@link ContentFormatMappers}.
+ */
+@Getter
+public enum ContentFormat {
+
+  /**
+   * JSON text, the default encoding.
+   */
+  JSON(MediaType.APPLICATION_JSON),
+
+  /**
+   * CBOR binary encoding, as defined by RFC 8949.
+   */
+  CBOR(MediaType.APPLICATION_CBOR),
+
+  /**
+   * Smile binary encoding of Jackson.
+   */
+  SMILE(MediaType.parseMediaType("application/x-jackson-smile"));
+
+  /**
+   * Media type of the encoding.
+   */
+  private final MediaType mediaType;
+
+  ContentFormat(MediaType mediaType) {
+    this.mediaType = mediaType;
+  }
+
+  /**
+   * Selects the encoding of a response from the {@code Accept} header of the request.
+   *
+   * <p>
+   * The encoding with the highest quality is selected, JSON being preferred on ties and when the header is missing,
+   * invalid or accepts none of the encodings.
+   *
+   * @param accept the value of the {@code Accept} header, may be {@code null}
+   * @return the encoding of the response
+   */
+  public static ContentFormat fromAccept(String accept) {
+    if (accept == null || accept.isBlank()) {
+      return JSON;
+    }
+
+    try {
+      var selected = JSON;
+      var quality = 0.0;
+
+      for (MediaType type : MediaType.parseMediaTypes(accept)) {
+        for (ContentFormat format : values()) {
+          if (type.includes(format.mediaType) && type.getQualityValue() > quality) {
+            selected = format;
+            quality = type.getQualityValue();
+          }
+        }
+      }
+
+      return selected;
+    } catch (InvalidMediaTypeException exception) {
+      return JSON;
+    }
+  }
+
+  /**
+   * Selects the encoding of a request body from its {@code Content-Type} header.
+   *
+   * @param contentType the value of the {@code Content-Type} header, may be {@code null}
+   * @return the encoding of the request body, JSON unless a binary encoding is given
+   */
+  public static ContentFormat fromContentType(String contentType) {
+    if (contentType == null || contentType.isBlank()) {
+      return JSON;
+    }
+
+    try {
+      var type = MediaType.parseMediaType(contentType);
+
+      for (ContentFormat format : values()) {
+        if (format.mediaType.equalsTypeAndSubtype(type)) {
+          return format;
+        }
+      }
+    } catch (InvalidMediaTypeException exception) {
+      return JSON;
+    }
+
+    return JSON;
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.controller.binding;
+
+import lombok.Getter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Mappers reading and writing the documents in each {@link ContentFormat}, shared by the message converters, the
+ * request body readers and the controllers writing their responses directly, so that all of them handle the same
+ * documents.
+ *
+ * <p>
+ * The JSON and CBOR mappers are the ones configured by the application. Since no Smile mapper is configured by the
+ * application, a Smile mapper with the modules found on the classpath is created.
+ */
+@Getter
+@Component
+public class ContentFormatMappers {
+
+  /**
+   * Mapper of the JSON encoding.
+   */
+  private final JsonMapper jsonMapper;
+
+  /**
+   * Mapper of the CBOR encoding.
+   */
+  private final CBORMapper cborMapper;
+
+  /**
+   * Mapper of the Smile encoding.
+   */
+  private final SmileMapper smileMapper;
+
+  /**
+   * Creates the mappers of the encodings.
+   *
+   * @param jsonMapper the JSON mapper of the application
+   * @param cborMapper the CBOR mapper of the application, if any
+   */
+  @Autowired
+  public ContentFormatMappers(JsonMapper jsonMapper, ObjectProvider<CBORMapper> cborMapper) {
+    this.jsonMapper = jsonMapper;
+    this.cborMapper = cborMapper.getIfAvailable(() -> CBORMapper.builder().findAndAddModules().build());
+    this.smileMapper = SmileMapper.builder().findAndAddModules().build();
+  }
+
+  /**
+   * Returns the mapper reading and writing documents in the given encoding.
+   *
+   * @param format the encoding
+   * @return the mapper of the encoding
+   */
+  public ObjectMapper getMapper(ContentFormat format) {
+    return switch (format) {
+      case JSON -> jsonMapper;
+      case CBOR -> cborMapper;
+      case SMILE -> smileMapper;
+    };
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.controller.binding;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.corelib.plugin.config.PluginConfigurationService;
+import io.github.linagora.linid.im.plugin.config.EntitySettingsService;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Resolves the controller parameters annotated with {@link EntityBody}.
+ *
+ * <p>
+ * The body is parsed by an {@link EntityBodyReader} built from the configuration of the entity named by the
+ * {@code entity} path variable and from its settings:
+ * <ul>
+ *   <li>{@code body-max-size}: the maximum size of the body, {@code 1MB} by default;</li>
+ *   <li>{@code unknown-attributes}: the {@link UnknownAttributePolicy} applied to keys that are not attributes of the
+ *   entity, {@code keep} by default.</li>
+ * </ul>
+ * Since arguments are resolved before the controller method is called, invalid bodies are rejected before the request
+ * is authenticated and before any plugin is called.
+ */
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class EntityBodyArgumentResolver implements HandlerMethodArgumentResolver {
+
+  /**
+   * Default maximum size of a request body.
+   */
+  private static final DataSize DEFAULT_MAX_SIZE = DataSize.ofMegabytes(1);
+
+  /**
+   * Service providing the entity configurations.
+   */
+  private final PluginConfigurationService configurationService;
+
+  /**
+   * Service resolving the per-entity settings.
+   */
+  private final EntitySettingsService settingsService;
+
+  /**
+   * Mappers parsing the bodies in each encoding.
+   */
+  private final ContentFormatMappers mappers;
+
+  @Override
+  public boolean supportsParameter(MethodParameter parameter) {
+    return parameter.hasParameterAnnotation(EntityBody.class);
+  }
+
+  @Override
+  public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer, NativeWebRequest webRequest,
+                                WebDataBinderFactory binderFactory) throws IOException {
+    var request = webRequest.getNativeRequest(HttpServletRequest.class);
+
+    return getReader(request).read(request.getInputStream(), ContentFormat.fromContentType(request.getContentType()));
+  }
+
+  /**
+   * Builds the reader of the body of the given request.
+   *
+   * @param request the HTTP request
+   * @return the reader of the request body
+   * @throws ApiException if the entity is unknown (404) or the declared body length exceeds the limit (413)
+   */
+  @SuppressWarnings("unchecked")
+  public EntityBodyReader getReader(HttpServletRequest request) {
+    var variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+    var entityName = variables == null ? null : variables.get("entity");
+    var configuration = configurationService.getEntityConfiguration(entityName)
+        .orElseThrow(() -> new ApiException(HttpStatus.NOT_FOUND.value(), I18nMessage.of(
+            "error.entity.unknown",
+            Map.of("entity", String.valueOf(entityName))
+        )));
+
+    var name = configuration.getName();
+    var maxSize = settingsService.getSetting(name, "body-max-size", DataSize.class, DEFAULT_MAX_SIZE).toBytes();
+    var policy = UnknownAttributePolicy.from(settingsService.getSetting(name, "unknown-attributes", String.class, null));
+
+    if (request.getContentLengthLong() > maxSize) {
+      throw new ApiException(HttpStatus.CONTENT_TOO_LARGE.value(), I18nMessage.of(
+          "error.body.too.large",
+          Map.of("entity", name, "limit", String.valueOf(maxSize))
+      ));
+    }
+
+    return new EntityBodyReader(configuration, policy, maxSize, mappers);
+  }
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.controller.binding;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.AttributeConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.core.exc.InputCoercionException;
+
+/**
+ * Incremental reader of an entity write request body.
+ *
+ * <p>
+ * The body must be a JSON object, or its equivalent in a binary {@link ContentFormat}. Its values are parsed straight
+ * into the types of the matching attributes of the entity configuration:
+ * <ul>
+ *   <li>{@code boolean}: a JSON boolean, or the strings {@code "true"} and {@code "false"};</li>
+ *   <li>{@code integer}, {@code long}, {@code float} and {@code double}: a JSON number, or a string holding one;</li>
+ *   <li>{@code string} and unknown types: any JSON scalar, as its text;</li>
+ *   <li>{@code list}: a JSON array, other values being kept as parsed;</li>
+ *   <li>{@code date} and {@code timestamp}: any JSON value, kept as parsed since their format depends on the provider.</li>
+ * </ul>
+ * Keys that are not attributes of the entity are handled according to an {@link UnknownAttributePolicy}, and reading
+ * stops as soon as the body exceeds its size limit.
+ */
+public class EntityBodyReader {
+
+  /**
+   * Configuration of the entity targeted by the request.
+   */
+  private final EntityConfiguration configuration;
+
+  /**
+   * Lower-cased types of the entity attributes, keyed by attribute name.
+   */
+  private final Map<String, String> types = new HashMap<>();
+
+  /**
+   * Policy applied to the keys that are not attributes of the entity.
+   */
+  private final UnknownAttributePolicy policy;
+
+  /**
+   * Maximum size of the body, in bytes.
+   */
+  private final long maxSize;
+
+  /**
+   * Mappers parsing the body in each encoding.
+   */
+  private final ContentFormatMappers mappers;
+
+  /**
+   * Creates a reader of the bodies of the given entity.
+   *
+   * @param configuration the configuration of the entity targeted by the request
+   * @param policy the policy applied to the keys that are not attributes of the entity
+   * @param maxSize the maximum size of the body, in bytes
+   * @param mappers the mappers parsing the body in each encoding
+   */
+  public EntityBodyReader(EntityConfiguration configuration, UnknownAttributePolicy policy, long maxSize,
+                          ContentFormatMappers mappers) {
+    this.configuration = configuration;
+    this.policy = policy;
+    this.maxSize = maxSize;
+    this.mappers = mappers;
+
+    for (AttributeConfiguration attribute : configuration.getAttributes()) {
+      types.put(attribute.getName(), attribute.getType() == null ? "string" : attribute.getType().toLowerCase(Locale.ROOT));
+    }
+  }
+
+  /**
+   * Reads a JSON request body.
+   *
+   * @param input the input stream of the request body
+   * @return the parsed attributes, in the order of the body
+   * @throws ApiException if the body is too large (413), malformed, holds a value of the wrong type or a rejected
+   *     unknown key (400)
+   */
+  public Map<String, Object> read(InputStream input) {
+    return read(input, ContentFormat.JSON);
+  }
+
+  /**
+   * Reads a request body in the given encoding.
+   *
+   * @param input the input stream of the request body
+   * @param format the encoding of the request body
+   * @return the parsed attributes, in the order of the body
+   * @throws ApiException if the body is too large (413), malformed, holds a value of the wrong type or a rejected
+   *     unknown key (400)
+   */
+  public Map<String, Object> read(InputStream input, ContentFormat format) {
+    try (var parser = mappers.getMapper(format).createParser(new LimitedInputStream(input))) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw malformed(null);
+      }
+
+      Map<String, Object> body = new LinkedHashMap<>();
+      while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+        var name = parser.currentName();
+        var type = types.get(name);
+        parser.nextToken();
+
+        if (type != null) {
+          body.put(name, readValue(parser, name, type));
+        } else if (policy == UnknownAttributePolicy.DROP) {
+          parser.skipChildren();
+        } else if (policy == UnknownAttributePolicy.REJECT) {
+          throw new ApiException(HttpStatus.BAD_REQUEST.value(), I18nMessage.of(
+              "error.attribute.unknown",
+              Map.of("entity", configuration.getName(), "attribute", name)
+          ));
+        } else {
+          body.put(name, parser.readValueAs(Object.class));
+        }
+      }
+
+      if (parser.nextToken() != null) {
+        throw malformed(null);
+      }
+
+      return body;
+    } catch (JacksonException exception) {
+      throw malformed(exception);
+    }
+  }
+
+  /**
+   * Reads the value of an attribute, the parser being positioned on its first token.
+   *
+   * @param parser the parser
+   * @param name the name of the attribute
+   * @param type the lower-cased type of the attribute
+   * @return the typed value
+   * @throws JacksonException if the value cannot be parsed
+   * @throws ApiException if the value does not match the attribute type
+   */
+  public Object readValue(JsonParser parser, String name, String type) {
+    var token = parser.currentToken();
+
+    if (token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+
+    try {
+      return switch (type) {
+        case "boolean" -> readBoolean(parser, name, type);
+        case "integer" -> token == JsonToken.VALUE_NUMBER_INT ? parser.getIntValue() : Integer.valueOf(readNumber(parser,
+            name, type));
+        case "long" -> token == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : Long.valueOf(readNumber(parser, name,
+            type));
+        case "float" -> token.isNumeric() ? parser.getFloatValue() : Float.valueOf(readNumber(parser, name, type));
+        case "double" -> token.isNumeric() ? parser.getDoubleValue() : Double.valueOf(readNumber(parser, name, type));
+        case "list" -> token == JsonToken.START_ARRAY ? parser.readValueAs(List.class) : parser.readValueAs(Object.class);
+        case "date", "timestamp" -> parser.readValueAs(Object.class);
+        default -> {
+          if (!token.isScalarValue()) {
+            throw typeMismatch(name, type);
+          }
+          yield parser.getString();
+        }
+      };
+    } catch (NumberFormatException | InputCoercionException exception) {
+      throw typeMismatch(name, type);
+    }
+  }
+
+  /**
+   * Reads a boolean value.
+   *
+   * @param parser the parser, positioned on the value
+   * @param name the name of the attribute
+   * @param type the type of the attribute
+   * @return the boolean value
+   * @throws JacksonException if the value cannot be parsed
+   * @throws ApiException if the value is not a boolean
+   */
+  private Boolean readBoolean(JsonParser parser, String name, String type) {
+    if (parser.currentToken().isBoolean()) {
+      return parser.getBooleanValue();
+    }
+    if (parser.currentToken() == JsonToken.VALUE_STRING) {
+      var text = parser.getString().trim();
+      if ("true".equalsIgnoreCase(text) || "false".equalsIgnoreCase(text)) {
+        return Boolean.valueOf(text);
+      }
+    }
+
+    throw typeMismatch(name, type);
+  }
+
+  /**
+   * Reads the text of a numeric value given as a string.
+   *
+   * @param parser the parser, positioned on the value
+   * @param name the name of the attribute
+   * @param type the type of the attribute
+   * @return the trimmed text of the value
+   * @throws JacksonException if the value cannot be parsed
+   * @throws ApiException if the value is neither a number nor a string
+   */
+  private String readNumber(JsonParser parser, String name, String type) {
+    var token = parser.currentToken();
+
+    if (token != JsonToken.VALUE_STRING && !token.isNumeric()) {
+      throw typeMismatch(name, type);
+    }
+
+    return parser.getString().trim();
+  }
+
+  /**
+   * Creates the error raised when a value does not match the type of its attribute.
+   *
+   * @param name the name of the attribute
+   * @param type the type of the attribute
+   * @return the error to raise
+   */
+  private ApiException typeMismatch(String name, String type) {
+    return new ApiException(HttpStatus.BAD_REQUEST.value(), I18nMessage.of(
+        "error.body.attribute.type",
+        Map.of("entity", configuration.getName(), "attribute", name, "type", type)
+    ));
+  }
+
+  /**
+   * Creates the error raised when the request body cannot be parsed.
+   *
+   * @param cause the parsing error, may be {@code null}
+   * @return the error to raise
+   */
+  private ApiException malformed(JacksonException cause) {
+    return new ApiException(HttpStatus.BAD_REQUEST.value(), I18nMessage.of(
+        "error.body.malformed",
+        Map.of("reason", cause == null ? "a JSON object is expected" : String.valueOf(cause.getMessage()))
+    ));
+  }
+
+  /**
+   * Input stream failing as soon as more bytes than the maximum body size are read.
+   */
+  private final class LimitedInputStream extends FilterInputStream {
+
+    /**
+     * Number of bytes read so far.
+     */
+    private long count = 0;
+
+    /**
+     * Wraps the given input stream.
+     *
+     * @param input the input stream of the request body
+     */
+    private LimitedInputStream(InputStream input) {
+      super(input);
+    }
+
+    @Override
+    public int read() throws IOException {
+      var value = super.read();
+      if (value >= 0) {
+        count(1);
+      }
+      return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      var read = super.read(buffer, offset, length);
+      if (read > 0) {
+        count(read);
+      }
+      return read;
+    }
+
+    /**
+     * Counts read bytes.
+     *
+     * @param read the number of bytes just read
+     * @throws ApiException if the body exceeds its maximum size
+     */
+    private void count(int read) {
+      count += read;
+      if (count > maxSize) {
+        throw new ApiException(HttpStatus.CONTENT_TOO_LARGE.value(), I18nMessage.of(
+            "error.body.too.large",
+            Map.of("entity", configuration.getName(), "limit", String.valueOf(maxSize))
+        ));
+      }
+    }
+  }
+}
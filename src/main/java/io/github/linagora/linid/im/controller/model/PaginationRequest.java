@@ -41,6 +41,9 @@ import org.springframework.util.StringUtils;
  *
  * <p>This class holds page number, page size, optional sorting field, and sort direction.
  * It provides a utility method to convert itself into a Spring {@link Pageable}.
+ *
+ * <p>When a {@link #cursor} is given, the page number is ignored and the next entities are read after the position
+ * encoded in the cursor.
  */
 @AllArgsConstructor
 @NoArgsConstructor
@@ -72,6 +75,33 @@ public class PaginationRequest {
       message = "Direction must be either 'asc' or 'desc'")
   private String direction;
 
+  /**
+   * Opaque continuation token returned as {@code next} by a previous cursor paginated request. Optional: an empty value
+   * requests the first page in cursor mode.
+   */
+  private String cursor;
+
+  /**
+   * Strategy used to count the total number of entities: 'exact', 'cached', 'estimated' or 'none' (case-insensitive).
+   * Optional: defaults to the count strategy of the entity. This parameter is read by the service from the request
+   * parameters; it is declared here to be validated.
+   */
+  @Pattern(regexp = "exact|cached|estimated|none", flags = Pattern.Flag.CASE_INSENSITIVE,
+      message = "Count must be one of 'exact', 'cached', 'estimated' or 'none'")
+  private String count;
+
+  /**
+   * Creates an offset pagination request.
+   *
+   * @param page the zero-based page index
+   * @param size the size of the page
+   * @param sort the name of the property used for sorting
+   * @param direction the sort direction
+   */
+  public PaginationRequest(int page, int size, String sort, String direction) {
+    this(page, size, sort, direction, null, null);
+  }
+
   /**
    * Converts this pagination request into a Spring {@link Pageable} object.
    *
@@ -81,8 +111,17 @@ public class PaginationRequest {
    * @return a {@link Pageable} representing this pagination request
    */
   public Pageable toPageable() {
+    return PageRequest.of(page, size, toSort());
+  }
+
+  /**
+   * Converts the sorting field and direction of this pagination request into a Spring {@link Sort}.
+   *
+   * @return the requested sort, or {@link Sort#unsorted()} if {@link #sort} is not set
+   */
+  public Sort toSort() {
     if (!StringUtils.hasText(sort)) {
-      return PageRequest.of(page, size);
+      return Sort.unsorted();
     }
 
     Sort.Direction dir = Sort.Direction.ASC;
@@ -91,6 +130,6 @@ public class PaginationRequest {
       dir = Sort.Direction.DESC;
     }
 
-    return PageRequest.of(page, size, Sort.by(dir, sort));
+    return Sort.by(dir, sort);
   }
 }
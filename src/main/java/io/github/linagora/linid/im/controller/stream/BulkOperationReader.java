@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.controller.stream;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.plugin.entity.BulkOperation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Incremental reader of bulk operations.
+ *
+ * <p>
+ * Operations are parsed one at a time from the input stream, which may contain either a JSON array of operations or a
+ * sequence of operations separated by new lines (NDJSON). Each operation is a JSON object such as:
+ * <pre>
+ * {"action": "patch", "id": "42", "body": {"enabled": false}}
+ * </pre>
+ */
+public class BulkOperationReader implements Iterator<BulkOperation> {
+
+  /**
+   * Mapper used to parse the operations.
+   */
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  /**
+   * Type of a parsed operation.
+   */
+  private static final TypeReference<Map<String, Object>> OPERATION_TYPE = new TypeReference<>() {
+  };
+
+  /**
+   * Parser reading the input stream.
+   */
+  private final JsonParser parser;
+
+  /**
+   * Token starting the next operation, {@code null} or {@link JsonToken#END_ARRAY} when all operations have been read.
+   */
+  private JsonToken current;
+
+  /**
+   * Position of the next operation.
+   */
+  private int index = 0;
+
+  /**
+   * Creates a reader of the operations contained in the given input stream.
+   *
+   * @param input the input stream of the request body
+   * @throws ApiException if the body is not valid JSON
+   */
+  public BulkOperationReader(InputStream input) {
+    try {
+      this.parser = MAPPER.createParser(input);
+      var first = parser.nextToken();
+      this.current = first == JsonToken.START_ARRAY ? parser.nextToken() : first;
+    } catch (IOException exception) {
+      throw malformed(exception);
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    return current != null && current != JsonToken.END_ARRAY;
+  }
+
+  @Override
+  public BulkOperation next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+
+    try {
+      if (current != JsonToken.START_OBJECT) {
+        throw new ApiException(HttpStatus.BAD_REQUEST.value(), I18nMessage.of("error.bulk.malformed", Map.of()));
+      }
+
+      Map<String, Object> value = parser.readValueAs(OPERATION_TYPE);
+      current = parser.nextToken();
+
+      return new BulkOperation(
+          index++,
+          (String) value.get("action"),
+          value.get("id") == null ? null : String.valueOf(value.get("id")),
+          toBody(value.get("body"))
+      );
+    } catch (IOException exception) {
+      throw malformed(exception);
+    }
+  }
+
+  /**
+   * Converts the body of a parsed operation.
+   *
+   * @param body the parsed body
+   * @return the body as a map, or an empty map if the body is missing
+   * @throws ApiException if the body is not a JSON object
+   */
+  @SuppressWarnings("unchecked")
+  public Map<String, Object> toBody(Object body) {
+    if (body == null) {
+      return Map.of();
+    }
+
+    if (body instanceof Map<?, ?> map) {
+      return (Map<String, Object>) map;
+    }
+
+    throw new ApiException(HttpStatus.BAD_REQUEST.value(), I18nMessage.of("error.bulk.malformed", Map.of()));
+  }
+
+  /**
+   * Creates the error raised when the request body cannot be parsed.
+   *
+   * @param cause the parsing error
+   * @return the error to raise
+   */
+  private ApiException malformed(IOException cause) {
+    return new ApiException(HttpStatus.BAD_REQUEST.value(), I18nMessage.of(
+        "error.bulk.malformed",
+        Map.of("reason", String.valueOf(cause.getMessage()))
+    ));
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.controller.stream;
+
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import java.io.OutputStream;
+import java.util.function.BiConsumer;
+import org.springframework.data.domain.Page;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Writer of a page of dynamic entities with the mapper of the response encoding, directly from the entity attributes.
+ *
+ * <p>
+ * The page properties other than its content are those written by the mapper for the page itself, so that the document
+ * is the one the application would write for the page, but each entity is written attribute by attribute as it is
+ * converted, without being copied into an intermediate map first.
+ */
+public class EntityPageWriter {
+
+  /**
+   * Name of the property holding the entities of a serialized page.
+   */
+  private static final String CONTENT = "content";
+
+  /**
+   * Source of the converted attributes of an entity.
+   */
+  @FunctionalInterface
+  public interface AttributeSource {
+
+    /**
+     * Passes the name and converted value of each attribute of the given entity to the given action.
+     *
+     * @param entity the entity
+     * @param action the action receiving the attributes
+     */
+    void forEachAttribute(DynamicEntity entity, BiConsumer<String, Object> action);
+  }
+
+  /**
+   * Output stream receiving the page.
+   */
+  private final OutputStream output;
+
+  /**
+   * Mapper of the response encoding.
+   */
+  private final ObjectMapper mapper;
+
+  /**
+   * Creates a writer of a page to the given output stream.
+   *
+   * @param output the output stream receiving the page
+   * @param mapper the mapper of the response encoding, configured by the application
+   */
+  public EntityPageWriter(OutputStream output, ObjectMapper mapper) {
+    this.output = output;
+    this.mapper = mapper;
+  }
+
+  /**
+   * Writes the given page and flushes it, without closing the underlying output stream.
+   *
+   * @param page the page to write
+   * @param attributes the source of the converted attributes of the entities
+   */
+  public void write(Page<DynamicEntity> page, AttributeSource attributes) {
+    var properties = mapper.valueToTree(page.map(entity -> null)).properties();
+
+    try (var generator = mapper.writer().without(StreamWriteFeature.AUTO_CLOSE_TARGET).createGenerator(output)) {
+      generator.writeStartObject();
+      for (var property : properties) {
+        generator.writeName(property.getKey());
+        if (CONTENT.equals(property.getKey())) {
+          writeContent(generator, page, attributes);
+        } else {
+          generator.writeTree(property.getValue());
+        }
+      }
+      generator.writeEndObject();
+    }
+  }
+
+  /**
+   * Writes the entities of a page as an array of JSON objects.
+   *
+   * @param generator the generator to write to
+   * @param page the page holding the entities
+   * @param attributes the source of the converted attributes of the entities
+   */
+  private void writeContent(JsonGenerator generator, Page<DynamicEntity> page, AttributeSource attributes) {
+    generator.writeStartArray();
+    for (DynamicEntity entity : page.getContent()) {
+      generator.writeStartObject();
+      attributes.forEachAttribute(entity, generator::writePOJOProperty);
+      generator.writeEndObject();
+    }
+    generator.writeEndArray();
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.controller.stream;
+
+import java.io.Closeable;
+import java.io.OutputStream;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Incremental writer of a sequence of JSON values, either as a JSON array or as new line delimited JSON (NDJSON).
+ *
+ * <p>
+ * Nothing is written to the output stream before the first value, so that an error raised before any value is produced
+ * can still be turned into a regular error response.
+ */
+public class JsonSequenceWriter implements Closeable {
+
+  /**
+   * Output stream receiving the values.
+   */
+  private final OutputStream output;
+
+  /**
+   * Mapper used to serialize the values.
+   */
+  private final ObjectMapper mapper;
+
+  /**
+   * Whether the values are written as NDJSON instead of a JSON array.
+   */
+  private final boolean ndjson;
+
+  /**
+   * Generator writing the values, created with the first value.
+   */
+  private JsonGenerator generator;
+
+  /**
+   * Creates a writer of values to the given output stream.
+   *
+   * @param output the output stream receiving the values
+   * @param mapper the JSON mapper used to serialize the values
+   * @param ndjson {@code true} to write NDJSON, {@code false} to write a JSON array
+   */
+  public JsonSequenceWriter(OutputStream output, ObjectMapper mapper, boolean ndjson) {
+    this.output = output;
+    this.mapper = mapper;
+    this.ndjson = ndjson;
+  }
+
+  /**
+   * Writes a value of the sequence.
+   *
+   * @param value the value to write
+   * @throws JacksonException if the value cannot be written
+   */
+  public void write(Object value) {
+    start();
+    generator.writePOJO(value);
+    if (ndjson) {
+      generator.writeRaw('\n');
+    }
+  }
+
+  /**
+   * Flushes the values written so far to the output stream.
+   *
+   * @throws JacksonException if the values cannot be flushed
+   */
+  public void flush() {
+    if (generator == null) {
+      return;
+    }
+
+    generator.flush();
+  }
+
+  /**
+   * Ends the sequence and flushes it, without closing the underlying output stream.
+   *
+   * @throws JacksonException if the sequence cannot be written
+   */
+  @Override
+  public void close() {
+    start();
+    if (!ndjson) {
+      generator.writeEndArray();
+    }
+    generator.close();
+  }
+
+  /**
+   * Creates the generator and starts the sequence, if not already done.
+   *
+   * @throws JacksonException if the sequence cannot be started
+   */
+  private void start() {
+    if (generator != null) {
+      return;
+    }
+
+    generator = mapper.writer()
+        .without(StreamWriteFeature.AUTO_CLOSE_TARGET)
+        .withRootValueSeparator((String) null)
+        .createGenerator(output);
+    if (!ndjson) {
+      generator.writeStartArray();
+    }
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.circuit;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Circuit breaker protecting the calls to a single plugin configuration.
+ *
+ * <p>
+ * While {@link CircuitState#CLOSED closed}, the outcome of the last {@code windowSize} calls is recorded. Once at least
+ * {@code minimumCalls} calls are recorded, the breaker opens when the percentage of failed calls reaches
+ * {@code failureRateThreshold}, or when the percentage of calls lasting at least {@code slowCallDuration} reaches
+ * {@code slowCallRateThreshold}.
+ *
+ * <p>
+ * While {@link CircuitState#OPEN open}, every call is rejected. After {@code openDuration}, the breaker becomes
+ * {@link CircuitState#HALF_OPEN half-open} and lets {@code probeCalls} calls through: it closes again once they all
+ * succeed quickly, and opens again as soon as one of them fails or is slow.
+ */
+public class CircuitBreaker {
+
+  private final int minimumCalls;
+  private final int failureRateThreshold;
+  private final long slowCallNanos;
+  private final int slowCallRateThreshold;
+  private final long openNanos;
+  private final int probeCalls;
+  private final Consumer<CircuitState> listener;
+  private final byte[] window;
+  private CircuitState state = CircuitState.CLOSED;
+  private int recorded;
+  private int next;
+  private int failures;
+  private int slowCalls;
+  private long openedAt;
+  private int startedProbes;
+  private int succeededProbes;
+
+  /**
+   * Creates a closed circuit breaker.
+   *
+   * @param windowSize the number of calls whose outcome is recorded
+   * @param minimumCalls the number of recorded calls required before the breaker can open
+   * @param failureRateThreshold the percentage of failed calls from which the breaker opens
+   * @param slowCallDuration the duration from which a call is slow
+   * @param slowCallRateThreshold the percentage of slow calls from which the breaker opens
+   * @param openDuration the duration during which the breaker stays open before letting probe calls through
+   * @param probeCalls the number of probe calls let through while half-open
+   * @param listener the listener notified of the new state on each transition
+   */
+  public CircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold, Duration slowCallDuration,
+                        int slowCallRateThreshold, Duration openDuration, int probeCalls, Consumer<CircuitState> listener) {
+    this.window = new byte[Math.max(1, windowSize)];
+    this.minimumCalls = Math.clamp(minimumCalls, 1, window.length);
+    this.failureRateThreshold = failureRateThreshold;
+    this.slowCallNanos = slowCallDuration.toNanos();
+    this.slowCallRateThreshold = slowCallRateThreshold;
+    this.openNanos = openDuration.toNanos();
+    this.probeCalls = Math.max(1, probeCalls);
+    this.listener = listener;
+  }
+
+  /**
+   * Starts a call if the breaker lets it through.
+   *
+   * @param now the current time, as given by {@link System#nanoTime()}
+   * @return {@code true} if the call can start, {@code false} if it must be rejected
+   */
+  public synchronized boolean tryAcquire(long now) {
+    if (state == CircuitState.OPEN && now - openedAt >= openNanos) {
+      startedProbes = 0;
+      succeededProbes = 0;
+      transition(CircuitState.HALF_OPEN);
+    }
+
+    if (state == CircuitState.HALF_OPEN && startedProbes < probeCalls) {
+      startedProbes++;
+      return true;
+    }
+
+    return state == CircuitState.CLOSED;
+  }
+
+  /**
+   * Records the outcome of a call started with {@link #tryAcquire(long)}.
+   *
+   * @param now the current time, as given by {@link System#nanoTime()}
+   * @param durationNanos the duration of the call, in nanoseconds
+   * @param failed whether the call failed
+   */
+  public synchronized void record(long now, long durationNanos, boolean failed) {
+    var slow = durationNanos >= slowCallNanos;
+
+    if (state == CircuitState.HALF_OPEN) {
+      if (failed || slow) {
+        open(now);
+      } else if (++succeededProbes >= probeCalls) {
+        reset();
+        transition(CircuitState.CLOSED);
+      }
+    } else if (state == CircuitState.CLOSED) {
+      add(failed, slow);
+      if (recorded >= minimumCalls
+          && (failures * 100 >= failureRateThreshold * recorded || slowCalls * 100 >= slowCallRateThreshold * recorded)) {
+        open(now);
+      }
+    }
+  }
+
+  /**
+   * Returns the current state of the breaker.
+   *
+   * @return the state
+   */
+  public synchronized CircuitState getState() {
+    return state;
+  }
+
+  /**
+   * Adds the outcome of a call to the window, replacing the oldest one once the window is full.
+   *
+   * @param failed whether the call failed
+   * @param slow whether the call was slow
+   */
+  private void add(boolean failed, boolean slow) {
+    if (recorded == window.length) {
+      failures -= window[next] & 1;
+      slowCalls -= window[next] >> 1;
+    } else {
+      recorded++;
+    }
+
+    window[next] = (byte) ((failed ? 1 : 0) | (slow ? 2 : 0));
+    failures += failed ? 1 : 0;
+    slowCalls += slow ? 1 : 0;
+    next = (next + 1) % window.length;
+  }
+
+  /**
+   * Opens the breaker.
+   *
+   * @param now the current time, as given by {@link System#nanoTime()}
+   */
+  private void open(long now) {
+    openedAt = now;
+    reset();
+    transition(CircuitState.OPEN);
+  }
+
+  /**
+   * Forgets every recorded outcome.
+   */
+  private void reset() {
+    recorded = 0;
+    next = 0;
+    failures = 0;
+    slowCalls = 0;
+  }
+
+  /**
+   * Changes the state of the breaker and notifies the listener.
+   *
+   * @param newState the new state
+   */
+  private void transition(CircuitState newState) {
+    state = newState;
+    listener.accept(newState);
+  }
+}
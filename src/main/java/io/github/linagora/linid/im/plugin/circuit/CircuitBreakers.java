@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.circuit;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Circuit breakers of the provider and route configurations, so that calls to a failing backend are rejected at once
+ * instead of each waiting for the backend to time out.
+ *
+ * <p>
+ * Each protected configuration has its own {@link CircuitBreaker}, identified by a kind ({@link #PROVIDER} or
+ * {@link #ROUTE}) and a name. A call fails when it throws anything but an {@link ApiException} with an HTTP status lower
+ * than 500. The breakers publish the following metrics, tagged with the kind and the name:
+ * <ul>
+ *   <li>{@code linid.circuit.state}: the current state, {@code 0} when closed, {@code 1} when half-open and {@code 2}
+ *   when open;</li>
+ *   <li>{@code linid.circuit.transitions}: the number of transitions, also tagged with the new state;</li>
+ *   <li>{@code linid.circuit.rejected}: the number of calls rejected by the breaker.</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class CircuitBreakers {
+
+  /**
+   * Kind of the breakers protecting provider configurations.
+   */
+  public static final String PROVIDER = "provider";
+
+  /**
+   * Kind of the breakers protecting route configurations.
+   */
+  public static final String ROUTE = "route";
+
+  /**
+   * Key of the error raised when a call is rejected by an open breaker.
+   */
+  public static final String OPEN_ERROR = "error.circuit.open";
+
+  /**
+   * Registry of the breaker metrics.
+   */
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * Whether calls go through circuit breakers.
+   */
+  @Value("${circuit-breaker.enabled:false}")
+  private boolean enabled;
+
+  /**
+   * Number of calls whose outcome is recorded by each breaker.
+   */
+  @Value("${circuit-breaker.window-size:20}")
+  private int windowSize;
+
+  /**
+   * Number of recorded calls required before a breaker can open.
+   */
+  @Value("${circuit-breaker.minimum-calls:10}")
+  private int minimumCalls;
+
+  /**
+   * Percentage of failed calls from which a breaker opens.
+   */
+  @Value("${circuit-breaker.failure-rate-threshold:50}")
+  private int failureRateThreshold;
+
+  /**
+   * Duration from which a call is slow.
+   */
+  @Value("${circuit-breaker.slow-call-duration:5s}")
+  private Duration slowCallDuration;
+
+  /**
+   * Percentage of slow calls from which a breaker opens.
+   */
+  @Value("${circuit-breaker.slow-call-rate-threshold:80}")
+  private int slowCallRateThreshold;
+
+  /**
+   * Duration during which a breaker stays open before letting probe calls through.
+   */
+  @Value("${circuit-breaker.open-duration:30s}")
+  private Duration openDuration;
+
+  /**
+   * Number of probe calls let through by a half-open breaker.
+   */
+  @Value("${circuit-breaker.probe-calls:3}")
+  private int probeCalls;
+
+  /**
+   * Breakers, keyed by kind and name.
+   */
+  private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+  /**
+   * Tells whether calls go through circuit breakers.
+   *
+   * @return {@code true} if calls must go through {@link #call(String, String, Supplier)}
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Calls a plugin through the breaker of its configuration.
+   *
+   * @param kind the kind of the configuration, {@link #PROVIDER} or {@link #ROUTE}
+   * @param name the name of the configuration
+   * @param call the plugin call
+   * @param <T> the type of the call result
+   * @return the result of the call
+   * @throws ApiException with HTTP status 503 if the breaker of the configuration is open
+   */
+  public <T> T call(String kind, String name, Supplier<T> call) {
+    var breaker = breakers.computeIfAbsent(kind + ':' + name, key -> newBreaker(kind, name));
+
+    if (!breaker.tryAcquire(System.nanoTime())) {
+      meterRegistry.counter("linid.circuit.rejected", "kind", kind, "name", name).increment();
+      throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE.value(), I18nMessage.of(
+          OPEN_ERROR,
+          Map.of("kind", kind, "name", name)
+      ));
+    }
+
+    long start = System.nanoTime();
+    boolean failed = true;
+    try {
+      var result = call.get();
+      failed = false;
+      return result;
+    } catch (ApiException exception) {
+      failed = exception.getStatusCode() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+      throw exception;
+    } finally {
+      long end = System.nanoTime();
+      breaker.record(end, end - start, failed);
+    }
+  }
+
+  /**
+   * Tells whether an error is the rejection of a call by an open breaker, the plugin not being called.
+   *
+   * @param exception the error raised by a call
+   * @return {@code true} if the call was rejected by a breaker
+   */
+  public static boolean isRejection(ApiException exception) {
+    return OPEN_ERROR.equals(exception.getError().key());
+  }
+
+  /**
+   * Creates the breaker of a configuration and registers its metrics.
+   *
+   * @param kind the kind of the configuration
+   * @param name the name of the configuration
+   * @return the breaker of the configuration
+   */
+  private CircuitBreaker newBreaker(String kind, String name) {
+    var breaker = new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, slowCallDuration,
+        slowCallRateThreshold, openDuration, probeCalls, state -> meterRegistry.counter(
+            "linid.circuit.transitions", "kind", kind, "name", name, "state", state.name().toLowerCase(Locale.ROOT)
+        ).increment());
+
+    Gauge.builder("linid.circuit.state", breaker, value -> value.getState().ordinal())
+        .description("State of the circuit breaker: 0 when closed, 1 when half-open, 2 when open")
+        .tag("kind", kind)
+        .tag("name", name)
+        .register(meterRegistry);
+
+    return breaker;
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of {@link EntitySettingsService} reading settings from the Spring {@link Environment}, so that they can
+ * be defined in {@code application.properties} or as environment variables.
+ */
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class EntitySettingsServiceImpl implements EntitySettingsService {
+
+  /**
+   * Prefix of the properties holding entity settings.
+   */
+  public static final String PREFIX = "entity.settings.";
+
+  /**
+   * Name used in place of an entity name for settings shared by all entities.
+   */
+  public static final String DEFAULT_ENTITY = "default";
+
+  /**
+   * Spring environment holding the settings.
+   */
+  private final Environment environment;
+
+  @Override
+  public <T> T getSetting(String entityName, String key, Class<T> type, T defaultValue) {
+    var value = environment.getProperty(PREFIX + entityName + "." + key, type);
+
+    if (value == null) {
+      value = environment.getProperty(PREFIX + DEFAULT_ENTITY + "." + key, type);
+    }
+
+    return value == null ? defaultValue : value;
+  }
+}
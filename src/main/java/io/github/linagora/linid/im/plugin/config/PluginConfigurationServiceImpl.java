@@ -48,6 +48,7 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -204,6 +205,11 @@ public class PluginConfigurationServiceImpl implements PluginConfigurationServic
     final String defaultRoutePattern = "/api/%s";
     final String routeWithIdPattern = "/api/%s/{id}";
     final String validateAttributePattern = "/api/%s/validate/{attributeName}";
+    final String batchGetPattern = "/api/%s/_batchGet";
+    final String bulkPattern = "/api/%s/_bulk";
+    final String streamPattern = "/api/%s/_stream";
+    final String jobPattern = "/api/%s/_jobs/{jobId}";
+    final String operationPattern = "/api/%s/_operations/{operationId}";
 
     this.root.getEntities().forEach(entity -> {
       routeDescriptions.add(
@@ -222,11 +228,15 @@ public class PluginConfigurationServiceImpl implements PluginConfigurationServic
       if (!entity.getDisabledRoutes().contains("findAll")) {
         routeDescriptions.add(
             new RouteDescription("GET", String.format(defaultRoutePattern, entity.getRoute()), entity.getName(), List.of()));
+        routeDescriptions.add(
+            new RouteDescription("GET", String.format(streamPattern, entity.getRoute()), entity.getName(), List.of()));
       }
 
       if (!entity.getDisabledRoutes().contains("findById")) {
         routeDescriptions.add(
             new RouteDescription("GET", String.format(routeWithIdPattern, entity.getRoute()), entity.getName(), List.of("id")));
+        routeDescriptions.add(
+            new RouteDescription("POST", String.format(batchGetPattern, entity.getRoute()), entity.getName(), List.of()));
       }
 
       if (!entity.getDisabledRoutes().contains("update")) {
@@ -249,6 +259,35 @@ public class PluginConfigurationServiceImpl implements PluginConfigurationServic
             ));
       }
 
+      if (!entity.getDisabledRoutes().contains("delete")) {
+        routeDescriptions.add(
+            new RouteDescription("DELETE", String.format(defaultRoutePattern, entity.getRoute()), entity.getName(), List.of()));
+      }
+
+      if (!entity.getDisabledRoutes().contains("patch")) {
+        routeDescriptions.add(
+            new RouteDescription("PATCH", String.format(defaultRoutePattern, entity.getRoute()), entity.getName(), List.of()));
+      }
+
+      if (!entity.getDisabledRoutes().containsAll(List.of("delete", "patch"))) {
+        routeDescriptions.add(
+            new RouteDescription("GET", String.format(jobPattern, entity.getRoute()), entity.getName(), List.of("jobId")));
+      }
+
+      if (!entity.getDisabledRoutes().containsAll(List.of("create", "update", "patch"))) {
+        routeDescriptions.add(new RouteDescription("GET", String.format(
+            operationPattern,
+            entity.getRoute()),
+            entity.getName(),
+            List.of("operationId")
+        ));
+      }
+
+      if (Stream.of("create", "update", "patch", "delete").noneMatch(entity.getDisabledRoutes()::contains)) {
+        routeDescriptions.add(
+            new RouteDescription("POST", String.format(bulkPattern, entity.getRoute()), entity.getName(), List.of()));
+      }
+
       if (!entity.getDisabledRoutes().contains("validate")) {
         routeDescriptions.add(
             new RouteDescription(
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Strategy used to compute the total number of entities of a paginated list.
+ *
+ * <p>
+ * Strategies other than {@link #EXACT} only apply to providers implementing
+ * {@link io.github.linagora.linid.im.plugin.provider.CountAwareProvider}; other providers always count exactly.
+ */
+public enum CountStrategy {
+
+  /**
+   * The total is counted by the provider for every request.
+   */
+  EXACT,
+
+  /**
+   * The total is counted by the provider, then reused for the same filters until the cache expires.
+   */
+  CACHED,
+
+  /**
+   * The total is a cheap estimate given by the provider, falling back to {@link #CACHED} without estimate.
+   */
+  ESTIMATED,
+
+  /**
+   * The total is not counted: it only tells whether a next page exists.
+   */
+  NONE;
+
+  /**
+   * Parses a count strategy, case-insensitively.
+   *
+   * @param value the name of the strategy
+   * @return the strategy, {@link #EXACT} if the value is {@code null}
+   * @throws ApiException if the value is not a known strategy
+   */
+  public static CountStrategy from(String value) {
+    if (value == null) {
+      return EXACT;
+    }
+
+    try {
+      return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException exception) {
+      throw new ApiException(HttpStatus.BAD_REQUEST.value(), I18nMessage.of(
+          "error.count.strategy.unknown",
+          Map.of("strategy", value)
+      ));
+    }
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StringUtils;
+
+/**
+ * Content of the opaque continuation token of cursor pagination.
+ *
+ * <p>
+ * The token is the URL-safe Base64 encoding of this record in JSON. It holds the sort of the first request, so that
+ * following requests keep reading in the same order, and either the keyset position of the last read entity or, for
+ * providers without keyset support, the number of entities already read.
+ *
+ * @param keys the sort keys of the last read entity, {@code null} for an offset position
+ * @param offset the number of entities already read, used when {@code keys} is {@code null}
+ * @param sort the sort orders, as {@code property,direction} strings
+ */
+public record CursorToken(Map<String, Object> keys, long offset, List<String> sort) {
+
+  /**
+   * Mapper used to encode and decode tokens.
+   */
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  /**
+   * Decodes a continuation token.
+   *
+   * @param value the token sent by the client
+   * @return the decoded token
+   * @throws ApiException if the token is not a valid continuation token
+   */
+  public static CursorToken decode(String value) {
+    try {
+      var token = MAPPER.readValue(Base64.getUrlDecoder().decode(value), CursorToken.class);
+      token.toSort();
+      return token;
+    } catch (IOException | IllegalArgumentException exception) {
+      throw new ApiException(HttpStatus.BAD_REQUEST.value(), I18nMessage.of("error.cursor.invalid", Map.of()));
+    }
+  }
+
+  /**
+   * Encodes this token.
+   *
+   * @return the opaque token to send to the client
+   */
+  public String encode() {
+    try {
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(this));
+    } catch (IOException exception) {
+      throw new IllegalStateException(exception);
+    }
+  }
+
+  /**
+   * Converts a sort into the representation held by a token.
+   *
+   * @param sort the sort to convert
+   * @return the sort orders, as {@code property,direction} strings
+   */
+  public static List<String> fromSort(Sort sort) {
+    return sort.stream().map(order -> order.getProperty() + "," + order.getDirection().name()).toList();
+  }
+
+  /**
+   * Converts the sort held by this token.
+   *
+   * @return the sort of the token
+   * @throws IllegalArgumentException if a sort order is malformed
+   */
+  public Sort toSort() {
+    if (sort == null) {
+      return Sort.unsorted();
+    }
+
+    return Sort.by(sort.stream().map(order -> {
+      var parts = StringUtils.split(order, ",");
+      if (parts == null) {
+        throw new IllegalArgumentException(order);
+      }
+      return new Sort.Order(Sort.Direction.fromString(parts[1]), parts[0]);
+    }).toList());
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntityService;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Service handling operations that target several dynamic entities within a single HTTP request.
+ *
+ * <p>
+ * Unlike {@link DynamicEntityService}, the request is authenticated once and the entity configuration and provider are
+ * resolved once, whatever the number of entities involved.
+ */
+public interface DynamicEntityBatchService {
+
+  /**
+   * Retrieves several entities by their identifiers.
+   *
+   * @param request the HTTP request
+   * @param entityName the name of the entity type to retrieve
+   * @param ids the identifiers of the entities to retrieve
+   * @return the found entities and the identifiers that did not match any entity
+   */
+  BatchReadResult handleFindByIds(HttpServletRequest request, String entityName, List<String> ids);
+
+  /**
+   * Applies a sequence of write operations.
+   *
+   * <p>
+   * Operations are consumed lazily from the given iterator, so that the whole request body never has to be held in
+   * memory. The result of each operation is passed to the given consumer, in the order of the operations, from the calling
+   * thread.
+   *
+   * @param request the HTTP request
+   * @param entityName the name of the entity type to write
+   * @param operations the operations to apply
+   * @param results the consumer of the operation results
+   */
+  void handleBulk(HttpServletRequest request, String entityName, Iterator<BulkOperation> operations,
+                  Consumer<BulkItemResult> results);
+
+  /**
+   * Starts the deletion of every entity matching the given filters.
+   *
+   * <p>
+   * The request is authenticated before this method returns, while the deletion itself runs in the background. Its
+   * progress can be followed with {@link #handleFindJob(HttpServletRequest, String, String)}.
+   *
+   * @param request the HTTP request
+   * @param entityName the name of the entity type to delete
+   * @param filters the filters selecting the entities to delete, at least one is required
+   * @return the started job
+   */
+  FilterWriteJob handleDeleteByFilter(HttpServletRequest request, String entityName, MultiValueMap<String, String> filters);
+
+  /**
+   * Starts the patch of every entity matching the given filters.
+   *
+   * <p>
+   * The request is authenticated before this method returns, while the patch itself runs in the background. Its progress
+   * can be followed with {@link #handleFindJob(HttpServletRequest, String, String)}.
+   *
+   * @param request the HTTP request
+   * @param entityName the name of the entity type to patch
+   * @param filters the filters selecting the entities to patch, at least one is required
+   * @param body the attributes to patch in every matched entity
+   * @return the started job
+   */
+  FilterWriteJob handlePatchByFilter(HttpServletRequest request, String entityName, MultiValueMap<String, String> filters,
+                                     Map<String, Object> body);
+
+  /**
+   * Retrieves a delete or patch by filter job.
+   *
+   * @param request the HTTP request
+   * @param entityName the name of the entity type targeted by the job
+   * @param jobId the identifier of the job
+   * @return the job
+   */
+  FilterWriteJob handleFindJob(HttpServletRequest request, String entityName, String jobId);
+
+  /**
+   * Reads every entity matching the given filters, without holding them all in memory.
+   *
+   * <p>
+   * Entities are read and passed to the given consumer chunk by chunk, from the calling thread. The next chunk is only
+   * read once the consumer returns, so that a slow consumer slows down the reading instead of increasing memory usage.
+   *
+   * @param request the HTTP request
+   * @param entityName the name of the entity type to read
+   * @param filters the filters selecting the entities to read
+   * @param chunks the consumer of the read entities
+   */
+  void handleStream(HttpServletRequest request, String entityName, MultiValueMap<String, String> filters,
+                    Consumer<List<DynamicEntity>> chunks);
+
+  /**
+   * Retrieves the entities matching the given filters that follow the position encoded in a continuation token.
+   *
+   * @param request the HTTP request
+   * @param entityName the name of the entity type to retrieve
+   * @param filters the filters selecting the entities to retrieve
+   * @param cursor the continuation token returned by the previous call, {@code null} or empty for the first page
+   * @param size the maximum number of entities to retrieve
+   * @param sort the sort of the first page, ignored when a continuation token is given
+   * @return the retrieved entities and the continuation token to retrieve the next ones
+   */
+  CursorPage handleFindAllByCursor(HttpServletRequest request, String entityName, MultiValueMap<String, String> filters,
+                                   String cursor, int size, Sort sort);
+}
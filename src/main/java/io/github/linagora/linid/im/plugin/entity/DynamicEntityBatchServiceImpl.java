@@ -0,0 +1,1066 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.ProviderConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.provider.ProviderPlugin;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskEngine;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import io.github.linagora.linid.im.corelib.plugin.validation.ValidationEngine;
+import io.github.linagora.linid.im.plugin.provider.BatchReadProvider;
+import io.github.linagora.linid.im.plugin.provider.BatchWriteOperation;
+import io.github.linagora.linid.im.plugin.provider.BatchWriteProvider;
+import io.github.linagora.linid.im.plugin.provider.BatchWriteResult;
+import io.github.linagora.linid.im.plugin.provider.FilterWriteProvider;
+import io.github.linagora.linid.im.plugin.provider.KeysetPageProvider;
+import io.github.linagora.linid.im.plugin.provider.StreamingReadProvider;
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+
+/**
+ * Service implementation for operations targeting several dynamic entities at once.
+ *
+ * <p>
+ * The lifecycle phases around token validation are executed once per request. Batch reads run the {@code FindById}
+ * validation and read phases for each identifier, so that the tasks configured for single reads, such as authorization
+ * or masking, also apply to them. Provider calls use the provider batch capability when available, otherwise they are
+ * fanned out on virtual threads with a bounded parallelism configured by the property {@code batch.parallelism}.
+ *
+ * <p>
+ * Bulk writes are consumed and executed by chunks of {@code bulk.chunk-size} operations, so that memory usage does not
+ * depend on the size of the request.
+ *
+ * <p>
+ * Deletes and patches by filter run in the background as {@link FilterWriteJob}s: matched entities are read page by page,
+ * each page being applied like a chunk of bulk operations. Finished jobs are kept for {@code bulk.job-retention}.
+ *
+ * <p>
+ * Streaming exports run the {@code FindAll} phases, the phase following the read being executed for each page, and
+ * read pages of {@code stream.page-size} entities, or consume the provider stream when the provider is a
+ * {@link StreamingReadProvider}. Like the matches of filter jobs and offset cursor pages, these pages are read with
+ * the {@link CountStrategy#NONE} strategy, since only the existence of a next page matters.
+ *
+ * <p>
+ * Cursor paginated reads use keyset positions with providers implementing {@link KeysetPageProvider}, and fall back to
+ * offsets encoded in the continuation token otherwise.
+ */
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class DynamicEntityBatchServiceImpl implements DynamicEntityBatchService {
+
+  /**
+   * Service handling single entity operations, used to resolve entity configurations and providers.
+   */
+  private final DynamicEntityServiceImpl entityService;
+
+  /**
+   * Engine responsible for validating dynamic entities according to configured rules.
+   */
+  private final ValidationEngine validationEngine;
+
+  /**
+   * Engine to execute lifecycle tasks before and after validation and provider operations.
+   */
+  private final TaskEngine taskEngine;
+
+  /**
+   * Maximum number of provider calls running concurrently for a single request.
+   */
+  @Value("${batch.parallelism:8}")
+  private int parallelism;
+
+  /**
+   * Number of bulk operations consumed and executed together.
+   */
+  @Value("${bulk.chunk-size:100}")
+  private int chunkSize;
+
+  /**
+   * Number of entities read at once by a streaming export.
+   */
+  @Value("${stream.page-size:500}")
+  private int streamPageSize;
+
+  /**
+   * Name of the attribute holding the identifier of an entity, used to address the entities matched by a filter.
+   */
+  @Value("${bulk.id-attribute:id}")
+  private String idAttribute;
+
+  /**
+   * Duration during which a finished job can still be retrieved.
+   */
+  @Value("${bulk.job-retention:1h}")
+  private Duration jobRetention;
+
+  /**
+   * Maximum number of delete and patch by filter jobs running at the same time.
+   */
+  @Value("${bulk.max-running-jobs:4}")
+  private int maxRunningJobs;
+
+  /**
+   * Delete and patch by filter jobs, keyed by identifier.
+   */
+  private final Map<String, FilterWriteJob> jobs = new ConcurrentHashMap<>();
+
+  @Override
+  public BatchReadResult handleFindByIds(HttpServletRequest request, String entityName, List<String> ids) {
+    TaskExecutionContext context = new TaskExecutionContext();
+    context.put("ids", ids);
+
+    var entity = new DynamicEntity();
+
+    entityService.authenticate(request, entity, context, "FindById");
+
+    entityService.updateEntityConfiguration(entity, entityName);
+    entityService.resolveFields(request, entity, context);
+    var provider = entityService.getProvider(entity);
+    var configuration = entityService.getProviderConfiguration(entity);
+
+    var distinctIds = ids.stream().distinct().toList();
+    Map<String, DynamicEntity> found = new HashMap<>();
+
+    if (provider instanceof BatchReadProvider batchProvider) {
+      Map<String, TaskExecutionContext> contexts = new HashMap<>();
+      for (var id : distinctIds) {
+        var itemContext = copyContext(context);
+        itemContext.put("id", id);
+        entityService.beforeRead(itemContext, newEntity(entity), "FindById");
+        contexts.put(id, itemContext);
+      }
+
+      var results = entityService.readProvider(context, entity,
+          (readContext, readEntity) -> batchProvider.findByIds(readContext, configuration, distinctIds, readEntity));
+      for (var id : distinctIds) {
+        var item = results.get(id);
+        if (item != null) {
+          taskEngine.execute(item, contexts.get(id), "afterFindById");
+          found.put(id, item);
+        }
+      }
+    } else {
+      var results = fanOut(distinctIds, id -> {
+        var itemContext = copyContext(context);
+        itemContext.put("id", id);
+        var itemEntity = newEntity(entity);
+        entityService.beforeRead(itemContext, itemEntity, "FindById");
+        var item = findOrNull(() -> entityService.readProvider(itemContext, itemEntity,
+            (readContext, readEntity) -> provider.findById(readContext, configuration, id, readEntity)));
+        if (item != null) {
+          taskEngine.execute(item, itemContext, "afterFindById");
+        }
+        return item;
+      });
+      for (int index = 0; index < distinctIds.size(); index++) {
+        if (results.get(index) != null) {
+          found.put(distinctIds.get(index), results.get(index));
+        }
+      }
+    }
+
+    return toResult(distinctIds, found);
+  }
+
+  @Override
+  public void handleBulk(HttpServletRequest request, String entityName, Iterator<BulkOperation> operations,
+                         Consumer<BulkItemResult> results) {
+    TaskExecutionContext context = new TaskExecutionContext();
+    var entity = new DynamicEntity();
+
+    entityService.authenticate(request, entity, context, "Bulk");
+
+    entityService.updateEntityConfiguration(entity, entityName);
+    var provider = entityService.getProvider(entity);
+    var configuration = entityService.getProviderConfiguration(entity);
+
+    taskEngine.execute(entity, context, "beforeBulk");
+    List<BulkOperation> chunk = new ArrayList<>();
+
+    while (operations.hasNext()) {
+      chunk.add(operations.next());
+
+      if (chunk.size() >= Math.max(1, chunkSize) || !operations.hasNext()) {
+        executeChunk(context, entity, provider, configuration, chunk).forEach(results);
+        chunk = new ArrayList<>();
+      }
+    }
+
+    taskEngine.execute(entity, context, "afterBulk");
+  }
+
+  @Override
+  public FilterWriteJob handleDeleteByFilter(HttpServletRequest request, String entityName,
+                                             MultiValueMap<String, String> filters) {
+    return startFilterJob(request, entityName, "delete", filters, null);
+  }
+
+  @Override
+  public FilterWriteJob handlePatchByFilter(HttpServletRequest request, String entityName,
+                                            MultiValueMap<String, String> filters, Map<String, Object> body) {
+    return startFilterJob(request, entityName, "patch", filters, body);
+  }
+
+  @Override
+  public FilterWriteJob handleFindJob(HttpServletRequest request, String entityName, String jobId) {
+    TaskExecutionContext context = new TaskExecutionContext();
+    var entity = new DynamicEntity();
+
+    entityService.authenticate(request, entity, context, "FindJob");
+    entityService.updateEntityConfiguration(entity, entityName);
+
+    var job = jobs.get(jobId);
+    if (job == null || !job.getEntity().equals(entityName)) {
+      throw new ApiException(HttpStatus.NOT_FOUND.value(), I18nMessage.of("error.job.unknown", Map.of("job", jobId)));
+    }
+
+    return job;
+  }
+
+  @Override
+  public void handleStream(HttpServletRequest request, String entityName, MultiValueMap<String, String> filters,
+                           Consumer<List<DynamicEntity>> chunks) {
+    TaskExecutionContext context = new TaskExecutionContext();
+    context.put("filters", filters);
+
+    var entity = new DynamicEntity();
+
+    entityService.authenticate(request, entity, context, "FindAll");
+
+    entityService.updateEntityConfiguration(entity, entityName);
+    entityService.resolveFields(request, entity, context);
+    var provider = entityService.getProvider(entity);
+    var configuration = entityService.getProviderConfiguration(entity);
+
+    entityService.beforeRead(context, entity, "FindAll");
+    var size = Math.max(1, streamPageSize);
+
+    if (provider instanceof StreamingReadProvider streamingProvider) {
+      try (var entities = entityService.callProvider(entity,
+          () -> streamingProvider.stream(context, configuration, filters, entity))) {
+        List<DynamicEntity> chunk = new ArrayList<>(size);
+        long offset = 0;
+        var iterator = entities.iterator();
+        while (iterator.hasNext()) {
+          chunk.add(iterator.next());
+          if (chunk.size() >= size || !iterator.hasNext()) {
+            acceptPage(context, entity, new OffsetPageRequest(offset, size, Sort.unsorted()), chunk, chunks);
+            offset += chunk.size();
+            chunk = new ArrayList<>(size);
+          }
+        }
+      }
+    } else {
+      var page = entityService.findPage(context, entity, filters, PageRequest.of(0, size), provider, configuration,
+          CountStrategy.NONE);
+      while (page != null && page.hasContent()) {
+        acceptPage(context, entity, page.getPageable(), page.getContent(), chunks);
+        page = page.hasNext()
+            ? entityService.findPage(context, entity, filters, page.nextPageable(), provider, configuration,
+                CountStrategy.NONE)
+            : null;
+      }
+    }
+  }
+
+  /**
+   * Runs the phase following a {@code FindAll} read on a page of a streaming export, then passes the page to the consumer.
+   *
+   * @param context the task execution context of the request
+   * @param entity the entity holding the entity configuration
+   * @param pageable the position of the page in the export
+   * @param page the entities of the page
+   * @param chunks the consumer of the read entities
+   */
+  public void acceptPage(TaskExecutionContext context, DynamicEntity entity, Pageable pageable, List<DynamicEntity> page,
+                         Consumer<List<DynamicEntity>> chunks) {
+    var pageContext = copyContext(context);
+    pageContext.put("pageable", pageable);
+    taskEngine.execute(entity, pageContext, "afterFindAll");
+    chunks.accept(page);
+  }
+
+  @Override
+  public CursorPage handleFindAllByCursor(HttpServletRequest request, String entityName,
+                                         MultiValueMap<String, String> filters, String cursor, int size, Sort sort) {
+    var token = StringUtils.hasText(cursor)
+        ? CursorToken.decode(cursor)
+        : new CursorToken(null, 0, CursorToken.fromSort(sort));
+
+    TaskExecutionContext context = new TaskExecutionContext();
+    context.put("filters", filters);
+    context.put("cursor", token);
+
+    var entity = new DynamicEntity();
+
+    entityService.authenticate(request, entity, context, "FindAll");
+
+    entityService.updateEntityConfiguration(entity, entityName);
+    entityService.resolveFields(request, entity, context);
+    var provider = entityService.getProvider(entity);
+    var configuration = entityService.getProviderConfiguration(entity);
+
+    taskEngine.execute(entity, context, "beforeValidationFindAll");
+    validationEngine.validate(entity, "beforeFindAll", context);
+    taskEngine.execute(entity, context, "afterValidationFindAll");
+
+    taskEngine.execute(entity, context, "beforeFindAll");
+    CursorPage result;
+
+    if (provider instanceof KeysetPageProvider keysetProvider && (token.keys() != null || token.offset() == 0)) {
+      var position = token.keys() == null ? ScrollPosition.keyset() : ScrollPosition.forward(token.keys());
+      var window = entityService.readProvider(context, entity, (readContext, readEntity) -> keysetProvider.findAll(
+          readContext, configuration, filters, position, size, token.toSort(), readEntity));
+      String next = null;
+
+      if (window.hasNext() && !window.isEmpty()) {
+        if (!(window.positionAt(window.size() - 1) instanceof KeysetScrollPosition last)) {
+          throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR.value(), I18nMessage.of(
+              "error.cursor.position.unsupported",
+              Map.of("entity", entityName)
+          ));
+        }
+        next = new CursorToken(last.getKeys(), 0, token.sort()).encode();
+      }
+      result = new CursorPage(window.getContent(), next);
+    } else {
+      var pageable = new OffsetPageRequest(token.offset(), size, token.toSort());
+      var page = entityService.findPage(context, entity, filters, pageable, provider, configuration, CountStrategy.NONE);
+      var next = page.hasNext()
+          ? new CursorToken(null, pageable.getOffset() + page.getNumberOfElements(), token.sort()).encode()
+          : null;
+      result = new CursorPage(page.getContent(), next);
+    }
+
+    taskEngine.execute(entity, context, "afterFindAll");
+
+    return result;
+  }
+
+  /**
+   * Authenticates a delete or patch by filter request, then starts its job on a virtual thread.
+   *
+   * @param request the HTTP request
+   * @param entityName the name of the entity type to write
+   * @param action the action to apply, {@code delete} or {@code patch}
+   * @param parameters the request parameters, whose pagination and projection parameters are ignored
+   * @param body the attributes to patch, {@code null} for a deletion
+   * @return the started job
+   * @throws ApiException if no filter is given, or if too many jobs are already running
+   */
+  public FilterWriteJob startFilterJob(HttpServletRequest request, String entityName, String action,
+                                       MultiValueMap<String, String> parameters, Map<String, Object> body) {
+    MultiValueMap<String, String> filters = new LinkedMultiValueMap<>();
+    if (parameters != null) {
+      parameters.forEach((name, values) -> {
+        if (!DynamicEntityServiceImpl.PAGINATION_PARAMETERS.contains(name)) {
+          filters.put(name, values);
+        }
+      });
+    }
+
+    if (CollectionUtils.isEmpty(filters)) {
+      throw new ApiException(HttpStatus.BAD_REQUEST.value(), I18nMessage.of("error.filter.required", Map.of()));
+    }
+
+    TaskExecutionContext context = new TaskExecutionContext();
+    context.put("filters", filters);
+    var entity = new DynamicEntity();
+
+    entityService.authenticate(request, entity, context, getFilterPhaseAction(action) + "ByFilter");
+
+    entityService.updateEntityConfiguration(entity, entityName);
+    var provider = entityService.getProvider(entity);
+    var configuration = entityService.getProviderConfiguration(entity);
+
+    var job = registerJob(entityName, action);
+
+    Thread.ofVirtual()
+        .name("filter-write-" + job.getId())
+        .start(() -> runFilterJob(job, context, entity, provider, configuration, filters, body));
+
+    return job;
+  }
+
+  /**
+   * Registers a new job, unless {@code bulk.max-running-jobs} jobs are already running.
+   *
+   * @param entityName the name of the entity type targeted by the job
+   * @param action the action applied to the matched entities
+   * @return the registered job
+   * @throws ApiException with HTTP status 503 if too many jobs are running
+   */
+  public synchronized FilterWriteJob registerJob(String entityName, String action) {
+    evictFinishedJobs();
+
+    var limit = Math.max(1, maxRunningJobs);
+    if (jobs.values().stream().filter(job -> !job.isFinished()).count() >= limit) {
+      throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE.value(), I18nMessage.of(
+          "error.job.limit",
+          Map.of("limit", limit)
+      ));
+    }
+
+    var job = new FilterWriteJob(entityName, action);
+    jobs.put(job.getId(), job);
+
+    return job;
+  }
+
+  /**
+   * Runs a delete or patch by filter job, through the provider filter write capability when available.
+   *
+   * @param job the job to run
+   * @param context the task execution context of the request
+   * @param entity the entity holding the entity configuration
+   * @param provider the provider of the entity
+   * @param configuration the provider configuration
+   * @param filters the filters selecting the entities to write
+   * @param body the attributes to patch, {@code null} for a deletion
+   */
+  public void runFilterJob(FilterWriteJob job, TaskExecutionContext context, DynamicEntity entity, ProviderPlugin provider,
+                           ProviderConfiguration configuration, MultiValueMap<String, String> filters,
+                           Map<String, Object> body) {
+    var action = getFilterPhaseAction(job.getAction());
+
+    try {
+      taskEngine.execute(entity, context, "before" + action + "ByFilter");
+
+      if (provider instanceof FilterWriteProvider filterProvider) {
+        var target = newEntity(entity, new BulkOperation(0, job.getAction(), null, body));
+        entityService.beforeWrite(context, target, action);
+        entityService.forgetState(entity, null);
+        long count = entityService.callProvider(entity, () -> DynamicEntityServiceImpl.DELETE.equals(action)
+            ? filterProvider.deleteAll(context, configuration, filters, target)
+            : filterProvider.patchAll(context, configuration, filters, target));
+        job.record(count);
+        entityService.afterWrite(context, target, action);
+      } else {
+        applyByPage(job, context, entity, provider, configuration, filters, body);
+      }
+
+      taskEngine.execute(entity, context, "after" + action + "ByFilter");
+      job.complete();
+    } catch (ApiException exception) {
+      job.fail(exception);
+    } catch (RuntimeException exception) {
+      job.fail(new ApiException(HttpStatus.INTERNAL_SERVER_ERROR.value(), I18nMessage.of(
+          "error.job.failed",
+          Map.of("job", job.getId(), "reason", String.valueOf(exception.getMessage()))
+      )));
+    }
+  }
+
+  /**
+   * Applies the action of a job to every entity matching the filters, page by page, in the order of their identifier.
+   *
+   * <p>
+   * When the provider supports keyset pagination, each page is read after the last entity of the previous one, so that
+   * deleted or patched entities no longer matching the filters do not shift the next page. Otherwise, pages are read by
+   * offset: the entities of the previous page still matching the filters, because their write failed or a patch kept them
+   * matching, are skipped and moved past. Only the identifiers of the previous page are kept, whatever the number of
+   * matched entities.
+   *
+   * @param job the running job
+   * @param context the task execution context of the request
+   * @param entity the entity holding the entity configuration
+   * @param provider the provider of the entity
+   * @param configuration the provider configuration
+   * @param filters the filters selecting the entities to write
+   * @param body the attributes to patch, {@code null} for a deletion
+   * @throws ApiException if a matched entity has no identifier
+   */
+  public void applyByPage(FilterWriteJob job, TaskExecutionContext context, DynamicEntity entity, ProviderPlugin provider,
+                          ProviderConfiguration configuration, MultiValueMap<String, String> filters,
+                          Map<String, Object> body) {
+    if (provider instanceof KeysetPageProvider keysetProvider) {
+      applyByKeyset(job, context, entity, provider, keysetProvider, configuration, filters, body);
+      return;
+    }
+
+    var size = Math.max(1, chunkSize);
+    var sort = Sort.by(idAttribute);
+    Set<String> previous = Set.of();
+    long offset = 0;
+    var index = 0;
+
+    while (true) {
+      var matches = entityService.findPage(copyContext(context), newEntity(entity), filters,
+          new OffsetPageRequest(offset, size, sort), provider, configuration, CountStrategy.NONE);
+      if (matches == null || !matches.hasContent()) {
+        return;
+      }
+
+      List<BulkOperation> operations = new ArrayList<>();
+      for (var match : matches.getContent()) {
+        var id = getMatchId(job, match);
+        if (previous.contains(id)) {
+          offset++;
+        } else {
+          operations.add(new BulkOperation(index++, job.getAction(), id, body));
+        }
+      }
+
+      if (operations.isEmpty()) {
+        if (!matches.hasNext()) {
+          return;
+        }
+        continue;
+      }
+
+      previous = new HashSet<>(operations.stream().map(BulkOperation::id).toList());
+      executeChunk(context, entity, provider, configuration, operations).forEach(job::record);
+    }
+  }
+
+  /**
+   * Applies the action of a job to every entity matching the filters, page by page, each page being read after the last
+   * entity of the previous one.
+   *
+   * @param job the running job
+   * @param context the task execution context of the request
+   * @param entity the entity holding the entity configuration
+   * @param provider the provider of the entity
+   * @param keysetProvider the keyset pagination capability of the provider
+   * @param configuration the provider configuration
+   * @param filters the filters selecting the entities to write
+   * @param body the attributes to patch, {@code null} for a deletion
+   * @throws ApiException if a matched entity has no identifier, or if the provider returned a position that is not a
+   *     keyset position
+   */
+  public void applyByKeyset(FilterWriteJob job, TaskExecutionContext context, DynamicEntity entity, ProviderPlugin provider,
+                            KeysetPageProvider keysetProvider, ProviderConfiguration configuration,
+                            MultiValueMap<String, String> filters, Map<String, Object> body) {
+    var size = Math.max(1, chunkSize);
+    var sort = Sort.by(idAttribute);
+    var position = ScrollPosition.keyset();
+    var index = 0;
+
+    while (true) {
+      var current = position;
+      var window = entityService.readProvider(copyContext(context), newEntity(entity), (readContext, readEntity) ->
+          keysetProvider.findAll(readContext, configuration, filters, current, size, sort, readEntity));
+      if (window == null || window.isEmpty()) {
+        return;
+      }
+
+      List<BulkOperation> operations = new ArrayList<>();
+      for (var match : window.getContent()) {
+        operations.add(new BulkOperation(index++, job.getAction(), getMatchId(job, match), body));
+      }
+      executeChunk(context, entity, provider, configuration, operations).forEach(job::record);
+
+      if (!window.hasNext()) {
+        return;
+      }
+      if (!(window.positionAt(window.size() - 1) instanceof KeysetScrollPosition last)) {
+        throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR.value(), I18nMessage.of(
+            "error.cursor.position.unsupported",
+            Map.of("entity", job.getEntity())
+        ));
+      }
+      position = ScrollPosition.forward(last.getKeys());
+    }
+  }
+
+  /**
+   * Returns the identifier of an entity matched by a job.
+   *
+   * @param job the running job
+   * @param match the matched entity
+   * @return the identifier of the entity
+   * @throws ApiException if the entity has no identifier
+   */
+  public String getMatchId(FilterWriteJob job, DynamicEntity match) {
+    var id = match.getAttributes().get(idAttribute);
+    if (id == null) {
+      throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR.value(), I18nMessage.of(
+          "error.filter.id.missing",
+          Map.of("entity", job.getEntity(), "attribute", idAttribute)
+      ));
+    }
+    return String.valueOf(id);
+  }
+
+  /**
+   * Resolves the lifecycle phase suffix of a filter write action.
+   *
+   * @param action the action, {@code delete} or {@code patch}
+   * @return the phase suffix of the action
+   */
+  public String getFilterPhaseAction(String action) {
+    return "delete".equals(action) ? DynamicEntityServiceImpl.DELETE : DynamicEntityServiceImpl.PATCH;
+  }
+
+  /**
+   * Removes the jobs finished for longer than the retention duration.
+   */
+  public void evictFinishedJobs() {
+    var limit = Instant.now().minus(jobRetention);
+    jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(limit));
+  }
+
+  /**
+   * Executes a chunk of bulk operations, through the provider batch capability when available.
+   *
+   * <p>
+   * Otherwise, operations targeting the same identifier are executed one after another in their order in the chunk, and
+   * only operations targeting different identifiers are executed in parallel.
+   *
+   * @param context the task execution context of the request
+   * @param entity the entity holding the entity configuration
+   * @param provider the provider of the entity
+   * @param configuration the provider configuration
+   * @param chunk the operations to execute
+   * @return the result of each operation, in the order of the operations
+   */
+  public List<BulkItemResult> executeChunk(TaskExecutionContext context, DynamicEntity entity, ProviderPlugin provider,
+                                           ProviderConfiguration configuration, List<BulkOperation> chunk) {
+    if (provider instanceof BatchWriteProvider batchProvider) {
+      return executeBatchChunk(context, entity, batchProvider, configuration, chunk);
+    }
+
+    var groups = groupById(chunk);
+    var groupResults = fanOut(groups, group -> group.stream()
+        .map(position -> executeOperation(context, entity, provider, configuration, chunk.get(position)))
+        .toList());
+
+    List<BulkItemResult> results = new ArrayList<>(Collections.nCopies(chunk.size(), null));
+    for (int index = 0; index < groups.size(); index++) {
+      var group = groups.get(index);
+      for (int position = 0; position < group.size(); position++) {
+        results.set(group.get(position), groupResults.get(index).get(position));
+      }
+    }
+
+    return results;
+  }
+
+  /**
+   * Groups the positions of the operations of a chunk by targeted identifier, keeping the order of the chunk.
+   *
+   * <p>
+   * Creations and operations without identifier form a group of their own.
+   *
+   * @param chunk the operations to group
+   * @return the positions of the operations of each group, groups being ordered by their first operation
+   */
+  public List<List<Integer>> groupById(List<BulkOperation> chunk) {
+    List<List<Integer>> groups = new ArrayList<>();
+    Map<String, List<Integer>> groupsById = new HashMap<>();
+
+    for (int position = 0; position < chunk.size(); position++) {
+      var operation = chunk.get(position);
+      List<Integer> group;
+      if ("create".equals(operation.action()) || !StringUtils.hasText(operation.id())) {
+        group = new ArrayList<>();
+        groups.add(group);
+      } else {
+        group = groupsById.computeIfAbsent(operation.id(), id -> {
+          List<Integer> idGroup = new ArrayList<>();
+          groups.add(idGroup);
+          return idGroup;
+        });
+      }
+      group.add(position);
+    }
+
+    return groups;
+  }
+
+  /**
+   * Executes a single bulk operation with its whole lifecycle.
+   *
+   * @param context the task execution context of the request
+   * @param entity the entity holding the entity configuration
+   * @param provider the provider of the entity
+   * @param configuration the provider configuration
+   * @param operation the operation to execute
+   * @return the result of the operation
+   */
+  public BulkItemResult executeOperation(TaskExecutionContext context, DynamicEntity entity, ProviderPlugin provider,
+                                         ProviderConfiguration configuration, BulkOperation operation) {
+    var itemContext = copyContext(context);
+    var target = newEntity(entity, operation);
+
+    try {
+      return switch (getPhaseAction(operation)) {
+        case DynamicEntityServiceImpl.CREATE -> BulkItemResult.success(operation, HttpStatus.CREATED.value(),
+            entityService.create(itemContext, target, provider, configuration));
+        case DynamicEntityServiceImpl.UPDATE -> BulkItemResult.success(operation, HttpStatus.OK.value(),
+            entityService.update(itemContext, target, operation.id(), provider, configuration));
+        case DynamicEntityServiceImpl.PATCH -> BulkItemResult.success(operation, HttpStatus.OK.value(),
+            entityService.patch(itemContext, target, operation.id(), provider, configuration));
+        default -> toDeleteResult(operation, entity,
+            entityService.delete(itemContext, target, operation.id(), provider, configuration));
+      };
+    } catch (RuntimeException exception) {
+      return toFailure(operation, exception);
+    }
+  }
+
+  /**
+   * Executes a chunk of bulk operations through the provider batch capability.
+   *
+   * <p>
+   * Phases preceding the provider call are executed for each operation first; operations failing at this stage are not
+   * sent to the provider. The remaining operations are applied in a single provider call, then the phases following the
+   * provider call are executed for each of them. A provider call failing, or not returning one result per operation,
+   * fails every operation sent to it.
+   *
+   * @param context the task execution context of the request
+   * @param entity the entity holding the entity configuration
+   * @param provider the provider of the entity
+   * @param configuration the provider configuration
+   * @param chunk the operations to execute
+   * @return the result of each operation, in the order of the operations
+   */
+  public List<BulkItemResult> executeBatchChunk(TaskExecutionContext context, DynamicEntity entity,
+                                                BatchWriteProvider provider, ProviderConfiguration configuration,
+                                                List<BulkOperation> chunk) {
+    List<BulkItemResult> results = new ArrayList<>(Collections.nCopies(chunk.size(), null));
+    List<Integer> positions = new ArrayList<>();
+    List<TaskExecutionContext> contexts = new ArrayList<>();
+    List<BatchWriteOperation> writes = new ArrayList<>();
+
+    for (int index = 0; index < chunk.size(); index++) {
+      var operation = chunk.get(index);
+      var itemContext = copyContext(context);
+      var target = newEntity(entity, operation);
+
+      try {
+        var action = getPhaseAction(operation);
+        entityService.beforeWrite(itemContext, target, action);
+        if (!DynamicEntityServiceImpl.CREATE.equals(action)) {
+          entityService.forgetState(entity, operation.id());
+        }
+        positions.add(index);
+        contexts.add(itemContext);
+        writes.add(new BatchWriteOperation(operation.action(), operation.id(), target, itemContext));
+      } catch (RuntimeException exception) {
+        results.set(index, toFailure(operation, exception));
+      }
+    }
+
+    if (writes.isEmpty()) {
+      return results;
+    }
+
+    List<BatchWriteResult> written;
+    try {
+      written = entityService.callProvider(entity, () -> provider.applyBatch(context, configuration, writes));
+      if (written == null || written.size() != writes.size()) {
+        throw new ApiException(HttpStatus.BAD_GATEWAY.value(), I18nMessage.of(
+            "error.provider.batch.results",
+            Map.of("expected", writes.size(), "count", written == null ? 0 : written.size())
+        ));
+      }
+    } catch (RuntimeException exception) {
+      positions.forEach(position -> results.set(position, toFailure(chunk.get(position), exception)));
+      return results;
+    }
+
+    for (int index = 0; index < writes.size(); index++) {
+      var operation = chunk.get(positions.get(index));
+      var write = written.get(index);
+      var action = getPhaseAction(operation);
+
+      if (!write.applied()) {
+        results.set(positions.get(index), toNotAppliedResult(operation, entity, action));
+        continue;
+      }
+
+      var writtenEntity = write.entity() == null ? writes.get(index).entity() : write.entity();
+      try {
+        entityService.afterWrite(contexts.get(index), writtenEntity, action);
+        results.set(positions.get(index), switch (action) {
+          case DynamicEntityServiceImpl.CREATE -> BulkItemResult.success(operation, HttpStatus.CREATED.value(), writtenEntity);
+          case DynamicEntityServiceImpl.DELETE -> toDeleteResult(operation, entity, true);
+          default -> BulkItemResult.success(operation, HttpStatus.OK.value(), writtenEntity);
+        });
+      } catch (RuntimeException exception) {
+        results.set(positions.get(index), toFailure(operation, exception));
+      }
+    }
+
+    return results;
+  }
+
+  /**
+   * Builds the result of a batch write operation that the provider did not apply, consistently with the single-item
+   * endpoints: a rejected creation is a 409 result, and an update, patch or deletion of a missing entity a 404 result.
+   *
+   * @param operation the operation that was not applied
+   * @param entity the entity holding the entity configuration
+   * @param action the phase suffix of the operation action
+   * @return the failed result of the operation
+   */
+  public BulkItemResult toNotAppliedResult(BulkOperation operation, DynamicEntity entity, String action) {
+    if (DynamicEntityServiceImpl.CREATE.equals(action)) {
+      return BulkItemResult.failure(operation, new ApiException(HttpStatus.CONFLICT.value(), I18nMessage.of(
+          "error.entity.create.rejected",
+          Map.of("entity", entity.getConfiguration().getName())
+      )));
+    }
+
+    return toDeleteResult(operation, entity, false);
+  }
+
+  /**
+   * Builds the result of an operation that failed, keeping the status of an {@link ApiException} and reporting any other
+   * error as a 500 result, so that a single failing operation never aborts the whole bulk request.
+   *
+   * @param operation the failed operation
+   * @param exception the error raised by the operation
+   * @return the failed result of the operation
+   */
+  public BulkItemResult toFailure(BulkOperation operation, RuntimeException exception) {
+    if (exception instanceof ApiException apiException) {
+      return BulkItemResult.failure(operation, apiException);
+    }
+
+    return BulkItemResult.failure(operation, new ApiException(HttpStatus.INTERNAL_SERVER_ERROR.value(), I18nMessage.of(
+        "error.bulk.operation.failed",
+        Map.of("action", String.valueOf(operation.action()), "reason", String.valueOf(exception.getMessage()))
+    )));
+  }
+
+  /**
+   * Resolves the lifecycle phase suffix of a bulk operation, checking that the operation is well-formed.
+   *
+   * @param operation the bulk operation
+   * @return the phase suffix of the operation action
+   * @throws ApiException if the action is unknown, or if the identifier is missing for an action other than creation
+   */
+  public String getPhaseAction(BulkOperation operation) {
+    var action = switch (String.valueOf(operation.action())) {
+      case "create" -> DynamicEntityServiceImpl.CREATE;
+      case "update" -> DynamicEntityServiceImpl.UPDATE;
+      case "patch" -> DynamicEntityServiceImpl.PATCH;
+      case "delete" -> DynamicEntityServiceImpl.DELETE;
+      default -> throw new ApiException(HttpStatus.BAD_REQUEST.value(), I18nMessage.of(
+          "error.bulk.action.unknown",
+          Map.of("action", String.valueOf(operation.action()))
+      ));
+    };
+
+    if (!DynamicEntityServiceImpl.CREATE.equals(action) && !StringUtils.hasText(operation.id())) {
+      throw new ApiException(HttpStatus.BAD_REQUEST.value(), I18nMessage.of(
+          "error.bulk.id.required",
+          Map.of("action", operation.action())
+      ));
+    }
+
+    return action;
+  }
+
+  /**
+   * Builds the result of a delete operation, also used for update and patch operations targeting a missing entity.
+   *
+   * @param operation the delete operation
+   * @param entity the entity holding the entity configuration
+   * @param deleted whether the provider deleted the entity
+   * @return a 204 result if the entity was deleted, a 404 result otherwise
+   */
+  public BulkItemResult toDeleteResult(BulkOperation operation, DynamicEntity entity, boolean deleted) {
+    if (deleted) {
+      return BulkItemResult.success(operation, HttpStatus.NO_CONTENT.value(), null);
+    }
+
+    return BulkItemResult.failure(operation, new ApiException(HttpStatus.NOT_FOUND.value(), I18nMessage.of(
+        "error.entity.id.unknown",
+        Map.of("entity", entity.getConfiguration().getName(), "id", operation.id())
+    )));
+  }
+
+  /**
+   * Builds the batch result, keeping the order of the requested identifiers.
+   *
+   * @param ids the requested identifiers
+   * @param found the entities found, keyed by identifier
+   * @return the batch result
+   */
+  public BatchReadResult toResult(List<String> ids, Map<String, DynamicEntity> found) {
+    List<DynamicEntity> entities = new ArrayList<>();
+    List<String> missing = new ArrayList<>();
+
+    ids.forEach(id -> {
+      var value = found.get(id);
+      if (value == null) {
+        missing.add(id);
+      } else {
+        entities.add(value);
+      }
+    });
+
+    return new BatchReadResult(entities, missing);
+  }
+
+  /**
+   * Applies the given operation to every item, running at most {@link #parallelism} operations at the same time.
+   *
+   * <p>
+   * Results are returned in the order of the given items. The first failure is rethrown once all operations are done.
+   *
+   * @param items the items to process
+   * @param operation the operation to apply on each item
+   * @param <T> the type of the items
+   * @param <R> the type of the results
+   * @return the results of the operation, in the order of the items
+   */
+  public <T, R> List<R> fanOut(List<T> items, Function<T, R> operation) {
+    var permits = new Semaphore(Math.max(1, parallelism));
+    List<Future<R>> futures = new ArrayList<>();
+
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      items.forEach(item -> futures.add(executor.submit(() -> {
+        permits.acquire();
+        try {
+          return operation.apply(item);
+        } finally {
+          permits.release();
+        }
+      })));
+    }
+
+    List<R> results = new ArrayList<>();
+    futures.forEach(future -> results.add(join(future)));
+
+    return results;
+  }
+
+  /**
+   * Waits for the result of a completed future, unwrapping {@link ApiException} failures.
+   *
+   * @param future the future to join
+   * @param <R> the type of the result
+   * @return the result of the future
+   */
+  public <R> R join(Future<R> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE.value(), I18nMessage.of("error.batch.interrupted", Map.of()));
+    } catch (ExecutionException exception) {
+      if (exception.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException(exception.getCause());
+    }
+  }
+
+  /**
+   * Executes a lookup, treating a {@code null} result or a 404 {@link ApiException} as a missing entity.
+   *
+   * @param lookup the lookup to execute
+   * @return the found entity, or {@code null} if it does not exist
+   */
+  public DynamicEntity findOrNull(Supplier<DynamicEntity> lookup) {
+    try {
+      return lookup.get();
+    } catch (ApiException exception) {
+      if (exception.getStatusCode() == HttpStatus.NOT_FOUND.value()) {
+        return null;
+      }
+      throw exception;
+    }
+  }
+
+  /**
+   * Creates a copy of the given context, so that concurrent provider calls do not share a mutable context.
+   *
+   * @param context the context to copy
+   * @return a new context holding the same values
+   */
+  public TaskExecutionContext copyContext(TaskExecutionContext context) {
+    var copy = new TaskExecutionContext();
+    copy.putAll(context);
+    return copy;
+  }
+
+  /**
+   * Creates a new empty entity sharing the configuration of the given one.
+   *
+   * @param entity the entity holding the configuration
+   * @return a new entity with the same configuration
+   */
+  public DynamicEntity newEntity(DynamicEntity entity) {
+    var result = new DynamicEntity();
+    result.setConfiguration(entity.getConfiguration());
+    return result;
+  }
+
+  /**
+   * Creates a new entity sharing the configuration of the given one, holding the attributes of a bulk operation.
+   *
+   * @param entity the entity holding the configuration
+   * @param operation the bulk operation
+   * @return a new entity with the same configuration and the operation attributes
+   */
+  public DynamicEntity newEntity(DynamicEntity entity, BulkOperation operation) {
+    var result = newEntity(entity);
+    if (operation.body() != null) {
+      result.setAttributes(new HashMap<>(operation.body()));
+    }
+    return result;
+  }
+}
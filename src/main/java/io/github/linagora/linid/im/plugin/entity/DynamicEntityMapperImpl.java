@@ -26,26 +26,38 @@
 
 package io.github.linagora.linid.im.plugin.entity;
 
+import io.github.linagora.linid.im.corelib.plugin.config.dto.AttributeConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration;
 import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
-import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntityMapper;
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.stereotype.Component;
 
 /**
- * Implementation of {@link DynamicEntityMapper} that converts a {@link DynamicEntity} into a {@link Map} representation
+ * Implementation of {@link ProjectingEntityMapper} that converts a {@link DynamicEntity} into a {@link Map} representation
  * based on the entity's attribute configuration.
  *
  * <p>Each attribute is converted according to its configured type and the {@code nullIfEmpty} flag.
  * This ensures consistent mapping and type safety when serializing entities for API responses.
+ *
+ * <p>The converters of the attributes are compiled once per entity configuration, and reused as long as the
+ * configuration is not reloaded.
  */
 @Component
-public class DynamicEntityMapperImpl implements DynamicEntityMapper {
+public class DynamicEntityMapperImpl implements ProjectingEntityMapper {
 
   /**
    * Spring ConversionService used to convert attribute values from String to their target types based on
@@ -53,6 +65,29 @@ public class DynamicEntityMapperImpl implements DynamicEntityMapper {
    */
   private final ConversionService conversionService;
 
+  /**
+   * Attribute converters compiled from the entity configurations, keyed by entity name.
+   */
+  private final Map<String, CompiledEntity> compiledEntities = new ConcurrentHashMap<>();
+
+  /**
+   * Attribute converters compiled from an entity configuration.
+   *
+   * @param configuration the entity configuration the converters were compiled from
+   * @param attributes the compiled attributes, in the configuration order
+   */
+  public record CompiledEntity(EntityConfiguration configuration, CompiledAttribute[] attributes) {
+  }
+
+  /**
+   * Converter compiled for a single attribute.
+   *
+   * @param name the name of the attribute
+   * @param converter the function converting a raw attribute value to the attribute type
+   */
+  public record CompiledAttribute(String name, UnaryOperator<Object> converter) {
+  }
+
   /**
    * Constructs a DynamicEntityMapperImpl with the given ConversionService.
    *
@@ -65,21 +100,82 @@ public class DynamicEntityMapperImpl implements DynamicEntityMapper {
 
   @Override
   public Map<String, Object> apply(DynamicEntity dynamicEntity) {
-    var mappedAttributes = new HashMap<String, Object>();
+    return apply(dynamicEntity, null);
+  }
 
-    dynamicEntity.getConfiguration()
-        .getAttributes()
-        .forEach(configuration -> {
-          String key = configuration.getName();
-          String type = configuration.getType();
-          Object value = dynamicEntity.getAttributes().getOrDefault(key, null);
+  @Override
+  public Map<String, Object> apply(DynamicEntity dynamicEntity, Set<String> fields) {
+    var size = getCompiledEntity(dynamicEntity.getConfiguration()).attributes().length;
+    var mappedAttributes = new HashMap<String, Object>(Math.max(16, size * 4 / 3 + 1));
 
-          mappedAttributes.put(key, convertValue(type, value, configuration.isNullIfEmpty()));
-        });
+    forEachAttribute(dynamicEntity, fields, mappedAttributes::put);
 
     return mappedAttributes;
   }
 
+  @Override
+  public void forEachAttribute(DynamicEntity dynamicEntity, Set<String> fields, BiConsumer<String, Object> action) {
+    var values = dynamicEntity.getAttributes();
+
+    for (CompiledAttribute attribute : getCompiledEntity(dynamicEntity.getConfiguration()).attributes()) {
+      if (fields == null || fields.contains(attribute.name())) {
+        action.accept(attribute.name(), attribute.converter().apply(values.get(attribute.name())));
+      }
+    }
+  }
+
+  /**
+   * Returns the attribute converters of the given entity configuration, compiling them on first use.
+   *
+   * <p>Converters are compiled again whenever the configuration of an entity is replaced, for instance when the
+   * configuration file is reloaded.
+   *
+   * @param configuration the entity configuration
+   * @return the compiled attribute converters
+   */
+  public CompiledEntity getCompiledEntity(EntityConfiguration configuration) {
+    var key = String.valueOf(configuration.getName());
+    var compiled = compiledEntities.get(key);
+
+    if (compiled == null || compiled.configuration() != configuration) {
+      compiled = new CompiledEntity(configuration, configuration.getAttributes().stream()
+          .map(attribute -> new CompiledAttribute(attribute.getName(), compileConverter(attribute)))
+          .toArray(CompiledAttribute[]::new));
+      compiledEntities.put(key, compiled);
+    }
+
+    return compiled;
+  }
+
+  /**
+   * Compiles the converter of the given attribute.
+   *
+   * <p>The converter behaves as {@link #convertValue(String, Object, boolean)}, except that values already of the target
+   * type are returned as is, and that dates and timestamps given as {@link Date}, {@link Instant}, epoch milliseconds
+   * given as a number or ISO-8601 date-times are converted without the {@link ConversionService}.
+   *
+   * @param attribute the attribute configuration
+   * @return the function converting a raw attribute value to the attribute type
+   */
+  public UnaryOperator<Object> compileConverter(AttributeConfiguration attribute) {
+    Class<?> targetClass = resolveClass(attribute.getType());
+    UnaryOperator<Object> converter;
+
+    if (targetClass == Timestamp.class) {
+      converter = this::toTimestamp;
+    } else if (targetClass == Date.class) {
+      converter = this::toDate;
+    } else {
+      converter = value -> targetClass.isInstance(value) ? value : conversionService.convert(value, targetClass);
+    }
+
+    if (attribute.isNullIfEmpty()) {
+      return value -> value == null || isEmpty(value) ? null : converter.apply(value);
+    }
+
+    return value -> value == null ? null : converter.apply(value);
+  }
+
   /**
    * Converts the given {@code value} to the specified {@code type}.
    *
@@ -129,4 +225,84 @@ public class DynamicEntityMapperImpl implements DynamicEntityMapper {
       default -> String.class;
     };
   }
+
+  /**
+   * Tells whether the string representation of a non-null value is empty, without building it for the value types
+   * whose representation is never empty.
+   *
+   * @param value the value to check
+   * @return {@code true} if the string representation of the value is empty
+   */
+  public boolean isEmpty(Object value) {
+    if (value instanceof CharSequence sequence) {
+      return sequence.isEmpty();
+    }
+    if (value instanceof Number || value instanceof Boolean || value instanceof Date || value instanceof Collection<?>) {
+      return false;
+    }
+
+    return value.toString().isEmpty();
+  }
+
+  /**
+   * Converts a value to a {@link Timestamp}, falling back to the {@link ConversionService} for unsupported values.
+   *
+   * @param value the value to convert, not {@code null}
+   * @return the converted value
+   */
+  public Object toTimestamp(Object value) {
+    if (value instanceof Timestamp) {
+      return value;
+    }
+
+    var instant = toInstant(value);
+
+    return instant == null ? conversionService.convert(value, Timestamp.class) : Timestamp.from(instant);
+  }
+
+  /**
+   * Converts a value to a {@link Date}, falling back to the {@link ConversionService} for unsupported values.
+   *
+   * @param value the value to convert, not {@code null}
+   * @return the converted value
+   */
+  public Object toDate(Object value) {
+    if (value instanceof Date) {
+      return value;
+    }
+
+    var instant = toInstant(value);
+
+    return instant == null ? conversionService.convert(value, Date.class) : Date.from(instant);
+  }
+
+  /**
+   * Reads an instant from a {@link Date}, an {@link Instant}, epoch milliseconds given as a number, or an ISO-8601
+   * date-time with offset.
+   *
+   * <p>Other strings, including all-digit ones, are left to the {@link ConversionService}.
+   *
+   * @param value the value to read
+   * @return the read instant, or {@code null} if the value is not supported
+   */
+  public Instant toInstant(Object value) {
+    if (value instanceof Date date) {
+      return date.toInstant();
+    }
+    if (value instanceof Instant instant) {
+      return instant;
+    }
+    if (value instanceof Long || value instanceof Integer) {
+      return Instant.ofEpochMilli(((Number) value).longValue());
+    }
+    if (value instanceof CharSequence sequence && !sequence.isEmpty()) {
+      try {
+        return OffsetDateTime.parse(sequence).toInstant();
+      } catch (DateTimeParseException exception) {
+        return null;
+      }
+    }
+
+    return null;
+  }
 }
@@ -30,20 +30,43 @@ import io.github.linagora.linid.im.corelib.exception.ApiException;
 import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
 import io.github.linagora.linid.im.corelib.plugin.authentication.AuthenticationFactory;
 import io.github.linagora.linid.im.corelib.plugin.config.PluginConfigurationService;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.AttributeConfiguration;
 import io.github.linagora.linid.im.corelib.plugin.config.dto.ProviderConfiguration;
 import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntityMapper;
 import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntityService;
 import io.github.linagora.linid.im.corelib.plugin.provider.ProviderFactory;
 import io.github.linagora.linid.im.corelib.plugin.provider.ProviderPlugin;
 import io.github.linagora.linid.im.corelib.plugin.task.TaskEngine;
 import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
 import io.github.linagora.linid.im.corelib.plugin.validation.ValidationEngine;
+import io.github.linagora.linid.im.plugin.circuit.CircuitBreakers;
+import io.github.linagora.linid.im.plugin.config.EntitySettingsService;
+import io.github.linagora.linid.im.plugin.provider.BatchWriteProvider;
+import io.github.linagora.linid.im.plugin.provider.ConditionalWriteProvider;
+import io.github.linagora.linid.im.plugin.provider.CountAwareProvider;
+import io.github.linagora.linid.im.plugin.provider.ProviderCallExecutor;
+import io.github.linagora.linid.im.plugin.provider.ProviderConcurrencyLimiter;
+import io.github.linagora.linid.im.plugin.provider.VersionAwareProvider;
+import io.github.linagora.linid.im.plugin.validation.ValidationEngineImpl;
 import jakarta.servlet.http.HttpServletRequest;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.util.MultiValueMap;
 
@@ -83,8 +106,110 @@ public class DynamicEntityServiceImpl implements DynamicEntityService {
    */
   private final TaskEngine taskEngine;
 
+  /**
+   * Service resolving the per-entity settings, such as the default count strategy of list requests.
+   */
+  private final EntitySettingsService settingsService;
+
+  /**
+   * Mapper converting entities to their response form, used to compute the current entity tag of conditional writes.
+   */
+  private final DynamicEntityMapper mapper;
+
+  /**
+   * Groups concurrent creations into provider batch writes, when enabled.
+   */
+  private final GroupCommitter groupCommitter;
+
+  /**
+   * Locks serializing the writes of the same entity, when enabled.
+   */
+  private final EntityWriteLocks writeLocks;
+
+  /**
+   * Limits the concurrent calls to each provider, when enabled.
+   */
+  private final ProviderConcurrencyLimiter providerLimiter;
+
+  /**
+   * Circuit breakers of the providers, when enabled.
+   */
+  private final CircuitBreakers circuitBreakers;
+
+  /**
+   * Runs the calls to the providers having a timeout or hedged reads.
+   */
+  private final ProviderCallExecutor providerCalls;
+
+  /**
+   * Totals counted with the {@link CountStrategy#CACHED} strategy, keyed by entity and filters.
+   */
+  private final Map<String, CachedCount> countCache = new ConcurrentHashMap<>();
+
+  /**
+   * Last states written by updates, keyed by entity and identifier, when the {@code skip-unchanged} setting is enabled.
+   */
+  private final Map<String, CachedState> stateCache = new ConcurrentHashMap<>();
+
   private static final String ENTITY_KEYWORD = "entity";
 
+  /**
+   * Request parameters that select a page or the returned attributes rather than filter entities, ignored when caching
+   * totals and when selecting the entities written by filter.
+   */
+  public static final Set<String> PAGINATION_PARAMETERS = Set.of("page", "size", "sort", "direction", "count", "cursor",
+      FieldProjection.PARAMETER);
+
+  /**
+   * Maximum number of cached totals.
+   */
+  private static final int MAX_CACHED_COUNTS = 10_000;
+
+  /**
+   * Total counted for a set of filters, and the date until which it can be reused.
+   *
+   * @param count the number of matching entities
+   * @param expiresAt the expiration date of the count
+   */
+  private record CachedCount(long count, Instant expiresAt) {
+  }
+
+  /**
+   * Maximum number of cached entity states.
+   */
+  private static final int MAX_CACHED_STATES = 10_000;
+
+  /**
+   * State of an entity written by an update, and the date until which it can be reused.
+   *
+   * @param hash the hash of the written attributes
+   * @param etag the entity tag of the updated entity
+   * @param entity the updated entity returned by the provider
+   * @param expiresAt the expiration date of the state
+   */
+  private record CachedState(String hash, String etag, DynamicEntity entity, Instant expiresAt) {
+  }
+
+  /**
+   * Action suffix of the creation lifecycle phases.
+   */
+  public static final String CREATE = "Create";
+
+  /**
+   * Action suffix of the update lifecycle phases.
+   */
+  public static final String UPDATE = "Update";
+
+  /**
+   * Action suffix of the patch lifecycle phases.
+   */
+  public static final String PATCH = "Patch";
+
+  /**
+   * Action suffix of the deletion lifecycle phases.
+   */
+  public static final String DELETE = "Delete";
+
   /**
    * Updates the given {@link DynamicEntity} with its associated configuration based on its name.
    *
@@ -108,26 +233,13 @@ public class DynamicEntityServiceImpl implements DynamicEntityService {
     var entity = new DynamicEntity();
     entity.setAttributes(body);
 
-    var authenticationPlugin = authenticationFactory.getAuthenticationPlugin();
-    var authenticationConfig = authenticationFactory.getAuthenticationConfiguration();
-
-    taskEngine.execute(entity, context, "beforeTokenValidationCreate");
-    authenticationPlugin.validateToken(authenticationConfig, request, context);
-    taskEngine.execute(entity, context, "afterTokenValidationCreate");
+    authenticate(request, entity, context, CREATE);
 
     updateEntityConfiguration(entity, entityName);
     var provider = getProvider(entity);
     var configuration = getProviderConfiguration(entity);
 
-    taskEngine.execute(entity, context, "beforeValidationCreate");
-    validationEngine.validate(entity, "beforeCreate", context);
-    taskEngine.execute(entity, context, "afterValidationCreate");
-
-    taskEngine.execute(entity, context, "beforeCreate");
-    entity = provider.create(context, configuration, entity);
-    taskEngine.execute(entity, context, "afterCreate");
-
-    return entity;
+    return create(context, entity, provider, configuration);
   }
 
   @Override
@@ -136,26 +248,15 @@ public class DynamicEntityServiceImpl implements DynamicEntityService {
     var entity = new DynamicEntity();
     entity.setAttributes(body);
 
-    var authenticationPlugin = authenticationFactory.getAuthenticationPlugin();
-    var authenticationConfig = authenticationFactory.getAuthenticationConfiguration();
-
-    taskEngine.execute(entity, context, "beforeTokenValidationUpdate");
-    authenticationPlugin.validateToken(authenticationConfig, request, context);
-    taskEngine.execute(entity, context, "afterTokenValidationUpdate");
+    authenticate(request, entity, context, UPDATE);
 
     updateEntityConfiguration(entity, entityName);
     var provider = getProvider(entity);
     var configuration = getProviderConfiguration(entity);
-
-    taskEngine.execute(entity, context, "beforeValidationUpdate");
-    validationEngine.validate(entity, "beforeUpdate", context);
-    taskEngine.execute(entity, context, "afterValidationUpdate");
-
-    taskEngine.execute(entity, context, "beforeUpdate");
-    entity = provider.update(context, configuration, id, entity);
-    taskEngine.execute(entity, context, "afterUpdate");
-
-    return entity;
+    return serializeWrite(entity, id, () -> {
+      checkPrecondition(request, context, entity, id, provider, configuration);
+      return update(context, entity, id, provider, configuration);
+    });
   }
 
   @Override
@@ -164,26 +265,15 @@ public class DynamicEntityServiceImpl implements DynamicEntityService {
     var entity = new DynamicEntity();
     entity.setAttributes(body);
 
-    var authenticationPlugin = authenticationFactory.getAuthenticationPlugin();
-    var authenticationConfig = authenticationFactory.getAuthenticationConfiguration();
-
-    taskEngine.execute(entity, context, "beforeTokenValidationPatch");
-    authenticationPlugin.validateToken(authenticationConfig, request, context);
-    taskEngine.execute(entity, context, "afterTokenValidationPatch");
+    authenticate(request, entity, context, PATCH);
 
     updateEntityConfiguration(entity, entityName);
     var provider = getProvider(entity);
     var configuration = getProviderConfiguration(entity);
-
-    taskEngine.execute(entity, context, "beforeValidationPatch");
-    validationEngine.validate(entity, "beforePatch", context);
-    taskEngine.execute(entity, context, "afterValidationPatch");
-
-    taskEngine.execute(entity, context, "beforePatch");
-    entity = provider.patch(context, configuration, id, entity);
-    taskEngine.execute(entity, context, "afterPatch");
-
-    return entity;
+    return serializeWrite(entity, id, () -> {
+      checkPrecondition(request, context, entity, id, provider, configuration);
+      return patch(context, entity, id, provider, configuration);
+    });
   }
 
   @Override
@@ -191,26 +281,484 @@ public class DynamicEntityServiceImpl implements DynamicEntityService {
     TaskExecutionContext context = new TaskExecutionContext();
     var entity = new DynamicEntity();
 
+    authenticate(request, entity, context, DELETE);
+
+    updateEntityConfiguration(entity, entityName);
+    var provider = getProvider(entity);
+    var configuration = getProviderConfiguration(entity);
+    return serializeWrite(entity, id, () -> {
+      checkPrecondition(request, context, entity, id, provider, configuration);
+      return delete(context, entity, id, provider, configuration);
+    });
+  }
+
+  /**
+   * Creates an entity through the given provider, running the validation and creation phases.
+   *
+   * <p>
+   * When the entity has a positive {@code group-commit-window} setting and the provider is a {@link BatchWriteProvider},
+   * the creation is sent to the provider along with the concurrent creations of the same entity type, see
+   * {@link GroupCommitter}.
+   *
+   * @param context the task execution context of the request
+   * @param entity the entity to create, holding its configuration
+   * @param provider the provider of the entity
+   * @param configuration the provider configuration
+   * @return the created entity
+   */
+  public DynamicEntity create(TaskExecutionContext context, DynamicEntity entity, ProviderPlugin provider,
+                              ProviderConfiguration configuration) {
+    beforeWrite(context, entity, CREATE);
+    var result = createThroughProvider(context, entity, provider, configuration);
+    afterWrite(context, result, CREATE);
+
+    return result;
+  }
+
+  /**
+   * Sends a creation to the provider, grouped with the concurrent creations of the same entity type when group commit is
+   * enabled for the entity.
+   *
+   * @param context the task execution context of the request
+   * @param entity the entity to create, holding its configuration
+   * @param provider the provider of the entity
+   * @param configuration the provider configuration
+   * @return the created entity
+   */
+  public DynamicEntity createThroughProvider(TaskExecutionContext context, DynamicEntity entity, ProviderPlugin provider,
+                                             ProviderConfiguration configuration) {
+    if (provider instanceof BatchWriteProvider) {
+      var name = entity.getConfiguration().getName();
+      var window = settingsService.getSetting(name, "group-commit-window", Duration.class, Duration.ZERO);
+
+      if (window.isPositive()) {
+        var maxSize = settingsService.getSetting(name, "group-commit-max-size", Integer.class, 100);
+        var timeout = settingsService.getSetting(name, "group-commit-timeout", Duration.class, Duration.ofSeconds(30));
+        return groupCommitter.create(context, entity, provider, configuration, window, Math.max(1, maxSize), timeout);
+      }
+    }
+
+    return callProvider(entity, () -> provider.create(context, configuration, entity));
+  }
+
+  /**
+   * Replaces an entity through the given provider, running the validation and update phases.
+   *
+   * <p>
+   * When the {@code skip-unchanged} setting of the entity is enabled, the validated attributes have the same hash as
+   * those of the last update of this entity and the provider still holds the entity written by that update, the provider
+   * call and the phase following it are skipped, and the entity returned by the last update is returned.
+   *
+   * @param context the task execution context of the request
+   * @param entity the new state of the entity, holding its configuration
+   * @param id the identifier of the entity to update
+   * @param provider the provider of the entity
+   * @param configuration the provider configuration
+   * @return the updated entity
+   */
+  public DynamicEntity update(TaskExecutionContext context, DynamicEntity entity, String id, ProviderPlugin provider,
+                              ProviderConfiguration configuration) {
+    return serializeWrite(entity, id, () -> {
+      beforeWrite(context, entity, UPDATE);
+
+      var name = entity.getConfiguration().getName();
+      var hash = Boolean.TRUE.equals(settingsService.getSetting(name, "skip-unchanged", Boolean.class, false))
+          ? EntityTags.ofContent(mapper.apply(entity))
+          : null;
+      var unchanged = hash == null ? null : findUnchanged(context, entity, id, hash, provider, configuration);
+      if (unchanged != null) {
+        return unchanged;
+      }
+
+      forgetState(entity, id);
+      var result = callProvider(entity, () -> provider.update(context, configuration, id, entity));
+      if (hash != null) {
+        rememberState(name, id, hash, result);
+      }
+      afterWrite(context, result, UPDATE);
+
+      return result;
+    });
+  }
+
+  /**
+   * Returns the entity written by the last update of an entity, if its attributes had the given hash, it did not expire
+   * and the current entity tag read from the provider is still the one of that update.
+   *
+   * <p>
+   * The remembered state is only a hint: the provider is always asked for the current entity tag, so that a change made
+   * by another instance or directly in the backend is never hidden by an update restoring the remembered attributes.
+   *
+   * @param context the task execution context of the request
+   * @param entity the entity to write, holding its configuration
+   * @param id the identifier of the entity
+   * @param hash the hash of the attributes to write
+   * @param provider the provider of the entity
+   * @param configuration the provider configuration
+   * @return the entity returned by the last update, or {@code null} if the attributes or the stored entity changed
+   */
+  public DynamicEntity findUnchanged(TaskExecutionContext context, DynamicEntity entity, String id, String hash,
+                                     ProviderPlugin provider, ProviderConfiguration configuration) {
+    var entityName = entity.getConfiguration().getName();
+    var cached = stateCache.get(entityName + ":" + id);
+
+    if (cached == null || !cached.hash().equals(hash) || !cached.expiresAt().isAfter(Instant.now())) {
+      return null;
+    }
+
+    var versionAttribute = getVersionAttribute(entityName);
+    if (!cached.etag().equals(getCurrentEtag(context, entity, id, versionAttribute, provider, configuration))) {
+      stateCache.remove(entityName + ":" + id, cached);
+      return null;
+    }
+
+    return cached.entity();
+  }
+
+  /**
+   * Records the state written by an update, for the duration of the {@code skip-unchanged-ttl} setting.
+   *
+   * @param entityName the name of the entity type
+   * @param id the identifier of the entity
+   * @param hash the hash of the written attributes
+   * @param entity the updated entity returned by the provider
+   */
+  public void rememberState(String entityName, String id, String hash, DynamicEntity entity) {
+    var now = Instant.now();
+    var ttl = settingsService.getSetting(entityName, "skip-unchanged-ttl", Duration.class, Duration.ofMinutes(5));
+
+    if (stateCache.size() >= MAX_CACHED_STATES) {
+      stateCache.values().removeIf(value -> !value.expiresAt().isAfter(now));
+      if (stateCache.size() >= MAX_CACHED_STATES) {
+        stateCache.clear();
+      }
+    }
+    var etag = getEtag(entity, getVersionAttribute(entityName));
+    stateCache.put(entityName + ":" + id, new CachedState(hash, etag, entity, now.plus(ttl)));
+  }
+
+  /**
+   * Forgets the state written by the last update of an entity, which is about to change.
+   *
+   * @param entity the entity holding the entity configuration
+   * @param id the identifier of the entity, {@code null} to forget the states of every entity of the type
+   */
+  public void forgetState(DynamicEntity entity, String id) {
+    if (stateCache.isEmpty()) {
+      return;
+    }
+
+    var entityName = entity.getConfiguration().getName();
+    if (id == null) {
+      stateCache.keySet().removeIf(key -> key.startsWith(entityName + ":"));
+    } else {
+      stateCache.remove(entityName + ":" + id);
+    }
+  }
+
+  /**
+   * Partially updates an entity through the given provider, running the validation and patch phases.
+   *
+   * <p>
+   * The validation is partial: only the validations of the attributes to patch, and those configured to always run, are
+   * applied.
+   *
+   * @param context the task execution context of the request
+   * @param entity the attributes to patch, holding the entity configuration
+   * @param id the identifier of the entity to patch
+   * @param provider the provider of the entity
+   * @param configuration the provider configuration
+   * @return the patched entity
+   */
+  public DynamicEntity patch(TaskExecutionContext context, DynamicEntity entity, String id, ProviderPlugin provider,
+                             ProviderConfiguration configuration) {
+    return serializeWrite(entity, id, () -> {
+      beforeWrite(context, entity, PATCH);
+      forgetState(entity, id);
+      var result = callProvider(entity, () -> provider.patch(context, configuration, id, entity));
+      afterWrite(context, result, PATCH);
+
+      return result;
+    });
+  }
+
+  /**
+   * Deletes an entity through the given provider, running the validation and deletion phases.
+   *
+   * @param context the task execution context of the request
+   * @param entity the entity holding the entity configuration
+   * @param id the identifier of the entity to delete
+   * @param provider the provider of the entity
+   * @param configuration the provider configuration
+   * @return {@code true} if the entity was deleted, {@code false} otherwise
+   */
+  public boolean delete(TaskExecutionContext context, DynamicEntity entity, String id, ProviderPlugin provider,
+                        ProviderConfiguration configuration) {
+    return serializeWrite(entity, id, () -> {
+      beforeWrite(context, entity, DELETE);
+      forgetState(entity, id);
+      boolean state = callProvider(entity, () -> provider.delete(context, configuration, id, entity));
+      afterWrite(context, entity, DELETE);
+
+      return state;
+    });
+  }
+
+  /**
+   * Calls the provider of an entity, through the circuit breaker of the provider when circuit breakers are enabled, and
+   * within the concurrency limit of the provider when provider limits are enabled.
+   *
+   * <p>
+   * The call has no timeout, since a write abandoned after a timeout could still be applied by the provider: reads go
+   * through {@link #readProvider(TaskExecutionContext, DynamicEntity, ProviderCallExecutor.Read)} instead.
+   *
+   * @param entity the entity holding the entity configuration
+   * @param call the provider call
+   * @param <T> the type of the call result
+   * @return the result of the call
+   */
+  public <T> T callProvider(DynamicEntity entity, Supplier<T> call) {
+    return protect(entity, call);
+  }
+
+  /**
+   * Reads from the provider of an entity like {@link #callProvider(DynamicEntity, Supplier)}, also within the timeout of
+   * the provider when it has one, and hedging the read when hedging is enabled for the provider.
+   *
+   * @param context the task execution context of the request
+   * @param entity the entity holding the entity configuration, passed to the provider
+   * @param read the provider read, which must be idempotent, given the context and the entity to pass to the provider
+   * @param <T> the type of the read result
+   * @return the result of the read
+   */
+  public <T> T readProvider(TaskExecutionContext context, DynamicEntity entity, ProviderCallExecutor.Read<T> read) {
+    Supplier<T> guarded = isGuarded(entity)
+        ? () -> providerCalls.read(entity.getConfiguration().getProvider(), context, entity, read)
+        : () -> read.apply(context, entity);
+
+    return protect(entity, guarded);
+  }
+
+  /**
+   * Tells whether the calls to the provider of an entity have a timeout or hedged reads.
+   *
+   * @param entity the entity holding the entity configuration
+   * @return {@code true} if calls must go through the provider call executor
+   */
+  private boolean isGuarded(DynamicEntity entity) {
+    return entity.getConfiguration() != null && providerCalls.isGuarded(entity.getConfiguration().getProvider());
+  }
+
+  /**
+   * Runs a provider call through the circuit breaker and within the concurrency limit of the provider, when enabled.
+   *
+   * <p>
+   * The concurrency limit is checked first, so that calls rejected because the provider is overloaded on this side are
+   * not counted as failures of the provider by its circuit breaker. Calls rejected by an open circuit breaker are in turn
+   * ignored by the concurrency limit.
+   *
+   * @param entity the entity holding the entity configuration
+   * @param call the provider call
+   * @param <T> the type of the call result
+   * @return the result of the call
+   */
+  private <T> T protect(DynamicEntity entity, Supplier<T> call) {
+    Supplier<T> guarded = circuitBreakers.isEnabled()
+        ? () -> circuitBreakers.call(CircuitBreakers.PROVIDER, entity.getConfiguration().getProvider(), call)
+        : call;
+
+    if (!providerLimiter.isEnabled()) {
+      return guarded.get();
+    }
+
+    return providerLimiter.call(entity.getConfiguration().getProvider(), guarded);
+  }
+
+
+  /**
+   * Runs a write of an existing entity, holding the lock of the entity when its {@code serialize-writes} setting is
+   * enabled, so that concurrent writes of the same entity are applied one at a time, in their arrival order.
+   *
+   * @param entity the entity holding the entity configuration
+   * @param id the identifier of the entity to write
+   * @param write the write to run
+   * @param <T> the type of the write result
+   * @return the result of the write
+   */
+  public <T> T serializeWrite(DynamicEntity entity, String id, Supplier<T> write) {
+    var name = entity.getConfiguration().getName();
+    if (!Boolean.TRUE.equals(settingsService.getSetting(name, "serialize-writes", Boolean.class, false))) {
+      return write.get();
+    }
+
+    return writeLocks.withLock(name, id, write);
+  }
+
+  /**
+   * Returns the name of the version attribute of an entity type, from its {@code version-attribute} setting.
+   *
+   * @param entityName the name of the entity type
+   * @return the name of the version attribute, or {@code null} if none is configured
+   */
+  public String getVersionAttribute(String entityName) {
+    return StringUtils.trimToNull(settingsService.getSetting(entityName, "version-attribute", String.class, null));
+  }
+
+  /**
+   * Evaluates the {@code If-Match} header of a write request.
+   *
+   * <p>
+   * When the entity has a {@code version-attribute} setting, every given tag encodes a version and the provider is a
+   * {@link ConditionalWriteProvider}, the accepted versions are only put in the context, so that the provider checks them
+   * atomically while writing. Otherwise the current tag of the entity is read from its provider and compared with the given
+   * tags.
+   *
+   * @param request the HTTP request
+   * @param context the task execution context of the request
+   * @param entity the entity holding the entity configuration
+   * @param id the identifier of the entity to write
+   * @param provider the provider of the entity
+   * @param configuration the provider configuration
+   * @throws ApiException with HTTP status 412 if the current tag of the entity does not match the given tags
+   */
+  public void checkPrecondition(HttpServletRequest request, TaskExecutionContext context, DynamicEntity entity, String id,
+                                ProviderPlugin provider, ProviderConfiguration configuration) {
+    var tags = EntityTags.parse(request.getHeader(HttpHeaders.IF_MATCH));
+    if (tags.isEmpty()) {
+      return;
+    }
+
+    var entityName = entity.getConfiguration().getName();
+    var versionAttribute = getVersionAttribute(entityName);
+    var versions = EntityTags.versionsOf(tags);
+
+    if (versionAttribute != null && versions != null && provider instanceof ConditionalWriteProvider conditionalProvider
+        && conditionalProvider.supportsPreconditions(configuration)) {
+      context.put(ConditionalWriteProvider.IF_MATCH_KEY, versions);
+      context.put(ConditionalWriteProvider.VERSION_ATTRIBUTE_KEY, versionAttribute);
+      return;
+    }
+
+    if (!EntityTags.matches(tags, getCurrentEtag(context, entity, id, versionAttribute, provider, configuration))) {
+      throw new ApiException(412, I18nMessage.of("error.precondition.failed", Map.of(ENTITY_KEYWORD, entityName, "id", id)));
+    }
+  }
+
+  /**
+   * Reads the current entity tag of an entity from its provider, asking only for its version when possible.
+   *
+   * @param context the task execution context of the request
+   * @param entity the entity holding the entity configuration
+   * @param id the identifier of the entity
+   * @param versionAttribute the name of the version attribute, may be {@code null}
+   * @param provider the provider of the entity
+   * @param configuration the provider configuration
+   * @return the current entity tag, or {@code null} if the entity does not exist
+   */
+  public String getCurrentEtag(TaskExecutionContext context, DynamicEntity entity, String id, String versionAttribute,
+                               ProviderPlugin provider, ProviderConfiguration configuration) {
+    if (versionAttribute != null && provider instanceof VersionAwareProvider versionProvider) {
+      return readProvider(context, entity,
+          (readContext, readEntity) -> versionProvider.findVersion(readContext, configuration, id, readEntity))
+          .map(EntityTags::ofVersion)
+          .orElse(null);
+    }
+
+    DynamicEntity current;
+    try {
+      current = readProvider(context, entity,
+          (readContext, readEntity) -> provider.findById(readContext, configuration, id, readEntity));
+    } catch (ApiException exception) {
+      if (exception.getStatusCode() == HttpStatus.NOT_FOUND.value()) {
+        return null;
+      }
+      throw exception;
+    }
+    if (current == null) {
+      return null;
+    }
+
+    return getEtag(current, versionAttribute);
+  }
+
+  /**
+   * Computes the entity tag of an entity read from or returned by its provider.
+   *
+   * @param entity the entity
+   * @param versionAttribute the name of the version attribute, may be {@code null}
+   * @return the version entity tag when the entity holds a version, the content entity tag otherwise
+   */
+  private String getEtag(DynamicEntity entity, String versionAttribute) {
+    var version = versionAttribute == null || entity.getAttributes() == null
+        ? null
+        : entity.getAttributes().get(versionAttribute);
+    return version == null ? EntityTags.ofContent(mapper.apply(entity)) : EntityTags.ofVersion(version);
+  }
+
+  /**
+   * Runs the token validation phases of the given action and validates the request token.
+   *
+   * @param request the HTTP request holding the token
+   * @param entity the entity of the request
+   * @param context the task execution context of the request
+   * @param action the action suffix of the lifecycle phases (e.g. {@code Create})
+   */
+  public void authenticate(HttpServletRequest request, DynamicEntity entity, TaskExecutionContext context, String action) {
     var authenticationPlugin = authenticationFactory.getAuthenticationPlugin();
     var authenticationConfig = authenticationFactory.getAuthenticationConfiguration();
 
-    taskEngine.execute(entity, context, "beforeTokenValidationDelete");
+    taskEngine.execute(entity, context, "beforeTokenValidation" + action);
     authenticationPlugin.validateToken(authenticationConfig, request, context);
-    taskEngine.execute(entity, context, "afterTokenValidationDelete");
+    taskEngine.execute(entity, context, "afterTokenValidation" + action);
+  }
 
-    updateEntityConfiguration(entity, entityName);
-    var provider = getProvider(entity);
-    var configuration = getProviderConfiguration(entity);
+  /**
+   * Runs the validation phases and the phase preceding the provider call of the given write action.
+   *
+   * <p>
+   * The validation of a {@link #PATCH} is partial: only the validations of the attributes to patch, and those configured
+   * to always run, are applied.
+   *
+   * @param context the task execution context of the request
+   * @param entity the entity to write
+   * @param action the action suffix of the lifecycle phases (e.g. {@code Create})
+   */
+  public void beforeWrite(TaskExecutionContext context, DynamicEntity entity, String action) {
+    if (PATCH.equals(action)) {
+      context.put(ValidationEngineImpl.PARTIAL_CONTEXT_KEY, true);
+    }
 
-    taskEngine.execute(entity, context, "beforeValidationDelete");
-    validationEngine.validate(entity, "beforeDelete", context);
-    taskEngine.execute(entity, context, "afterValidationDelete");
+    taskEngine.execute(entity, context, "beforeValidation" + action);
+    validationEngine.validate(entity, "before" + action, context);
+    taskEngine.execute(entity, context, "afterValidation" + action);
 
-    taskEngine.execute(entity, context, "beforeDelete");
-    boolean state = provider.delete(context, configuration, id, entity);
-    taskEngine.execute(entity, context, "afterDelete");
+    taskEngine.execute(entity, context, "before" + action);
+  }
+
+  /**
+   * Runs the validation phases and the phase preceding the provider call of the given read action.
+   *
+   * @param context the task execution context of the request
+   * @param entity the entity to read, holding its configuration
+   * @param action the action suffix of the lifecycle phases (e.g. {@code FindById})
+   */
+  public void beforeRead(TaskExecutionContext context, DynamicEntity entity, String action) {
+    taskEngine.execute(entity, context, "beforeValidation" + action);
+    validationEngine.validate(entity, "before" + action, context);
+    taskEngine.execute(entity, context, "afterValidation" + action);
 
-    return state;
+    taskEngine.execute(entity, context, "before" + action);
+  }
+
+  /**
+   * Runs the phase following the provider call of the given write action.
+   *
+   * @param context the task execution context of the request
+   * @param entity the written entity
+   * @param action the action suffix of the lifecycle phases (e.g. {@code Create})
+   */
+  public void afterWrite(TaskExecutionContext context, DynamicEntity entity, String action) {
+    taskEngine.execute(entity, context, "after" + action);
   }
 
   @Override
@@ -220,26 +768,35 @@ public class DynamicEntityServiceImpl implements DynamicEntityService {
 
     var entity = new DynamicEntity();
 
-    var authenticationPlugin = authenticationFactory.getAuthenticationPlugin();
-    var authenticationConfig = authenticationFactory.getAuthenticationConfiguration();
-
-    taskEngine.execute(entity, context, "beforeTokenValidationFindById");
-    authenticationPlugin.validateToken(authenticationConfig, request, context);
-    taskEngine.execute(entity, context, "afterTokenValidationFindById");
+    authenticate(request, entity, context, "FindById");
 
     updateEntityConfiguration(entity, entityName);
+    resolveFields(request, entity, context);
+
+    beforeRead(context, entity, "FindById");
+    return findById(context, entity, id);
+  }
+
+  /**
+   * Reads an entity by its identifier from its provider, then runs the phase following the read.
+   *
+   * <p>
+   * The request must already be authenticated and have gone through the phases preceding the provider call.
+   *
+   * @param context the task execution context of the request
+   * @param entity the entity to read, holding its configuration
+   * @param id the identifier of the entity
+   * @return the found entity
+   */
+  public DynamicEntity findById(TaskExecutionContext context, DynamicEntity entity, String id) {
     var provider = getProvider(entity);
     var configuration = getProviderConfiguration(entity);
 
-    taskEngine.execute(entity, context, "beforeValidationFindById");
-    validationEngine.validate(entity, "beforeFindById", context);
-    taskEngine.execute(entity, context, "afterValidationFindById");
+    var found = readProvider(context, entity,
+        (readContext, readEntity) -> provider.findById(readContext, configuration, id, readEntity));
+    taskEngine.execute(found, context, "afterFindById");
 
-    taskEngine.execute(entity, context, "beforeFindById");
-    entity = provider.findById(context, configuration, id, entity);
-    taskEngine.execute(entity, context, "afterFindById");
-
-    return entity;
+    return found;
   }
 
   @Override
@@ -251,14 +808,10 @@ public class DynamicEntityServiceImpl implements DynamicEntityService {
 
     var entity = new DynamicEntity();
 
-    var authenticationPlugin = authenticationFactory.getAuthenticationPlugin();
-    var authenticationConfig = authenticationFactory.getAuthenticationConfiguration();
-
-    taskEngine.execute(entity, context, "beforeTokenValidationFindAll");
-    authenticationPlugin.validateToken(authenticationConfig, request, context);
-    taskEngine.execute(entity, context, "afterTokenValidationFindAll");
+    authenticate(request, entity, context, "FindAll");
 
     updateEntityConfiguration(entity, entityName);
+    resolveFields(request, entity, context);
     var provider = getProvider(entity);
     var configuration = getProviderConfiguration(entity);
 
@@ -267,12 +820,174 @@ public class DynamicEntityServiceImpl implements DynamicEntityService {
     taskEngine.execute(entity, context, "afterValidationFindAll");
 
     taskEngine.execute(entity, context, "beforeFindAll");
-    var entities = provider.findAll(context, configuration, filters, pageable, entity);
+    var entities = findPage(context, entity, filters, pageable, provider, configuration, getCountStrategy(entity, filters));
     taskEngine.execute(entity, context, "afterFindAll");
 
     return entities;
   }
 
+  /**
+   * Resolves the attributes requested with the {@code fields} parameter and stores them in the task execution context,
+   * under the {@code fields} key, so that providers can read only those attributes.
+   *
+   * @param request the HTTP request
+   * @param entity the entity holding the entity configuration
+   * @param context the task execution context of the request
+   * @return the requested attribute names, or {@code null} if every attribute is requested
+   * @throws ApiException if an attribute is not part of the entity configuration
+   */
+  public Set<String> resolveFields(HttpServletRequest request, DynamicEntity entity, TaskExecutionContext context) {
+    var fields = FieldProjection.parse(request.getParameter(FieldProjection.PARAMETER));
+
+    if (fields == null) {
+      return null;
+    }
+
+    var attributes = entity.getConfiguration().getAttributes().stream()
+        .map(AttributeConfiguration::getName)
+        .collect(Collectors.toSet());
+
+    fields.stream()
+        .filter(field -> !attributes.contains(field))
+        .findFirst()
+        .ifPresent(field -> {
+          throw new ApiException(400, I18nMessage.of("error.attribute.unknown",
+              Map.of(ENTITY_KEYWORD, entity.getConfiguration().getName(), "attribute", field)));
+        });
+
+    context.put(FieldProjection.CONTEXT_KEY, fields);
+
+    return fields;
+  }
+
+  /**
+   * Resolves the count strategy of a list request.
+   *
+   * <p>
+   * The strategy requested with the {@code count} parameter prevails over the {@code count-strategy} setting of the
+   * entity, which defaults to {@code exact}.
+   *
+   * @param entity the entity holding the entity configuration
+   * @param filters the request parameters
+   * @return the count strategy to apply
+   * @throws ApiException if the strategy is unknown
+   */
+  public CountStrategy getCountStrategy(DynamicEntity entity, MultiValueMap<String, String> filters) {
+    var requested = filters == null ? null : filters.getFirst("count");
+
+    if (requested == null) {
+      requested = settingsService.getSetting(entity.getConfiguration().getName(), "count-strategy", String.class, null);
+    }
+
+    return CountStrategy.from(requested);
+  }
+
+  /**
+   * Reads a page of entities, computing its total with the given count strategy.
+   *
+   * <p>
+   * Unless the strategy is {@link CountStrategy#EXACT}, providers implementing {@link CountAwareProvider} are asked for a
+   * slice, then the total is computed as follows:
+   * <ul>
+   *   <li>{@link CountStrategy#NONE}: the number of entities up to this page, plus one if a next page exists, so that
+   *   the total page count only tells whether other pages exist;</li>
+   *   <li>{@link CountStrategy#CACHED}: an exact count reused for the same filters during the {@code count-cache-ttl}
+   *   setting of the entity;</li>
+   *   <li>{@link CountStrategy#ESTIMATED}: the provider estimate, or the cached count if there is none.</li>
+   * </ul>
+   * The total is exact whenever the slice is the last one. Other providers always count exactly.
+   *
+   * @param context the task execution context of the request
+   * @param entity the entity holding the entity configuration
+   * @param filters the filters selecting the entities to read
+   * @param pageable the requested page
+   * @param provider the provider of the entity
+   * @param configuration the provider configuration
+   * @param strategy the count strategy to apply
+   * @return the requested page
+   */
+  public Page<DynamicEntity> findPage(TaskExecutionContext context, DynamicEntity entity,
+                                      MultiValueMap<String, String> filters, Pageable pageable, ProviderPlugin provider,
+                                      ProviderConfiguration configuration, CountStrategy strategy) {
+    if (strategy == CountStrategy.EXACT || !(provider instanceof CountAwareProvider countProvider)) {
+      return readProvider(context, entity,
+          (readContext, readEntity) -> provider.findAll(readContext, configuration, filters, pageable, readEntity));
+    }
+
+    var slice = readProvider(context, entity,
+        (readContext, readEntity) -> countProvider.findSlice(readContext, configuration, filters, pageable, readEntity));
+    var offset = pageable.isPaged() ? pageable.getOffset() : 0;
+    var lowerBound = offset + slice.getNumberOfElements();
+
+    if (!slice.hasNext()) {
+      return new PageImpl<>(slice.getContent(), pageable, lowerBound);
+    }
+
+    LongSupplier count = () -> readProvider(context, entity,
+        (readContext, readEntity) -> countProvider.count(readContext, configuration, filters, readEntity));
+    long total = switch (strategy) {
+      case CACHED -> getCachedCount(entity, filters, count);
+      case ESTIMATED -> readProvider(context, entity,
+          (readContext, readEntity) -> countProvider.estimateCount(readContext, configuration, filters, readEntity))
+          .orElseGet(() -> getCachedCount(entity, filters, count));
+      default -> lowerBound + 1;
+    };
+
+    return new PageImpl<>(slice.getContent(), pageable, Math.max(total, lowerBound + 1));
+  }
+
+  /**
+   * Returns the cached total of the given filters, counting it if it is missing or expired.
+   *
+   * @param entity the entity holding the entity configuration
+   * @param filters the filters selecting the entities to count
+   * @param count the exact count of the entities
+   * @return the total number of matching entities
+   */
+  public long getCachedCount(DynamicEntity entity, MultiValueMap<String, String> filters, LongSupplier count) {
+    var name = entity.getConfiguration().getName();
+    var key = name + ":" + getFilterKey(filters);
+    var now = Instant.now();
+    var cached = countCache.get(key);
+
+    if (cached != null && cached.expiresAt().isAfter(now)) {
+      return cached.count();
+    }
+
+    var ttl = settingsService.getSetting(name, "count-cache-ttl", Duration.class, Duration.ofSeconds(30));
+    var total = count.getAsLong();
+
+    if (countCache.size() >= MAX_CACHED_COUNTS) {
+      countCache.values().removeIf(value -> !value.expiresAt().isAfter(now));
+      if (countCache.size() >= MAX_CACHED_COUNTS) {
+        countCache.clear();
+      }
+    }
+    countCache.put(key, new CachedCount(total, now.plus(ttl)));
+
+    return total;
+  }
+
+  /**
+   * Builds a key identifying a set of filters, independent of the parameter order and of the pagination parameters.
+   *
+   * @param filters the filters
+   * @return the key of the filters
+   */
+  public String getFilterKey(MultiValueMap<String, String> filters) {
+    var sorted = new TreeMap<String, Object>();
+
+    if (filters != null) {
+      filters.forEach((name, values) -> {
+        if (!PAGINATION_PARAMETERS.contains(name)) {
+          sorted.put(name, values);
+        }
+      });
+    }
+
+    return sorted.toString();
+  }
+
   /**
    * Retrieves the corresponding provider plugin for the dynamic entity.
    *
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Map;
+
+/**
+ * Service computing the entity tags (ETags) and cache directives of single entity reads, to support conditional
+ * requests.
+ */
+public interface EntityTagService {
+
+  /**
+   * Reads an entity by its identifier, unless the {@code If-None-Match} header of the request matches the version given
+   * by its provider.
+   *
+   * <p>
+   * The request is authenticated and goes through the phases preceding the provider call of a read by identifier once.
+   * The version is only looked up when the header is present, the provider of the entity is able to give versions and
+   * the entity has a {@code version-attribute} setting, otherwise the entity is fetched.
+   *
+   * @param request the HTTP request
+   * @param entityName the name of the entity type
+   * @param id the identifier of the entity
+   * @param ifNoneMatch the value of the {@code If-None-Match} header, may be {@code null}
+   * @return the found entity, or the entity tag of the version if the client copy is up to date
+   */
+  ConditionalRead handleFindById(HttpServletRequest request, String entityName, String id, String ifNoneMatch);
+
+  /**
+   * Computes the entity tag of a fetched entity.
+   *
+   * <p>
+   * The tag is built from the version attribute of the entity when it has a {@code version-attribute} setting and a
+   * value for this attribute, otherwise from a hash of the converted attributes.
+   *
+   * @param request the HTTP request
+   * @param entity the fetched entity
+   * @param attributes the converted attributes returned to the client
+   * @return the weak entity tag, quoted
+   */
+  String getEtag(HttpServletRequest request, DynamicEntity entity, Map<String, Object> attributes);
+
+  /**
+   * Returns the {@code Cache-Control} directives of the responses of an entity type, from its {@code cache-control}
+   * setting.
+   *
+   * @param entityName the name of the entity type
+   * @return the directives, or {@code null} if none is configured
+   */
+  String getCacheControl(String entityName);
+
+  /**
+   * Tells whether an entity tag matches the {@code If-None-Match} header of a request, using the weak comparison.
+   *
+   * @param ifNoneMatch the value of the {@code If-None-Match} header, may be {@code null}
+   * @param etag the entity tag
+   * @return {@code true} if the client copy is up to date
+   */
+  boolean matches(String ifNoneMatch, String etag);
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import io.github.linagora.linid.im.plugin.config.EntitySettingsService;
+import io.github.linagora.linid.im.plugin.provider.VersionAwareProvider;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Map;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of {@link EntityTagService} building weak entity tags with {@link EntityTags}, either from the version
+ * attribute of the entity or from the converted attributes.
+ */
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class EntityTagServiceImpl implements EntityTagService {
+
+  /**
+   * Service handling the lifecycle of dynamic entities.
+   */
+  private final DynamicEntityServiceImpl entityService;
+
+  /**
+   * Service resolving the per-entity settings.
+   */
+  private final EntitySettingsService settingsService;
+
+  @Override
+  public ConditionalRead handleFindById(HttpServletRequest request, String entityName, String id, String ifNoneMatch) {
+    TaskExecutionContext context = new TaskExecutionContext();
+    context.put("id", id);
+
+    var entity = new DynamicEntity();
+
+    entityService.authenticate(request, entity, context, "FindById");
+
+    entityService.updateEntityConfiguration(entity, entityName);
+    entityService.resolveFields(request, entity, context);
+
+    entityService.beforeRead(context, entity, "FindById");
+    var version = ifNoneMatch == null || entityService.getVersionAttribute(entityName) == null
+        ? Optional.<String>empty()
+        : findVersion(context, entity, id);
+    if (version.isPresent() && matches(ifNoneMatch, version.get())) {
+      return new ConditionalRead(version.get(), null);
+    }
+
+    return new ConditionalRead(null, entityService.findById(context, entity, id));
+  }
+
+  /**
+   * Computes the entity tag of an entity, before fetching it, from the version given by its provider.
+   *
+   * @param context the task execution context of the request
+   * @param entity the entity to read, holding its configuration
+   * @param id the identifier of the entity
+   * @return the entity tag, or empty if the provider is not able to give versions
+   */
+  public Optional<String> findVersion(TaskExecutionContext context, DynamicEntity entity, String id) {
+    if (!(entityService.getProvider(entity) instanceof VersionAwareProvider versionProvider)) {
+      return Optional.empty();
+    }
+
+    var configuration = entityService.getProviderConfiguration(entity);
+    return entityService.readProvider(context, entity,
+        (readContext, readEntity) -> versionProvider.findVersion(readContext, configuration, id, readEntity))
+        .map(EntityTags::ofVersion);
+  }
+
+  @Override
+  public String getEtag(HttpServletRequest request, DynamicEntity entity, Map<String, Object> attributes) {
+    var versionAttribute = entityService.getVersionAttribute(entity.getConfiguration().getName());
+    var version = versionAttribute == null ? null : entity.getAttributes().get(versionAttribute);
+
+    return version == null ? EntityTags.ofContent(attributes) : EntityTags.ofVersion(version);
+  }
+
+  @Override
+  public String getCacheControl(String entityName) {
+    return StringUtils.trimToNull(settingsService.getSetting(entityName, "cache-control", String.class, null));
+  }
+
+  @Override
+  public boolean matches(String ifNoneMatch, String etag) {
+    return EntityTags.matches(EntityTags.parse(ifNoneMatch), etag);
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Builds and parses the weak entity tags (ETags) of entities.
+ *
+ * <p>
+ * The tag of an entity having a version attribute encodes the version itself, prefixed with {@value #VERSION_PREFIX}, so
+ * that the expected version of a conditional write can be read back from its {@code If-Match} header. The tag of any other
+ * entity is a SHA-256 hash of the canonical JSON form of its converted attributes.
+ */
+public final class EntityTags {
+
+  /**
+   * Prefix of the opaque part of the tags encoding a version, which cannot appear in a Base64 encoded hash.
+   */
+  public static final String VERSION_PREFIX = "v.";
+
+  /**
+   * Value of the {@code If-Match} and {@code If-None-Match} headers matching any existing entity.
+   */
+  public static final String ANY = "*";
+
+  /**
+   * Mapper writing the converted attributes in a canonical form, with keys sorted.
+   */
+  private static final ObjectMapper MAPPER = new ObjectMapper()
+      .findAndRegisterModules()
+      .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+      .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+  private EntityTags() {
+  }
+
+  /**
+   * Builds the tag of an entity from its version.
+   *
+   * @param version the value of the version attribute
+   * @return the weak entity tag, quoted
+   */
+  public static String ofVersion(Object version) {
+    var encoded = Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(String.valueOf(version).getBytes(StandardCharsets.UTF_8));
+
+    return "W/\"" + VERSION_PREFIX + encoded + "\"";
+  }
+
+  /**
+   * Builds the tag of an entity from its converted attributes.
+   *
+   * @param attributes the converted attributes returned to the client
+   * @return the weak entity tag, quoted
+   */
+  public static String ofContent(Map<String, Object> attributes) {
+    byte[] bytes;
+    try {
+      bytes = MAPPER.writeValueAsBytes(attributes);
+    } catch (JsonProcessingException exception) {
+      bytes = String.valueOf(attributes).getBytes(StandardCharsets.UTF_8);
+    }
+
+    try {
+      var digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+      return "W/\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+    } catch (NoSuchAlgorithmException exception) {
+      throw new IllegalStateException(exception);
+    }
+  }
+
+  /**
+   * Reads the version encoded in a tag built by {@link #ofVersion(Object)}.
+   *
+   * @param tag the entity tag, weak or strong
+   * @return the version, or {@code null} if the tag does not encode a version
+   */
+  public static String versionOf(String tag) {
+    var opaqueTag = StringUtils.removeEnd(StringUtils.removeStart(opaque(tag), "\""), "\"");
+    if (!opaqueTag.startsWith(VERSION_PREFIX)) {
+      return null;
+    }
+
+    try {
+      return new String(Base64.getUrlDecoder().decode(opaqueTag.substring(VERSION_PREFIX.length())), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException exception) {
+      return null;
+    }
+  }
+
+  /**
+   * Splits the value of an {@code If-Match} or {@code If-None-Match} header into entity tags.
+   *
+   * @param header the header value, may be {@code null}
+   * @return the trimmed entity tags, empty if none is given
+   */
+  public static List<String> parse(String header) {
+    if (StringUtils.isBlank(header)) {
+      return List.of();
+    }
+
+    return Arrays.stream(header.split(","))
+        .map(String::trim)
+        .filter(StringUtils::isNotEmpty)
+        .toList();
+  }
+
+  /**
+   * Reads the versions encoded in the given entity tags.
+   *
+   * @param tags the entity tags, as returned by {@link #parse(String)}
+   * @return the versions, holding {@value #ANY} if any tag is accepted, or {@code null} if a tag does not encode a version
+   */
+  public static List<String> versionsOf(List<String> tags) {
+    var versions = new ArrayList<String>(tags.size());
+
+    for (String tag : tags) {
+      var version = ANY.equals(tag) ? ANY : versionOf(tag);
+      if (version == null) {
+        return null;
+      }
+      versions.add(version);
+    }
+
+    return List.copyOf(versions);
+  }
+
+  /**
+   * Tells whether an entity tag matches one of the given tags, using the weak comparison.
+   *
+   * @param tags the entity tags of a conditional header, as returned by {@link #parse(String)}
+   * @param etag the current entity tag, {@code null} if the entity does not exist
+   * @return {@code true} if the tags hold {@value #ANY} or the given tag, ignoring the weakness indicators
+   */
+  public static boolean matches(List<String> tags, String etag) {
+    if (etag == null) {
+      return false;
+    }
+
+    var opaqueTag = opaque(etag);
+    return tags.stream().anyMatch(tag -> ANY.equals(tag) || opaqueTag.equals(opaque(tag)));
+  }
+
+  /**
+   * Removes the weakness indicator of an entity tag.
+   *
+   * @param tag the entity tag
+   * @return the quoted opaque part of the tag
+   */
+  private static String opaque(String tag) {
+    return StringUtils.removeStart(tag, "W/");
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Striped locks serializing the writes of the same entity.
+ *
+ * <p>
+ * Each entity is mapped, by entity name and identifier, to one of {@code write-lock.stripes} fair locks, so that writes of
+ * the same entity run one at a time in their arrival order, while writes of different entities only wait for each other
+ * when they share a stripe. A write waits at most {@code write-lock.timeout} for its lock. The locks publish the following
+ * metrics:
+ * <ul>
+ *   <li>{@code linid.entity.write.lock.wait}: the time spent by writes waiting for a lock held by another write;</li>
+ *   <li>{@code linid.entity.write.lock.contended}: the number of writes that found their lock held;</li>
+ *   <li>{@code linid.entity.write.lock.timeouts}: the number of writes rejected because their lock was not released in
+ *   time.</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class EntityWriteLocks {
+
+  /**
+   * Registry of the lock metrics.
+   */
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * Number of locks shared by the entities.
+   */
+  @Value("${write-lock.stripes:1024}")
+  private int stripes;
+
+  /**
+   * Maximum duration during which a write waits for its lock.
+   */
+  @Value("${write-lock.timeout:5s}")
+  private Duration timeout;
+
+  private ReentrantLock[] locks;
+  private Timer wait;
+  private Counter contended;
+  private Counter timeouts;
+
+  /**
+   * Creates the locks and registers the lock metrics.
+   */
+  @PostConstruct
+  public void start() {
+    locks = new ReentrantLock[Math.max(1, stripes)];
+    for (int index = 0; index < locks.length; index++) {
+      locks[index] = new ReentrantLock(true);
+    }
+
+    wait = Timer.builder("linid.entity.write.lock.wait")
+        .description("Time spent by entity writes waiting for a lock held by another write")
+        .register(meterRegistry);
+    contended = Counter.builder("linid.entity.write.lock.contended")
+        .description("Number of entity writes that found their lock held by another write")
+        .register(meterRegistry);
+    timeouts = Counter.builder("linid.entity.write.lock.timeouts")
+        .description("Number of entity writes rejected because their lock was not released in time")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Runs a write of an entity while holding its lock.
+   *
+   * <p>
+   * A write running within another write of an entity sharing the same stripe, from the same thread, does not wait.
+   *
+   * @param entityName the name of the entity type
+   * @param id the identifier of the entity
+   * @param write the write to run
+   * @param <T> the type of the write result
+   * @return the result of the write
+   * @throws ApiException with HTTP status 503 if the lock is not released in time, or if the thread is interrupted while
+   *     waiting
+   */
+  public <T> T withLock(String entityName, String id, Supplier<T> write) {
+    var lock = locks[Math.floorMod(Objects.hash(entityName, id), locks.length)];
+
+    try {
+      if (lock.isHeldByCurrentThread()) {
+        lock.lock();
+      } else if (!lock.tryLock(0, TimeUnit.NANOSECONDS)) {
+        contended.increment();
+        long start = System.nanoTime();
+        boolean acquired = lock.tryLock(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        wait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+          timeouts.increment();
+          throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE.value(), I18nMessage.of(
+              "error.entity.write.locked",
+              Map.of("entity", entityName, "id", id)
+          ));
+        }
+      }
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE.value(), I18nMessage.of(
+          "error.entity.write.interrupted",
+          Map.of("entity", entityName, "id", id)
+      ));
+    }
+
+    try {
+      return write.get();
+    } finally {
+      lock.unlock();
+    }
+  }
+}
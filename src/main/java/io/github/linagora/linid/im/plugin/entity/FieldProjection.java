@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Parses the {@code fields} request parameter, which restricts the attributes read and returned by read requests.
+ */
+public final class FieldProjection {
+
+  /**
+   * Name of the request parameter holding the comma-separated names of the attributes to return.
+   */
+  public static final String PARAMETER = "fields";
+
+  /**
+   * Name of the task execution context entry holding the requested attribute names.
+   */
+  public static final String CONTEXT_KEY = "fields";
+
+  private FieldProjection() {
+  }
+
+  /**
+   * Parses a comma-separated list of attribute names.
+   *
+   * <p>
+   * Names are trimmed, blank names are ignored and duplicates are removed, the order of first appearance being kept.
+   *
+   * @param value the parameter value, may be {@code null}
+   * @return the attribute names, or {@code null} if none is given, meaning that every attribute is requested
+   */
+  public static Set<String> parse(String value) {
+    if (StringUtils.isBlank(value)) {
+      return null;
+    }
+
+    var fields = Arrays.stream(value.split(","))
+        .map(String::trim)
+        .filter(StringUtils::isNotEmpty)
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+
+    return fields.isEmpty() ? null : Collections.unmodifiableSet(fields);
+  }
+}
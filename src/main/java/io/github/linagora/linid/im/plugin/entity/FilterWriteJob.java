@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+
+/**
+ * Progress of a delete or patch by filter, applied in the background to every matching entity.
+ *
+ * <p>
+ * Counters are updated while the job runs and can be read at any time. Only the first {@link #MAX_FAILURES} failures are
+ * kept, so that the memory used by a job does not depend on the number of matched entities.
+ */
+@Getter
+public class FilterWriteJob {
+
+  /**
+   * Maximum number of failures kept by a job.
+   */
+  public static final int MAX_FAILURES = 100;
+
+  /**
+   * Status of a job.
+   */
+  public enum Status {
+    /**
+     * The job is still applying the operation.
+     */
+    RUNNING,
+    /**
+     * The operation was applied to every matched entity, successfully or not.
+     */
+    COMPLETED,
+    /**
+     * The job stopped before the end, see {@link #getError()}.
+     */
+    FAILED
+  }
+
+  /**
+   * Failure of the operation on a single entity.
+   *
+   * @param id the identifier of the entity
+   * @param error the error raised by the operation
+   */
+  public record Failure(String id, ApiException error) {
+  }
+
+  /**
+   * Identifier of the job.
+   */
+  private final String id = UUID.randomUUID().toString();
+
+  /**
+   * Name of the entity type targeted by the job.
+   */
+  private final String entity;
+
+  /**
+   * Action applied to the matched entities, {@code delete} or {@code patch}.
+   */
+  private final String action;
+
+  /**
+   * Date at which the job started.
+   */
+  private final Instant startedAt = Instant.now();
+
+  /**
+   * Number of matched entities the action was applied to.
+   */
+  private final AtomicLong processed = new AtomicLong();
+
+  /**
+   * Number of matched entities the action succeeded on.
+   */
+  private final AtomicLong succeeded = new AtomicLong();
+
+  /**
+   * Number of matched entities the action failed on.
+   */
+  private final AtomicLong failed = new AtomicLong();
+
+  /**
+   * First failures of the action.
+   */
+  private final List<Failure> failures = Collections.synchronizedList(new ArrayList<>());
+
+  /**
+   * Current status of the job.
+   */
+  private volatile Status status = Status.RUNNING;
+
+  /**
+   * Date at which the job ended, {@code null} while it is running.
+   */
+  private volatile Instant finishedAt;
+
+  /**
+   * Error that stopped the job, {@code null} unless the job failed.
+   */
+  private volatile ApiException error;
+
+  /**
+   * Creates a running job.
+   *
+   * @param entity the name of the entity type targeted by the job
+   * @param action the action applied to the matched entities
+   */
+  public FilterWriteJob(String entity, String action) {
+    this.entity = entity;
+    this.action = action;
+  }
+
+  /**
+   * Records the result of the action on a matched entity.
+   *
+   * @param result the result of the action
+   */
+  public void record(BulkItemResult result) {
+    processed.incrementAndGet();
+
+    if (result.error() == null) {
+      succeeded.incrementAndGet();
+      return;
+    }
+
+    failed.incrementAndGet();
+    if (failures.size() < MAX_FAILURES) {
+      failures.add(new Failure(result.operation().id(), result.error()));
+    }
+  }
+
+  /**
+   * Records the number of entities the action was applied to by the provider itself.
+   *
+   * @param count the number of entities the action succeeded on
+   */
+  public void record(long count) {
+    processed.addAndGet(count);
+    succeeded.addAndGet(count);
+  }
+
+  /**
+   * Marks the job as completed.
+   */
+  public void complete() {
+    finishedAt = Instant.now();
+    status = Status.COMPLETED;
+  }
+
+  /**
+   * Marks the job as failed.
+   *
+   * @param cause the error that stopped the job
+   */
+  public void fail(ApiException cause) {
+    error = cause;
+    finishedAt = Instant.now();
+    status = Status.FAILED;
+  }
+
+  /**
+   * Indicates whether the job is over.
+   *
+   * @return {@code true} if the job completed or failed
+   */
+  public boolean isFinished() {
+    return status != Status.RUNNING;
+  }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.ProviderConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.provider.ProviderPlugin;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import io.github.linagora.linid.im.plugin.provider.BatchWriteOperation;
+import io.github.linagora.linid.im.plugin.provider.BatchWriteProvider;
+import io.github.linagora.linid.im.plugin.provider.BatchWriteResult;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Groups the concurrent creations of the same entity type into provider batch writes.
+ *
+ * <p>
+ * The first creation of a group waits for the group commit window, during which concurrent creations of the same entity
+ * type join its group, then sends the whole group to the provider through {@link BatchWriteProvider}. A group is sent
+ * earlier when it reaches its maximum size. Each creation is then completed with its own result or error, from its own
+ * thread.
+ *
+ * <p>
+ * A group holding a single creation is sent through {@link ProviderPlugin#create} with the context of its request, while a
+ * larger group, mixing several requests, is sent with a new context, each {@link BatchWriteOperation} holding the context
+ * of its own request.
+ *
+ * <p>
+ * Both calls go through {@link DynamicEntityServiceImpl#callProvider}, within the concurrency limit and the circuit
+ * breaker of the provider, like every other write.
+ */
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class GroupCommitter {
+
+  /**
+   * Service guarding the provider calls, resolved on first use since it relies on this committer.
+   */
+  private final ObjectProvider<DynamicEntityServiceImpl> entityService;
+
+  /**
+   * Groups waiting for their window to end, keyed by entity name.
+   */
+  private final Map<String, Group> groups = new ConcurrentHashMap<>();
+
+  /**
+   * Creation waiting for its group to be sent.
+   *
+   * @param context the task execution context of the request
+   * @param entity the entity to create
+   * @param result the result of the creation
+   */
+  private record Pending(TaskExecutionContext context, DynamicEntity entity, CompletableFuture<DynamicEntity> result) {
+  }
+
+  /**
+   * Creations of the same entity type sent together.
+   */
+  private static final class Group {
+    private final List<Pending> items = new ArrayList<>();
+    private final AtomicBoolean sent = new AtomicBoolean();
+  }
+
+  /**
+   * Creates an entity as part of a group of concurrent creations.
+   *
+   * @param context the task execution context of the request
+   * @param entity the entity to create, holding its configuration
+   * @param provider the provider of the entity, also implementing {@link BatchWriteProvider}
+   * @param configuration the provider configuration
+   * @param window the duration during which concurrent creations can join the group
+   * @param maxSize the maximum number of creations of a group
+   * @param timeout the maximum duration to wait for the group to be sent once the window ended
+   * @return the created entity
+   * @throws ApiException with HTTP status 504 if the group is not sent in time, the creation may still be applied
+   */
+  public DynamicEntity create(TaskExecutionContext context, DynamicEntity entity, ProviderPlugin provider,
+                              ProviderConfiguration configuration, Duration window, int maxSize, Duration timeout) {
+    var name = entity.getConfiguration().getName();
+    var pending = new Pending(context, entity, new CompletableFuture<>());
+    var joined = new Group[1];
+    var leader = new boolean[1];
+    var full = new boolean[1];
+
+    groups.compute(name, (key, group) -> {
+      if (group == null) {
+        group = new Group();
+        leader[0] = true;
+      }
+      synchronized (group) {
+        group.items.add(pending);
+        full[0] = group.items.size() >= maxSize;
+      }
+      joined[0] = group;
+      return full[0] ? null : group;
+    });
+
+    if (leader[0] && !full[0]) {
+      try {
+        Thread.sleep(window);
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    if (leader[0] || full[0]) {
+      send(name, joined[0], provider, configuration);
+    }
+
+    try {
+      return pending.result().get(window.plus(timeout).toNanos(), TimeUnit.NANOSECONDS);
+    } catch (ExecutionException exception) {
+      if (exception.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(exception.getCause());
+    } catch (TimeoutException exception) {
+      throw new ApiException(HttpStatus.GATEWAY_TIMEOUT.value(), I18nMessage.of(
+          "error.entity.create.timeout",
+          Map.of("entity", name)
+      ));
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE.value(), I18nMessage.of(
+          "error.entity.create.interrupted",
+          Map.of("entity", name)
+      ));
+    }
+  }
+
+  /**
+   * Sends a group to the provider, unless it was already sent, and completes each of its creations, failing those left
+   * without a result.
+   *
+   * @param name the name of the entity type
+   * @param group the group to send
+   * @param provider the provider of the entity
+   * @param configuration the provider configuration
+   */
+  private void send(String name, Group group, ProviderPlugin provider, ProviderConfiguration configuration) {
+    if (!group.sent.compareAndSet(false, true)) {
+      return;
+    }
+
+    groups.remove(name, group);
+    List<Pending> items;
+    synchronized (group) {
+      items = List.copyOf(group.items);
+    }
+
+    try {
+      var guard = entityService.getObject();
+      var first = items.getFirst();
+      if (items.size() == 1) {
+        first.result().complete(guard.callProvider(first.entity(),
+            () -> provider.create(first.context(), configuration, first.entity())));
+      } else {
+        var operations = items.stream()
+            .map(item -> new BatchWriteOperation("create", null, item.entity(), item.context()))
+            .toList();
+        complete(name, items, guard.callProvider(first.entity(),
+            () -> ((BatchWriteProvider) provider).applyBatch(new TaskExecutionContext(), configuration, operations)));
+      }
+    } catch (RuntimeException exception) {
+      items.forEach(item -> item.result().completeExceptionally(exception));
+    } finally {
+      items.forEach(item -> item.result().completeExceptionally(new ApiException(
+          HttpStatus.INTERNAL_SERVER_ERROR.value(),
+          I18nMessage.of("error.entity.create.unknown", Map.of("entity", name))
+      )));
+    }
+  }
+
+  /**
+   * Completes the creations of a group with the results of its batch write.
+   *
+   * @param name the name of the entity type
+   * @param items the creations of the group
+   * @param results the results of the batch write, one per creation
+   * @throws ApiException with HTTP status 502 if the provider did not return one result per creation
+   */
+  private void complete(String name, List<Pending> items, List<BatchWriteResult> results) {
+    if (results == null || results.size() != items.size()) {
+      throw new ApiException(HttpStatus.BAD_GATEWAY.value(), I18nMessage.of(
+          "error.provider.batch.results",
+          Map.of("expected", items.size(), "count", results == null ? 0 : results.size())
+      ));
+    }
+
+    for (int index = 0; index < items.size(); index++) {
+      var item = items.get(index);
+      var result = results.get(index);
+
+      if (result.applied()) {
+        item.result().complete(result.entity() == null ? item.entity() : result.entity());
+      } else {
+        item.result().completeExceptionally(new ApiException(HttpStatus.CONFLICT.value(), I18nMessage.of(
+            "error.entity.create.rejected",
+            Map.of("entity", name)
+        )));
+      }
+    }
+  }
+}
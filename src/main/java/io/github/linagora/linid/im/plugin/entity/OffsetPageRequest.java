@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Page request starting at any offset, used to resume cursor pagination where the offset is not a multiple of the page
+ * size, which {@link org.springframework.data.domain.PageRequest} cannot express.
+ *
+ * @param offset the number of entities to skip
+ * @param size the maximum number of entities to read
+ * @param sort the sort of the entities
+ */
+public record OffsetPageRequest(long offset, int size, Sort sort) implements Pageable {
+
+  /**
+   * Creates a page request, checking its bounds.
+   *
+   * @param offset the number of entities to skip
+   * @param size the maximum number of entities to read
+   * @param sort the sort of the entities, {@code null} for no sort
+   */
+  public OffsetPageRequest {
+    if (offset < 0) {
+      throw new IllegalArgumentException("Offset must not be negative");
+    }
+    if (size < 1) {
+      throw new IllegalArgumentException("Page size must be positive");
+    }
+    sort = sort == null ? Sort.unsorted() : sort;
+  }
+
+  @Override
+  public int getPageNumber() {
+    return Math.toIntExact(offset / size);
+  }
+
+  @Override
+  public int getPageSize() {
+    return size;
+  }
+
+  @Override
+  public long getOffset() {
+    return offset;
+  }
+
+  @Override
+  public Sort getSort() {
+    return sort;
+  }
+
+  @Override
+  public Pageable next() {
+    return new OffsetPageRequest(offset + size, size, sort);
+  }
+
+  @Override
+  public Pageable previousOrFirst() {
+    return hasPrevious() ? new OffsetPageRequest(Math.max(0, offset - size), size, sort) : first();
+  }
+
+  @Override
+  public Pageable first() {
+    return new OffsetPageRequest(0, size, sort);
+  }
+
+  @Override
+  public Pageable withPage(int pageNumber) {
+    return new OffsetPageRequest((long) pageNumber * size, size, sort);
+  }
+
+  @Override
+  public boolean hasPrevious() {
+    return offset > 0;
+  }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Durable local log of the writes accepted in write-behind mode.
+ *
+ * <p>
+ * Accepted operations are appended, one JSON document per line, to the {@value #PENDING_FILE} file of the
+ * {@code write-behind.path} directory, which is synced to the disk before the request is answered. Before being drained,
+ * the pending file is renamed into a segment, so that new operations can be appended while the segment is applied.
+ * Segments are only deleted once applied: those left by a stop are applied again on the next start. Operations rejected
+ * by the provider are appended to the {@value #FAILED_FILE} file with their error.
+ */
+@Slf4j
+@Component
+public class WriteBehindLog {
+
+  /**
+   * Name of the file receiving the accepted operations.
+   */
+  public static final String PENDING_FILE = "pending.log";
+
+  /**
+   * Prefix of the names of the segments waiting to be applied.
+   */
+  public static final String SEGMENT_PREFIX = "segment-";
+
+  /**
+   * Name of the file receiving the operations that could not be applied.
+   */
+  public static final String FAILED_FILE = "failed.log";
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  /**
+   * Directory holding the log files.
+   */
+  @Value("${write-behind.path:data/write-behind}")
+  private String path;
+
+  private Path directory;
+  private FileChannel pending;
+  private long sequence;
+
+  /**
+   * Creates the log directory if needed.
+   */
+  @PostConstruct
+  public void open() {
+    directory = Path.of(path);
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException exception) {
+      throw new UncheckedIOException("Cannot create the write-behind log directory " + directory, exception);
+    }
+  }
+
+  /**
+   * Closes the pending file.
+   */
+  @PreDestroy
+  public synchronized void close() {
+    closePending();
+  }
+
+  /**
+   * Appends an operation to the pending file, and syncs it to the disk.
+   *
+   * @param operation the accepted operation
+   * @throws ApiException with HTTP status 503 if the operation cannot be written
+   */
+  public synchronized void append(WriteBehindOperation operation) {
+    try {
+      if (pending == null) {
+        pending = FileChannel.open(directory.resolve(PENDING_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+      }
+      write(pending, operation);
+    } catch (IOException exception) {
+      closePending();
+      throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE.value(), I18nMessage.of(
+          "error.write.behind.unavailable",
+          Map.of("reason", String.valueOf(exception.getMessage()))
+      ));
+    }
+  }
+
+  /**
+   * Turns the pending operations into a new segment, and lists the segments waiting to be applied.
+   *
+   * @return the segments, oldest first
+   * @throws IOException if the pending file cannot be renamed or the directory cannot be listed
+   */
+  public synchronized List<Path> rotate() throws IOException {
+    closePending();
+
+    var file = directory.resolve(PENDING_FILE);
+    if (Files.exists(file) && Files.size(file) > 0) {
+      var segment = String.format("%s%013d-%06d.log", SEGMENT_PREFIX, System.currentTimeMillis(), sequence++ % 1_000_000);
+      Files.move(file, directory.resolve(segment), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(segment -> segment.getFileName().toString().startsWith(SEGMENT_PREFIX))
+          .sorted()
+          .toList();
+    }
+  }
+
+  /**
+   * Reads the operations of a segment, in the order in which they were accepted.
+   *
+   * <p>
+   * A line that cannot be read, such as a line partially written before a crash, is logged and skipped.
+   *
+   * @param segment the segment to read
+   * @return the operations of the segment
+   * @throws IOException if the segment cannot be read
+   */
+  public List<WriteBehindOperation> read(Path segment) throws IOException {
+    List<WriteBehindOperation> operations = new ArrayList<>();
+
+    try (Stream<String> lines = Files.lines(segment, StandardCharsets.UTF_8)) {
+      lines.filter(line -> !line.isBlank()).forEach(line -> {
+        try {
+          operations.add(MAPPER.readValue(line, WriteBehindOperation.class));
+        } catch (IOException exception) {
+          log.warn("Skipping an unreadable write-behind operation of {}", segment, exception);
+        }
+      });
+    }
+
+    return operations;
+  }
+
+  /**
+   * Deletes an applied segment.
+   *
+   * @param segment the segment to delete
+   * @throws IOException if the segment cannot be deleted
+   */
+  public void delete(Path segment) throws IOException {
+    Files.deleteIfExists(segment);
+  }
+
+  /**
+   * Appends an operation that could not be applied to the failed file, with its error.
+   *
+   * @param operation the operation
+   * @param error the description of the error
+   */
+  public synchronized void reject(WriteBehindOperation operation, Map<String, Object> error) {
+    Map<String, Object> entry = new LinkedHashMap<>();
+    entry.put("operation", operation);
+    entry.put("error", error);
+    entry.put("rejectedAt", System.currentTimeMillis());
+
+    try (var channel = FileChannel.open(directory.resolve(FAILED_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.APPEND)) {
+      write(channel, entry);
+    } catch (IOException exception) {
+      log.error("Cannot record the failed write-behind operation {}", operation.operationId(), exception);
+    }
+  }
+
+  /**
+   * Writes a value as a single JSON line, and syncs it to the disk.
+   *
+   * @param channel the channel of the file
+   * @param value the value to write
+   * @throws IOException if the value cannot be written
+   */
+  private void write(FileChannel channel, Object value) throws IOException {
+    var line = MAPPER.writeValueAsString(value) + "\n";
+    var buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    channel.force(false);
+  }
+
+  /**
+   * Closes the pending file if it is open, so that it can be renamed.
+   */
+  private void closePending() {
+    if (pending == null) {
+      return;
+    }
+
+    try {
+      pending.close();
+    } catch (IOException exception) {
+      log.warn("Cannot close the write-behind pending file", exception);
+    }
+    pending = null;
+  }
+}
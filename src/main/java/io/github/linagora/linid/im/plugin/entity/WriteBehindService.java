@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Map;
+
+/**
+ * Service accepting the creations, updates and patches of the entities in write-behind mode.
+ *
+ * <p>
+ * In this mode, selected per entity by its {@code write-mode} setting, a write is validated and recorded in a durable local
+ * log before the request is answered, and applied by the provider in the background. Clients accepting eventual
+ * consistency, such as bulk provisioning sources, no longer wait for the provider. The status of an accepted write can
+ * then be retrieved with the identifier of its operation.
+ */
+public interface WriteBehindService {
+
+  /**
+   * Tells whether a write request must be accepted in write-behind mode.
+   *
+   * @param request the HTTP request
+   * @param entityName the name of the entity type to write
+   * @return {@code true} if the write must be recorded and applied in the background
+   */
+  boolean isEnabled(HttpServletRequest request, String entityName);
+
+  /**
+   * Authenticates and validates a write, then records it to be applied in the background.
+   *
+   * @param request the HTTP request
+   * @param entityName the name of the entity type to write
+   * @param action the write action: {@code create}, {@code update} or {@code patch}
+   * @param id the identifier of the targeted entity, {@code null} for a creation
+   * @param body the attributes to write
+   * @return the recorded operation
+   */
+  WriteBehindOperation handleWrite(HttpServletRequest request, String entityName, String action, String id,
+                                   Map<String, Object> body);
+
+  /**
+   * Retrieves the status of a write accepted in write-behind mode.
+   *
+   * @param request the HTTP request
+   * @param entityName the name of the entity type targeted by the write
+   * @param operationId the identifier of the operation
+   * @return the status of the operation
+   * @throws io.github.linagora.linid.im.corelib.exception.ApiException if the operation is unknown or its status expired
+   */
+  WriteBehindStatus handleFindOperation(HttpServletRequest request, String entityName, String operationId);
+}
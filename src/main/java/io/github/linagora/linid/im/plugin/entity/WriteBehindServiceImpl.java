@@ -0,0 +1,556 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.ProviderConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.provider.ProviderPlugin;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import io.github.linagora.linid.im.plugin.config.EntitySettingsService;
+import io.github.linagora.linid.im.plugin.provider.BatchWriteOperation;
+import io.github.linagora.linid.im.plugin.provider.BatchWriteProvider;
+import io.github.linagora.linid.im.plugin.provider.BatchWriteResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of {@link WriteBehindService}, recording the writes in a {@link WriteBehindLog} drained by a background
+ * writer.
+ *
+ * <p>
+ * Every {@code write-behind.flush-interval}, the writer applies the recorded operations in the order in which they were
+ * accepted. Consecutive patches of the same entity, with no other write of this entity in between, are first coalesced
+ * into a single patch. Operations are then sent to the provider by chunks of {@code write-behind.batch-size} operations of
+ * the same entity type, in a single call when the provider is a {@link BatchWriteProvider}, and the phases following the
+ * provider call are executed for each of them. Provider calls go through the concurrency limit and the circuit breaker of
+ * the provider, a rejected call rejecting its operations.
+ *
+ * <p>
+ * The task execution context of the request is not recorded: the provider call and the following phases of an operation
+ * are executed with a new context. Operations are applied at least once, since a segment interrupted by a stop is applied
+ * again on the next start.
+ *
+ * <p>
+ * The status of each operation is kept in memory until {@code write-behind.status-retention} after it was applied or
+ * rejected. The status of an operation accepted before a restart is only known again once the operation is applied.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class WriteBehindServiceImpl implements WriteBehindService {
+
+  /**
+   * Service executing the lifecycle phases of the entities.
+   */
+  private final DynamicEntityServiceImpl entityService;
+
+  /**
+   * Service resolving the write mode of the entities.
+   */
+  private final EntitySettingsService settingsService;
+
+  /**
+   * Log of the accepted operations.
+   */
+  private final WriteBehindLog writeLog;
+
+  /**
+   * Maximum number of operations sent to the provider at once.
+   */
+  @Value("${write-behind.batch-size:100}")
+  private int batchSize;
+
+  /**
+   * Delay between two drains of the log.
+   */
+  @Value("${write-behind.flush-interval:1s}")
+  private Duration flushInterval;
+
+  /**
+   * Maximum duration during which the running drain can complete when the application stops.
+   */
+  @Value("${write-behind.shutdown-timeout:30s}")
+  private Duration shutdownTimeout;
+
+  /**
+   * Duration during which the status of an applied or rejected operation can still be retrieved.
+   */
+  @Value("${write-behind.status-retention:1h}")
+  private Duration statusRetention;
+
+  /**
+   * Status of the operations, keyed by operation identifier.
+   */
+  private final Map<String, WriteBehindStatus> statuses = new ConcurrentHashMap<>();
+
+  private ScheduledExecutorService writer;
+
+  /**
+   * Group of recorded operations applied by a single provider write.
+   *
+   * @param operations the recorded operations, the first one giving the entity, action and identifier of the write
+   * @param attributes the attributes to write, merged from every operation
+   */
+  public record PendingWrite(List<WriteBehindOperation> operations, Map<String, Object> attributes) {
+
+    /**
+     * Creates the write of a single operation.
+     *
+     * @param operation the recorded operation
+     */
+    public PendingWrite(WriteBehindOperation operation) {
+      this(new ArrayList<>(List.of(operation)), operation.attributes() == null
+          ? new HashMap<>()
+          : new HashMap<>(operation.attributes()));
+    }
+
+    /**
+     * Returns the name of the entity type to write.
+     *
+     * @return the name of the entity type
+     */
+    public String entity() {
+      return operations.getFirst().entity();
+    }
+
+    /**
+     * Returns the write action.
+     *
+     * @return the write action: {@code create}, {@code update} or {@code patch}
+     */
+    public String action() {
+      return operations.getFirst().action();
+    }
+
+    /**
+     * Returns the identifier of the targeted entity.
+     *
+     * @return the identifier, {@code null} for a creation
+     */
+    public String id() {
+      return operations.getFirst().id();
+    }
+
+    /**
+     * Merges a later patch of the same entity into this write.
+     *
+     * @param operation the later patch
+     */
+    public void merge(WriteBehindOperation operation) {
+      operations.add(operation);
+      if (operation.attributes() != null) {
+        attributes.putAll(operation.attributes());
+      }
+    }
+  }
+
+  /**
+   * Starts the background writer, which first applies the segments left by the previous run.
+   */
+  @PostConstruct
+  public void start() {
+    writer = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("write-behind").factory());
+    writer.scheduleWithFixedDelay(this::drainQuietly, 0, flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stops the background writer, waits for the running drain up to {@code write-behind.shutdown-timeout}, then applies the
+   * operations accepted meanwhile.
+   */
+  @PreDestroy
+  public void stop() {
+    writer.shutdown();
+    try {
+      if (writer.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        drainQuietly();
+      } else {
+        log.warn("Write-behind drain still running at shutdown, remaining operations will be applied on next start");
+        writer.shutdownNow();
+      }
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      writer.shutdownNow();
+    }
+  }
+
+  @Override
+  public boolean isEnabled(HttpServletRequest request, String entityName) {
+    return request.getHeader(HttpHeaders.IF_MATCH) == null && WriteMode.from(
+        settingsService.getSetting(entityName, "write-mode", String.class, null)) == WriteMode.WRITE_BEHIND;
+  }
+
+  @Override
+  public WriteBehindOperation handleWrite(HttpServletRequest request, String entityName, String action, String id,
+                                          Map<String, Object> body) {
+    var phaseAction = getPhaseAction(action);
+    TaskExecutionContext context = new TaskExecutionContext();
+    var entity = new DynamicEntity();
+    entity.setAttributes(body);
+
+    entityService.authenticate(request, entity, context, phaseAction);
+
+    entityService.updateEntityConfiguration(entity, entityName);
+    entityService.beforeWrite(context, entity, phaseAction);
+
+    var operation = new WriteBehindOperation(UUID.randomUUID().toString(), entityName, action, id, entity.getAttributes(),
+        System.currentTimeMillis());
+    writeLog.append(operation);
+    statuses.put(operation.operationId(), WriteBehindStatus.pending(operation));
+
+    return operation;
+  }
+
+  @Override
+  public WriteBehindStatus handleFindOperation(HttpServletRequest request, String entityName, String operationId) {
+    TaskExecutionContext context = new TaskExecutionContext();
+    var entity = new DynamicEntity();
+
+    entityService.authenticate(request, entity, context, "FindOperation");
+    entityService.updateEntityConfiguration(entity, entityName);
+
+    var status = statuses.get(operationId);
+    if (status == null || !status.entity().equals(entityName)) {
+      throw new ApiException(HttpStatus.NOT_FOUND.value(), I18nMessage.of(
+          "error.write.behind.operation.unknown",
+          Map.of("operation", operationId)
+      ));
+    }
+
+    return status;
+  }
+
+  /**
+   * Applies every recorded operation, segment by segment.
+   *
+   * <p>
+   * A segment is deleted once all its operations were sent to the provider, successfully or not.
+   *
+   * @throws IOException if the log cannot be read
+   */
+  public synchronized void drain() throws IOException {
+    evictFinishedStatuses();
+    for (Path segment : writeLog.rotate()) {
+      apply(coalesce(writeLog.read(segment)));
+      writeLog.delete(segment);
+    }
+  }
+
+  /**
+   * Applies every recorded operation, logging the errors so that the background writer keeps running.
+   */
+  public void drainQuietly() {
+    try {
+      drain();
+    } catch (IOException | RuntimeException exception) {
+      log.error("Write-behind drain failed, it will be retried", exception);
+    }
+  }
+
+  /**
+   * Removes the status of the operations applied or rejected for longer than the retention duration.
+   */
+  public void evictFinishedStatuses() {
+    var limit = Instant.now().minus(statusRetention);
+    statuses.values().removeIf(status -> status.isFinished() && status.finishedAt().isBefore(limit));
+  }
+
+  /**
+   * Coalesces consecutive patches of the same entity, with no other write of this entity in between, keeping the order of
+   * the other operations.
+   *
+   * @param operations the recorded operations, in the order in which they were accepted
+   * @return the writes to apply
+   */
+  public List<PendingWrite> coalesce(List<WriteBehindOperation> operations) {
+    List<PendingWrite> writes = new ArrayList<>();
+    Map<String, PendingWrite> lastWrites = new HashMap<>();
+
+    for (var operation : operations) {
+      if (operation.id() == null) {
+        writes.add(new PendingWrite(operation));
+        continue;
+      }
+
+      var key = operation.entity() + "/" + operation.id();
+      var last = lastWrites.get(key);
+      if (last != null && "patch".equals(last.action()) && "patch".equals(operation.action())) {
+        last.merge(operation);
+        continue;
+      }
+
+      var write = new PendingWrite(operation);
+      writes.add(write);
+      lastWrites.put(key, write);
+    }
+
+    return writes;
+  }
+
+  /**
+   * Applies the given writes in order, by chunks of consecutive writes of the same entity type.
+   *
+   * @param writes the writes to apply
+   */
+  public void apply(List<PendingWrite> writes) {
+    var size = Math.max(1, batchSize);
+    var start = 0;
+
+    while (start < writes.size()) {
+      var entityName = writes.get(start).entity();
+      var end = start + 1;
+      while (end < writes.size() && end - start < size && entityName.equals(writes.get(end).entity())) {
+        end++;
+      }
+
+      applyChunk(entityName, writes.subList(start, end));
+      start = end;
+    }
+  }
+
+  /**
+   * Applies a chunk of writes of the same entity type, in a single provider call when the provider supports it.
+   *
+   * @param entityName the name of the entity type
+   * @param chunk the writes to apply
+   */
+  public void applyChunk(String entityName, List<PendingWrite> chunk) {
+    var entity = new DynamicEntity();
+    ProviderPlugin provider;
+    ProviderConfiguration configuration;
+
+    try {
+      entityService.updateEntityConfiguration(entity, entityName);
+      provider = entityService.getProvider(entity);
+      configuration = entityService.getProviderConfiguration(entity);
+    } catch (RuntimeException exception) {
+      chunk.forEach(write -> reject(write, exception));
+      return;
+    }
+
+    if (provider instanceof BatchWriteProvider batchProvider) {
+      applyBatch(entity, batchProvider, configuration, chunk);
+    } else {
+      chunk.forEach(write -> applyWrite(entity, provider, configuration, write));
+    }
+  }
+
+  /**
+   * Applies a single write, then executes the phase following the provider call.
+   *
+   * @param entity the entity holding the entity configuration
+   * @param provider the provider of the entity
+   * @param configuration the provider configuration
+   * @param write the write to apply
+   */
+  public void applyWrite(DynamicEntity entity, ProviderPlugin provider, ProviderConfiguration configuration,
+                         PendingWrite write) {
+    TaskExecutionContext context = new TaskExecutionContext();
+    var target = newEntity(entity, write);
+
+    try {
+      var action = getPhaseAction(write.action());
+      if (write.id() != null) {
+        entityService.forgetState(entity, write.id());
+      }
+      var result = entityService.callProvider(entity, () -> switch (action) {
+        case DynamicEntityServiceImpl.CREATE -> provider.create(context, configuration, target);
+        case DynamicEntityServiceImpl.UPDATE -> provider.update(context, configuration, write.id(), target);
+        default -> provider.patch(context, configuration, write.id(), target);
+      });
+      entityService.afterWrite(context, result, action);
+      markApplied(write);
+    } catch (RuntimeException exception) {
+      reject(write, exception);
+    }
+  }
+
+  /**
+   * Applies a chunk of writes in a single provider call, then executes the phase following the provider call for each of
+   * them.
+   *
+   * @param entity the entity holding the entity configuration
+   * @param provider the provider of the entity
+   * @param configuration the provider configuration
+   * @param chunk the writes to apply
+   */
+  public void applyBatch(DynamicEntity entity, BatchWriteProvider provider, ProviderConfiguration configuration,
+                         List<PendingWrite> chunk) {
+    List<BatchWriteOperation> operations = chunk.stream()
+        .map(write -> new BatchWriteOperation(write.action(), write.id(), newEntity(entity, write),
+            new TaskExecutionContext()))
+        .toList();
+
+    chunk.stream()
+        .filter(write -> write.id() != null)
+        .forEach(write -> entityService.forgetState(entity, write.id()));
+
+    List<BatchWriteResult> results;
+    try {
+      results = entityService.callProvider(entity,
+          () -> provider.applyBatch(new TaskExecutionContext(), configuration, operations));
+      if (results == null || results.size() != chunk.size()) {
+        throw new ApiException(HttpStatus.BAD_GATEWAY.value(), I18nMessage.of(
+            "error.provider.batch.results",
+            Map.of("expected", chunk.size(), "count", results == null ? 0 : results.size())
+        ));
+      }
+    } catch (RuntimeException exception) {
+      chunk.forEach(write -> reject(write, exception));
+      return;
+    }
+
+    for (int index = 0; index < chunk.size(); index++) {
+      var write = chunk.get(index);
+      var result = results.get(index);
+
+      try {
+        if (!result.applied()) {
+          throw toNotAppliedError(write);
+        }
+        entityService.afterWrite(new TaskExecutionContext(),
+            result.entity() == null ? operations.get(index).entity() : result.entity(), getPhaseAction(write.action()));
+        markApplied(write);
+      } catch (RuntimeException exception) {
+        reject(write, exception);
+      }
+    }
+  }
+
+  /**
+   * Builds the error of a write the provider reported as not applied.
+   *
+   * <p>
+   * A creation is reported as rejected with HTTP status 409, an update or patch as targeting an unknown entity with HTTP
+   * status 404.
+   *
+   * @param write the write
+   * @return the error to record for the write
+   */
+  public ApiException toNotAppliedError(PendingWrite write) {
+    if ("create".equals(write.action())) {
+      return new ApiException(HttpStatus.CONFLICT.value(), I18nMessage.of(
+          "error.entity.create.rejected",
+          Map.of("entity", write.entity())
+      ));
+    }
+
+    return new ApiException(HttpStatus.NOT_FOUND.value(), I18nMessage.of(
+        "error.entity.id.unknown",
+        Map.of("entity", write.entity(), "id", String.valueOf(write.id()))
+    ));
+  }
+
+  /**
+   * Records the operations of a write applied by the provider.
+   *
+   * @param write the write
+   */
+  public void markApplied(PendingWrite write) {
+    write.operations().forEach(operation -> statuses.put(operation.operationId(), WriteBehindStatus.applied(operation)));
+  }
+
+  /**
+   * Resolves the lifecycle phase suffix of a write action.
+   *
+   * @param action the write action
+   * @return the phase suffix of the action
+   * @throws ApiException if the action cannot be applied in write-behind mode
+   */
+  public String getPhaseAction(String action) {
+    return switch (String.valueOf(action)) {
+      case "create" -> DynamicEntityServiceImpl.CREATE;
+      case "update" -> DynamicEntityServiceImpl.UPDATE;
+      case "patch" -> DynamicEntityServiceImpl.PATCH;
+      default -> throw new ApiException(HttpStatus.BAD_REQUEST.value(), I18nMessage.of(
+          "error.bulk.action.unknown",
+          Map.of("action", String.valueOf(action))
+      ));
+    };
+  }
+
+  /**
+   * Records the operations of a write that could not be applied.
+   *
+   * @param write the write
+   * @param exception the error raised by the write
+   */
+  public void reject(PendingWrite write, RuntimeException exception) {
+    Map<String, Object> error = new LinkedHashMap<>();
+    if (exception instanceof ApiException apiException) {
+      error.put("status", apiException.getStatusCode());
+      error.put("errorKey", apiException.getError().key());
+      error.put("errorContext", apiException.getError().context());
+    } else {
+      error.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
+      error.put("reason", String.valueOf(exception.getMessage()));
+    }
+
+    log.warn("Write-behind {} of {} {} failed: {}", write.action(), write.entity(), write.id(), error);
+    write.operations().forEach(operation -> {
+      writeLog.reject(operation, error);
+      statuses.put(operation.operationId(), WriteBehindStatus.failed(operation, error));
+    });
+  }
+
+  /**
+   * Creates a new entity sharing the configuration of the given one, holding the attributes of a write.
+   *
+   * @param entity the entity holding the configuration
+   * @param write the write
+   * @return a new entity with the same configuration and the write attributes
+   */
+  public DynamicEntity newEntity(DynamicEntity entity, PendingWrite write) {
+    var result = new DynamicEntity();
+    result.setConfiguration(entity.getConfiguration());
+    result.setAttributes(new HashMap<>(write.attributes()));
+    return result;
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Status of a write accepted in write-behind mode, retrieved by the client with the identifier of the operation.
+ *
+ * @param operationId the identifier of the operation
+ * @param entity the name of the entity type to write
+ * @param action the write action: {@code create}, {@code update} or {@code patch}
+ * @param id the identifier of the targeted entity, {@code null} for a creation
+ * @param queuedAt the time at which the operation was accepted, in milliseconds since the epoch
+ * @param state the state of the operation
+ * @param finishedAt the date at which the operation was applied or rejected, {@code null} while it is pending
+ * @param error the error recorded when the operation was rejected, {@code null} otherwise
+ */
+public record WriteBehindStatus(String operationId, String entity, String action, String id, long queuedAt, State state,
+                                Instant finishedAt, Map<String, Object> error) {
+
+  /**
+   * State of an operation.
+   */
+  public enum State {
+    /**
+     * The operation is recorded and waits for the background writer.
+     */
+    PENDING,
+    /**
+     * The operation was applied by the provider.
+     */
+    APPLIED,
+    /**
+     * The operation could not be applied, see {@link #error()}.
+     */
+    FAILED
+  }
+
+  /**
+   * Creates the status of an operation waiting for the background writer.
+   *
+   * @param operation the recorded operation
+   * @return the pending status
+   */
+  public static WriteBehindStatus pending(WriteBehindOperation operation) {
+    return of(operation, State.PENDING, null, null);
+  }
+
+  /**
+   * Creates the status of an operation applied by the provider.
+   *
+   * @param operation the recorded operation
+   * @return the applied status
+   */
+  public static WriteBehindStatus applied(WriteBehindOperation operation) {
+    return of(operation, State.APPLIED, Instant.now(), null);
+  }
+
+  /**
+   * Creates the status of an operation that could not be applied.
+   *
+   * @param operation the recorded operation
+   * @param error the error recorded for the operation
+   * @return the failed status
+   */
+  public static WriteBehindStatus failed(WriteBehindOperation operation, Map<String, Object> error) {
+    return of(operation, State.FAILED, Instant.now(), error);
+  }
+
+  /**
+   * Indicates whether the operation is over.
+   *
+   * @return {@code true} if the operation was applied or rejected
+   */
+  public boolean isFinished() {
+    return state != State.PENDING;
+  }
+
+  /**
+   * Creates the status of an operation.
+   *
+   * @param operation the recorded operation
+   * @param state the state of the operation
+   * @param finishedAt the date at which the operation ended, {@code null} while it is pending
+   * @param error the error recorded for the operation, {@code null} unless it failed
+   * @return the status
+   */
+  private static WriteBehindStatus of(WriteBehindOperation operation, State state, Instant finishedAt,
+                                      Map<String, Object> error) {
+    return new WriteBehindStatus(operation.operationId(), operation.entity(), operation.action(), operation.id(),
+        operation.queuedAt(), state, finishedAt, error);
+  }
+}
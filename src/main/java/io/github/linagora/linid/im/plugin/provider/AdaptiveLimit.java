@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.provider;
+
+/**
+ * Concurrency limit of a provider, adapted to its observed latency with an additive increase, multiplicative decrease
+ * (AIMD) policy.
+ *
+ * <p>
+ * The limit grows by one after each fast call made while at least half of the limit was in use, and shrinks by
+ * {@link #BACKOFF_RATIO} after each call slower than {@code tolerance} times the average latency, or failing because of
+ * the provider. The average latency is an exponential moving average of every call.
+ */
+public class AdaptiveLimit {
+
+  /**
+   * Ratio applied to the limit when the provider shows signs of overload.
+   */
+  public static final double BACKOFF_RATIO = 0.9;
+
+  /**
+   * Weight of the latest call in the average latency.
+   */
+  private static final double SMOOTHING = 0.05;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final double tolerance;
+  private double limit;
+  private double averageLatency;
+  private int inFlight;
+
+  /**
+   * Creates a limit.
+   *
+   * @param initialLimit the initial limit
+   * @param minLimit the lowest limit
+   * @param maxLimit the highest limit
+   * @param tolerance the ratio between the latency of a call and the average latency above which the call is too slow
+   */
+  public AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+    this.minLimit = Math.max(1, minLimit);
+    this.maxLimit = Math.max(this.minLimit, maxLimit);
+    this.tolerance = tolerance;
+    this.limit = Math.clamp(initialLimit, this.minLimit, this.maxLimit);
+  }
+
+  /**
+   * Starts a call if the limit is not reached.
+   *
+   * @return {@code true} if the call can start, {@code false} if it must be rejected
+   */
+  public synchronized boolean tryAcquire() {
+    if (inFlight >= (int) limit) {
+      return false;
+    }
+
+    inFlight++;
+    return true;
+  }
+
+  /**
+   * Ends a call started with {@link #tryAcquire()}, and adapts the limit to its outcome.
+   *
+   * @param latencyNanos the duration of the call, in nanoseconds
+   * @param overloaded whether the call failed because of the provider
+   */
+  public synchronized void release(long latencyNanos, boolean overloaded) {
+    var saturated = inFlight * 2 >= limit;
+    inFlight--;
+
+    if (overloaded || (averageLatency > 0 && latencyNanos > tolerance * averageLatency)) {
+      limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+    } else if (saturated) {
+      limit = Math.min(maxLimit, limit + 1);
+    }
+
+    averageLatency = averageLatency == 0 ? latencyNanos : averageLatency + SMOOTHING * (latencyNanos - averageLatency);
+  }
+
+  /**
+   * Ends a call started with {@link #tryAcquire()} that did not reach the provider, leaving the limit and the average
+   * latency unchanged.
+   */
+  public synchronized void cancel() {
+    inFlight--;
+  }
+
+  /**
+   * Returns the current limit.
+   *
+   * @return the maximum number of concurrent calls
+   */
+  public synchronized int getLimit() {
+    return (int) limit;
+  }
+
+  /**
+   * Returns the number of calls in progress.
+   *
+   * @return the number of concurrent calls
+   */
+  public synchronized int getInFlight() {
+    return inFlight;
+  }
+}
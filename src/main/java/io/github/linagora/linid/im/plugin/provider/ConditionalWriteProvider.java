@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.provider;
+
+import io.github.linagora.linid.im.corelib.plugin.config.dto.ProviderConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.provider.ProviderPlugin;
+
+/**
+ * Optional capability for {@link ProviderPlugin} implementations able to apply the {@code If-Match} precondition of a
+ * write atomically, against the version attribute of the entity.
+ *
+ * <p>
+ * When the provider resolved for an entity also implements this interface and the entity has a {@code version-attribute}
+ * setting, updates, patches and deletions holding an {@code If-Match} header do not read the entity beforehand. The
+ * accepted versions are put in the task execution context under {@link #IF_MATCH_KEY}, and the name of the version
+ * attribute under {@link #VERSION_ATTRIBUTE_KEY}. The provider must then only write the entity if its stored version is
+ * one of the accepted versions, or if they hold {@code *} and the entity exists, and otherwise throw an
+ * {@code ApiException} with HTTP status 412 and the {@code error.precondition.failed} message.
+ */
+public interface ConditionalWriteProvider {
+
+  /**
+   * Name of the task execution context entry holding the list of accepted versions.
+   */
+  String IF_MATCH_KEY = "ifMatch";
+
+  /**
+   * Name of the task execution context entry holding the name of the version attribute.
+   */
+  String VERSION_ATTRIBUTE_KEY = "versionAttribute";
+
+  /**
+   * Tells whether the preconditions can be applied with the given configuration, for providers whose backend may not
+   * support conditional writes.
+   *
+   * @param configuration the provider configuration
+   * @return {@code true} if the provider applies the preconditions found in the context
+   */
+  default boolean supportsPreconditions(ProviderConfiguration configuration) {
+    return true;
+  }
+}
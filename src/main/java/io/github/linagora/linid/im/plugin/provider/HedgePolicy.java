@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.provider;
+
+import java.util.Arrays;
+
+/**
+ * Hedging policy of the reads of a provider: it tells when a read is slow enough to be worth a second attempt, and caps the
+ * number of second attempts.
+ *
+ * <p>
+ * The hedging delay is the 95th percentile of the latency of the last {@code sampleSize} successful read attempts. Each
+ * read earns {@code budgetRatio} hedge, and each hedge spends one, so that at most {@code budgetRatio} of the reads are
+ * hedged over time.
+ */
+public class HedgePolicy {
+
+  /**
+   * Number of latency samples required before reads are hedged.
+   */
+  public static final int MIN_SAMPLES = 20;
+
+  /**
+   * Highest number of hedges that can be saved up, so that an idle period is not followed by a burst of hedges.
+   */
+  private static final double MAX_BUDGET = 10;
+
+  private final long[] samples;
+  private final double budgetRatio;
+  private int recorded;
+  private int next;
+  private double budget;
+
+  /**
+   * Creates a policy without latency samples.
+   *
+   * @param sampleSize the number of latency samples kept
+   * @param budgetRatio the ratio of reads that can be hedged
+   */
+  public HedgePolicy(int sampleSize, double budgetRatio) {
+    this.samples = new long[Math.max(MIN_SAMPLES, sampleSize)];
+    this.budgetRatio = budgetRatio;
+  }
+
+  /**
+   * Records the latency of a successful read attempt.
+   *
+   * @param latencyNanos the duration of the attempt, in nanoseconds
+   */
+  public synchronized void record(long latencyNanos) {
+    samples[next] = latencyNanos;
+    next = (next + 1) % samples.length;
+    recorded = Math.min(samples.length, recorded + 1);
+  }
+
+  /**
+   * Starts a read, earning its share of the hedging budget, and returns the delay after which it should be hedged.
+   *
+   * @return the hedging delay, in nanoseconds, or {@code -1} if the read must not be hedged because too few latency
+   *     samples were recorded
+   */
+  public synchronized long startRead() {
+    budget = Math.min(MAX_BUDGET, budget + budgetRatio);
+
+    if (recorded < MIN_SAMPLES) {
+      return -1;
+    }
+
+    var sorted = Arrays.copyOf(samples, recorded);
+    Arrays.sort(sorted);
+    return sorted[(int) Math.ceil(recorded * 0.95) - 1];
+  }
+
+  /**
+   * Spends one hedge of the budget, if available.
+   *
+   * @return {@code true} if the read can be hedged, {@code false} if the budget is exhausted
+   */
+  public synchronized boolean tryHedge() {
+    if (budget < 1) {
+      return false;
+    }
+
+    budget--;
+    return true;
+  }
+}
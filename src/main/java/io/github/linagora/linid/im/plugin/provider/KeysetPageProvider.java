@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.provider;
+
+import io.github.linagora.linid.im.corelib.plugin.config.dto.ProviderConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.provider.ProviderPlugin;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Optional capability for {@link ProviderPlugin} implementations able to read entities after a given sort key (keyset
+ * pagination), instead of skipping a number of entities.
+ *
+ * <p>
+ * When the provider resolved for an entity also implements this interface, cursor paginated reads are delegated to
+ * {@link #findAll(TaskExecutionContext, ProviderConfiguration, MultiValueMap, KeysetScrollPosition, int, Sort,
+ * DynamicEntity)}, so that reading a deep page costs the same as reading the first one.
+ */
+public interface KeysetPageProvider {
+
+  /**
+   * Retrieves the entities matching the given filters that follow the given position.
+   *
+   * <p>
+   * The position of each returned entity, given by {@link Window#positionAt(int)}, must be a {@link KeysetScrollPosition}
+   * holding the sort keys of the entity, including a unique key used to break ties. These keys are encoded in the
+   * continuation token returned to the client and given back as is, after a JSON round trip, to read the next entities.
+   *
+   * @param context the task execution context of the request
+   * @param configuration the provider configuration
+   * @param filters the filters selecting the entities to read
+   * @param position the position after which entities are read, initial for the first page
+   * @param size the maximum number of entities to read
+   * @param sort the requested sort, possibly unsorted
+   * @param dynamicEntity the entity holding the entity configuration
+   * @return the read entities and their positions
+   */
+  Window<DynamicEntity> findAll(TaskExecutionContext context, ProviderConfiguration configuration,
+                                MultiValueMap<String, String> filters, KeysetScrollPosition position, int size, Sort sort,
+                                DynamicEntity dynamicEntity);
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.provider;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs provider reads with the timeout of their provider, and hedges them for the providers for which hedging is enabled.
+ *
+ * <p>
+ * Settings are read from the {@code provider.settings.<provider>.<key>} properties, falling back to
+ * {@code provider.settings.default.<key>}:
+ * <ul>
+ *   <li>{@code timeout}: the maximum duration of a read, {@code 0} for none;</li>
+ *   <li>{@code hedge}: whether reads are hedged;</li>
+ *   <li>{@code hedge-budget}: the ratio of reads that can be hedged.</li>
+ * </ul>
+ *
+ * <p>
+ * Only idempotent reads go through this executor. Writes are not guarded: a write abandoned after a timeout could still
+ * be applied by the provider, leaving the client with an error for a write that succeeded.
+ *
+ * <p>
+ * Guarded reads run on a virtual thread while the calling thread waits for them, so that they can be abandoned when their
+ * timeout expires: the abandoned read is interrupted. They do not see the thread-local state of the calling thread, such
+ * as the request attributes, the security context holder or the logging context, so providers relying on it must not
+ * have a timeout nor hedged reads. A hedged read starts a second attempt once the first one has been running for longer
+ * than the 95th percentile of the recent read latencies of the provider, and returns the first result; the other attempt
+ * is interrupted. Each attempt works on its own copy of the task execution context and of the entity, and only the
+ * copies of the attempt whose result is returned are copied back, so that an abandoned attempt cannot change them. The
+ * executor publishes the {@code linid.provider.timeouts} and {@code linid.provider.hedges} counters, tagged with the
+ * provider name.
+ */
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ProviderCallExecutor {
+
+  /**
+   * Prefix of the properties holding provider settings.
+   */
+  public static final String PREFIX = "provider.settings.";
+
+  /**
+   * Name used in place of a provider name for settings shared by all providers.
+   */
+  public static final String DEFAULT_PROVIDER = "default";
+
+  /**
+   * Number of latency samples kept by each hedging policy.
+   */
+  private static final int SAMPLE_SIZE = 200;
+
+  /**
+   * Spring environment holding the settings.
+   */
+  private final Environment environment;
+
+  /**
+   * Registry of the executor metrics.
+   */
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * Hedging policies, keyed by provider name.
+   */
+  private final Map<String, HedgePolicy> policies = new ConcurrentHashMap<>();
+
+  /**
+   * Provider read to run on copies of the task execution context and of the entity.
+   *
+   * @param <T> the type of the read result
+   */
+  @FunctionalInterface
+  public interface Read<T> {
+
+    /**
+     * Reads from the provider.
+     *
+     * @param context the copy of the task execution context to pass to the provider
+     * @param entity the copy of the entity to pass to the provider
+     * @return the result of the read
+     */
+    T apply(TaskExecutionContext context, DynamicEntity entity);
+  }
+
+  /**
+   * Outcome of an attempt, holding the copies it worked on.
+   *
+   * @param result the result of the read
+   * @param context the copy of the task execution context of the attempt
+   * @param entity the copy of the entity of the attempt
+   * @param <T> the type of the read result
+   */
+  private record Attempt<T>(T result, TaskExecutionContext context, DynamicEntity entity) {
+  }
+
+  /**
+   * Tells whether the reads from a provider must go through this executor.
+   *
+   * @param provider the name of the provider configuration
+   * @return {@code true} if the provider has a timeout or hedged reads
+   */
+  public boolean isGuarded(String provider) {
+    return !getTimeout(provider).isZero() || isHedged(provider);
+  }
+
+  /**
+   * Reads from a provider within its timeout, hedging the read when hedging is enabled for the provider.
+   *
+   * <p>
+   * A failed attempt does not trigger a second one, but when both attempts run, the read only fails once both failed.
+   *
+   * @param provider the name of the provider configuration
+   * @param context the task execution context of the request, receiving the values set by the returned attempt
+   * @param entity the entity passed to the provider, receiving the attributes set by the returned attempt
+   * @param read the provider read, which must be idempotent since it may run twice
+   * @param <T> the type of the read result
+   * @return the result of the first successful attempt
+   * @throws ApiException with HTTP status 504 if the timeout of the provider expires
+   */
+  public <T> T read(String provider, TaskExecutionContext context, DynamicEntity entity, Read<T> read) {
+    var policy = isHedged(provider)
+        ? policies.computeIfAbsent(provider, key -> new HedgePolicy(SAMPLE_SIZE, getBudget(key)))
+        : null;
+    long timeout = getTimeout(provider).toNanos();
+    long hedgeDelay = policy == null ? -1 : policy.startRead();
+    long start = System.nanoTime();
+    var executor = Executors.newVirtualThreadPerTaskExecutor();
+    var completion = new ExecutorCompletionService<Attempt<T>>(executor);
+    RuntimeException failure = null;
+
+    try {
+      completion.submit(() -> attempt(context, entity, read, policy));
+
+      for (int pending = 1; pending > 0; ) {
+        long elapsed = System.nanoTime() - start;
+        long wait = Math.min(timeout > 0 ? timeout - elapsed : Long.MAX_VALUE,
+            hedgeDelay >= 0 ? hedgeDelay - elapsed : Long.MAX_VALUE);
+        Future<Attempt<T>> done = wait == Long.MAX_VALUE
+            ? completion.take()
+            : completion.poll(Math.max(0, wait), TimeUnit.NANOSECONDS);
+
+        if (done != null) {
+          pending--;
+          try {
+            return merge(done.get(), context, entity);
+          } catch (ExecutionException exception) {
+            failure = unwrap(exception);
+          }
+        } else if (hedgeDelay >= 0 && System.nanoTime() - start >= hedgeDelay) {
+          hedgeDelay = -1;
+          if (policy.tryHedge()) {
+            meterRegistry.counter("linid.provider.hedges", "provider", provider).increment();
+            completion.submit(() -> attempt(context, entity, read, policy));
+            pending++;
+          }
+        } else {
+          meterRegistry.counter("linid.provider.timeouts", "provider", provider).increment();
+          throw new ApiException(HttpStatus.GATEWAY_TIMEOUT.value(), I18nMessage.of(
+              "error.provider.timeout",
+              Map.of("provider", provider)
+          ));
+        }
+      }
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE.value(), I18nMessage.of(
+          "error.provider.interrupted",
+          Map.of("provider", provider)
+      ));
+    } finally {
+      executor.shutdownNow();
+    }
+
+    throw failure;
+  }
+
+  /**
+   * Runs an attempt of a provider read on copies of the context and of the entity, recording its latency in the hedging
+   * policy when it succeeds.
+   *
+   * @param context the task execution context of the request
+   * @param entity the entity passed to the provider
+   * @param read the provider read
+   * @param policy the hedging policy of the provider, {@code null} if reads of the provider are not hedged
+   * @param <T> the type of the read result
+   * @return the outcome of the attempt
+   */
+  private <T> Attempt<T> attempt(TaskExecutionContext context, DynamicEntity entity, Read<T> read, HedgePolicy policy) {
+    var attemptContext = new TaskExecutionContext();
+    attemptContext.putAll(context);
+    var attemptEntity = new DynamicEntity();
+    attemptEntity.setConfiguration(entity.getConfiguration());
+    if (entity.getAttributes() != null) {
+      attemptEntity.setAttributes(new HashMap<>(entity.getAttributes()));
+    }
+
+    long start = System.nanoTime();
+    var result = read.apply(attemptContext, attemptEntity);
+
+    if (policy != null) {
+      policy.record(System.nanoTime() - start);
+    }
+    return new Attempt<>(result, attemptContext, attemptEntity);
+  }
+
+  /**
+   * Copies the context and the entity of the returned attempt back to those of the request.
+   *
+   * @param attempt the returned attempt
+   * @param context the task execution context of the request
+   * @param entity the entity passed to the provider
+   * @param <T> the type of the read result
+   * @return the result of the attempt
+   */
+  private <T> T merge(Attempt<T> attempt, TaskExecutionContext context, DynamicEntity entity) {
+    context.clear();
+    context.putAll(attempt.context());
+    entity.setAttributes(attempt.entity().getAttributes());
+    return attempt.result();
+  }
+
+  /**
+   * Extracts the failure of an attempt.
+   *
+   * @param exception the exception thrown when getting the result of the attempt
+   * @return the runtime exception thrown by the attempt
+   */
+  private RuntimeException unwrap(ExecutionException exception) {
+    if (exception.getCause() instanceof RuntimeException runtimeException) {
+      return runtimeException;
+    }
+    if (exception.getCause() instanceof Error error) {
+      throw error;
+    }
+    return new IllegalStateException(exception.getCause());
+  }
+
+  /**
+   * Returns the timeout of a provider.
+   *
+   * @param provider the name of the provider configuration
+   * @return the timeout, {@link Duration#ZERO} for none
+   */
+  private Duration getTimeout(String provider) {
+    return getSetting(provider, "timeout", Duration.class, Duration.ZERO);
+  }
+
+  /**
+   * Tells whether the reads of a provider are hedged.
+   *
+   * @param provider the name of the provider configuration
+   * @return {@code true} if reads are hedged
+   */
+  private boolean isHedged(String provider) {
+    return Boolean.TRUE.equals(getSetting(provider, "hedge", Boolean.class, false));
+  }
+
+  /**
+   * Returns the ratio of the reads of a provider that can be hedged.
+   *
+   * @param provider the name of the provider configuration
+   * @return the hedging budget ratio
+   */
+  private double getBudget(String provider) {
+    return getSetting(provider, "hedge-budget", Double.class, 0.1);
+  }
+
+  /**
+   * Reads a provider setting, falling back to the setting shared by all providers.
+   *
+   * @param provider the name of the provider configuration
+   * @param key the key of the setting
+   * @param type the type of the setting
+   * @param defaultValue the value returned when the setting is defined neither for the provider nor for all providers
+   * @param <T> the type of the setting
+   * @return the value of the setting
+   */
+  private <T> T getSetting(String provider, String key, Class<T> type, T defaultValue) {
+    var value = environment.getProperty(PREFIX + provider + "." + key, type);
+
+    if (value == null) {
+      value = environment.getProperty(PREFIX + DEFAULT_PROVIDER + "." + key, type);
+    }
+
+    return value == null ? defaultValue : value;
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.provider;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.plugin.circuit.CircuitBreakers;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits the number of concurrent calls to each provider, so that a slow provider cannot hold every request thread.
+ *
+ * <p>
+ * Each provider configuration has its own {@link AdaptiveLimit}, starting at {@code provider.limit.initial} and adapted
+ * between {@code provider.limit.min} and {@code provider.limit.max} to the observed latency. Calls exceeding the limit are
+ * rejected at once. The limiter publishes the following metrics, tagged with the provider name:
+ * <ul>
+ *   <li>{@code linid.provider.limit}: the current limit;</li>
+ *   <li>{@code linid.provider.inflight}: the number of calls in progress;</li>
+ *   <li>{@code linid.provider.limit.rejected}: the number of calls rejected because the limit was reached.</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ProviderConcurrencyLimiter {
+
+  /**
+   * Registry of the limiter metrics.
+   */
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * Whether provider calls are limited.
+   */
+  @Value("${provider.limit.enabled:false}")
+  private boolean enabled;
+
+  /**
+   * Initial limit of each provider.
+   */
+  @Value("${provider.limit.initial:20}")
+  private int initialLimit;
+
+  /**
+   * Lowest limit of each provider.
+   */
+  @Value("${provider.limit.min:1}")
+  private int minLimit;
+
+  /**
+   * Highest limit of each provider.
+   */
+  @Value("${provider.limit.max:200}")
+  private int maxLimit;
+
+  /**
+   * Ratio between the latency of a call and the average latency above which the limit is decreased.
+   */
+  @Value("${provider.limit.tolerance:2.0}")
+  private double tolerance;
+
+  /**
+   * Limits of the providers, keyed by provider name.
+   */
+  private final Map<String, AdaptiveLimit> limits = new ConcurrentHashMap<>();
+
+  /**
+   * Tells whether provider calls are limited.
+   *
+   * @return {@code true} if calls must go through {@link #call(String, Supplier)}
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Calls a provider within its concurrency limit.
+   *
+   * <p>
+   * A call failing with an {@link ApiException} of a status lower than 500 is a regular outcome; any other failure lowers
+   * the limit. A call rejected by an open circuit breaker never reached the provider: it releases its permit without
+   * adapting the limit nor the average latency.
+   *
+   * @param provider the name of the provider configuration
+   * @param call the provider call
+   * @param <T> the type of the call result
+   * @return the result of the call
+   * @throws ApiException with HTTP status 503 if the limit of the provider is reached
+   */
+  public <T> T call(String provider, Supplier<T> call) {
+    var limit = limits.computeIfAbsent(provider, this::newLimit);
+
+    if (!limit.tryAcquire()) {
+      meterRegistry.counter("linid.provider.limit.rejected", "provider", provider).increment();
+      throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE.value(), I18nMessage.of(
+          "error.provider.overloaded",
+          Map.of("provider", provider)
+      ));
+    }
+
+    long start = System.nanoTime();
+    boolean overloaded = true;
+    boolean rejected = false;
+    try {
+      var result = call.get();
+      overloaded = false;
+      return result;
+    } catch (ApiException exception) {
+      rejected = CircuitBreakers.isRejection(exception);
+      overloaded = !rejected && exception.getStatusCode() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+      throw exception;
+    } finally {
+      if (rejected) {
+        limit.cancel();
+      } else {
+        limit.release(System.nanoTime() - start, overloaded);
+      }
+    }
+  }
+
+  /**
+   * Creates the limit of a provider and registers its gauges.
+   *
+   * @param provider the name of the provider configuration
+   * @return the limit of the provider
+   */
+  private AdaptiveLimit newLimit(String provider) {
+    var limit = new AdaptiveLimit(initialLimit, minLimit, maxLimit, tolerance);
+
+    Gauge.builder("linid.provider.limit", limit, AdaptiveLimit::getLimit)
+        .description("Maximum number of concurrent calls to the provider")
+        .tag("provider", provider)
+        .register(meterRegistry);
+    Gauge.builder("linid.provider.inflight", limit, AdaptiveLimit::getInFlight)
+        .description("Number of calls to the provider in progress")
+        .tag("provider", provider)
+        .register(meterRegistry);
+
+    return limit;
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.provider;
+
+import io.github.linagora.linid.im.corelib.plugin.config.dto.ProviderConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.provider.ProviderPlugin;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import java.util.stream.Stream;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Optional capability for {@link ProviderPlugin} implementations able to read every entity matching a filter as a lazy
+ * stream, typically backed by a database cursor.
+ *
+ * <p>
+ * When the provider resolved for an entity also implements this interface, streaming exports consume
+ * {@link #stream(TaskExecutionContext, ProviderConfiguration, MultiValueMap, DynamicEntity)} instead of reading
+ * successive pages with {@code findAll}.
+ */
+public interface StreamingReadProvider {
+
+  /**
+   * Streams every entity matching the given filters.
+   *
+   * <p>
+   * Entities must be read lazily, as the stream is consumed. The stream is closed once consumed or when the export stops,
+   * so that the backend resources it holds can be released.
+   *
+   * @param context the task execution context of the request
+   * @param configuration the provider configuration
+   * @param filters the filters selecting the entities to read
+   * @param dynamicEntity the entity holding the entity configuration
+   * @return the matching entities
+   */
+  Stream<DynamicEntity> stream(TaskExecutionContext context, ProviderConfiguration configuration,
+                               MultiValueMap<String, String> filters, DynamicEntity dynamicEntity);
+}
@@ -29,8 +29,10 @@ package io.github.linagora.linid.im.plugin.route;
 import io.github.linagora.linid.im.corelib.exception.ApiException;
 import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
 import io.github.linagora.linid.im.corelib.plugin.config.PluginConfigurationService;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.RouteConfiguration;
 import io.github.linagora.linid.im.corelib.plugin.route.DynamicRoutingService;
 import io.github.linagora.linid.im.corelib.plugin.route.RoutePlugin;
+import io.github.linagora.linid.im.plugin.circuit.CircuitBreakers;
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
@@ -60,20 +62,54 @@ public class DynamicRoutingServiceImpl implements DynamicRoutingService {
    * Service used to retrieve the configurations associated with each route plugin.
    */
   private final PluginConfigurationService configurationService;
+  /**
+   * Circuit breakers of the route configurations, when enabled.
+   */
+  private final CircuitBreakers circuitBreakers;
 
   @Override
   public ResponseEntity<?> route(HttpServletRequest request) {
-    return configurationService.getRoutesConfiguration()
-        .stream()
-        .flatMap(configuration -> routeRegistry.getPlugins()
-            .stream()
-            .filter(plugin -> plugin.supports(configuration.getType()))
-            .filter(plugin -> plugin.match(configuration, request.getRequestURI(), request.getMethod()))
-            .map(plugin -> plugin.execute(configuration, request)))
-        .findFirst()
-        .orElseThrow(() -> new ApiException(404, I18nMessage.of(
-            "error.router.unknown.route",
-            Map.of("route", request.getRequestURI())
-        )));
+    var configurations = configurationService.getRoutesConfiguration();
+
+    for (int index = 0; index < configurations.size(); index++) {
+      var configuration = configurations.get(index);
+      var matched = routeRegistry.getPlugins()
+          .stream()
+          .filter(plugin -> plugin.supports(configuration.getType()))
+          .filter(plugin -> plugin.match(configuration, request.getRequestURI(), request.getMethod()))
+          .findFirst();
+
+      if (matched.isPresent()) {
+        return execute(matched.get(), configuration, index, request);
+      }
+    }
+
+    throw new ApiException(404, I18nMessage.of(
+        "error.router.unknown.route",
+        Map.of("route", request.getRequestURI())
+    ));
+  }
+
+  /**
+   * Executes a route plugin, through the circuit breaker of its route configuration when circuit breakers are enabled.
+   *
+   * <p>
+   * Route configurations have no name: the breaker of a route configuration is named after its type and its position in
+   * the route configurations.
+   *
+   * @param plugin the matched route plugin
+   * @param configuration the matched route configuration
+   * @param index the position of the route configuration
+   * @param request the HTTP request
+   * @return the response of the plugin
+   */
+  private ResponseEntity<?> execute(RoutePlugin plugin, RouteConfiguration configuration, int index,
+                                    HttpServletRequest request) {
+    if (!circuitBreakers.isEnabled()) {
+      return plugin.execute(configuration, request);
+    }
+
+    return circuitBreakers.call(CircuitBreakers.ROUTE, configuration.getType() + '#' + index,
+        () -> plugin.execute(configuration, request));
   }
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.task;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded queue executing tasks off the request path, such as asynchronous after-phase tasks.
+ *
+ * <p>
+ * Queued tasks are executed by a fixed number of workers, configured by {@code task.async.workers}. When the
+ * {@code task.async.queue-capacity} tasks are already waiting, the {@link OverflowPolicy} configured by
+ * {@code task.async.overflow} applies. The queue publishes the following metrics:
+ * <ul>
+ *   <li>{@code linid.task.async.queue.depth}: the number of tasks waiting for a worker;</li>
+ *   <li>{@code linid.task.async.lag}: the time spent by tasks between their submission and their start;</li>
+ *   <li>{@code linid.task.async.failures}: the number of tasks that threw;</li>
+ *   <li>{@code linid.task.async.dropped}: the number of tasks dropped by the {@link OverflowPolicy#DROP} policy.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class AsyncTaskQueue {
+
+  /**
+   * Registry of the queue metrics.
+   */
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * Number of workers executing the queued tasks.
+   */
+  @Value("${task.async.workers:4}")
+  private int workers;
+
+  /**
+   * Maximum number of tasks waiting for a worker.
+   */
+  @Value("${task.async.queue-capacity:1000}")
+  private int queueCapacity;
+
+  /**
+   * Name of the policy applied when the queue is full.
+   */
+  @Value("${task.async.overflow:caller-runs}")
+  private String overflow;
+
+  /**
+   * Maximum duration during which queued tasks can still complete when the application stops.
+   */
+  @Value("${task.async.shutdown-timeout:30s}")
+  private Duration shutdownTimeout;
+
+  private OverflowPolicy overflowPolicy;
+  private ThreadPoolExecutor executor;
+  private Timer lag;
+  private Counter failures;
+  private Counter dropped;
+
+  /**
+   * Starts the workers and registers the queue metrics.
+   */
+  @PostConstruct
+  public void start() {
+    overflowPolicy = OverflowPolicy.from(overflow);
+    executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), Thread.ofVirtual().name("async-task-", 0).factory(),
+        new ThreadPoolExecutor.AbortPolicy());
+
+    Gauge.builder("linid.task.async.queue.depth", executor, pool -> pool.getQueue().size())
+        .description("Number of asynchronous tasks waiting for a worker")
+        .register(meterRegistry);
+    lag = Timer.builder("linid.task.async.lag")
+        .description("Time spent by asynchronous tasks between their submission and their start")
+        .register(meterRegistry);
+    failures = Counter.builder("linid.task.async.failures")
+        .description("Number of asynchronous tasks that failed")
+        .register(meterRegistry);
+    dropped = Counter.builder("linid.task.async.dropped")
+        .description("Number of asynchronous tasks dropped because the queue was full")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Stops accepting tasks and waits for the queued ones, up to {@code task.async.shutdown-timeout}.
+   */
+  @PreDestroy
+  public void stop() {
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        log.warn("{} asynchronous tasks were not executed before shutdown", executor.shutdownNow().size());
+      }
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Queues a task.
+   *
+   * <p>
+   * Failures of the task are logged and counted, never propagated to the submitter.
+   *
+   * @param name the name of the task, used in logs
+   * @param task the task to execute
+   */
+  public void submit(String name, Runnable task) {
+    long submittedAt = System.nanoTime();
+    Runnable execution = () -> {
+      lag.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+      try {
+        task.run();
+      } catch (RuntimeException exception) {
+        failures.increment();
+        log.error("Asynchronous task {} failed", name, exception);
+      }
+    };
+
+    try {
+      executor.execute(execution);
+    } catch (RejectedExecutionException exception) {
+      switch (overflowPolicy) {
+        case CALLER_RUNS -> execution.run();
+        case DROP -> {
+          dropped.increment();
+          log.warn("Asynchronous task {} dropped, the queue is full", name);
+        }
+      }
+    }
+  }
+}
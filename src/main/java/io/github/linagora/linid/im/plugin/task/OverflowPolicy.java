@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.task;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Policy applied to an asynchronous task submitted while the queue of asynchronous tasks is full.
+ *
+ * <p>
+ * Asynchronous tasks are submitted once the provider write is done, so no policy fails the request: the client would see
+ * an error for a write that was applied, and retry it.
+ */
+public enum OverflowPolicy {
+
+  /**
+   * The task is executed synchronously by the submitting thread, slowing down the request instead of losing the task.
+   */
+  CALLER_RUNS,
+
+  /**
+   * The task is dropped and counted, so that the request is neither slowed down nor failed.
+   */
+  DROP;
+
+  /**
+   * Parses a policy, case-insensitively, accepting either hyphens or underscores as separators.
+   *
+   * @param value the name of the policy
+   * @return the policy, {@link #CALLER_RUNS} if the value is {@code null}
+   * @throws ApiException if the value is not a known policy
+   */
+  public static OverflowPolicy from(String value) {
+    if (value == null) {
+      return CALLER_RUNS;
+    }
+
+    try {
+      return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException exception) {
+      throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR.value(), I18nMessage.of(
+          "error.task.overflow.unknown",
+          Map.of("policy", value)
+      ));
+    }
+  }
+}
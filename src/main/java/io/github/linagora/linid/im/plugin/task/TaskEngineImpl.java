@@ -34,7 +34,15 @@ import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
 import io.github.linagora.linid.im.corelib.plugin.task.TaskEngine;
 import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
 import io.github.linagora.linid.im.corelib.plugin.task.TaskPlugin;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.plugin.core.PluginRegistry;
@@ -50,6 +58,17 @@ import org.springframework.stereotype.Component;
  *
  * <p>
  * Plugins are resolved using a {@link PluginRegistry} and configured using data from the {@link PluginConfigurationService}.
+ *
+ * <p>
+ * Tasks run in declaration order. Consecutive tasks having the {@value #PARALLEL_OPTION} option are independent and run
+ * concurrently, the engine waiting for all of them before running the next task, so that a task without this option still
+ * sees the effects of all the tasks declared before it.
+ *
+ * <p>
+ * In the phases following a write, tasks having the {@value #ASYNC_OPTION} option, such as audit or notification tasks,
+ * are queued in the {@link AsyncTaskQueue} with a snapshot of the entity and of the context, and run after the phase
+ * without delaying the response. They run in declaration order relative to each other, and their context changes are not
+ * visible to the request.
  */
 @Component
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
@@ -63,18 +82,183 @@ public class TaskEngineImpl implements TaskEngine {
    */
   private final PluginConfigurationService configurationService;
 
+  /**
+   * Queue executing the asynchronous tasks.
+   */
+  private final AsyncTaskQueue asyncTaskQueue;
+
+  /**
+   * Name of the task option telling that the task is independent from the tasks declared next to it, so that they can be
+   * executed concurrently.
+   */
+  public static final String PARALLEL_OPTION = "parallel";
+
+  /**
+   * Name of the task option telling that the task runs off the request path, in one of the {@link #ASYNC_PHASES}.
+   */
+  public static final String ASYNC_OPTION = "async";
+
+  /**
+   * Phases following a write, in which tasks can run asynchronously. In other phases, the {@value #ASYNC_OPTION} option is
+   * ignored, since the request depends on the effects of the tasks.
+   */
+  public static final Set<String> ASYNC_PHASES = Set.of("afterCreate", "afterUpdate", "afterPatch", "afterDelete");
+
   @Override
   public void execute(DynamicEntity dynamicEntity, TaskExecutionContext context, String phase) {
     var configuration = dynamicEntity.getConfiguration();
     if (configuration == null) {
       return;
     }
-    configuration.getTasks()
+    var tasks = configuration.getTasks()
         .stream()
         .filter(task -> task.getPhases().contains(phase))
         .map(this::mergeConfigurationWithGlobal)
-        .forEach(task -> getPlugin(task)
-            .execute(task, dynamicEntity, context));
+        .toList();
+
+    if (ASYNC_PHASES.contains(phase) && tasks.stream().anyMatch(this::isAsync)) {
+      var asyncTasks = tasks.stream().filter(this::isAsync).toList();
+      var entitySnapshot = copyEntity(dynamicEntity);
+      var contextSnapshot = copyContext(context);
+
+      asyncTaskQueue.submit(configuration.getName() + "." + phase,
+          () -> executeTasks(entitySnapshot, contextSnapshot, asyncTasks));
+      tasks = tasks.stream().filter(task -> !isAsync(task)).toList();
+    }
+
+    executeTasks(dynamicEntity, context, tasks);
+  }
+
+  /**
+   * Executes tasks in declaration order, running groups of consecutive parallel tasks concurrently.
+   *
+   * @param dynamicEntity the entity of the request
+   * @param context the task execution context of the request
+   * @param tasks the merged configurations of the tasks to execute
+   */
+  public void executeTasks(DynamicEntity dynamicEntity, TaskExecutionContext context, List<TaskConfiguration> tasks) {
+    int position = 0;
+    while (position < tasks.size()) {
+      var task = tasks.get(position++);
+      if (!isParallel(task)) {
+        getPlugin(task).execute(task, dynamicEntity, context);
+        continue;
+      }
+
+      List<TaskConfiguration> group = new ArrayList<>(List.of(task));
+      while (position < tasks.size() && isParallel(tasks.get(position))) {
+        group.add(tasks.get(position++));
+      }
+      executeConcurrently(dynamicEntity, context, group);
+    }
+  }
+
+  /**
+   * Executes a group of independent tasks concurrently, each on its own virtual thread, and waits for all of them.
+   *
+   * <p>
+   * Each task works on its own copy of the context. Once all tasks are done, the entries they added, changed or removed
+   * are applied to the given context in declaration order, so that the next tasks and phases see them as if the tasks had
+   * run sequentially. The entity is shared, so tasks executed concurrently must not modify it. The first failure, in
+   * declaration order, is rethrown once all tasks are done, and the context is then left unchanged.
+   *
+   * @param dynamicEntity the entity of the request
+   * @param context the task execution context of the request
+   * @param group the merged configurations of the tasks to execute
+   */
+  public void executeConcurrently(DynamicEntity dynamicEntity, TaskExecutionContext context, List<TaskConfiguration> group) {
+    if (group.size() == 1) {
+      getPlugin(group.getFirst()).execute(group.getFirst(), dynamicEntity, context);
+      return;
+    }
+
+    var snapshot = copyContext(context);
+    List<TaskExecutionContext> copies = new ArrayList<>();
+    List<Future<?>> futures = new ArrayList<>();
+
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      group.forEach(task -> {
+        var plugin = getPlugin(task);
+        var copy = copyContext(snapshot);
+        copies.add(copy);
+        futures.add(executor.submit(() -> plugin.execute(task, dynamicEntity, copy)));
+      });
+    }
+
+    futures.forEach(this::join);
+    copies.forEach(copy -> {
+      snapshot.keySet().stream()
+          .filter(key -> !copy.containsKey(key))
+          .forEach(context::remove);
+      copy.entrySet().stream()
+          .filter(entry -> !snapshot.containsKey(entry.getKey())
+              || !Objects.equals(snapshot.get(entry.getKey()), entry.getValue()))
+          .forEach(entry -> context.put(entry.getKey(), entry.getValue()));
+    });
+  }
+
+  /**
+   * Waits for a completed task, unwrapping its failure.
+   *
+   * @param future the future of the task
+   */
+  public void join(Future<?> future) {
+    try {
+      future.get();
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new ApiException(503, I18nMessage.of("error.task.interrupted", Map.of()));
+    } catch (ExecutionException exception) {
+      if (exception.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException(exception.getCause());
+    }
+  }
+
+  /**
+   * Tells whether a task runs off the request path.
+   *
+   * @param configuration the merged task configuration
+   * @return {@code true} if the {@value #ASYNC_OPTION} option is enabled
+   */
+  public boolean isAsync(TaskConfiguration configuration) {
+    return Boolean.parseBoolean(String.valueOf(configuration.getOptions().get(ASYNC_OPTION)));
+  }
+
+  /**
+   * Creates a snapshot of an entity, sharing its configuration but holding its own copy of the attributes.
+   *
+   * @param entity the entity to copy
+   * @return a new entity holding the same configuration and attributes
+   */
+  public DynamicEntity copyEntity(DynamicEntity entity) {
+    var copy = new DynamicEntity();
+    copy.setConfiguration(entity.getConfiguration());
+    copy.setAttributes(entity.getAttributes() == null ? new HashMap<>() : new HashMap<>(entity.getAttributes()));
+    return copy;
+  }
+
+  /**
+   * Tells whether a task can be executed concurrently with the tasks declared next to it.
+   *
+   * @param configuration the merged task configuration
+   * @return {@code true} if the {@value #PARALLEL_OPTION} option is enabled
+   */
+  public boolean isParallel(TaskConfiguration configuration) {
+    return Boolean.parseBoolean(String.valueOf(configuration.getOptions().get(PARALLEL_OPTION)));
+  }
+
+  /**
+   * Creates a copy of the given context.
+   *
+   * @param context the context to copy
+   * @return a new context holding the same values
+   */
+  public TaskExecutionContext copyContext(TaskExecutionContext context) {
+    var copy = new TaskExecutionContext();
+    copy.putAll(context);
+    return copy;
   }
 
   /**
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.validation;
+
+import io.github.linagora.linid.im.corelib.plugin.config.dto.ValidationConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.validation.ValidationPlugin;
+
+/**
+ * Optional capability for {@link ValidationPlugin} implementations declaring the cost of their validations.
+ *
+ * <p>
+ * The validations of an entity are applied by increasing cost, so that cheap local checks, such as required attributes or
+ * patterns, fail before expensive remote ones, such as uniqueness checks against a backend. The {@code cost} option of a
+ * validation configuration takes precedence over the cost declared by its plugin.
+ */
+public interface CostAwareValidationPlugin {
+
+  /**
+   * Cost of validations only involving the validated value, which is also the cost of validations without any hint.
+   */
+  int LOCAL_COST = 0;
+
+  /**
+   * Cost of validations requiring a call to a remote service.
+   */
+  int REMOTE_COST = 100;
+
+  /**
+   * Returns the cost of a validation.
+   *
+   * @param configuration the merged validation configuration
+   * @return the cost, validations with lower costs being applied first
+   */
+  int getCost(ValidationConfiguration configuration);
+}
@@ -34,11 +34,23 @@ import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
 import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
 import io.github.linagora.linid.im.corelib.plugin.validation.ValidationEngine;
 import io.github.linagora.linid.im.corelib.plugin.validation.ValidationPlugin;
+import io.github.linagora.linid.im.plugin.config.EntitySettingsService;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.plugin.core.PluginRegistry;
 import org.springframework.stereotype.Component;
 
@@ -52,6 +64,17 @@ import org.springframework.stereotype.Component;
  * <p>
  * Validation plugins are dynamically resolved using a {@link PluginRegistry}. Global plugin configurations are merged with
  * attribute-level configurations before validation.
+ *
+ * <p>
+ * When the task execution context marks the validation as partial, as for patches, only the validations of the attributes
+ * present in the entity are applied, along with the validations having the {@value #ALWAYS_RUN_OPTION} option, which are
+ * meant for rules involving several attributes.
+ *
+ * <p>
+ * Validations are applied by increasing cost, see {@link CostAwareValidationPlugin}, and errors are reported in declaration
+ * order. The {@code validation-mode} entity setting selects whether all the errors are collected or the validations stop at
+ * the first one, see {@link ValidationMode}. Validations having the {@value #PARALLEL_OPTION} option, such as uniqueness
+ * checks against a backend, run concurrently on virtual threads within the {@code validation.timeout} deadline.
  */
 @Component
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
@@ -67,10 +90,66 @@ public class ValidationEngineImpl implements ValidationEngine {
    */
   private final PluginConfigurationService configurationService;
 
+  /**
+   * Service resolving the per-entity settings, such as the validation mode.
+   */
+  private final EntitySettingsService settingsService;
+
+  /**
+   * Name of the task execution context entry telling, when {@code true}, that the entity only holds the attributes to
+   * change, so that the validations of the absent attributes are skipped.
+   */
+  public static final String PARTIAL_CONTEXT_KEY = "partialValidation";
+
+  /**
+   * Name of the validation option telling that the validation must be applied even when its attribute is absent from a
+   * partial entity.
+   */
+  public static final String ALWAYS_RUN_OPTION = "alwaysRun";
+
+  /**
+   * Name of the validation option holding the cost of the validation, see {@link CostAwareValidationPlugin}.
+   */
+  public static final String COST_OPTION = "cost";
+
+  /**
+   * Name of the validation option telling that the validation can be applied concurrently with other ones, typically for
+   * validations waiting for a remote service.
+   */
+  public static final String PARALLEL_OPTION = "parallel";
+
+  /**
+   * Maximum duration of the concurrent validations of a request.
+   */
+  @Value("${validation.timeout:10s}")
+  private Duration timeout;
+
+  /**
+   * Validation resolved for an attribute value, ready to be applied.
+   *
+   * @param attributeName the name of the validated attribute
+   * @param configuration the merged validation configuration
+   * @param plugin the plugin applying the validation
+   * @param value the validated value
+   * @param cost the cost of the validation
+   */
+  public record ScheduledValidation(String attributeName, ValidationConfiguration configuration, ValidationPlugin plugin,
+                                    Object value, int cost) {
+  }
+
+  /**
+   * Result of a validation applied concurrently.
+   *
+   * @param index the index of the validation, in declaration order
+   * @param error the error returned by the validation
+   */
+  private record Outcome(int index, Optional<I18nMessage> error) {
+  }
 
   @Override
   public void validate(DynamicEntity dynamicEntity, String phase, TaskExecutionContext context) {
-    List<I18nMessage> errors = new ArrayList<>();
+    List<ScheduledValidation> validations = new ArrayList<>();
+    boolean partial = context != null && Boolean.TRUE.equals(context.get(PARTIAL_CONTEXT_KEY));
 
     dynamicEntity.getConfiguration()
         .getAttributes()
@@ -78,23 +157,12 @@ public class ValidationEngineImpl implements ValidationEngine {
             .stream()
             .filter(configuration -> configuration.getPhases().contains(phase))
             .map(this::mergeConfigurationWithGlobal)
-            .forEach(configuration -> getValidationPlugin(configuration)
-                .validate(configuration, dynamicEntity.getAttributes()
-                    .getOrDefault(attributeConfiguration.getName(), null), context)
-                .ifPresent(error -> {
-                  error.context().put("entity", dynamicEntity.getConfiguration().getName());
-                  error.context().put("attribute", attributeConfiguration.getName());
-
-                  errors.add(error);
-                })));
+            .filter(configuration -> !partial || isAlwaysRun(configuration)
+                || dynamicEntity.getAttributes().containsKey(attributeConfiguration.getName()))
+            .forEach(configuration -> validations.add(schedule(attributeConfiguration.getName(), configuration,
+                dynamicEntity.getAttributes().getOrDefault(attributeConfiguration.getName(), null)))));
 
-    if (!errors.isEmpty()) {
-      throw new ApiException(
-          400,
-          I18nMessage.of("error.entity.attributes", Map.of("entity", dynamicEntity.getConfiguration().getName())),
-          Map.of("errors", errors)
-      );
-    }
+    run(dynamicEntity, validations, context);
   }
 
   @Override
@@ -113,28 +181,244 @@ public class ValidationEngineImpl implements ValidationEngine {
                     "entity", dynamicEntity.getConfiguration().getName(),
                     "attribute", attributeName))));
 
-    List<I18nMessage> errors = new ArrayList<>();
-
-    attributeConfiguration.getValidations()
+    var validations = attributeConfiguration.getValidations()
         .stream()
         .map(this::mergeConfigurationWithGlobal)
-        .forEach(configuration -> getValidationPlugin(configuration)
-            .validate(configuration, value, context)
-            .ifPresent(error -> {
-              error.context().put("entity", dynamicEntity.getConfiguration().getName());
-              error.context().put("attribute", attributeName);
+        .map(configuration -> schedule(attributeName, configuration, value))
+        .toList();
+
+    run(dynamicEntity, validations, context);
+  }
+
+  /**
+   * Resolves the plugin and the cost of a validation.
+   *
+   * @param attributeName the name of the validated attribute
+   * @param configuration the merged validation configuration
+   * @param value the validated value
+   * @return the validation to apply
+   */
+  public ScheduledValidation schedule(String attributeName, ValidationConfiguration configuration, Object value) {
+    var plugin = getValidationPlugin(configuration);
+
+    return new ScheduledValidation(attributeName, configuration, plugin, value, getCost(configuration, plugin));
+  }
+
+  /**
+   * Applies validations by increasing cost, stable for equal costs, and reports their errors in declaration order.
+   *
+   * <p>
+   * Consecutive validations having the {@value #PARALLEL_OPTION} option are applied concurrently, see
+   * {@link #runConcurrently(String, List, List, TaskExecutionContext, I18nMessage[], ValidationMode, long)}. With the
+   * {@link ValidationMode#FAIL_FAST} mode of the entity, the validations stop at the first error.
+   *
+   * @param dynamicEntity the validated entity
+   * @param validations the validations to apply, in declaration order
+   * @param context the task execution context of the request
+   * @throws ApiException with HTTP status 400 if a validation fails
+   */
+  public void run(DynamicEntity dynamicEntity, List<ScheduledValidation> validations, TaskExecutionContext context) {
+    var entityName = dynamicEntity.getConfiguration().getName();
+    var mode = ValidationMode.from(settingsService.getSetting(entityName, "validation-mode", String.class, null));
+    var errors = new I18nMessage[validations.size()];
+    var order = new ArrayList<Integer>(validations.size());
+
+    for (int index = 0; index < validations.size(); index++) {
+      order.add(index);
+    }
+    order.sort(Comparator.comparingInt(index -> validations.get(index).cost()));
+
+    long deadline = 0;
+    boolean failed = false;
+    int position = 0;
+
+    while (position < order.size() && !(failed && mode == ValidationMode.FAIL_FAST)) {
+      int index = order.get(position++);
+      var validation = validations.get(index);
 
-              errors.add(error);
-            }));
+      if (!isParallel(validation.configuration())) {
+        var error = validation.plugin().validate(validation.configuration(), validation.value(), context);
+        failed |= addError(entityName, validation, error, index, errors);
+        continue;
+      }
 
-    if (!errors.isEmpty()) {
+      List<Integer> group = new ArrayList<>(List.of(index));
+      while (position < order.size() && isParallel(validations.get(order.get(position)).configuration())) {
+        group.add(order.get(position++));
+      }
+      if (deadline == 0) {
+        deadline = System.nanoTime() + timeout.toNanos();
+      }
+      failed |= runConcurrently(entityName, validations, group, context, errors, mode, deadline);
+    }
+
+    var reported = Arrays.stream(errors).filter(Objects::nonNull).toList();
+    if (!reported.isEmpty()) {
       throw new ApiException(
           400,
-          I18nMessage.of(
-              "error.entity.attributes",
-              Map.of("entity", dynamicEntity.getConfiguration().getName())),
-          Map.of("errors", errors));
+          I18nMessage.of("error.entity.attributes", Map.of("entity", entityName)),
+          Map.of("errors", reported)
+      );
+    }
+  }
+
+  /**
+   * Applies a group of validations concurrently, each on its own virtual thread with its own copy of the context.
+   *
+   * <p>
+   * Results are gathered from the calling thread. The validations still running are cancelled when the group ends, whether
+   * all of them completed, one failed in {@link ValidationMode#FAIL_FAST} mode, the deadline passed or a plugin threw.
+   * Cancelled validations are interrupted and not awaited.
+   *
+   * @param entityName the name of the validated entity
+   * @param validations the validations to apply, in declaration order
+   * @param group the indexes of the validations of the group
+   * @param context the task execution context of the request
+   * @param errors the errors found so far, indexed by validation
+   * @param mode the validation mode of the entity
+   * @param deadline the {@link System#nanoTime()} value after which the validation gives up
+   * @return {@code true} if a validation of the group failed
+   * @throws ApiException with HTTP status 504 if the deadline passes before the validations of the group complete
+   */
+  public boolean runConcurrently(String entityName, List<ScheduledValidation> validations, List<Integer> group,
+                                 TaskExecutionContext context, I18nMessage[] errors, ValidationMode mode, long deadline) {
+    var executor = Executors.newVirtualThreadPerTaskExecutor();
+    var completion = new ExecutorCompletionService<Outcome>(executor);
+    boolean failed = false;
+
+    try {
+      for (int index : group) {
+        var validation = validations.get(index);
+        var copy = copyContext(context);
+        completion.submit(() -> new Outcome(index,
+            validation.plugin().validate(validation.configuration(), validation.value(), copy)));
+      }
+
+      for (int remaining = group.size(); remaining > 0 && !(failed && mode == ValidationMode.FAIL_FAST); remaining--) {
+        var future = completion.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        if (future == null) {
+          throw new ApiException(HttpStatus.GATEWAY_TIMEOUT.value(), I18nMessage.of(
+              "error.validation.timeout",
+              Map.of("entity", entityName)
+          ));
+        }
+
+        var outcome = future.get();
+        failed |= addError(entityName, validations.get(outcome.index()), outcome.error(), outcome.index(), errors);
+      }
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE.value(), I18nMessage.of(
+          "error.validation.interrupted",
+          Map.of("entity", entityName)
+      ));
+    } catch (ExecutionException exception) {
+      if (exception.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException(exception.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+
+    return failed;
+  }
+
+  /**
+   * Records the error of a validation, if any, adding the entity and attribute names to its context.
+   *
+   * @param entityName the name of the validated entity
+   * @param validation the applied validation
+   * @param error the error returned by the validation
+   * @param index the index of the validation, in declaration order
+   * @param errors the errors found so far, indexed by validation
+   * @return {@code true} if the validation failed
+   */
+  private boolean addError(String entityName, ScheduledValidation validation, Optional<I18nMessage> error, int index,
+                           I18nMessage[] errors) {
+    if (error.isEmpty()) {
+      return false;
+    }
+
+    error.get().context().put("entity", entityName);
+    error.get().context().put("attribute", validation.attributeName());
+    errors[index] = error.get();
+
+    return true;
+  }
+
+  /**
+   * Creates a copy of the given context, so that concurrent validations do not share a mutable context.
+   *
+   * @param context the context to copy, may be {@code null}
+   * @return a new context holding the same values, or {@code null} if the given context is {@code null}
+   */
+  public TaskExecutionContext copyContext(TaskExecutionContext context) {
+    if (context == null) {
+      return null;
     }
+
+    var copy = new TaskExecutionContext();
+    copy.putAll(context);
+    return copy;
+  }
+
+  /**
+   * Tells whether a validation can be applied concurrently with other ones.
+   *
+   * @param configuration the merged validation configuration
+   * @return {@code true} if the {@value #PARALLEL_OPTION} option is enabled
+   */
+  public boolean isParallel(ValidationConfiguration configuration) {
+    return Boolean.parseBoolean(String.valueOf(configuration.getOptions().get(PARALLEL_OPTION)));
+  }
+
+  /**
+   * Returns the cost of a validation, from its {@value #COST_OPTION} option if any, otherwise from its plugin.
+   *
+   * <p>
+   * The option holds either a number or one of the {@code local} and {@code remote} aliases.
+   *
+   * @param configuration the merged validation configuration
+   * @param plugin the plugin applying the validation
+   * @return the cost, {@link CostAwareValidationPlugin#LOCAL_COST} if neither the option nor the plugin give one
+   * @throws ApiException if the option is not a valid cost
+   */
+  public int getCost(ValidationConfiguration configuration, ValidationPlugin plugin) {
+    var option = configuration.getOptions().get(COST_OPTION);
+
+    if (option == null) {
+      return plugin instanceof CostAwareValidationPlugin costAwarePlugin
+          ? costAwarePlugin.getCost(configuration)
+          : CostAwareValidationPlugin.LOCAL_COST;
+    }
+
+    var cost = String.valueOf(option).trim();
+    if ("local".equalsIgnoreCase(cost)) {
+      return CostAwareValidationPlugin.LOCAL_COST;
+    }
+    if ("remote".equalsIgnoreCase(cost)) {
+      return CostAwareValidationPlugin.REMOTE_COST;
+    }
+
+    try {
+      return Integer.parseInt(cost);
+    } catch (NumberFormatException exception) {
+      throw new ApiException(500, I18nMessage.of(
+          "error.validation.cost.invalid",
+          Map.of("validation", String.valueOf(configuration.getName()), "cost", cost)
+      ));
+    }
+  }
+
+  /**
+   * Tells whether a validation must be applied even when its attribute is absent from a partial entity.
+   *
+   * @param configuration the merged validation configuration
+   * @return {@code true} if the {@value #ALWAYS_RUN_OPTION} option is enabled
+   */
+  public boolean isAlwaysRun(ValidationConfiguration configuration) {
+    return Boolean.parseBoolean(String.valueOf(configuration.getOptions().get(ALWAYS_RUN_OPTION)));
   }
 
   /**
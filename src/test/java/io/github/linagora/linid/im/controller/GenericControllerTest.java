@@ -28,18 +28,44 @@ package io.github.linagora.linid.im.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 
+import io.github.linagora.linid.im.controller.binding.ContentFormat;
+import io.github.linagora.linid.im.controller.binding.ContentFormatMappers;
+import io.github.linagora.linid.im.controller.model.BatchGetRequest;
 import io.github.linagora.linid.im.controller.model.PaginationRequest;
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.corelib.i18n.I18nService;
 import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
 import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntityMapper;
 import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntityService;
+import io.github.linagora.linid.im.plugin.entity.BatchReadResult;
+import io.github.linagora.linid.im.plugin.entity.BulkItemResult;
+import io.github.linagora.linid.im.plugin.entity.BulkOperation;
+import io.github.linagora.linid.im.plugin.entity.ConditionalRead;
+import io.github.linagora.linid.im.plugin.entity.CursorPage;
+import io.github.linagora.linid.im.plugin.entity.DynamicEntityBatchService;
+import io.github.linagora.linid.im.plugin.entity.EntityTagService;
+import io.github.linagora.linid.im.plugin.entity.FilterWriteJob;
+import io.github.linagora.linid.im.plugin.entity.ProjectingEntityMapper;
+import io.github.linagora.linid.im.plugin.entity.WriteBehindOperation;
+import io.github.linagora.linid.im.plugin.entity.WriteBehindService;
+import io.github.linagora.linid.im.plugin.entity.WriteBehindStatus;
 import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -50,9 +76,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.util.MultiValueMap;
+import tools.jackson.databind.json.JsonMapper;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("Test class: GenericController")
@@ -64,6 +95,21 @@ class GenericControllerTest {
   @Mock
   private DynamicEntityMapper mapper;
 
+  @Mock
+  private DynamicEntityBatchService batchService;
+
+  @Mock
+  private I18nService i18nService;
+
+  @Mock
+  private EntityTagService tagService;
+
+  @Mock
+  private WriteBehindService writeBehindService;
+
+  @Mock
+  private ContentFormatMappers formatMappers;
+
   @InjectMocks
   private GenericController controller;
 
@@ -75,6 +121,31 @@ class GenericControllerTest {
     assertEquals(206, controller.getStatus(new PageImpl<>(List.of(), PageRequest.of(0, 1), 2)));
   }
 
+  @Test
+  @DisplayName("test getMapper: should keep every attribute without fields parameter")
+  void testGetMapperWithoutFields() {
+    assertEquals(mapper, controller.getMapper(new MockHttpServletRequest()));
+  }
+
+  @Test
+  @DisplayName("test getMapper: should only keep requested fields")
+  void testGetMapperWithFields() {
+    var request = new MockHttpServletRequest();
+    request.setParameter("fields", "id, mail");
+    var entity = new DynamicEntity();
+
+    var projectingMapper = Mockito.mock(ProjectingEntityMapper.class);
+    Mockito.when(projectingMapper.apply(entity, Set.of("id", "mail"))).thenReturn(Map.of("id", "1"));
+    var projectingController = new GenericController(service, projectingMapper, batchService, i18nService, tagService,
+        writeBehindService, formatMappers);
+    assertEquals(Map.of("id", "1"), projectingController.getMapper(request).apply(entity));
+
+    DynamicEntityMapper plainMapper = dynamicEntity -> Map.of("id", "1", "mail", "a@b.c", "password", "secret");
+    var plainController = new GenericController(service, plainMapper, batchService, i18nService, tagService,
+        writeBehindService, formatMappers);
+    assertEquals(Map.of("id", "1", "mail", "a@b.c"), plainController.getMapper(request).apply(entity));
+  }
+
   @Test
   @DisplayName("test createEntity: should return CREATED status and call service")
   void testCreateEntity() {
@@ -92,23 +163,62 @@ class GenericControllerTest {
   }
 
   @Test
-  @DisplayName("test getEntities: should return OK status and call service")
-  void testGetEntities() {
+  @DisplayName("test createEntity: should return ACCEPTED status with the operation in write-behind mode")
+  void testCreateEntityWriteBehind() {
     var request = Mockito.mock(HttpServletRequest.class);
-    Page<DynamicEntity> expected = Page.empty();
+    Map<String, Object> requestBody = Map.of("field", "value");
+    var operation = new WriteBehindOperation("op", "testEntity", "create", null, requestBody, 42L);
+    Mockito.when(writeBehindService.isEnabled(request, "testEntity")).thenReturn(true);
+    Mockito.when(writeBehindService.handleWrite(request, "testEntity", "create", null, requestBody)).thenReturn(operation);
+
+    ResponseEntity<Map<String, Object>> response = controller.createEntity("testEntity", requestBody, request);
+
+    assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+    assertEquals("op", response.getBody().get("operationId"));
+    assertEquals(42L, response.getBody().get("queuedAt"));
+    Mockito.verify(service, Mockito.never()).handleCreate(any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("test getEntities: should write the page with OK status and call service")
+  void testGetEntities() throws IOException {
+    var request = Mockito.mock(HttpServletRequest.class);
+    var response = new MockHttpServletResponse();
+    var found = new DynamicEntity();
+    Page<DynamicEntity> expected = new PageImpl<>(List.of(found), PageRequest.of(0, 2), 1);
     Mockito.when(service.handleFindAll(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
         .thenReturn(expected);
+    Mockito.when(mapper.apply(found)).thenReturn(Map.of("id", "1"));
+    Mockito.when(formatMappers.getMapper(ContentFormat.JSON)).thenReturn(JsonMapper.builder().build());
 
-    ResponseEntity<?> response = controller.getEntities(
+    controller.getEntities(
         "testEntity",
         MultiValueMap.fromMultiValue(Map.of()),
         new PaginationRequest(),
-        request
+        request,
+        response
     );
 
-    assertNotNull(response);
-    assertEquals(HttpStatus.OK, response.getStatusCode());
-    assertEquals(expected, response.getBody());
+    assertEquals(HttpStatus.OK.value(), response.getStatus());
+    assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getContentType());
+    assertTrue(response.getContentAsString().startsWith("{\"content\":[{\"id\":\"1\"}],\"empty\":false,"));
+    assertTrue(response.getContentAsString().endsWith("\"totalElements\":1,\"totalPages\":1}"));
+  }
+
+  @Test
+  @DisplayName("test getAttributeSource: should stream attributes of projecting mappers")
+  void testGetAttributeSource() {
+    var request = new MockHttpServletRequest();
+    request.setParameter("fields", "id");
+    var entity = new DynamicEntity();
+    var projectingMapper = Mockito.mock(ProjectingEntityMapper.class);
+    var projectingController = new GenericController(service, projectingMapper, batchService, i18nService, tagService,
+        writeBehindService, formatMappers);
+    BiConsumer<String, Object> action = (name, value) -> { };
+
+    projectingController.getAttributeSource(request).forEachAttribute(entity, action);
+
+    Mockito.verify(projectingMapper).forEachAttribute(entity, Set.of("id"), action);
   }
 
   @Test
@@ -116,7 +226,8 @@ class GenericControllerTest {
   void testGetEntityById() {
     var request = Mockito.mock(HttpServletRequest.class);
     var expected = new DynamicEntity();
-    Mockito.when(service.handleFindById(Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(expected);
+    Mockito.when(tagService.handleFindById(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenReturn(new ConditionalRead(null, expected));
     Mockito.when(mapper.apply(Mockito.any())).thenReturn(expected.getAttributes());
 
     ResponseEntity<?> response = controller.getEntityById(
@@ -130,6 +241,77 @@ class GenericControllerTest {
     assertEquals(expected.getAttributes(), response.getBody());
   }
 
+  @Test
+  @DisplayName("test getEntitiesByIds: should return found entities and missing ids")
+  void testGetEntitiesByIds() {
+    var request = Mockito.mock(HttpServletRequest.class);
+    var found = new DynamicEntity();
+    Mockito.when(batchService.handleFindByIds(Mockito.any(), Mockito.eq("testEntity"), Mockito.eq(List.of("1", "2"))))
+        .thenReturn(new BatchReadResult(List.of(found), List.of("2")));
+    Mockito.when(mapper.apply(found)).thenReturn(Map.of("id", "1"));
+
+    ResponseEntity<Map<String, Object>> response = controller.getEntitiesByIds(
+        "testEntity",
+        new BatchGetRequest(List.of("1", "2")),
+        request
+    );
+
+    assertNotNull(response);
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(List.of(Map.of("id", "1")), response.getBody().get("content"));
+    assertEquals(List.of("2"), response.getBody().get("missing"));
+  }
+
+  @Test
+  @DisplayName("test getEntityById: should return tag and cache headers")
+  void testGetEntityByIdHeaders() {
+    var request = new MockHttpServletRequest();
+    var found = new DynamicEntity();
+    Mockito.when(tagService.handleFindById(request, "users", "1", null)).thenReturn(new ConditionalRead(null, found));
+    Mockito.when(mapper.apply(found)).thenReturn(Map.of("id", "1"));
+    Mockito.when(tagService.getEtag(request, found, Map.of("id", "1"))).thenReturn("W/\"tag\"");
+    Mockito.when(tagService.getCacheControl("users")).thenReturn("max-age=60");
+
+    var response = controller.getEntityById("users", "1", request);
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals("W/\"tag\"", response.getHeaders().getETag());
+    assertEquals("max-age=60", response.getHeaders().getCacheControl());
+  }
+
+  @Test
+  @DisplayName("test getEntityById: should return NOT_MODIFIED when the fetched entity matches If-None-Match")
+  void testGetEntityByIdNotModified() {
+    var request = new MockHttpServletRequest();
+    request.addHeader("If-None-Match", "W/\"tag\"");
+    var found = new DynamicEntity();
+    Mockito.when(tagService.handleFindById(request, "users", "1", "W/\"tag\""))
+        .thenReturn(new ConditionalRead(null, found));
+    Mockito.when(mapper.apply(found)).thenReturn(Map.of("id", "1"));
+    Mockito.when(tagService.getEtag(request, found, Map.of("id", "1"))).thenReturn("W/\"tag\"");
+    Mockito.when(tagService.matches("W/\"tag\"", "W/\"tag\"")).thenReturn(true);
+
+    var response = controller.getEntityById("users", "1", request);
+
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    assertEquals(null, response.getBody());
+  }
+
+  @Test
+  @DisplayName("test getEntityById: should return NOT_MODIFIED without fetching when the version matches If-None-Match")
+  void testGetEntityByIdNotModifiedVersion() {
+    var request = new MockHttpServletRequest();
+    request.addHeader("If-None-Match", "W/\"version\"");
+    Mockito.when(tagService.handleFindById(request, "users", "1", "W/\"version\""))
+        .thenReturn(new ConditionalRead("W/\"version\"", null));
+
+    var response = controller.getEntityById("users", "1", request);
+
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    assertEquals("W/\"version\"", response.getHeaders().getETag());
+    Mockito.verifyNoInteractions(service);
+  }
+
   @Test
   @DisplayName("test putEntity: should return OK status and call service")
   void testPutEntity() {
@@ -146,6 +328,21 @@ class GenericControllerTest {
     assertEquals(expected.getAttributes(), response.getBody());
   }
 
+  @Test
+  @DisplayName("test putEntity: should return the tag of the updated entity")
+  void testPutEntityEtag() {
+    var request = Mockito.mock(HttpServletRequest.class);
+    var expected = new DynamicEntity();
+    Mockito.when(service.handleUpdate(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(expected);
+    Mockito.when(mapper.apply(expected)).thenReturn(Map.of("id", "1"));
+    Mockito.when(tagService.getEtag(request, expected, Map.of("id", "1"))).thenReturn("W/\"tag\"");
+
+    var response = controller.putEntity("testEntity", "1", Map.of(), request);
+
+    assertEquals("W/\"tag\"", response.getHeaders().getETag());
+    assertNull(response.getHeaders().getCacheControl());
+  }
+
   @Test
   @DisplayName("test patchEntity: should return OK status and call service")
   void testPatchEntity() {
@@ -162,6 +359,23 @@ class GenericControllerTest {
     assertEquals(expected.getAttributes(), response.getBody());
   }
 
+  @Test
+  @DisplayName("test patchEntity: should return ACCEPTED status with the operation in write-behind mode")
+  void testPatchEntityWriteBehind() {
+    var request = Mockito.mock(HttpServletRequest.class);
+    Map<String, Object> requestBody = Map.of("field", "value");
+    var operation = new WriteBehindOperation("op", "testEntity", "patch", "id", requestBody, 42L);
+    Mockito.when(writeBehindService.isEnabled(request, "testEntity")).thenReturn(true);
+    Mockito.when(writeBehindService.handleWrite(request, "testEntity", "patch", "id", requestBody)).thenReturn(operation);
+
+    ResponseEntity<Map<String, Object>> response = controller.patchEntity("testEntity", "id", requestBody, request);
+
+    assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+    assertEquals("id", response.getBody().get("id"));
+    assertEquals("patch", response.getBody().get("action"));
+    Mockito.verify(service, Mockito.never()).handlePatch(any(), any(), any(), any());
+  }
+
   @Test
   @DisplayName("test deleteEntity: should return NO_CONTENT status and call service")
   void testDeleteEntity() {
@@ -191,4 +405,151 @@ class GenericControllerTest {
     assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
     Mockito.verify(service).validateAttribute(eq("users"), eq("email"), eq("a@b.com"));
   }
+
+  @Test
+  @DisplayName("test bulk: should stream one result per operation in the request format")
+  void testBulk() throws IOException {
+    var request = new MockHttpServletRequest();
+    request.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+    request.setContent("""
+        {"action": "create", "body": {"name": "test"}}
+        {"action": "delete", "id": "1"}
+        """.getBytes(StandardCharsets.UTF_8));
+    var response = new MockHttpServletResponse();
+    var created = new DynamicEntity();
+
+    Mockito.when(mapper.apply(created)).thenReturn(Map.of("name", "test"));
+    Mockito.when(i18nService.translate(Mockito.any())).thenReturn("Not found");
+    Mockito.doAnswer(invocation -> {
+      Iterator<BulkOperation> operations = invocation.getArgument(2);
+      Consumer<BulkItemResult> results = invocation.getArgument(3);
+      results.accept(BulkItemResult.success(operations.next(), 201, created));
+      results.accept(BulkItemResult.failure(operations.next(),
+          new ApiException(404, I18nMessage.of("error.entity.id.unknown", Map.of()))));
+      return null;
+    }).when(batchService).handleBulk(Mockito.any(), Mockito.eq("users"), Mockito.any(), Mockito.any());
+
+    controller.bulk("users", request, response);
+
+    assertEquals(MediaType.APPLICATION_NDJSON_VALUE, response.getContentType());
+    assertEquals("""
+        {"index":0,"action":"create","id":null,"status":201,"entity":{"name":"test"}}
+        {"index":1,"action":"delete","id":"1","status":404,"error":"Not found",\
+        "errorKey":"error.entity.id.unknown","errorContext":{}}
+        """, response.getContentAsString());
+  }
+
+  @Test
+  @DisplayName("test deleteEntities: should return ACCEPTED status with the job location")
+  void testDeleteEntities() {
+    var request = new MockHttpServletRequest("DELETE", "/api/users");
+    var filters = MultiValueMap.fromSingleValue(Map.of("enabled", "false"));
+    var job = new FilterWriteJob("users", "delete");
+    Mockito.when(batchService.handleDeleteByFilter(request, "users", filters)).thenReturn(job);
+
+    var response = controller.deleteEntities("users", filters, request);
+
+    assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+    assertEquals("/api/users/_jobs/" + job.getId(), response.getHeaders().getLocation().toString());
+    assertEquals(job.getId(), response.getBody().get("id"));
+    assertEquals(FilterWriteJob.Status.RUNNING, response.getBody().get("status"));
+  }
+
+  @Test
+  @DisplayName("test patchEntities: should return ACCEPTED status and call service")
+  void testPatchEntities() {
+    var request = new MockHttpServletRequest("PATCH", "/api/users");
+    var filters = MultiValueMap.fromSingleValue(Map.of("enabled", "true"));
+    Map<String, Object> body = Map.of("enabled", false);
+    var job = new FilterWriteJob("users", "patch");
+    Mockito.when(batchService.handlePatchByFilter(request, "users", filters, body)).thenReturn(job);
+
+    var response = controller.patchEntities("users", filters, body, request);
+
+    assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+    assertEquals("patch", response.getBody().get("action"));
+  }
+
+  @Test
+  @DisplayName("test getJob: should return the job progress and failures")
+  void testGetJob() {
+    var request = Mockito.mock(HttpServletRequest.class);
+    var job = new FilterWriteJob("users", "delete");
+    var error = new ApiException(403, I18nMessage.of("error.key", Map.of()));
+    job.record(BulkItemResult.failure(new BulkOperation(0, "delete", "1", null), error));
+    job.complete();
+    Mockito.when(batchService.handleFindJob(request, "users", job.getId())).thenReturn(job);
+    Mockito.when(i18nService.translate(Mockito.any())).thenReturn("Forbidden");
+
+    var response = controller.getJob("users", job.getId(), request);
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(1L, response.getBody().get("failed"));
+    assertEquals(List.of(Map.of("id", "1", "status", 403, "error", "Forbidden", "errorKey", "error.key",
+        "errorContext", Map.of())), response.getBody().get("failures"));
+  }
+
+  @Test
+  @DisplayName("test getOperation: should return the status of a write-behind operation with its error")
+  void testGetOperation() {
+    var request = Mockito.mock(HttpServletRequest.class);
+    var operation = new WriteBehindOperation("op", "users", "create", null, Map.of(), 42L);
+    var status = WriteBehindStatus.failed(operation, Map.of("status", 409));
+    Mockito.when(writeBehindService.handleFindOperation(request, "users", "op")).thenReturn(status);
+
+    var response = controller.getOperation("users", "op", request);
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals("op", response.getBody().get("operationId"));
+    assertEquals(WriteBehindStatus.State.FAILED, response.getBody().get("status"));
+    assertEquals(status.finishedAt().toEpochMilli(), response.getBody().get("finishedAt"));
+    assertEquals(Map.of("status", 409), response.getBody().get("error"));
+  }
+
+  @Test
+  @DisplayName("test streamEntities: should write each entity as a NDJSON line")
+  void testStreamEntities() throws IOException {
+    var request = Mockito.mock(HttpServletRequest.class);
+    var response = new MockHttpServletResponse();
+    var filters = MultiValueMap.fromSingleValue(Map.of("enabled", "true"));
+    var first = new DynamicEntity();
+    var second = new DynamicEntity();
+
+    Mockito.when(mapper.apply(first)).thenReturn(Map.of("id", "1"));
+    Mockito.when(mapper.apply(second)).thenReturn(Map.of("id", "2"));
+    Mockito.doAnswer(invocation -> {
+      Consumer<List<DynamicEntity>> chunks = invocation.getArgument(3);
+      chunks.accept(List.of(first));
+      chunks.accept(List.of(second));
+      return null;
+    }).when(batchService).handleStream(Mockito.eq(request), Mockito.eq("users"), Mockito.eq(filters), Mockito.any());
+
+    controller.streamEntities("users", filters, request, response);
+
+    assertEquals(MediaType.APPLICATION_NDJSON_VALUE, response.getContentType());
+    assertEquals("{\"id\":\"1\"}\n{\"id\":\"2\"}\n", response.getContentAsString());
+  }
+
+  @Test
+  @DisplayName("test getEntitiesByCursor: should return the entities and the next cursor")
+  void testGetEntitiesByCursor() {
+    var request = Mockito.mock(HttpServletRequest.class);
+    var filters = MultiValueMap.fromSingleValue(Map.of("cursor", "token"));
+    var pagination = new PaginationRequest(0, 10, null, null, "token", null);
+    var entity = new DynamicEntity();
+    Mockito.when(batchService.handleFindAllByCursor(request, "users", filters, "token", 10, Sort.unsorted()))
+        .thenReturn(new CursorPage(List.of(entity), "next"));
+    Mockito.when(mapper.apply(entity)).thenReturn(Map.of("id", "1"));
+
+    var response = controller.getEntitiesByCursor("users", filters, pagination, request);
+
+    assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+    assertEquals(List.of(Map.of("id", "1")), response.getBody().get("content"));
+    assertEquals("next", response.getBody().get("next"));
+
+    Mockito.when(batchService.handleFindAllByCursor(request, "users", filters, "token", 10, Sort.unsorted()))
+        .thenReturn(new CursorPage(List.of(), null));
+
+    assertEquals(HttpStatus.OK, controller.getEntitiesByCursor("users", filters, pagination, request).getStatusCode());
+  }
 }
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.controller.binding;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.function.Supplier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+@DisplayName("Test class: ContentFormatMappers")
+class ContentFormatMappersTest {
+
+  @Test
+  @DisplayName("test getMapper: should use the mappers of the application")
+  @SuppressWarnings("unchecked")
+  void testGetMapper() {
+    var jsonMapper = JsonMapper.builder().build();
+    var cborMapper = CBORMapper.builder().build();
+    ObjectProvider<CBORMapper> cborProvider = Mockito.mock(ObjectProvider.class);
+    Mockito.when(cborProvider.getIfAvailable(Mockito.any())).thenReturn(cborMapper);
+
+    var mappers = new ContentFormatMappers(jsonMapper, cborProvider);
+
+    assertSame(jsonMapper, mappers.getMapper(ContentFormat.JSON));
+    assertSame(cborMapper, mappers.getMapper(ContentFormat.CBOR));
+    assertSame(mappers.getSmileMapper(), mappers.getMapper(ContentFormat.SMILE));
+  }
+
+  @Test
+  @DisplayName("test getMapper: should create a CBOR mapper when the application has none")
+  @SuppressWarnings("unchecked")
+  void testGetMapperWithoutCbor() {
+    ObjectProvider<CBORMapper> cborProvider = Mockito.mock(ObjectProvider.class);
+    Mockito.when(cborProvider.getIfAvailable(Mockito.any()))
+        .thenAnswer(invocation -> invocation.<Supplier<CBORMapper>>getArgument(0).get());
+
+    var mappers = new ContentFormatMappers(JsonMapper.builder().build(), cborProvider);
+
+    assertNotNull(mappers.getMapper(ContentFormat.CBOR));
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.controller.binding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.plugin.config.PluginConfigurationService;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.AttributeConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration;
+import io.github.linagora.linid.im.plugin.config.EntitySettingsService;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+import tools.jackson.databind.json.JsonMapper;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Test class: EntityBodyArgumentResolver")
+class EntityBodyArgumentResolverTest {
+
+  @Mock
+  private PluginConfigurationService configurationService;
+
+  @Mock
+  private EntitySettingsService settingsService;
+
+  @Mock
+  private ContentFormatMappers mappers;
+
+  @InjectMocks
+  private EntityBodyArgumentResolver resolver;
+
+  private MockHttpServletRequest request(String entity, String body) {
+    var request = new MockHttpServletRequest("POST", "/api/" + entity);
+    request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("entity", entity));
+    request.setContent(body.getBytes(StandardCharsets.UTF_8));
+    return request;
+  }
+
+  @Test
+  @DisplayName("test resolveArgument: should parse the body with the entity settings")
+  void testResolveArgument() throws IOException {
+    var configuration = new EntityConfiguration();
+    var attribute = new AttributeConfiguration();
+    attribute.setName("age");
+    attribute.setType("integer");
+    configuration.setName("users");
+    configuration.setAttributes(List.of(attribute));
+    Mockito.when(configurationService.getEntityConfiguration("users")).thenReturn(Optional.of(configuration));
+    Mockito.when(settingsService.getSetting(Mockito.eq("users"), Mockito.eq("body-max-size"), Mockito.eq(DataSize.class),
+        Mockito.any())).thenReturn(DataSize.ofBytes(100));
+    Mockito.when(settingsService.getSetting("users", "unknown-attributes", String.class, null)).thenReturn("drop");
+    Mockito.when(mappers.getMapper(ContentFormat.JSON)).thenReturn(JsonMapper.builder().build());
+
+    var result = resolver.resolveArgument(null, null,
+        new ServletWebRequest(request("users", "{\"age\": \"7\", \"extra\": 1}")), null);
+
+    assertEquals(Map.of("age", 7), result);
+  }
+
+  @Test
+  @DisplayName("test getReader: should reject bodies declared larger than the limit")
+  void testGetReaderTooLarge() {
+    var configuration = new EntityConfiguration();
+    configuration.setName("users");
+    configuration.setAttributes(List.of());
+    Mockito.when(configurationService.getEntityConfiguration("users")).thenReturn(Optional.of(configuration));
+    Mockito.when(settingsService.getSetting(Mockito.eq("users"), Mockito.eq("body-max-size"), Mockito.eq(DataSize.class),
+        Mockito.any())).thenReturn(DataSize.ofBytes(2));
+
+    var exception = assertThrows(ApiException.class, () -> resolver.getReader(request("users", "{\"a\": 1}")));
+
+    assertEquals(413, exception.getStatusCode());
+  }
+
+  @Test
+  @DisplayName("test getReader: should throw exception for unknown entity")
+  void testGetReaderUnknownEntity() {
+    Mockito.when(configurationService.getEntityConfiguration("unknown")).thenReturn(Optional.empty());
+
+    var exception = assertThrows(ApiException.class, () -> resolver.getReader(request("unknown", "{}")));
+
+    assertEquals(404, exception.getStatusCode());
+    assertEquals("error.entity.unknown", exception.getError().key());
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.controller.binding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.AttributeConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+@DisplayName("Test class: EntityBodyReader")
+class EntityBodyReaderTest {
+
+  private EntityConfiguration configuration() {
+    var configuration = new EntityConfiguration();
+    var attributes = new ArrayList<AttributeConfiguration>();
+    for (String[] definition : new String[][] {
+        {"name", "string"}, {"age", "integer"}, {"enabled", "boolean"}, {"score", "double"}, {"tags", "list"}
+    }) {
+      var attribute = new AttributeConfiguration();
+      attribute.setName(definition[0]);
+      attribute.setType(definition[1]);
+      attributes.add(attribute);
+    }
+    configuration.setName("users");
+    configuration.setAttributes(attributes);
+    return configuration;
+  }
+
+  @SuppressWarnings("unchecked")
+  private ContentFormatMappers mappers() {
+    ObjectProvider<CBORMapper> cborProvider = Mockito.mock(ObjectProvider.class);
+    Mockito.when(cborProvider.getIfAvailable(Mockito.any()))
+        .thenAnswer(invocation -> invocation.<Supplier<CBORMapper>>getArgument(0).get());
+    return new ContentFormatMappers(JsonMapper.builder().build(), cborProvider);
+  }
+
+  private Map<String, Object> read(UnknownAttributePolicy policy, long maxSize, String body) {
+    return new EntityBodyReader(configuration(), policy, maxSize, mappers())
+        .read(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  @DisplayName("test read: should parse values into the attribute types")
+  void testRead() {
+    var body = read(UnknownAttributePolicy.KEEP, 1024,
+        "{\"name\": 12, \"age\": \"42\", \"enabled\": \"TRUE\", \"score\": 1, \"tags\": [\"a\"], \"extra\": {\"a\": 1}}");
+
+    var expected = new HashMap<String, Object>();
+    expected.put("name", "12");
+    expected.put("age", 42);
+    expected.put("enabled", true);
+    expected.put("score", 1.0);
+    expected.put("tags", List.of("a"));
+    expected.put("extra", Map.of("a", 1));
+    assertEquals(expected, body);
+    assertEquals(List.of("name", "age", "enabled", "score", "tags", "extra"), List.copyOf(body.keySet()));
+  }
+
+  @Test
+  @DisplayName("test read: should keep null values")
+  void testReadNull() {
+    var body = read(UnknownAttributePolicy.KEEP, 1024, "{\"age\": null}");
+
+    assertEquals(1, body.size());
+    assertEquals(null, body.get("age"));
+  }
+
+  @Test
+  @DisplayName("test read: should drop or reject unknown attributes")
+  void testReadUnknown() {
+    assertEquals(Map.of("age", 1), read(UnknownAttributePolicy.DROP, 1024, "{\"extra\": [1, {\"a\": 2}], \"age\": 1}"));
+
+    var exception = assertThrows(ApiException.class, () -> read(UnknownAttributePolicy.REJECT, 1024, "{\"extra\": 1}"));
+    assertEquals(400, exception.getStatusCode());
+    assertEquals("error.attribute.unknown", exception.getError().key());
+  }
+
+  @Test
+  @DisplayName("test read: should reject values of the wrong type")
+  void testReadWrongType() {
+    for (String body : List.of("{\"age\": \"abc\"}", "{\"age\": 1.5}", "{\"age\": 3000000000}", "{\"enabled\": 1}",
+        "{\"name\": {}}")) {
+      var exception = assertThrows(ApiException.class, () -> read(UnknownAttributePolicy.KEEP, 1024, body));
+      assertEquals(400, exception.getStatusCode());
+      assertEquals("error.body.attribute.type", exception.getError().key());
+    }
+  }
+
+  @Test
+  @DisplayName("test read: should reject malformed bodies")
+  void testReadMalformed() {
+    for (String body : List.of("", "[]", "{\"age\": ", "{} {}")) {
+      var exception = assertThrows(ApiException.class, () -> read(UnknownAttributePolicy.KEEP, 1024, body));
+      assertEquals(400, exception.getStatusCode());
+      assertEquals("error.body.malformed", exception.getError().key());
+    }
+  }
+
+  @Test
+  @DisplayName("test read: should reject bodies larger than the limit")
+  void testReadTooLarge() {
+    var exception = assertThrows(ApiException.class,
+        () -> read(UnknownAttributePolicy.KEEP, 10, "{\"name\": \"a very long name\"}"));
+
+    assertEquals(413, exception.getStatusCode());
+    assertEquals("error.body.too.large", exception.getError().key());
+  }
+
+  @Test
+  @DisplayName("test read: should read binary encoded bodies")
+  void testReadBinary() {
+    var mappers = mappers();
+    var body = mappers.getCborMapper().writeValueAsBytes(Map.of("age", 7));
+
+    var result = new EntityBodyReader(configuration(), UnknownAttributePolicy.KEEP, 1024, mappers)
+        .read(new ByteArrayInputStream(body), ContentFormat.CBOR);
+
+    assertEquals(Map.of("age", 7), result);
+  }
+}
@@ -63,4 +63,10 @@ class PaginationRequestTest {
     Pageable pageable = request.toPageable();
     assertEquals(PageRequest.of(2, 15, Sort.by(Sort.Direction.DESC, "updatedAt")), pageable);
   }
+
+  @Test
+  void testToSort() {
+    assertEquals(Sort.unsorted(), new PaginationRequest(0, 5, null, null).toSort());
+    assertEquals(Sort.by(Sort.Direction.DESC, "name"), new PaginationRequest(0, 5, "name", "desc").toSort());
+  }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.controller.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.plugin.entity.BulkOperation;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Test class: BulkOperationReader")
+class BulkOperationReaderTest {
+
+  private List<BulkOperation> readAll(String body) {
+    var reader = new BulkOperationReader(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    List<BulkOperation> operations = new ArrayList<>();
+    reader.forEachRemaining(operations::add);
+    return operations;
+  }
+
+  @Test
+  @DisplayName("test next: should read operations from a JSON array")
+  void testReadArray() {
+    var operations = readAll("""
+        [
+          {"action": "create", "body": {"name": "test"}},
+          {"action": "delete", "id": 42}
+        ]
+        """);
+
+    assertEquals(2, operations.size());
+    assertEquals(new BulkOperation(0, "create", null, Map.of("name", "test")), operations.get(0));
+    assertEquals(new BulkOperation(1, "delete", "42", Map.of()), operations.get(1));
+  }
+
+  @Test
+  @DisplayName("test next: should read operations from NDJSON")
+  void testReadNdjson() {
+    var operations = readAll("""
+        {"action": "patch", "id": "1", "body": {"enabled": false}}
+        {"action": "update", "id": "2", "body": {"enabled": true}}
+        """);
+
+    assertEquals(2, operations.size());
+    assertEquals("patch", operations.get(0).action());
+    assertEquals(Map.of("enabled", true), operations.get(1).body());
+    assertEquals(1, operations.get(1).index());
+  }
+
+  @Test
+  @DisplayName("test hasNext: should return false for an empty body")
+  void testReadEmpty() {
+    var reader = new BulkOperationReader(new ByteArrayInputStream(new byte[0]));
+
+    assertFalse(reader.hasNext());
+    assertThrows(NoSuchElementException.class, reader::next);
+    assertEquals(List.of(), readAll("[]"));
+  }
+
+  @Test
+  @DisplayName("test next: should throw on malformed operations")
+  void testReadMalformed() {
+    var exception = assertThrows(ApiException.class, () -> readAll("[1]"));
+    assertEquals(400, exception.getStatusCode());
+    assertEquals("error.bulk.malformed", exception.getError().key());
+
+    exception = assertThrows(ApiException.class, () -> readAll("{\"action\": \"create\", \"body\": [1]}"));
+    assertEquals("error.bulk.malformed", exception.getError().key());
+
+    exception = assertThrows(ApiException.class, () -> readAll("{\"action\": "));
+    assertEquals("error.bulk.malformed", exception.getError().key());
+  }
+
+  @Test
+  @DisplayName("test toBody: should only accept a missing body or a JSON object")
+  void testToBody() {
+    var reader = new BulkOperationReader(new ByteArrayInputStream(new byte[0]));
+
+    assertEquals(Map.of(), reader.toBody(null));
+    assertEquals(Map.of("key", "value"), reader.toBody(Map.of("key", "value")));
+    assertThrows(ApiException.class, () -> reader.toBody("value"));
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.controller.stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.json.JacksonJsonHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+@DisplayName("Test class: EntityPageWriter")
+class EntityPageWriterTest {
+
+  private static final EntityPageWriter.AttributeSource ATTRIBUTES =
+      (dynamicEntity, action) -> dynamicEntity.getAttributes().forEach(action);
+
+  private DynamicEntity entity(String id, int age) {
+    var attributes = new LinkedHashMap<String, Object>();
+    attributes.put("age", age);
+    attributes.put("id", id);
+    var entity = new DynamicEntity();
+    entity.setAttributes(attributes);
+    return entity;
+  }
+
+  private byte[] write(ObjectMapper mapper, Page<DynamicEntity> page) {
+    var output = new ByteArrayOutputStream();
+    new EntityPageWriter(output, mapper).write(page, ATTRIBUTES);
+    return output.toByteArray();
+  }
+
+  private byte[] writeWithSpring(HttpMessageConverter<Object> converter, Page<DynamicEntity> page) throws IOException {
+    var message = new MockHttpOutputMessage();
+    converter.write(page.map(DynamicEntity::getAttributes), null, message);
+    return message.getBodyAsBytes();
+  }
+
+  @Test
+  @DisplayName("test write: should write the same document as Spring for the page of attributes")
+  void testWrite() throws IOException {
+    var mapper = JsonMapper.builder().build();
+    var page = new PageImpl<>(List.of(entity("1", 20), entity("2", 30)), PageRequest.of(1, 2, Sort.by("id")), 5);
+
+    assertArrayEquals(writeWithSpring(new JacksonJsonHttpMessageConverter(mapper), page), write(mapper, page));
+  }
+
+  @Test
+  @DisplayName("test write: should write the same document as Spring for an empty page")
+  void testWriteEmpty() throws IOException {
+    var mapper = JsonMapper.builder().build();
+    Page<DynamicEntity> page = new PageImpl<>(List.of(), PageRequest.of(0, 2), 0);
+
+    assertArrayEquals(writeWithSpring(new JacksonJsonHttpMessageConverter(mapper), page), write(mapper, page));
+  }
+
+  @Test
+  @DisplayName("test write: should write the same document as Spring, more compactly, in binary encodings")
+  void testWriteBinary() throws IOException {
+    var entities = new ArrayList<DynamicEntity>();
+    for (int index = 0; index < 100; index++) {
+      entities.add(entity(String.valueOf(index), 20 + index % 50));
+    }
+    var page = new PageImpl<>(entities, PageRequest.of(0, 100), 1000);
+    var json = write(JsonMapper.builder().build(), page);
+    var cborMapper = CBORMapper.builder().build();
+    var smileMapper = SmileMapper.builder().build();
+
+    var cbor = write(cborMapper, page);
+    assertArrayEquals(writeWithSpring(new JacksonCborHttpMessageConverter(cborMapper), page), cbor);
+    assertTrue(cbor.length < json.length, "CBOR should be smaller than JSON");
+
+    var smile = write(smileMapper, page);
+    assertArrayEquals(writeWithSpring(new JacksonSmileHttpMessageConverter(smileMapper), page), smile);
+    assertTrue(smile.length < json.length, "Smile should be smaller than JSON");
+  }
+}
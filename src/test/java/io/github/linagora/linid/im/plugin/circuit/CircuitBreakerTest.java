@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.circuit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Test class: CircuitBreaker")
+class CircuitBreakerTest {
+
+  private static final long OPEN = Duration.ofSeconds(30).toNanos();
+
+  private final List<CircuitState> transitions = new ArrayList<>();
+
+  private final CircuitBreaker breaker = new CircuitBreaker(4, 4, 50, Duration.ofSeconds(1), 75,
+      Duration.ofSeconds(30), 2, transitions::add);
+
+  @Test
+  @DisplayName("test record: should open once the failure rate of the window reaches the threshold")
+  void testOpenOnFailures() {
+    record(0, false);
+    record(0, true);
+    record(0, false);
+    assertEquals(CircuitState.CLOSED, breaker.getState());
+
+    record(0, true);
+    assertEquals(CircuitState.OPEN, breaker.getState());
+    assertFalse(breaker.tryAcquire(OPEN - 1));
+    assertEquals(List.of(CircuitState.OPEN), transitions);
+  }
+
+  @Test
+  @DisplayName("test record: should forget the oldest outcomes once the window is full")
+  void testSlidingWindow() {
+    record(0, true);
+    record(0, false);
+    record(0, false);
+    record(0, false);
+    record(0, true);
+    record(0, false);
+    assertEquals(CircuitState.CLOSED, breaker.getState());
+
+    record(0, true);
+    assertEquals(CircuitState.OPEN, breaker.getState());
+  }
+
+  @Test
+  @DisplayName("test record: should open once the slow call rate of the window reaches the threshold")
+  void testOpenOnSlowCalls() {
+    for (int index = 0; index < 3; index++) {
+      assertTrue(breaker.tryAcquire(0));
+      breaker.record(0, Duration.ofSeconds(2).toNanos(), false);
+    }
+    assertEquals(CircuitState.CLOSED, breaker.getState());
+
+    record(0, false);
+    assertEquals(CircuitState.OPEN, breaker.getState());
+  }
+
+  @Test
+  @DisplayName("test tryAcquire: should let a limited number of probes through and close once they succeed")
+  void testHalfOpenClose() {
+    open();
+
+    assertTrue(breaker.tryAcquire(OPEN));
+    assertTrue(breaker.tryAcquire(OPEN));
+    assertFalse(breaker.tryAcquire(OPEN));
+    assertEquals(CircuitState.HALF_OPEN, breaker.getState());
+
+    breaker.record(OPEN, 0, false);
+    breaker.record(OPEN, 0, false);
+    assertEquals(CircuitState.CLOSED, breaker.getState());
+    assertTrue(breaker.tryAcquire(OPEN));
+    assertEquals(List.of(CircuitState.OPEN, CircuitState.HALF_OPEN, CircuitState.CLOSED), transitions);
+  }
+
+  @Test
+  @DisplayName("test record: should open again as soon as a probe fails")
+  void testHalfOpenReopen() {
+    open();
+
+    assertTrue(breaker.tryAcquire(OPEN));
+    breaker.record(OPEN, 0, true);
+
+    assertEquals(CircuitState.OPEN, breaker.getState());
+    assertFalse(breaker.tryAcquire(2 * OPEN - 1));
+    assertTrue(breaker.tryAcquire(2 * OPEN));
+  }
+
+  private void open() {
+    for (int index = 0; index < 4; index++) {
+      record(0, true);
+    }
+    assertEquals(CircuitState.OPEN, breaker.getState());
+  }
+
+  private void record(long now, boolean failed) {
+    assertTrue(breaker.tryAcquire(now));
+    breaker.record(now, 0, failed);
+  }
+}
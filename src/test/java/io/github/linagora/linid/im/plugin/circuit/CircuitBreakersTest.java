@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.circuit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@DisplayName("Test class: CircuitBreakers")
+class CircuitBreakersTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final CircuitBreakers circuitBreakers = new CircuitBreakers(meterRegistry);
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(circuitBreakers, "enabled", true);
+    ReflectionTestUtils.setField(circuitBreakers, "windowSize", 2);
+    ReflectionTestUtils.setField(circuitBreakers, "minimumCalls", 2);
+    ReflectionTestUtils.setField(circuitBreakers, "failureRateThreshold", 100);
+    ReflectionTestUtils.setField(circuitBreakers, "slowCallDuration", Duration.ofMinutes(1));
+    ReflectionTestUtils.setField(circuitBreakers, "slowCallRateThreshold", 100);
+    ReflectionTestUtils.setField(circuitBreakers, "openDuration", Duration.ofMinutes(1));
+    ReflectionTestUtils.setField(circuitBreakers, "probeCalls", 1);
+  }
+
+  @Test
+  @DisplayName("test call: should reject calls of an open breaker only")
+  void testCallOpen() {
+    for (int index = 0; index < 2; index++) {
+      assertThrows(IllegalStateException.class, () -> circuitBreakers.call(CircuitBreakers.PROVIDER, "ldap", () -> {
+        throw new IllegalStateException();
+      }));
+    }
+
+    var exception = assertThrows(ApiException.class,
+        () -> circuitBreakers.call(CircuitBreakers.PROVIDER, "ldap", () -> "ldap"));
+
+    assertEquals(503, exception.getStatusCode());
+    assertEquals("error.circuit.open", exception.getError().key());
+    assertEquals(Map.of("kind", "provider", "name", "ldap"), exception.getError().context());
+    assertEquals("sql", circuitBreakers.call(CircuitBreakers.PROVIDER, "sql", () -> "sql"));
+    assertEquals(1, meterRegistry.counter("linid.circuit.rejected", "kind", "provider", "name", "ldap").count());
+    assertEquals(1, meterRegistry.counter("linid.circuit.transitions", "kind", "provider", "name", "ldap", "state", "open")
+        .count());
+    assertEquals(2, meterRegistry.get("linid.circuit.state").tag("name", "ldap").gauge().value());
+    assertEquals(0, meterRegistry.get("linid.circuit.state").tag("name", "sql").gauge().value());
+  }
+
+  @Test
+  @DisplayName("test call: should not count client errors as failures")
+  void testCallClientError() {
+    var notFound = new ApiException(404, I18nMessage.of("error.key", Map.of()));
+
+    for (int index = 0; index < 3; index++) {
+      assertThrows(ApiException.class, () -> circuitBreakers.call(CircuitBreakers.ROUTE, "test#0", () -> {
+        throw notFound;
+      }));
+    }
+
+    assertEquals("ok", circuitBreakers.call(CircuitBreakers.ROUTE, "test#0", () -> "ok"));
+  }
+}
@@ -243,6 +243,10 @@ class PluginConfigurationServiceImplTest {
 
     assertTrue(descriptions.stream().anyMatch(r -> r.path().equals("/actuator/health")));
     assertTrue(descriptions.stream().anyMatch(r -> r.path().equals("/api/users/{id}")));
+    assertTrue(descriptions.stream().anyMatch(r -> r.path().equals("/api/users/_bulk")));
+    assertTrue(descriptions.stream().anyMatch(r -> r.path().equals("/api/users/_stream")));
+    assertTrue(descriptions.stream().anyMatch(r -> r.path().equals("/api/users/_jobs/{jobId}")));
+    assertTrue(descriptions.stream().anyMatch(r -> r.path().equals("/api/users/_operations/{operationId}")));
     assertTrue(descriptions.stream().anyMatch(r -> r.path().equals("/custom/plugin")));
   }
 
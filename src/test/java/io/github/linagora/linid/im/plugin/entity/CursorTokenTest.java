@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+@DisplayName("Test class: CursorToken")
+class CursorTokenTest {
+
+  @Test
+  @DisplayName("test encode and decode: should round trip the token")
+  void testRoundTrip() {
+    var token = new CursorToken(Map.of("name", "doe", "id", "42"), 0, List.of("name,DESC"));
+
+    var decoded = CursorToken.decode(token.encode());
+
+    assertEquals(token, decoded);
+    assertEquals(Sort.by(Sort.Direction.DESC, "name"), decoded.toSort());
+  }
+
+  @Test
+  @DisplayName("test fromSort: should keep every sort order")
+  void testFromSort() {
+    var sort = Sort.by(Sort.Order.asc("name"), Sort.Order.desc("id"));
+
+    assertEquals(List.of("name,ASC", "id,DESC"), CursorToken.fromSort(sort));
+    assertEquals(sort, new CursorToken(null, 0, CursorToken.fromSort(sort)).toSort());
+    assertEquals(Sort.unsorted(), new CursorToken(null, 0, null).toSort());
+  }
+
+  @Test
+  @DisplayName("test decode: should throw on invalid tokens")
+  void testDecodeInvalid() {
+    var exception = assertThrows(ApiException.class, () -> CursorToken.decode("%%%"));
+    assertEquals(400, exception.getStatusCode());
+    assertEquals("error.cursor.invalid", exception.getError().key());
+
+    var badSort = Base64.getUrlEncoder().encodeToString("{\"sort\":[\"name,up\"]}".getBytes(StandardCharsets.UTF_8));
+    exception = assertThrows(ApiException.class, () -> CursorToken.decode(badSort));
+    assertEquals("error.cursor.invalid", exception.getError().key());
+  }
+}
@@ -0,0 +1,806 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.ProviderConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.provider.ProviderPlugin;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskEngine;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import io.github.linagora.linid.im.corelib.plugin.validation.ValidationEngine;
+import io.github.linagora.linid.im.plugin.provider.BatchReadProvider;
+import io.github.linagora.linid.im.plugin.provider.BatchWriteProvider;
+import io.github.linagora.linid.im.plugin.provider.BatchWriteResult;
+import io.github.linagora.linid.im.plugin.provider.FilterWriteProvider;
+import io.github.linagora.linid.im.plugin.provider.KeysetPageProvider;
+import io.github.linagora.linid.im.plugin.provider.ProviderCallExecutor;
+import io.github.linagora.linid.im.plugin.provider.StreamingReadProvider;
+import io.github.linagora.linid.im.plugin.validation.ValidationEngineImpl;
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.LinkedMultiValueMap;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Test class: DynamicEntityBatchServiceImpl")
+class DynamicEntityBatchServiceImplTest {
+  @Mock
+  private DynamicEntityServiceImpl entityService;
+  @Mock
+  private ValidationEngine validationEngine;
+  @Mock
+  private TaskEngine taskEngine;
+
+  @InjectMocks
+  private DynamicEntityBatchServiceImpl service;
+
+  @Test
+  @DisplayName("test handleFindByIds: should fan out findById calls and report missing ids")
+  void testHandleFindByIdsFanOut() {
+    ReflectionTestUtils.setField(service, "parallelism", 2);
+    var provider = Mockito.mock(ProviderPlugin.class);
+    var request = Mockito.mock(HttpServletRequest.class);
+    var found = new DynamicEntity();
+
+    Mockito.when(entityService.getProvider(Mockito.any())).thenReturn(provider);
+    Mockito.when(entityService.getProviderConfiguration(Mockito.any())).thenReturn(new ProviderConfiguration());
+    passReads();
+    Mockito.when(provider.findById(Mockito.any(), Mockito.any(), Mockito.eq("1"), Mockito.any())).thenReturn(found);
+    Mockito.when(provider.findById(Mockito.any(), Mockito.any(), Mockito.eq("2"), Mockito.any()))
+        .thenThrow(new ApiException(404, I18nMessage.of("error.key", Map.of())));
+    Mockito.when(provider.findById(Mockito.any(), Mockito.any(), Mockito.eq("3"), Mockito.any())).thenReturn(null);
+
+    var result = service.handleFindByIds(request, "test", List.of("1", "2", "1", "3"));
+
+    assertEquals(List.of(found), result.entities());
+    assertEquals(List.of("2", "3"), result.missing());
+    Mockito.verify(entityService, Mockito.times(1))
+        .authenticate(Mockito.eq(request), Mockito.any(), Mockito.any(), Mockito.eq("FindById"));
+    Mockito.verify(provider, Mockito.times(3)).findById(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    for (var id : List.of("1", "2", "3")) {
+      Mockito.verify(entityService, Mockito.times(1))
+          .beforeRead(Mockito.argThat(context -> id.equals(context.get("id"))), Mockito.any(), Mockito.eq("FindById"));
+    }
+    Mockito.verify(taskEngine, Mockito.times(1))
+        .execute(Mockito.eq(found), Mockito.argThat(context -> "1".equals(context.get("id"))), Mockito.eq("afterFindById"));
+    Mockito.verifyNoMoreInteractions(taskEngine);
+  }
+
+  @Test
+  @DisplayName("test handleFindByIds: should use provider batch capability when available")
+  void testHandleFindByIdsWithBatchProvider() {
+    var provider = Mockito.mock(ProviderPlugin.class, Mockito.withSettings().extraInterfaces(BatchReadProvider.class));
+    var request = Mockito.mock(HttpServletRequest.class);
+    var found = new DynamicEntity();
+
+    Mockito.when(entityService.getProvider(Mockito.any())).thenReturn(provider);
+    Mockito.when(entityService.getProviderConfiguration(Mockito.any())).thenReturn(new ProviderConfiguration());
+    passReads();
+    Mockito.when(((BatchReadProvider) provider).findByIds(Mockito.any(), Mockito.any(), Mockito.eq(List.of("1", "2")),
+        Mockito.any())).thenReturn(Map.of("2", found));
+
+    var result = service.handleFindByIds(request, "test", List.of("1", "2"));
+
+    assertEquals(List.of(found), result.entities());
+    assertEquals(List.of("1"), result.missing());
+    Mockito.verify(provider, Mockito.never()).findById(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    Mockito.verify(entityService, Mockito.times(2)).beforeRead(Mockito.any(), Mockito.any(), Mockito.eq("FindById"));
+    Mockito.verify(taskEngine, Mockito.times(1))
+        .execute(Mockito.eq(found), Mockito.argThat(context -> "2".equals(context.get("id"))), Mockito.eq("afterFindById"));
+  }
+
+  @Test
+  @DisplayName("test fanOut: should keep item order and rethrow failures")
+  void testFanOut() {
+    ReflectionTestUtils.setField(service, "parallelism", 2);
+
+    assertEquals(List.of(2, 4, 6), service.fanOut(List.of(1, 2, 3), value -> value * 2));
+
+    var exception = assertThrows(ApiException.class, () -> service.fanOut(List.of(1, 2), value -> {
+      throw new ApiException(500, I18nMessage.of("error.key", Map.of()));
+    }));
+    assertEquals(500, exception.getStatusCode());
+  }
+
+  @Test
+  @DisplayName("test findOrNull: should only swallow not found errors")
+  void testFindOrNull() {
+    var exception = assertThrows(ApiException.class, () -> service.findOrNull(() -> {
+      throw new ApiException(500, I18nMessage.of("error.key", Map.of()));
+    }));
+
+    assertEquals(500, exception.getStatusCode());
+  }
+
+  @Test
+  @DisplayName("test handleBulk: should execute operations by chunks and report each result")
+  void testHandleBulk() {
+    ReflectionTestUtils.setField(service, "parallelism", 2);
+    ReflectionTestUtils.setField(service, "chunkSize", 2);
+    var provider = Mockito.mock(ProviderPlugin.class);
+    var request = Mockito.mock(HttpServletRequest.class);
+    var created = new DynamicEntity();
+    var configuration = new EntityConfiguration();
+    configuration.setName("test");
+    List<BulkItemResult> results = new ArrayList<>();
+
+    Mockito.doAnswer(invocation -> {
+      invocation.<DynamicEntity>getArgument(0).setConfiguration(configuration);
+      return null;
+    }).when(entityService).updateEntityConfiguration(Mockito.any(), Mockito.eq("test"));
+    Mockito.when(entityService.getProvider(Mockito.any())).thenReturn(provider);
+    Mockito.when(entityService.create(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(created);
+    Mockito.when(entityService.delete(Mockito.any(), Mockito.any(), Mockito.eq("1"), Mockito.any(), Mockito.any()))
+        .thenReturn(false);
+
+    service.handleBulk(request, "test", List.of(
+        new BulkOperation(0, "create", null, Map.of("name", "test")),
+        new BulkOperation(1, "delete", "1", null),
+        new BulkOperation(2, "unknown", "2", null)
+    ).iterator(), results::add);
+
+    assertEquals(3, results.size());
+    assertEquals(201, results.get(0).status());
+    assertEquals(created, results.get(0).entity());
+    assertEquals(404, results.get(1).status());
+    assertEquals("error.entity.id.unknown", results.get(1).error().getError().key());
+    assertEquals(400, results.get(2).status());
+    assertEquals("error.bulk.action.unknown", results.get(2).error().getError().key());
+    Mockito.verify(entityService, Mockito.times(1))
+        .authenticate(Mockito.eq(request), Mockito.any(), Mockito.any(), Mockito.eq("Bulk"));
+    Mockito.verify(taskEngine, Mockito.times(1)).execute(Mockito.any(), Mockito.any(), Mockito.eq("beforeBulk"));
+    Mockito.verify(taskEngine, Mockito.times(1)).execute(Mockito.any(), Mockito.any(), Mockito.eq("afterBulk"));
+  }
+
+  @Test
+  @DisplayName("test executeChunk: should use provider batch write capability when available")
+  void testExecuteChunkWithBatchProvider() {
+    var provider = Mockito.mock(ProviderPlugin.class, Mockito.withSettings().extraInterfaces(BatchWriteProvider.class));
+    var context = new TaskExecutionContext();
+    var entity = new DynamicEntity();
+    var patched = new DynamicEntity();
+    var chunk = List.of(
+        new BulkOperation(0, "patch", "1", Map.of("enabled", false)),
+        new BulkOperation(1, "update", null, Map.of()),
+        new BulkOperation(2, "delete", "3", null)
+    );
+
+    passCalls();
+    Mockito.when(((BatchWriteProvider) provider).applyBatch(Mockito.eq(context), Mockito.any(), Mockito.any()))
+        .thenReturn(List.of(new BatchWriteResult(true, patched), new BatchWriteResult(true, null)));
+
+    var results = service.executeChunk(context, entity, provider, new ProviderConfiguration(), chunk);
+
+    assertEquals(200, results.get(0).status());
+    assertEquals(patched, results.get(0).entity());
+    assertEquals(400, results.get(1).status());
+    assertEquals("error.bulk.id.required", results.get(1).error().getError().key());
+    assertEquals(204, results.get(2).status());
+    Mockito.verify(entityService, Mockito.times(1)).afterWrite(Mockito.any(), Mockito.eq(patched), Mockito.eq("Patch"));
+    Mockito.verify(provider, Mockito.never()).patch(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test executeChunk: should execute operations on the same id one after another in their order")
+  void testExecuteChunkSameId() {
+    ReflectionTestUtils.setField(service, "parallelism", 4);
+    var provider = Mockito.mock(ProviderPlugin.class);
+    var patched = new DynamicEntity();
+    List<String> calls = Collections.synchronizedList(new ArrayList<>());
+    var chunk = List.of(
+        new BulkOperation(0, "patch", "1", Map.of("enabled", false)),
+        new BulkOperation(1, "patch", "2", Map.of("enabled", false)),
+        new BulkOperation(2, "delete", "1", null)
+    );
+
+    Mockito.when(entityService.patch(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenAnswer(invocation -> {
+          if ("1".equals(invocation.getArgument(2))) {
+            Thread.sleep(100);
+          }
+          calls.add("patch " + invocation.getArgument(2));
+          return patched;
+        });
+    Mockito.when(entityService.delete(Mockito.any(), Mockito.any(), Mockito.eq("1"), Mockito.any(), Mockito.any()))
+        .thenAnswer(invocation -> calls.add("delete 1"));
+
+    var results = service.executeChunk(new TaskExecutionContext(), new DynamicEntity(), provider,
+        new ProviderConfiguration(), chunk);
+
+    assertEquals(List.of(200, 200, 204), results.stream().map(BulkItemResult::status).toList());
+    assertEquals(List.of(0, 1, 2), results.stream().map(result -> result.operation().index()).toList());
+    assertTrue(calls.indexOf("patch 1") < calls.indexOf("delete 1"));
+  }
+
+  @Test
+  @DisplayName("test groupById: should group operations by id and keep creations apart")
+  void testGroupById() {
+    var chunk = List.of(
+        new BulkOperation(0, "update", "1", Map.of()),
+        new BulkOperation(1, "create", null, Map.of()),
+        new BulkOperation(2, "create", null, Map.of()),
+        new BulkOperation(3, "delete", "1", null),
+        new BulkOperation(4, "delete", "2", null)
+    );
+
+    assertEquals(List.of(List.of(0, 3), List.of(1), List.of(2), List.of(4)), service.groupById(chunk));
+  }
+
+  @Test
+  @DisplayName("test executeBatchChunk: should report the provider error for every applied operation")
+  void testExecuteBatchChunkFailure() {
+    var provider = Mockito.mock(BatchWriteProvider.class);
+    var chunk = List.of(
+        new BulkOperation(0, "create", null, Map.of()),
+        new BulkOperation(1, "delete", "1", null)
+    );
+
+    passCalls();
+    Mockito.when(provider.applyBatch(Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenThrow(new ApiException(500, I18nMessage.of("error.key", Map.of())));
+
+    var results = service.executeBatchChunk(new TaskExecutionContext(), new DynamicEntity(), provider,
+        new ProviderConfiguration(), chunk);
+
+    assertEquals(List.of(500, 500), results.stream().map(BulkItemResult::status).toList());
+    Mockito.verify(entityService, Mockito.never()).afterWrite(Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test executeBatchChunk: should fail every operation when the provider does not return one result each")
+  void testExecuteBatchChunkMissingResults() {
+    var provider = Mockito.mock(BatchWriteProvider.class);
+    var chunk = List.of(
+        new BulkOperation(0, "create", null, Map.of()),
+        new BulkOperation(1, "delete", "1", null)
+    );
+
+    passCalls();
+    Mockito.when(provider.applyBatch(Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenReturn(List.of(new BatchWriteResult(true, null)));
+
+    var results = service.executeBatchChunk(new TaskExecutionContext(), new DynamicEntity(), provider,
+        new ProviderConfiguration(), chunk);
+
+    assertEquals(List.of(502, 502), results.stream().map(BulkItemResult::status).toList());
+    assertEquals("error.provider.batch.results", results.getFirst().error().getError().key());
+    Mockito.verify(entityService, Mockito.never()).afterWrite(Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test executeBatchChunk: should report operations not applied by the provider as failures")
+  void testExecuteBatchChunkNotApplied() {
+    var provider = Mockito.mock(BatchWriteProvider.class);
+    var configuration = new EntityConfiguration();
+    configuration.setName("test");
+    var entity = new DynamicEntity();
+    entity.setConfiguration(configuration);
+    var chunk = List.of(
+        new BulkOperation(0, "create", null, Map.of()),
+        new BulkOperation(1, "update", "1", Map.of()),
+        new BulkOperation(2, "delete", "2", null)
+    );
+
+    passCalls();
+    Mockito.when(provider.applyBatch(Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(List.of(
+        new BatchWriteResult(false, null), new BatchWriteResult(false, null), new BatchWriteResult(false, null)));
+
+    var results = service.executeBatchChunk(new TaskExecutionContext(), entity, provider, new ProviderConfiguration(),
+        chunk);
+
+    assertEquals(List.of(409, 404, 404), results.stream().map(BulkItemResult::status).toList());
+    assertEquals("error.entity.create.rejected", results.get(0).error().getError().key());
+    assertEquals("error.entity.id.unknown", results.get(1).error().getError().key());
+    Mockito.verify(entityService, Mockito.never()).afterWrite(Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test executeBatchChunk: should report unexpected errors as failures of their operation")
+  void testExecuteBatchChunkUnexpectedFailure() {
+    var provider = Mockito.mock(BatchWriteProvider.class);
+    var chunk = List.of(
+        new BulkOperation(0, "create", null, Map.of()),
+        new BulkOperation(1, "delete", "1", null)
+    );
+
+    Mockito.doThrow(new IllegalStateException("boom")).doNothing()
+        .when(entityService).beforeWrite(Mockito.any(), Mockito.any(), Mockito.any());
+    passCalls();
+    Mockito.when(provider.applyBatch(Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenReturn(List.of(new BatchWriteResult(true, null)));
+    Mockito.doThrow(new IllegalStateException("boom"))
+        .when(entityService).afterWrite(Mockito.any(), Mockito.any(), Mockito.eq("Delete"));
+
+    var results = service.executeBatchChunk(new TaskExecutionContext(), new DynamicEntity(), provider,
+        new ProviderConfiguration(), chunk);
+
+    assertEquals(List.of(500, 500), results.stream().map(BulkItemResult::status).toList());
+    assertEquals("error.bulk.operation.failed", results.get(0).error().getError().key());
+    assertEquals("error.bulk.operation.failed", results.get(1).error().getError().key());
+  }
+
+  @Test
+  @DisplayName("test executeOperation: should report unexpected errors as a failure of the operation")
+  void testExecuteOperationUnexpectedFailure() {
+    var operation = new BulkOperation(0, "create", null, Map.of());
+
+    Mockito.when(entityService.create(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenThrow(new IllegalStateException("boom"));
+
+    var result = service.executeOperation(new TaskExecutionContext(), new DynamicEntity(), Mockito.mock(ProviderPlugin.class),
+        new ProviderConfiguration(), operation);
+
+    assertEquals(500, result.status());
+    assertEquals("error.bulk.operation.failed", result.error().getError().key());
+    assertEquals(Map.of("action", "create", "reason", "boom"), result.error().getError().context());
+  }
+
+  @Test
+  @DisplayName("test getPhaseAction: should map actions to lifecycle phase suffixes")
+  void testGetPhaseAction() {
+    assertEquals("Create", service.getPhaseAction(new BulkOperation(0, "create", null, null)));
+    assertEquals("Update", service.getPhaseAction(new BulkOperation(0, "update", "1", null)));
+    assertEquals("Patch", service.getPhaseAction(new BulkOperation(0, "patch", "1", null)));
+    assertEquals("Delete", service.getPhaseAction(new BulkOperation(0, "delete", "1", null)));
+
+    var exception = assertThrows(ApiException.class,
+        () -> service.getPhaseAction(new BulkOperation(0, null, "1", null)));
+    assertEquals("error.bulk.action.unknown", exception.getError().key());
+
+    exception = assertThrows(ApiException.class, () -> service.getPhaseAction(new BulkOperation(0, "delete", " ", null)));
+    assertEquals("error.bulk.id.required", exception.getError().key());
+  }
+
+  @Test
+  @DisplayName("test startFilterJob: should require at least one filter")
+  void testStartFilterJobWithoutFilter() {
+    var request = Mockito.mock(HttpServletRequest.class);
+
+    var exception = assertThrows(ApiException.class,
+        () -> service.handleDeleteByFilter(request, "test", new LinkedMultiValueMap<>()));
+
+    assertEquals(400, exception.getStatusCode());
+    assertEquals("error.filter.required", exception.getError().key());
+    Mockito.verifyNoInteractions(entityService);
+  }
+
+  @Test
+  @DisplayName("test startFilterJob: should not take pagination and projection parameters as filters")
+  void testStartFilterJobWithPaginationOnly() {
+    var request = Mockito.mock(HttpServletRequest.class);
+    var parameters = new LinkedMultiValueMap<String, String>();
+    parameters.add("page", "0");
+    parameters.add("size", "10");
+
+    var exception = assertThrows(ApiException.class, () -> service.handleDeleteByFilter(request, "test", parameters));
+
+    assertEquals(400, exception.getStatusCode());
+    assertEquals("error.filter.required", exception.getError().key());
+
+    parameters.add(FieldProjection.PARAMETER, "id");
+    exception = assertThrows(ApiException.class,
+        () -> service.handlePatchByFilter(request, "test", parameters, Map.of("enabled", false)));
+
+    assertEquals(400, exception.getStatusCode());
+    Mockito.verifyNoInteractions(entityService);
+  }
+
+  @Test
+  @DisplayName("test handlePatchByFilter: should authenticate, register and run the job")
+  void testHandlePatchByFilter() throws InterruptedException {
+    ReflectionTestUtils.setField(service, "jobRetention", Duration.ofHours(1));
+    var provider = Mockito.mock(ProviderPlugin.class);
+    var request = Mockito.mock(HttpServletRequest.class);
+    var filters = new LinkedMultiValueMap<String, String>();
+    filters.add("enabled", "true");
+
+    Mockito.when(entityService.getProvider(Mockito.any())).thenReturn(provider);
+    Mockito.when(entityService.findPage(Mockito.any(), Mockito.any(), Mockito.eq(filters), Mockito.any(), Mockito.eq(provider),
+        Mockito.any(), Mockito.eq(CountStrategy.NONE))).thenReturn(Page.empty());
+
+    var job = service.handlePatchByFilter(request, "test", filters, Map.of("enabled", false));
+
+    Mockito.verify(entityService, Mockito.times(1))
+        .authenticate(Mockito.eq(request), Mockito.any(), Mockito.any(), Mockito.eq("PatchByFilter"));
+    assertEquals("patch", job.getAction());
+    assertEquals(job, service.handleFindJob(request, "test", job.getId()));
+
+    for (int attempt = 0; attempt < 100 && !job.isFinished(); attempt++) {
+      Thread.sleep(10);
+    }
+    assertEquals(FilterWriteJob.Status.COMPLETED, job.getStatus());
+  }
+
+  @Test
+  @DisplayName("test handleFindJob: should throw for unknown jobs")
+  void testHandleFindJobUnknown() {
+    var request = Mockito.mock(HttpServletRequest.class);
+
+    var exception = assertThrows(ApiException.class, () -> service.handleFindJob(request, "test", "unknown"));
+
+    assertEquals(404, exception.getStatusCode());
+    assertEquals("error.job.unknown", exception.getError().key());
+  }
+
+  @Test
+  @DisplayName("test runFilterJob: should apply the action page by page, moving past entities still matching")
+  void testRunFilterJobByPage() {
+    ReflectionTestUtils.setField(service, "parallelism", 2);
+    ReflectionTestUtils.setField(service, "chunkSize", 2);
+    ReflectionTestUtils.setField(service, "idAttribute", "id");
+    var provider = Mockito.mock(ProviderPlugin.class);
+    var context = new TaskExecutionContext();
+    var job = new FilterWriteJob("test", "delete");
+    var sort = Sort.by("id");
+
+    Mockito.when(entityService.findPage(Mockito.any(), Mockito.any(), Mockito.any(),
+            Mockito.eq(new OffsetPageRequest(0, 2, sort)), Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenReturn(page(0, true, "1", "2"), page(0, true, "2", "3"));
+    Mockito.when(entityService.findPage(Mockito.any(), Mockito.any(), Mockito.any(),
+            Mockito.eq(new OffsetPageRequest(1, 2, sort)), Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenReturn(Page.empty());
+    Mockito.when(entityService.delete(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenReturn(true);
+    Mockito.when(entityService.delete(Mockito.any(), Mockito.any(), Mockito.eq("2"), Mockito.any(), Mockito.any()))
+        .thenThrow(new ApiException(403, I18nMessage.of("error.key", Map.of())));
+
+    service.runFilterJob(job, context, new DynamicEntity(), provider, new ProviderConfiguration(),
+        new LinkedMultiValueMap<>(), null);
+
+    assertEquals(FilterWriteJob.Status.COMPLETED, job.getStatus());
+    assertEquals(3, job.getProcessed().get());
+    assertEquals(2, job.getSucceeded().get());
+    assertEquals(1, job.getFailed().get());
+    assertEquals("2", job.getFailures().getFirst().id());
+    Mockito.verify(entityService, Mockito.times(1))
+        .delete(Mockito.any(), Mockito.any(), Mockito.eq("2"), Mockito.any(), Mockito.any());
+    Mockito.verify(taskEngine, Mockito.times(1)).execute(Mockito.any(), Mockito.any(), Mockito.eq("beforeDeleteByFilter"));
+    Mockito.verify(taskEngine, Mockito.times(1)).execute(Mockito.any(), Mockito.any(), Mockito.eq("afterDeleteByFilter"));
+  }
+
+  @Test
+  @DisplayName("test runFilterJob: should read each page after the last entity of the previous one with a keyset provider")
+  void testRunFilterJobByKeyset() {
+    ReflectionTestUtils.setField(service, "parallelism", 2);
+    ReflectionTestUtils.setField(service, "chunkSize", 2);
+    ReflectionTestUtils.setField(service, "idAttribute", "id");
+    var provider = Mockito.mock(ProviderPlugin.class, Mockito.withSettings().extraInterfaces(KeysetPageProvider.class));
+    var job = new FilterWriteJob("test", "delete");
+    var first = page(0, true, "1", "2").getContent();
+    var second = page(0, true, "3").getContent();
+
+    passReads();
+    Mockito.when(((KeysetPageProvider) provider).findAll(Mockito.any(), Mockito.any(), Mockito.any(),
+            Mockito.eq(ScrollPosition.keyset()), Mockito.eq(2), Mockito.eq(Sort.by("id")), Mockito.any()))
+        .thenReturn(Window.from(first, index -> ScrollPosition.forward(first.get(index).getAttributes()), true));
+    Mockito.when(((KeysetPageProvider) provider).findAll(Mockito.any(), Mockito.any(), Mockito.any(),
+            Mockito.eq(ScrollPosition.forward(Map.of("id", "2"))), Mockito.eq(2), Mockito.eq(Sort.by("id")), Mockito.any()))
+        .thenReturn(Window.from(second, index -> ScrollPosition.forward(second.get(index).getAttributes()), false));
+    Mockito.when(entityService.delete(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenReturn(true);
+
+    service.runFilterJob(job, new TaskExecutionContext(), new DynamicEntity(), provider, new ProviderConfiguration(),
+        new LinkedMultiValueMap<>(), null);
+
+    assertEquals(FilterWriteJob.Status.COMPLETED, job.getStatus());
+    assertEquals(3, job.getSucceeded().get());
+    Mockito.verify(entityService, Mockito.never()).findPage(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+        Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test registerJob: should refuse a job when too many jobs are running")
+  void testRegisterJobLimit() {
+    ReflectionTestUtils.setField(service, "jobRetention", Duration.ofHours(1));
+    ReflectionTestUtils.setField(service, "maxRunningJobs", 1);
+
+    var job = service.registerJob("test", "delete");
+    var exception = assertThrows(ApiException.class, () -> service.registerJob("test", "patch"));
+
+    assertEquals(503, exception.getStatusCode());
+    assertEquals("error.job.limit", exception.getError().key());
+
+    job.complete();
+    assertEquals("patch", service.registerJob("test", "patch").getAction());
+  }
+
+  @Test
+  @DisplayName("test runFilterJob: should fail the job when a matched entity has no identifier")
+  void testRunFilterJobWithoutId() {
+    ReflectionTestUtils.setField(service, "chunkSize", 2);
+    ReflectionTestUtils.setField(service, "idAttribute", "uid");
+    var provider = Mockito.mock(ProviderPlugin.class);
+    var job = new FilterWriteJob("test", "patch");
+
+    Mockito.when(entityService.findPage(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+        Mockito.any(), Mockito.any())).thenReturn(page(0, false, "1"));
+
+    service.runFilterJob(job, new TaskExecutionContext(), new DynamicEntity(), provider, new ProviderConfiguration(),
+        new LinkedMultiValueMap<>(), Map.of());
+
+    assertEquals(FilterWriteJob.Status.FAILED, job.getStatus());
+    assertEquals("error.filter.id.missing", job.getError().getError().key());
+  }
+
+  @Test
+  @DisplayName("test runFilterJob: should use provider filter write capability when available")
+  void testRunFilterJobWithFilterProvider() {
+    var provider = Mockito.mock(ProviderPlugin.class, Mockito.withSettings().extraInterfaces(FilterWriteProvider.class));
+    var context = new TaskExecutionContext();
+    var job = new FilterWriteJob("test", "patch");
+
+    passCalls();
+    Mockito.when(((FilterWriteProvider) provider).patchAll(Mockito.eq(context), Mockito.any(), Mockito.any(),
+        Mockito.argThat(entity -> Map.of("enabled", false).equals(entity.getAttributes())))).thenReturn(5L);
+
+    service.runFilterJob(job, context, new DynamicEntity(), provider, new ProviderConfiguration(),
+        new LinkedMultiValueMap<>(), Map.of("enabled", false));
+
+    assertEquals(FilterWriteJob.Status.COMPLETED, job.getStatus());
+    assertEquals(5, job.getSucceeded().get());
+    Mockito.verify(entityService, Mockito.times(1)).beforeWrite(Mockito.eq(context), Mockito.any(), Mockito.eq("Patch"));
+    Mockito.verify(entityService, Mockito.never()).findPage(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+        Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test executeBatchChunk: should only validate the attributes of a bulk patch")
+  void testExecuteBatchChunkPartialPatch() {
+    var provider = Mockito.mock(BatchWriteProvider.class);
+    var chunk = List.of(new BulkOperation(0, "patch", "1", Map.of("enabled", false)));
+    var entityValidation = Mockito.mock(ValidationEngine.class);
+    usePatchValidation(entityValidation);
+
+    passCalls();
+    Mockito.when(provider.applyBatch(Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenReturn(List.of(new BatchWriteResult(true, null)));
+
+    var results = service.executeBatchChunk(new TaskExecutionContext(), new DynamicEntity(), provider,
+        new ProviderConfiguration(), chunk);
+
+    assertEquals(200, results.getFirst().status());
+    Mockito.verify(entityValidation).validate(Mockito.any(), Mockito.eq("beforePatch"),
+        Mockito.argThat(context -> Boolean.TRUE.equals(context.get(ValidationEngineImpl.PARTIAL_CONTEXT_KEY))));
+  }
+
+  @Test
+  @DisplayName("test runFilterJob: should only validate the attributes of a patch by filter")
+  void testRunFilterJobPartialPatch() {
+    var provider = Mockito.mock(ProviderPlugin.class, Mockito.withSettings().extraInterfaces(FilterWriteProvider.class));
+    var context = new TaskExecutionContext();
+    var job = new FilterWriteJob("test", "patch");
+    var entityValidation = Mockito.mock(ValidationEngine.class);
+    usePatchValidation(entityValidation);
+
+    passCalls();
+    Mockito.when(((FilterWriteProvider) provider).patchAll(Mockito.eq(context), Mockito.any(), Mockito.any(),
+        Mockito.any())).thenReturn(1L);
+
+    service.runFilterJob(job, context, new DynamicEntity(), provider, new ProviderConfiguration(),
+        new LinkedMultiValueMap<>(), Map.of("enabled", false));
+
+    assertEquals(FilterWriteJob.Status.COMPLETED, job.getStatus());
+    Mockito.verify(entityValidation).validate(Mockito.any(), Mockito.eq("beforePatch"),
+        Mockito.argThat(validated -> Boolean.TRUE.equals(validated.get(ValidationEngineImpl.PARTIAL_CONTEXT_KEY))));
+  }
+
+  private void passReads() {
+    Mockito.when(entityService.readProvider(Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenAnswer(invocation -> invocation.<ProviderCallExecutor.Read<?>>getArgument(2)
+            .apply(invocation.getArgument(0), invocation.getArgument(1)));
+  }
+
+  private void passCalls() {
+    Mockito.when(entityService.callProvider(Mockito.any(), Mockito.any()))
+        .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+  }
+
+  private void usePatchValidation(ValidationEngine entityValidation) {
+    ReflectionTestUtils.setField(entityService, "validationEngine", entityValidation);
+    ReflectionTestUtils.setField(entityService, "taskEngine", Mockito.mock(TaskEngine.class));
+    Mockito.doCallRealMethod().when(entityService).beforeWrite(Mockito.any(), Mockito.any(), Mockito.eq("Patch"));
+  }
+
+  @Test
+  @DisplayName("test evictFinishedJobs: should only remove jobs finished for longer than the retention")
+  @SuppressWarnings("unchecked")
+  void testEvictFinishedJobs() {
+    ReflectionTestUtils.setField(service, "jobRetention", Duration.ZERO);
+    var jobs = (Map<String, FilterWriteJob>) ReflectionTestUtils.getField(service, "jobs");
+    var running = new FilterWriteJob("test", "delete");
+    var finished = new FilterWriteJob("test", "delete");
+    finished.complete();
+    ReflectionTestUtils.setField(finished, "finishedAt", Instant.now().minusSeconds(1));
+    jobs.put(running.getId(), running);
+    jobs.put(finished.getId(), finished);
+
+    service.evictFinishedJobs();
+
+    assertEquals(Set.of(running.getId()), jobs.keySet());
+  }
+
+  private Page<DynamicEntity> page(int number, boolean withId, String... ids) {
+    List<DynamicEntity> entities = new ArrayList<>();
+    for (String id : ids) {
+      var entity = new DynamicEntity();
+      entity.setAttributes(withId ? new HashMap<>(Map.of("id", id)) : new HashMap<>());
+      entities.add(entity);
+    }
+    return new PageImpl<>(entities, PageRequest.of(number, 2), 10);
+  }
+
+  @Test
+  @DisplayName("test handleStream: should read and pass pages until the last one")
+  void testHandleStreamByPage() {
+    ReflectionTestUtils.setField(service, "streamPageSize", 2);
+    var provider = Mockito.mock(ProviderPlugin.class);
+    var request = Mockito.mock(HttpServletRequest.class);
+    var filters = new LinkedMultiValueMap<String, String>();
+    List<Integer> chunkSizes = new ArrayList<>();
+
+    Mockito.when(entityService.getProvider(Mockito.any())).thenReturn(provider);
+    Mockito.when(entityService.findPage(Mockito.any(), Mockito.any(), Mockito.eq(filters), Mockito.eq(PageRequest.of(0, 2)),
+        Mockito.eq(provider), Mockito.any(), Mockito.eq(CountStrategy.NONE)))
+        .thenReturn(new PageImpl<>(List.of(new DynamicEntity(), new DynamicEntity()), PageRequest.of(0, 2), 3));
+    Mockito.when(entityService.findPage(Mockito.any(), Mockito.any(), Mockito.eq(filters), Mockito.eq(PageRequest.of(1, 2)),
+        Mockito.eq(provider), Mockito.any(), Mockito.eq(CountStrategy.NONE)))
+        .thenReturn(new PageImpl<>(List.of(new DynamicEntity()), PageRequest.of(1, 2), 3));
+
+    service.handleStream(request, "test", filters, chunk -> chunkSizes.add(chunk.size()));
+
+    assertEquals(List.of(2, 1), chunkSizes);
+    Mockito.verify(entityService, Mockito.times(1))
+        .authenticate(Mockito.eq(request), Mockito.any(), Mockito.any(), Mockito.eq("FindAll"));
+    Mockito.verify(entityService, Mockito.times(1)).beforeRead(Mockito.any(), Mockito.any(), Mockito.eq("FindAll"));
+    Mockito.verify(taskEngine, Mockito.times(2)).execute(Mockito.any(), Mockito.any(), Mockito.eq("afterFindAll"));
+  }
+
+  @Test
+  @DisplayName("test handleStream: should consume and close the provider stream when available")
+  void testHandleStreamWithStreamingProvider() {
+    ReflectionTestUtils.setField(service, "streamPageSize", 2);
+    var provider = Mockito.mock(ProviderPlugin.class, Mockito.withSettings().extraInterfaces(StreamingReadProvider.class));
+    var request = Mockito.mock(HttpServletRequest.class);
+    var closed = new AtomicBoolean();
+    List<Integer> chunkSizes = new ArrayList<>();
+
+    Mockito.when(entityService.getProvider(Mockito.any())).thenReturn(provider);
+    passCalls();
+    Mockito.when(((StreamingReadProvider) provider).stream(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenReturn(Stream.generate(DynamicEntity::new).limit(5).onClose(() -> closed.set(true)));
+
+    service.handleStream(request, "test", new LinkedMultiValueMap<>(), chunk -> chunkSizes.add(chunk.size()));
+
+    assertEquals(List.of(2, 2, 1), chunkSizes);
+    assertTrue(closed.get());
+    Mockito.verify(taskEngine, Mockito.times(3)).execute(Mockito.any(), Mockito.any(), Mockito.eq("afterFindAll"));
+    Mockito.verify(entityService, Mockito.never()).findPage(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+        Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test handleFindAllByCursor: should read after the keyset position of the token")
+  void testHandleFindAllByCursorWithKeysetProvider() {
+    var provider = Mockito.mock(ProviderPlugin.class, Mockito.withSettings().extraInterfaces(KeysetPageProvider.class));
+    var request = Mockito.mock(HttpServletRequest.class);
+    var filters = new LinkedMultiValueMap<String, String>();
+    var cursor = new CursorToken(Map.of("id", "2"), 0, List.of("id,ASC")).encode();
+    var entity = new DynamicEntity();
+    var window = Window.from(List.of(entity), index -> ScrollPosition.forward(Map.of("id", "3")), true);
+
+    Mockito.when(entityService.getProvider(Mockito.any())).thenReturn(provider);
+    passReads();
+    Mockito.when(((KeysetPageProvider) provider).findAll(Mockito.any(), Mockito.any(), Mockito.eq(filters),
+        Mockito.eq(ScrollPosition.forward(Map.of("id", "2"))), Mockito.eq(1), Mockito.eq(Sort.by("id")), Mockito.any()))
+        .thenReturn(window);
+
+    var result = service.handleFindAllByCursor(request, "test", filters, cursor, 1, Sort.by("ignored"));
+
+    assertEquals(List.of(entity), result.content());
+    assertEquals(Map.of("id", "3"), CursorToken.decode(result.next()).keys());
+    Mockito.verify(entityService, Mockito.times(1))
+        .authenticate(Mockito.eq(request), Mockito.any(), Mockito.any(), Mockito.eq("FindAll"));
+    Mockito.verify(validationEngine, Mockito.times(1)).validate(Mockito.any(), Mockito.eq("beforeFindAll"), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test handleFindAllByCursor: should reject providers returning non keyset positions")
+  void testHandleFindAllByCursorWithOffsetPosition() {
+    var provider = Mockito.mock(ProviderPlugin.class, Mockito.withSettings().extraInterfaces(KeysetPageProvider.class));
+    var request = Mockito.mock(HttpServletRequest.class);
+    var filters = new LinkedMultiValueMap<String, String>();
+    var window = Window.from(List.of(new DynamicEntity()), ScrollPosition::offset, true);
+
+    Mockito.when(entityService.getProvider(Mockito.any())).thenReturn(provider);
+    passReads();
+    Mockito.when(((KeysetPageProvider) provider).findAll(Mockito.any(), Mockito.any(), Mockito.eq(filters), Mockito.any(),
+        Mockito.eq(1), Mockito.any(), Mockito.any())).thenReturn(window);
+
+    var exception = assertThrows(ApiException.class,
+        () -> service.handleFindAllByCursor(request, "test", filters, null, 1, Sort.by("id")));
+
+    assertEquals(500, exception.getStatusCode());
+    assertEquals("error.cursor.position.unsupported", exception.getError().key());
+  }
+
+  @Test
+  @DisplayName("test handleFindAllByCursor: should fall back to exact offsets without keyset support")
+  void testHandleFindAllByCursorWithOffset() {
+    var provider = Mockito.mock(ProviderPlugin.class);
+    var request = Mockito.mock(HttpServletRequest.class);
+    var filters = new LinkedMultiValueMap<String, String>();
+    var firstPage = new OffsetPageRequest(0, 2, Sort.by("name"));
+    var lastPage = new OffsetPageRequest(2, 3, Sort.by("name"));
+
+    Mockito.when(entityService.getProvider(Mockito.any())).thenReturn(provider);
+    Mockito.when(entityService.findPage(Mockito.any(), Mockito.any(), Mockito.eq(filters), Mockito.eq(firstPage),
+        Mockito.eq(provider), Mockito.any(), Mockito.eq(CountStrategy.NONE)))
+        .thenReturn(new PageImpl<>(List.of(new DynamicEntity(), new DynamicEntity()), firstPage, 3));
+    Mockito.when(entityService.findPage(Mockito.any(), Mockito.any(), Mockito.eq(filters), Mockito.eq(lastPage),
+        Mockito.eq(provider), Mockito.any(), Mockito.eq(CountStrategy.NONE)))
+        .thenReturn(new PageImpl<>(List.of(new DynamicEntity()), lastPage, 3));
+
+    var first = service.handleFindAllByCursor(request, "test", filters, "", 2, Sort.by("name"));
+    var last = service.handleFindAllByCursor(request, "test", filters, first.next(), 3, Sort.unsorted());
+
+    assertEquals(2, first.content().size());
+    assertEquals(2, CursorToken.decode(first.next()).offset());
+    assertEquals(1, last.content().size());
+    assertNull(last.next());
+  }
+}
@@ -27,15 +27,22 @@
 package io.github.linagora.linid.im.plugin.entity;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import io.github.linagora.linid.im.corelib.plugin.config.dto.AttributeConfiguration;
 import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration;
 import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -96,7 +103,6 @@ class DynamicEntityMapperImplTest {
   @Test
   @DisplayName("test apply: should map attributes")
   void testApply() {
-    Mockito.when(conversionService.convert(Mockito.any(), Mockito.eq(String.class))).thenReturn("test");
     Mockito.when(conversionService.convert(Mockito.any(), Mockito.eq(Integer.class))).thenReturn(1);
     Mockito.when(conversionService.convert(Mockito.any(), Mockito.eq(List.class))).thenReturn(List.of("a", "b"));
    
@@ -134,4 +140,101 @@ class DynamicEntityMapperImplTest {
     assertEquals(expected, result);
   }
 
+  @Test
+  @DisplayName("test apply: should only map requested attributes")
+  void testApplyWithFields() {
+    Mockito.when(conversionService.convert("1", Integer.class)).thenReturn(1);
+
+    var entity = new DynamicEntity();
+    var configuration = new EntityConfiguration();
+    var attribute1 = new AttributeConfiguration();
+    var attribute2 = new AttributeConfiguration();
+
+    attribute1.setName("string");
+    attribute1.setType("string");
+    attribute2.setName("integer");
+    attribute2.setType("integer");
+    configuration.setAttributes(List.of(attribute1, attribute2));
+    entity.setConfiguration(configuration);
+    entity.setAttributes(Map.of("string", "test", "integer", "1"));
+
+    assertEquals(Map.of("integer", 1), mapper.apply(entity, Set.of("integer")));
+    Mockito.verify(conversionService, Mockito.never()).convert("test", String.class);
+  }
+
+  @Test
+  @DisplayName("test getCompiledEntity: should compile converters once per configuration")
+  void testGetCompiledEntity() {
+    var configuration = new EntityConfiguration();
+    var attribute = new AttributeConfiguration();
+    attribute.setName("integer");
+    attribute.setType("integer");
+    configuration.setName("users");
+    configuration.setAttributes(List.of(attribute));
+
+    var compiled = mapper.getCompiledEntity(configuration);
+    assertEquals(1, compiled.attributes().length);
+    assertEquals("integer", compiled.attributes()[0].name());
+    assertSame(compiled, mapper.getCompiledEntity(configuration));
+
+    var reloaded = new EntityConfiguration();
+    reloaded.setName("users");
+    reloaded.setAttributes(List.of());
+    assertEquals(0, mapper.getCompiledEntity(reloaded).attributes().length);
+  }
+
+  @Test
+  @DisplayName("test compileConverter: should skip conversion of values already of the target type")
+  void testCompileConverter() {
+    Mockito.when(conversionService.convert(1L, Integer.class)).thenReturn(1);
+
+    var attribute = new AttributeConfiguration();
+    attribute.setType("integer");
+    var converter = mapper.compileConverter(attribute);
+
+    assertNull(converter.apply(null));
+    assertEquals(2, converter.apply(2));
+    assertEquals(1, converter.apply(1L));
+    Mockito.verify(conversionService, Mockito.never()).convert(2, Integer.class);
+
+    attribute.setNullIfEmpty(true);
+    assertNull(mapper.compileConverter(attribute).apply(""));
+  }
+
+  @Test
+  @DisplayName("test compileConverter: should only convert numeric epochs and ISO-8601 dates without conversion service")
+  void testCompileConverterDates() {
+    var date = new AttributeConfiguration();
+    date.setType("date");
+    var timestamp = new AttributeConfiguration();
+    timestamp.setType("timestamp");
+    var dateConverter = mapper.compileConverter(date);
+    var timestampConverter = mapper.compileConverter(timestamp);
+    var now = new Date(1_700_000_000_000L);
+
+    assertSame(now, dateConverter.apply(now));
+    assertEquals(now, dateConverter.apply(1_700_000_000_000L));
+    assertEquals(now, dateConverter.apply("2023-11-14T22:13:20Z"));
+    assertEquals(new Timestamp(now.getTime()), timestampConverter.apply(now));
+    assertEquals(new Timestamp(now.getTime()), timestampConverter.apply(Instant.ofEpochMilli(now.getTime())));
+    Mockito.verifyNoInteractions(conversionService);
+
+    dateConverter.apply("14/11/2023");
+    Mockito.verify(conversionService).convert("14/11/2023", Date.class);
+    dateConverter.apply("20231114");
+    Mockito.verify(conversionService).convert("20231114", Date.class);
+    timestampConverter.apply("1700000000000");
+    Mockito.verify(conversionService).convert("1700000000000", Timestamp.class);
+  }
+
+  @Test
+  @DisplayName("test isEmpty: should only consider empty string representations")
+  void testIsEmpty() {
+    assertTrue(mapper.isEmpty(""));
+    assertTrue(mapper.isEmpty(new StringBuilder()));
+    assertFalse(mapper.isEmpty(" "));
+    assertFalse(mapper.isEmpty(0));
+    assertFalse(mapper.isEmpty(List.of()));
+  }
+
 }
@@ -27,23 +27,41 @@
 package io.github.linagora.linid.im.plugin.entity;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
 import io.github.linagora.linid.im.corelib.plugin.authentication.AllowAllAuthenticationPlugin;
 import io.github.linagora.linid.im.corelib.plugin.authentication.AuthenticationFactory;
 import io.github.linagora.linid.im.corelib.plugin.config.PluginConfigurationService;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.AttributeConfiguration;
 import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration;
 import io.github.linagora.linid.im.corelib.plugin.config.dto.ProviderConfiguration;
 import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntityMapper;
 import io.github.linagora.linid.im.corelib.plugin.provider.ProviderFactory;
 import io.github.linagora.linid.im.corelib.plugin.provider.ProviderPlugin;
 import io.github.linagora.linid.im.corelib.plugin.task.TaskEngine;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
 import io.github.linagora.linid.im.corelib.plugin.validation.ValidationEngine;
+import io.github.linagora.linid.im.plugin.circuit.CircuitBreakers;
+import io.github.linagora.linid.im.plugin.config.EntitySettingsService;
+import io.github.linagora.linid.im.plugin.provider.BatchWriteProvider;
+import io.github.linagora.linid.im.plugin.provider.ConditionalWriteProvider;
+import io.github.linagora.linid.im.plugin.provider.CountAwareProvider;
+import io.github.linagora.linid.im.plugin.provider.ProviderCallExecutor;
+import io.github.linagora.linid.im.plugin.provider.ProviderConcurrencyLimiter;
+import io.github.linagora.linid.im.plugin.provider.VersionAwareProvider;
 import jakarta.servlet.http.HttpServletRequest;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -52,6 +70,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
 @ExtendWith(MockitoExtension.class)
@@ -67,6 +89,20 @@ class DynamicEntityServiceImplTest {
   private TaskEngine taskEngine;
   @Mock
   private AuthenticationFactory factory;
+  @Mock
+  private EntitySettingsService settingsService;
+  @Mock
+  private DynamicEntityMapper mapper;
+  @Mock
+  private GroupCommitter groupCommitter;
+  @Mock
+  private EntityWriteLocks writeLocks;
+  @Mock
+  private ProviderConcurrencyLimiter providerLimiter;
+  @Mock
+  private CircuitBreakers circuitBreakers;
+  @Mock
+  private ProviderCallExecutor providerCalls;
 
   @InjectMocks
   private DynamicEntityServiceImpl service;
@@ -174,7 +210,8 @@ class DynamicEntityServiceImplTest {
     service.handlePatch(request, "test", "id", Map.of());
 
     Mockito.verify(authPlugin, Mockito.times(1)).validateToken(Mockito.any(), Mockito.any(), Mockito.any());
-    Mockito.verify(validationEngine, Mockito.times(1)).validate(Mockito.any(), Mockito.eq("beforePatch"), Mockito.any());
+    Mockito.verify(validationEngine, Mockito.times(1)).validate(Mockito.any(), Mockito.eq("beforePatch"),
+        Mockito.argThat(context -> Boolean.TRUE.equals(context.get("partialValidation"))));
     Mockito.verify(provider, Mockito.times(1)).patch(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
     Mockito.verify(taskEngine, Mockito.times(6)).execute(Mockito.any(), Mockito.any(), Mockito.anyString());
 
@@ -420,4 +457,380 @@ class DynamicEntityServiceImplTest {
     assertEquals("error.entity.unknown", ex.getError().key());
     assertEquals(Map.of("entity", "users"), ex.getError().context());
   }
+
+  @Test
+  @DisplayName("test resolveFields: should store requested fields in context")
+  void testResolveFields() {
+    var request = Mockito.mock(HttpServletRequest.class);
+    var entity = new DynamicEntity();
+    var configuration = new EntityConfiguration();
+    var attribute = new AttributeConfiguration();
+    attribute.setName("mail");
+    configuration.setName("users");
+    configuration.setAttributes(List.of(attribute));
+    entity.setConfiguration(configuration);
+    var context = new TaskExecutionContext();
+
+    assertNull(service.resolveFields(request, entity, context));
+    assertFalse(context.containsKey("fields"));
+
+    Mockito.when(request.getParameter("fields")).thenReturn("mail");
+    assertEquals(Set.of("mail"), service.resolveFields(request, entity, context));
+    assertEquals(Set.of("mail"), context.get("fields"));
+
+    Mockito.when(request.getParameter("fields")).thenReturn("mail,password");
+    var exception = assertThrows(ApiException.class, () -> service.resolveFields(request, entity, context));
+    assertEquals(400, exception.getStatusCode());
+    assertEquals("error.attribute.unknown", exception.getError().key());
+    assertEquals("password", exception.getError().context().get("attribute"));
+  }
+
+  @Test
+  @DisplayName("test checkPrecondition: should delegate versions to conditional write providers")
+  void testCheckPreconditionWithConditionalProvider() {
+    var request = Mockito.mock(HttpServletRequest.class);
+    var entity = new DynamicEntity();
+    var configuration = new EntityConfiguration();
+    configuration.setName("users");
+    entity.setConfiguration(configuration);
+    var context = new TaskExecutionContext();
+    var provider = Mockito.mock(ProviderPlugin.class, Mockito.withSettings().extraInterfaces(ConditionalWriteProvider.class));
+    Mockito.when(((ConditionalWriteProvider) provider).supportsPreconditions(Mockito.any())).thenReturn(true);
+    Mockito.when(request.getHeader("If-Match")).thenReturn(EntityTags.ofVersion(3));
+    Mockito.when(settingsService.getSetting("users", "version-attribute", String.class, null)).thenReturn("revision");
+
+    service.checkPrecondition(request, context, entity, "1", provider, new ProviderConfiguration());
+
+    assertEquals(List.of("3"), context.get("ifMatch"));
+    assertEquals("revision", context.get("versionAttribute"));
+    Mockito.verify(provider, Mockito.never()).findById(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test checkPrecondition: should compare the current tag of the entity otherwise")
+  void testCheckPrecondition() {
+    var request = Mockito.mock(HttpServletRequest.class);
+    var entity = new DynamicEntity();
+    var configuration = new EntityConfiguration();
+    configuration.setName("users");
+    entity.setConfiguration(configuration);
+    var current = new DynamicEntity();
+    current.setAttributes(Map.of("id", "1"));
+    var provider = Mockito.mock(ProviderPlugin.class);
+    Mockito.when(provider.findById(Mockito.any(), Mockito.any(), Mockito.eq("1"), Mockito.any())).thenReturn(current);
+    Mockito.when(mapper.apply(current)).thenReturn(Map.of("id", "1"));
+
+    service.checkPrecondition(request, new TaskExecutionContext(), entity, "1", provider, new ProviderConfiguration());
+    Mockito.verify(provider, Mockito.never()).findById(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+
+    Mockito.when(request.getHeader("If-Match")).thenReturn(EntityTags.ofContent(Map.of("id", "1")));
+    service.checkPrecondition(request, new TaskExecutionContext(), entity, "1", provider, new ProviderConfiguration());
+
+    Mockito.when(request.getHeader("If-Match")).thenReturn(EntityTags.ofContent(Map.of("id", "2")));
+    var exception = assertThrows(ApiException.class, () -> service.checkPrecondition(request, new TaskExecutionContext(),
+        entity, "1", provider, new ProviderConfiguration()));
+    assertEquals(412, exception.getStatusCode());
+    assertEquals("error.precondition.failed", exception.getError().key());
+  }
+
+  @Test
+  @DisplayName("test getCurrentEtag: should read versions and treat missing entities as null")
+  void testGetCurrentEtag() {
+    var entity = new DynamicEntity();
+    var provider = Mockito.mock(ProviderPlugin.class, Mockito.withSettings().extraInterfaces(VersionAwareProvider.class));
+    Mockito.when(((VersionAwareProvider) provider).findVersion(Mockito.any(), Mockito.any(), Mockito.eq("1"), Mockito.any()))
+        .thenReturn(Optional.of("3"));
+    Mockito.when(provider.findById(Mockito.any(), Mockito.any(), Mockito.eq("2"), Mockito.any()))
+        .thenThrow(new ApiException(404, I18nMessage.of("error.key", Map.of())));
+
+    assertEquals(EntityTags.ofVersion("3"), service.getCurrentEtag(new TaskExecutionContext(), entity, "1", "revision",
+        provider, new ProviderConfiguration()));
+    assertNull(service.getCurrentEtag(new TaskExecutionContext(), entity, "2", null, provider, new ProviderConfiguration()));
+  }
+
+  @Test
+  @DisplayName("test getCountStrategy: should prefer the request parameter over the entity setting")
+  void testGetCountStrategy() {
+    var entity = new DynamicEntity();
+    var configuration = new EntityConfiguration();
+    configuration.setName("users");
+    entity.setConfiguration(configuration);
+    Mockito.when(settingsService.getSetting("users", "count-strategy", String.class, null)).thenReturn("cached");
+
+    assertEquals(CountStrategy.NONE, service.getCountStrategy(entity, MultiValueMap.fromSingleValue(Map.of("count", "none"))));
+    assertEquals(CountStrategy.CACHED, service.getCountStrategy(entity, MultiValueMap.fromMultiValue(Map.of())));
+    assertThrows(ApiException.class,
+        () -> service.getCountStrategy(entity, MultiValueMap.fromSingleValue(Map.of("count", "wrong"))));
+  }
+
+  @Test
+  @DisplayName("test findPage: should count exactly without provider count capability")
+  void testFindPageWithoutCountCapability() {
+    var provider = Mockito.mock(ProviderPlugin.class);
+    Page<DynamicEntity> page = Page.empty();
+    Mockito.when(provider.findAll(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(page);
+
+    assertEquals(page, service.findPage(new TaskExecutionContext(), new DynamicEntity(), null, PageRequest.of(0, 2),
+        provider, new ProviderConfiguration(), CountStrategy.NONE));
+  }
+
+  @Test
+  @DisplayName("test findPage: should only tell whether a next page exists with the none strategy")
+  void testFindPageWithNoneStrategy() {
+    var provider = Mockito.mock(ProviderPlugin.class, Mockito.withSettings().extraInterfaces(CountAwareProvider.class));
+    var countProvider = (CountAwareProvider) provider;
+    var content = List.of(new DynamicEntity(), new DynamicEntity());
+    Mockito.when(countProvider.findSlice(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.eq(PageRequest.of(1, 2)),
+        Mockito.any())).thenReturn(new SliceImpl<>(content, PageRequest.of(1, 2), true));
+    Mockito.when(countProvider.findSlice(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.eq(PageRequest.of(2, 2)),
+        Mockito.any())).thenReturn(new SliceImpl<>(List.of(new DynamicEntity()), PageRequest.of(2, 2), false));
+
+    var page = service.findPage(new TaskExecutionContext(), new DynamicEntity(), null, PageRequest.of(1, 2), provider,
+        new ProviderConfiguration(), CountStrategy.NONE);
+    var last = service.findPage(new TaskExecutionContext(), new DynamicEntity(), null, PageRequest.of(2, 2), provider,
+        new ProviderConfiguration(), CountStrategy.NONE);
+
+    assertEquals(content, page.getContent());
+    assertEquals(5, page.getTotalElements());
+    assertTrue(page.hasNext());
+    assertEquals(5, last.getTotalElements());
+    assertFalse(last.hasNext());
+    Mockito.verify(countProvider, Mockito.never()).count(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test findPage: should reuse counts with the cached strategy and use estimates with the estimated one")
+  void testFindPageWithCachedAndEstimatedStrategies() {
+    var provider = Mockito.mock(ProviderPlugin.class, Mockito.withSettings().extraInterfaces(CountAwareProvider.class));
+    var countProvider = (CountAwareProvider) provider;
+    var entity = new DynamicEntity();
+    var configuration = new EntityConfiguration();
+    configuration.setName("users");
+    entity.setConfiguration(configuration);
+    var filters = new LinkedMultiValueMap<String, String>();
+    filters.add("enabled", "true");
+    var otherPage = new LinkedMultiValueMap<>(filters);
+    otherPage.add("page", "1");
+
+    Mockito.when(settingsService.getSetting("users", "count-cache-ttl", Duration.class, Duration.ofSeconds(30)))
+        .thenReturn(Duration.ofMinutes(1));
+    Mockito.when(countProvider.findSlice(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenReturn(new SliceImpl<>(List.of(new DynamicEntity()), PageRequest.of(0, 1), true));
+    Mockito.when(countProvider.count(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(42L);
+    Mockito.when(countProvider.estimateCount(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenReturn(OptionalLong.of(40L));
+
+    var first = service.findPage(new TaskExecutionContext(), entity, filters, PageRequest.of(0, 1), provider,
+        new ProviderConfiguration(), CountStrategy.CACHED);
+    var second = service.findPage(new TaskExecutionContext(), entity, otherPage, PageRequest.of(0, 1), provider,
+        new ProviderConfiguration(), CountStrategy.CACHED);
+    var estimated = service.findPage(new TaskExecutionContext(), entity, filters, PageRequest.of(0, 1), provider,
+        new ProviderConfiguration(), CountStrategy.ESTIMATED);
+
+    assertEquals(42, first.getTotalElements());
+    assertEquals(42, second.getTotalElements());
+    assertEquals(40, estimated.getTotalElements());
+    Mockito.verify(countProvider, Mockito.times(1)).count(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test createThroughProvider: should group creations when a group commit window is set")
+  void testCreateThroughProviderGroupCommit() {
+    var entityConfiguration = new EntityConfiguration();
+    entityConfiguration.setName("user");
+    var entity = new DynamicEntity();
+    entity.setConfiguration(entityConfiguration);
+    var context = new TaskExecutionContext();
+    var configuration = new ProviderConfiguration();
+    var provider = Mockito.mock(ProviderPlugin.class, Mockito.withSettings().extraInterfaces(BatchWriteProvider.class));
+    var created = new DynamicEntity();
+
+    Mockito.when(settingsService.getSetting("user", "group-commit-window", Duration.class, Duration.ZERO))
+        .thenReturn(Duration.ofMillis(20));
+    Mockito.when(settingsService.getSetting("user", "group-commit-max-size", Integer.class, 100)).thenReturn(50);
+    Mockito.when(settingsService.getSetting("user", "group-commit-timeout", Duration.class, Duration.ofSeconds(30)))
+        .thenReturn(Duration.ofSeconds(10));
+    Mockito.when(groupCommitter.create(context, entity, provider, configuration, Duration.ofMillis(20), 50,
+        Duration.ofSeconds(10)))
+        .thenReturn(created);
+
+    assertEquals(created, service.createThroughProvider(context, entity, provider, configuration));
+    Mockito.verify(provider, Mockito.never()).create(Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test createThroughProvider: should create directly without group commit window")
+  void testCreateThroughProviderDirect() {
+    var entityConfiguration = new EntityConfiguration();
+    entityConfiguration.setName("user");
+    var entity = new DynamicEntity();
+    entity.setConfiguration(entityConfiguration);
+    var context = new TaskExecutionContext();
+    var configuration = new ProviderConfiguration();
+    var provider = Mockito.mock(ProviderPlugin.class, Mockito.withSettings().extraInterfaces(BatchWriteProvider.class));
+    var created = new DynamicEntity();
+
+    Mockito.when(settingsService.getSetting("user", "group-commit-window", Duration.class, Duration.ZERO))
+        .thenReturn(Duration.ZERO);
+    Mockito.when(provider.create(context, configuration, entity)).thenReturn(created);
+
+    assertEquals(created, service.createThroughProvider(context, entity, provider, configuration));
+    Mockito.verifyNoInteractions(groupCommitter);
+  }
+
+  @Test
+  @DisplayName("test update: should skip the provider write of unchanged attributes while the stored entity is unchanged")
+  void testUpdateSkipUnchanged() {
+    var entityConfiguration = new EntityConfiguration();
+    entityConfiguration.setName("user");
+    var entity = new DynamicEntity();
+    entity.setConfiguration(entityConfiguration);
+    entity.setAttributes(Map.of("cn", "A"));
+    var configuration = new ProviderConfiguration();
+    var provider = Mockito.mock(ProviderPlugin.class);
+    var first = new DynamicEntity();
+    first.setAttributes(Map.of("cn", "A", "revision", 1));
+    var second = new DynamicEntity();
+    second.setAttributes(Map.of("cn", "A", "revision", 3));
+    var third = new DynamicEntity();
+    third.setAttributes(Map.of("cn", "A", "revision", 4));
+    var stored = new DynamicEntity();
+    stored.setAttributes(Map.of("cn", "A", "revision", 1));
+    var changed = new DynamicEntity();
+    changed.setAttributes(Map.of("cn", "B", "revision", 2));
+
+    Mockito.when(settingsService.getSetting("user", "skip-unchanged", Boolean.class, false)).thenReturn(true);
+    Mockito.when(settingsService.getSetting("user", "serialize-writes", Boolean.class, false)).thenReturn(false);
+    Mockito.when(settingsService.getSetting("user", "skip-unchanged-ttl", Duration.class, Duration.ofMinutes(5)))
+        .thenReturn(Duration.ofMinutes(5));
+    Mockito.when(settingsService.getSetting("user", "version-attribute", String.class, null)).thenReturn("revision");
+    Mockito.when(mapper.apply(entity)).thenReturn(Map.of("cn", "A"));
+    Mockito.when(provider.findById(Mockito.any(), Mockito.eq(configuration), Mockito.eq("1"), Mockito.any()))
+        .thenReturn(stored, changed);
+    Mockito.when(provider.update(Mockito.any(), Mockito.eq(configuration), Mockito.eq("1"), Mockito.eq(entity)))
+        .thenReturn(first, second, third);
+
+    assertEquals(first, service.update(new TaskExecutionContext(), entity, "1", provider, configuration));
+    assertEquals(first, service.update(new TaskExecutionContext(), entity, "1", provider, configuration));
+    Mockito.verify(provider, Mockito.times(1)).update(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    Mockito.verify(taskEngine, Mockito.times(1)).execute(Mockito.any(), Mockito.any(), Mockito.eq("afterUpdate"));
+
+    assertEquals(second, service.update(new TaskExecutionContext(), entity, "1", provider, configuration));
+    Mockito.verify(provider, Mockito.times(2)).update(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+
+    service.patch(new TaskExecutionContext(), entity, "1", provider, configuration);
+
+    assertEquals(third, service.update(new TaskExecutionContext(), entity, "1", provider, configuration));
+    Mockito.verify(provider, Mockito.times(3)).update(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    Mockito.verify(provider, Mockito.times(2)).findById(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test update: should write changed attributes")
+  void testUpdateChanged() {
+    var entityConfiguration = new EntityConfiguration();
+    entityConfiguration.setName("user");
+    var entity = new DynamicEntity();
+    entity.setConfiguration(entityConfiguration);
+    var provider = Mockito.mock(ProviderPlugin.class);
+    var updated = new DynamicEntity();
+    updated.setAttributes(Map.of("revision", 1));
+
+    Mockito.when(settingsService.getSetting("user", "skip-unchanged", Boolean.class, false)).thenReturn(true);
+    Mockito.when(settingsService.getSetting("user", "serialize-writes", Boolean.class, false)).thenReturn(false);
+    Mockito.when(settingsService.getSetting("user", "skip-unchanged-ttl", Duration.class, Duration.ofMinutes(5)))
+        .thenReturn(Duration.ofMinutes(5));
+    Mockito.when(settingsService.getSetting("user", "version-attribute", String.class, null)).thenReturn("revision");
+    Mockito.when(mapper.apply(entity)).thenReturn(Map.of("cn", "A"), Map.of("cn", "B"));
+    Mockito.when(provider.update(Mockito.any(), Mockito.any(), Mockito.eq("1"), Mockito.any())).thenReturn(updated);
+
+    service.update(new TaskExecutionContext(), entity, "1", provider, new ProviderConfiguration());
+    service.update(new TaskExecutionContext(), entity, "1", provider, new ProviderConfiguration());
+
+    Mockito.verify(provider, Mockito.times(2)).update(Mockito.any(), Mockito.any(), Mockito.eq("1"), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test serializeWrite: should hold the entity lock only when writes are serialized")
+  void testSerializeWrite() {
+    var entityConfiguration = new EntityConfiguration();
+    entityConfiguration.setName("user");
+    var entity = new DynamicEntity();
+    entity.setConfiguration(entityConfiguration);
+
+    Mockito.when(settingsService.getSetting("user", "serialize-writes", Boolean.class, false)).thenReturn(false, true);
+    Mockito.when(writeLocks.withLock(Mockito.eq("user"), Mockito.eq("1"), Mockito.any()))
+        .thenAnswer(invocation -> "locked");
+
+    assertEquals("direct", service.serializeWrite(entity, "1", () -> "direct"));
+    assertEquals("locked", service.serializeWrite(entity, "1", () -> "direct"));
+  }
+
+  @Test
+  @DisplayName("test callProvider: should go through the provider limiter only when enabled")
+  void testCallProvider() {
+    var entityConfiguration = new EntityConfiguration();
+    entityConfiguration.setProvider("ldap");
+    var entity = new DynamicEntity();
+    entity.setConfiguration(entityConfiguration);
+
+    Mockito.when(providerLimiter.isEnabled()).thenReturn(false, true);
+    Mockito.when(providerLimiter.call(Mockito.eq("ldap"), Mockito.any())).thenAnswer(invocation -> "limited");
+
+    assertEquals("direct", service.callProvider(entity, () -> "direct"));
+    assertEquals("limited", service.callProvider(entity, () -> "direct"));
+  }
+
+  @Test
+  @DisplayName("test callProvider: should go through the circuit breaker of the provider when enabled")
+  void testCallProviderCircuitBreaker() {
+    var entityConfiguration = new EntityConfiguration();
+    entityConfiguration.setProvider("ldap");
+    var entity = new DynamicEntity();
+    entity.setConfiguration(entityConfiguration);
+
+    Mockito.when(circuitBreakers.isEnabled()).thenReturn(true);
+    Mockito.when(circuitBreakers.call(Mockito.eq(CircuitBreakers.PROVIDER), Mockito.eq("ldap"), Mockito.any()))
+        .thenAnswer(invocation -> "protected");
+
+    assertEquals("protected", service.callProvider(entity, () -> "direct"));
+  }
+
+  @Test
+  @DisplayName("test callProvider: should not reach the circuit breaker when the provider limiter rejects the call")
+  void testCallProviderOverloaded() {
+    var entityConfiguration = new EntityConfiguration();
+    entityConfiguration.setProvider("ldap");
+    var entity = new DynamicEntity();
+    entity.setConfiguration(entityConfiguration);
+
+    Mockito.when(providerLimiter.isEnabled()).thenReturn(true);
+    Mockito.when(circuitBreakers.isEnabled()).thenReturn(true);
+    Mockito.when(providerLimiter.call(Mockito.eq("ldap"), Mockito.any()))
+        .thenThrow(new ApiException(503, I18nMessage.of("error.provider.overloaded", Map.of())));
+
+    var exception = assertThrows(ApiException.class, () -> service.callProvider(entity, () -> "direct"));
+
+    assertEquals("error.provider.overloaded", exception.getError().key());
+    Mockito.verify(circuitBreakers, Mockito.never()).call(Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test readProvider: should go through the provider call executor only for guarded providers")
+  void testReadProvider() {
+    var entityConfiguration = new EntityConfiguration();
+    entityConfiguration.setProvider("ldap");
+    var entity = new DynamicEntity();
+    entity.setConfiguration(entityConfiguration);
+    var context = new TaskExecutionContext();
+
+    Mockito.when(providerCalls.isGuarded("ldap")).thenReturn(false, true);
+    Mockito.when(providerCalls.read(Mockito.eq("ldap"), Mockito.eq(context), Mockito.eq(entity), Mockito.any()))
+        .thenAnswer(invocation -> "guarded");
+
+    assertEquals("direct", service.readProvider(context, entity, (readContext, readEntity) -> "direct"));
+    assertEquals("guarded", service.readProvider(context, entity, (readContext, readEntity) -> "direct"));
+    assertEquals("write", service.callProvider(entity, () -> "write"));
+    Mockito.verify(providerCalls, Mockito.times(2)).isGuarded("ldap");
+  }
 }
@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.ProviderConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.provider.ProviderPlugin;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import io.github.linagora.linid.im.plugin.config.EntitySettingsService;
+import io.github.linagora.linid.im.plugin.provider.ProviderCallExecutor;
+import io.github.linagora.linid.im.plugin.provider.VersionAwareProvider;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Test class: EntityTagServiceImpl")
+class EntityTagServiceImplTest {
+
+  @Mock
+  private DynamicEntityServiceImpl entityService;
+
+  @Mock
+  private EntitySettingsService settingsService;
+
+  @InjectMocks
+  private EntityTagServiceImpl tagService;
+
+  private DynamicEntity entity(Map<String, Object> attributes) {
+    var entity = new DynamicEntity();
+    var configuration = new EntityConfiguration();
+    configuration.setName("users");
+    entity.setConfiguration(configuration);
+    entity.setAttributes(attributes);
+    return entity;
+  }
+
+  @Test
+  @DisplayName("test getEtag: should hash the content independently of the attribute order")
+  void testGetEtagContent() {
+    var request = new MockHttpServletRequest();
+    var attributes = new HashMap<String, Object>(Map.of("id", "1", "mail", "a@b.c"));
+    var etag = tagService.getEtag(request, entity(attributes), attributes);
+
+    assertTrue(etag.startsWith("W/\""));
+    assertEquals(etag, tagService.getEtag(request, entity(attributes), new TreeMap<>(attributes)));
+    assertNotEquals(etag, tagService.getEtag(request, entity(attributes), Map.of("id", "2", "mail", "a@b.c")));
+  }
+
+  @Test
+  @DisplayName("test getEtag: should use the version attribute")
+  void testGetEtagVersion() {
+    Mockito.when(entityService.getVersionAttribute("users")).thenReturn("revision");
+    var request = new MockHttpServletRequest();
+    var entity = entity(Map.of("id", "1", "revision", "7"));
+
+    var etag = tagService.getEtag(request, entity, Map.of("id", "1"));
+
+    assertEquals(etag, tagService.getEtag(request, entity, Map.of("id", "other")));
+    assertEquals(EntityTags.ofVersion("7"), etag);
+  }
+
+  private void versionProvider(String version) {
+    var provider = Mockito.mock(ProviderPlugin.class, Mockito.withSettings().extraInterfaces(VersionAwareProvider.class));
+    var configuration = new ProviderConfiguration();
+    Mockito.when(entityService.getProvider(Mockito.any())).thenReturn(provider);
+    Mockito.when(entityService.getProviderConfiguration(Mockito.any())).thenReturn(configuration);
+    Mockito.when(entityService.getVersionAttribute("users")).thenReturn("revision");
+    Mockito.when(((VersionAwareProvider) provider).findVersion(Mockito.any(), Mockito.eq(configuration), Mockito.eq("1"),
+        Mockito.any())).thenReturn(Optional.of(version));
+    Mockito.when(entityService.readProvider(Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenAnswer(invocation -> invocation.<ProviderCallExecutor.Read<?>>getArgument(2)
+            .apply(invocation.getArgument(0), invocation.getArgument(1)));
+  }
+
+  @Test
+  @DisplayName("test handleFindById: should not fetch the entity when the provider version matches")
+  void testHandleFindByIdNotModified() {
+    var request = new MockHttpServletRequest();
+    versionProvider("7");
+
+    var read = tagService.handleFindById(request, "users", "1", EntityTags.ofVersion("7"));
+
+    assertTrue(read.isNotModified());
+    assertEquals(EntityTags.ofVersion("7"), read.etag());
+    var order = Mockito.inOrder(entityService);
+    order.verify(entityService).authenticate(Mockito.eq(request), Mockito.any(), Mockito.any(), Mockito.eq("FindById"));
+    order.verify(entityService).beforeRead(Mockito.any(), Mockito.any(), Mockito.eq("FindById"));
+    order.verify(entityService).readProvider(Mockito.any(), Mockito.any(), Mockito.any());
+    Mockito.verify(entityService, Mockito.never()).findById(Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test handleFindById: should fetch the entity with the same context when the provider version differs")
+  void testHandleFindByIdModified() {
+    var request = new MockHttpServletRequest();
+    var found = new DynamicEntity();
+    versionProvider("8");
+    Mockito.when(entityService.findById(Mockito.any(), Mockito.any(), Mockito.eq("1"))).thenReturn(found);
+
+    var read = tagService.handleFindById(request, "users", "1", EntityTags.ofVersion("7"));
+
+    assertFalse(read.isNotModified());
+    assertEquals(found, read.entity());
+    var context = ArgumentCaptor.forClass(TaskExecutionContext.class);
+    Mockito.verify(entityService, Mockito.times(1))
+        .authenticate(Mockito.eq(request), Mockito.any(), context.capture(), Mockito.eq("FindById"));
+    Mockito.verify(entityService, Mockito.times(1)).beforeRead(Mockito.any(), Mockito.any(), Mockito.eq("FindById"));
+    Mockito.verify(entityService).findById(Mockito.eq(context.getValue()), Mockito.any(), Mockito.eq("1"));
+  }
+
+  @Test
+  @DisplayName("test handleFindById: should fetch the entity without reading the version when no tag is given")
+  void testHandleFindByIdWithoutTag() {
+    var found = new DynamicEntity();
+    Mockito.when(entityService.findById(Mockito.any(), Mockito.any(), Mockito.eq("1"))).thenReturn(found);
+
+    assertEquals(found, tagService.handleFindById(new MockHttpServletRequest(), "users", "1", null).entity());
+    Mockito.verify(entityService, Mockito.never()).readProvider(Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test findVersion: should not read without version capability")
+  void testFindVersionWithoutVersion() {
+    Mockito.when(entityService.getProvider(Mockito.any())).thenReturn(Mockito.mock(ProviderPlugin.class));
+
+    assertEquals(Optional.empty(), tagService.findVersion(new TaskExecutionContext(), new DynamicEntity(), "1"));
+    Mockito.verify(entityService, Mockito.never()).readProvider(Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test matches: should use the weak comparison")
+  void testMatches() {
+    assertFalse(tagService.matches(null, "W/\"a\""));
+    assertTrue(tagService.matches("*", "W/\"a\""));
+    assertTrue(tagService.matches("\"b\", \"a\"", "W/\"a\""));
+    assertTrue(tagService.matches("W/\"a\"", "W/\"a\""));
+    assertFalse(tagService.matches("W/\"b\"", "W/\"a\""));
+  }
+
+  @Test
+  @DisplayName("test getCacheControl: should ignore blank settings")
+  void testGetCacheControl() {
+    Mockito.when(settingsService.getSetting("users", "cache-control", String.class, null)).thenReturn(" ");
+    Mockito.when(settingsService.getSetting("groups", "cache-control", String.class, null)).thenReturn("max-age=60");
+
+    assertNull(tagService.getCacheControl("users"));
+    assertEquals("max-age=60", tagService.getCacheControl("groups"));
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Test class: EntityTags")
+class EntityTagsTest {
+
+  @Test
+  @DisplayName("test ofVersion: should encode the version in a weak tag")
+  void testOfVersion() {
+    var tag = EntityTags.ofVersion(7);
+
+    assertTrue(tag.startsWith("W/\"v."));
+    assertEquals("7", EntityTags.versionOf(tag));
+    assertEquals("7", EntityTags.versionOf(tag.substring(2)));
+    assertEquals("2026-01-01T00:00:00Z", EntityTags.versionOf(EntityTags.ofVersion("2026-01-01T00:00:00Z")));
+  }
+
+  @Test
+  @DisplayName("test ofContent: should hash the content independently of the attribute order")
+  void testOfContent() {
+    var attributes = Map.<String, Object>of("id", "1", "mail", "a@b.c");
+    var tag = EntityTags.ofContent(attributes);
+
+    assertTrue(tag.startsWith("W/\""));
+    assertEquals(tag, EntityTags.ofContent(new TreeMap<>(attributes)));
+    assertNotEquals(tag, EntityTags.ofContent(Map.of("id", "2", "mail", "a@b.c")));
+    assertNull(EntityTags.versionOf(tag));
+  }
+
+  @Test
+  @DisplayName("test parse: should split the header into tags")
+  void testParse() {
+    assertEquals(List.of(), EntityTags.parse(null));
+    assertEquals(List.of(), EntityTags.parse(" "));
+    assertEquals(List.of("\"a\"", "W/\"b\""), EntityTags.parse(" \"a\" ,W/\"b\","));
+  }
+
+  @Test
+  @DisplayName("test versionsOf: should return null when a tag does not encode a version")
+  void testVersionsOf() {
+    assertEquals(List.of("1", "*"), EntityTags.versionsOf(List.of(EntityTags.ofVersion(1), "*")));
+    assertNull(EntityTags.versionsOf(List.of(EntityTags.ofVersion(1), "\"hash\"")));
+    assertNull(EntityTags.versionsOf(List.of("\"v.%%\"")));
+  }
+
+  @Test
+  @DisplayName("test matches: should use the weak comparison")
+  void testMatches() {
+    assertFalse(EntityTags.matches(List.of("*"), null));
+    assertTrue(EntityTags.matches(List.of("*"), "W/\"a\""));
+    assertTrue(EntityTags.matches(List.of("\"b\"", "\"a\""), "W/\"a\""));
+    assertTrue(EntityTags.matches(List.of("W/\"a\""), "W/\"a\""));
+    assertFalse(EntityTags.matches(List.of("W/\"b\""), "W/\"a\""));
+    assertFalse(EntityTags.matches(List.of(), "W/\"a\""));
+  }
+}
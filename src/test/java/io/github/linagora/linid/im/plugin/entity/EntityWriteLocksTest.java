@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@DisplayName("Test class: EntityWriteLocks")
+class EntityWriteLocksTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private EntityWriteLocks start(int stripes, Duration timeout) {
+    var locks = new EntityWriteLocks(meterRegistry);
+    ReflectionTestUtils.setField(locks, "stripes", stripes);
+    ReflectionTestUtils.setField(locks, "timeout", timeout);
+    locks.start();
+    return locks;
+  }
+
+  @Test
+  @DisplayName("test withLock: should run nested writes without waiting")
+  void testWithLockReentrant() {
+    var locks = start(1, Duration.ofMillis(10));
+
+    var result = locks.withLock("user", "1", () -> locks.withLock("user", "2", () -> "nested"));
+
+    assertEquals("nested", result);
+    assertEquals(0, meterRegistry.counter("linid.entity.write.lock.contended").count());
+  }
+
+  @Test
+  @DisplayName("test withLock: should make a concurrent write of the same entity wait, then reject it after the timeout")
+  void testWithLockContended() throws InterruptedException {
+    var locks = start(16, Duration.ofMillis(50));
+    var held = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      executor.submit(() -> locks.withLock("user", "1", () -> {
+        held.countDown();
+        try {
+          return release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+          Thread.currentThread().interrupt();
+          return false;
+        }
+      }));
+      assertTrue(held.await(5, TimeUnit.SECONDS));
+
+      var exception = assertThrows(ApiException.class, () -> locks.withLock("user", "1", () -> "late"));
+      assertEquals(503, exception.getStatusCode());
+      assertEquals("error.entity.write.locked", exception.getError().key());
+      release.countDown();
+    }
+
+    assertEquals("free", locks.withLock("user", "1", () -> "free"));
+    assertEquals(1, meterRegistry.counter("linid.entity.write.lock.contended").count());
+    assertEquals(1, meterRegistry.counter("linid.entity.write.lock.timeouts").count());
+    assertEquals(1, meterRegistry.timer("linid.entity.write.lock.wait").count());
+  }
+
+  @Test
+  @DisplayName("test withLock: should release the lock when the write fails")
+  void testWithLockFailure() {
+    var locks = start(1, Duration.ofMillis(10));
+
+    assertThrows(IllegalStateException.class, () -> locks.withLock("user", "1", () -> {
+      throw new IllegalStateException("failure");
+    }));
+
+    assertEquals("next", locks.withLock("user", "2", () -> "next"));
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Test class: FilterWriteJob")
+class FilterWriteJobTest {
+
+  @Test
+  @DisplayName("test record: should count results and keep a bounded number of failures")
+  void testRecord() {
+    var job = new FilterWriteJob("users", "delete");
+    var error = new ApiException(403, I18nMessage.of("error.key", Map.of()));
+
+    job.record(BulkItemResult.success(new BulkOperation(0, "delete", "0", null), 204, null));
+    for (int index = 1; index <= FilterWriteJob.MAX_FAILURES + 1; index++) {
+      job.record(BulkItemResult.failure(new BulkOperation(index, "delete", String.valueOf(index), null), error));
+    }
+    job.record(3);
+
+    assertEquals(FilterWriteJob.MAX_FAILURES + 5, job.getProcessed().get());
+    assertEquals(4, job.getSucceeded().get());
+    assertEquals(FilterWriteJob.MAX_FAILURES + 1, job.getFailed().get());
+    assertEquals(FilterWriteJob.MAX_FAILURES, job.getFailures().size());
+    assertEquals("1", job.getFailures().getFirst().id());
+  }
+
+  @Test
+  @DisplayName("test complete and fail: should end the job")
+  void testEnd() {
+    var completed = new FilterWriteJob("users", "patch");
+    var failed = new FilterWriteJob("users", "patch");
+    var error = new ApiException(500, I18nMessage.of("error.key", Map.of()));
+
+    assertFalse(completed.isFinished());
+    assertNull(completed.getFinishedAt());
+
+    completed.complete();
+    failed.fail(error);
+
+    assertTrue(completed.isFinished());
+    assertNotNull(completed.getFinishedAt());
+    assertEquals(FilterWriteJob.Status.COMPLETED, completed.getStatus());
+    assertEquals(FilterWriteJob.Status.FAILED, failed.getStatus());
+    assertEquals(error, failed.getError());
+  }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.ProviderConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.provider.ProviderPlugin;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import io.github.linagora.linid.im.plugin.provider.BatchWriteOperation;
+import io.github.linagora.linid.im.plugin.provider.BatchWriteProvider;
+import io.github.linagora.linid.im.plugin.provider.BatchWriteResult;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+
+@DisplayName("Test class: GroupCommitter")
+class GroupCommitterTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+  private final DynamicEntityServiceImpl entityService = Mockito.mock(DynamicEntityServiceImpl.class);
+
+  @SuppressWarnings("unchecked")
+  private final ObjectProvider<DynamicEntityServiceImpl> entityServiceProvider = Mockito.mock(ObjectProvider.class);
+
+  private final GroupCommitter committer = new GroupCommitter(entityServiceProvider);
+
+  private final ProviderPlugin provider = Mockito.mock(ProviderPlugin.class,
+      Mockito.withSettings().extraInterfaces(BatchWriteProvider.class));
+
+  private DynamicEntity entity(String cn) {
+    var configuration = new EntityConfiguration();
+    configuration.setName("user");
+    var entity = new DynamicEntity();
+    entity.setConfiguration(configuration);
+    entity.setAttributes(Map.of("cn", cn));
+    return entity;
+  }
+
+  private List<Object> createConcurrently(int count, Duration window, int maxSize)
+      throws InterruptedException, ExecutionException {
+    List<Future<DynamicEntity>> futures = new ArrayList<>();
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int index = 0; index < count; index++) {
+        var target = entity(String.valueOf(index));
+        var context = new TaskExecutionContext();
+        context.put("cn", String.valueOf(index));
+        Callable<DynamicEntity> creation = () -> committer.create(context, target, provider,
+            new ProviderConfiguration(), window, maxSize, TIMEOUT);
+        futures.add(executor.submit(creation));
+      }
+    }
+
+    List<Object> results = new ArrayList<>();
+    for (var future : futures) {
+      try {
+        results.add(future.get());
+      } catch (ExecutionException exception) {
+        results.add(exception.getCause());
+      }
+    }
+    return results;
+  }
+
+  @BeforeEach
+  void setUp() {
+    Mockito.when(entityServiceProvider.getObject()).thenReturn(entityService);
+    Mockito.when(entityService.callProvider(Mockito.any(), Mockito.any()))
+        .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+  }
+
+  @Test
+  @DisplayName("test create: should send the group through the provider guards")
+  void testCreateGuarded() {
+    var target = entity("a");
+    var rejection = new ApiException(503, I18nMessage.of("error.circuit.open", Map.of()));
+    Mockito.doThrow(rejection).when(entityService).callProvider(Mockito.eq(target), Mockito.any());
+
+    var exception = assertThrows(ApiException.class, () -> committer.create(new TaskExecutionContext(), target, provider,
+        new ProviderConfiguration(), Duration.ofMillis(1), 10, TIMEOUT));
+
+    assertEquals(rejection, exception);
+    Mockito.verify(provider, Mockito.never()).create(Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test create: should create a lone entity through the provider with its own context")
+  void testCreateAlone() {
+    var context = new TaskExecutionContext();
+    var target = entity("a");
+    var created = new DynamicEntity();
+    Mockito.when(provider.create(Mockito.eq(context), Mockito.any(), Mockito.eq(target))).thenReturn(created);
+
+    var result = committer.create(context, target, provider, new ProviderConfiguration(), Duration.ofMillis(1), 10, TIMEOUT);
+
+    assertEquals(created, result);
+    Mockito.verify((BatchWriteProvider) provider, Mockito.never()).applyBatch(Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test create: should send a full group at once and complete each creation with its own result")
+  @SuppressWarnings("unchecked")
+  void testCreateFullGroup() {
+    var created = new DynamicEntity();
+    Mockito.when(((BatchWriteProvider) provider).applyBatch(Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenReturn(List.of(new BatchWriteResult(true, created), new BatchWriteResult(false, null)));
+
+    var results = assertTimeoutPreemptively(Duration.ofSeconds(5),
+        () -> createConcurrently(2, Duration.ofMinutes(1), 2));
+
+    assertEquals(1, results.stream().filter(created::equals).count());
+    assertEquals(1, results.stream().filter(ApiException.class::isInstance)
+        .map(ApiException.class::cast)
+        .filter(exception -> exception.getStatusCode() == 409)
+        .count());
+    var captor = ArgumentCaptor.forClass(List.class);
+    Mockito.verify((BatchWriteProvider) provider).applyBatch(Mockito.any(), Mockito.any(), captor.capture());
+    assertEquals(2, captor.getValue().size());
+    assertEquals("create", ((BatchWriteOperation) captor.getValue().getFirst()).action());
+  }
+
+  @Test
+  @DisplayName("test create: should send each creation of a group with the context of its own request")
+  @SuppressWarnings("unchecked")
+  void testCreateGroupContexts() throws InterruptedException, ExecutionException {
+    Mockito.when(((BatchWriteProvider) provider).applyBatch(Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenReturn(List.of(new BatchWriteResult(true, null), new BatchWriteResult(true, null)));
+
+    createConcurrently(2, Duration.ofMinutes(1), 2);
+
+    var captor = ArgumentCaptor.forClass(List.class);
+    Mockito.verify((BatchWriteProvider) provider).applyBatch(Mockito.any(), Mockito.any(), captor.capture());
+    List<BatchWriteOperation> operations = captor.getValue();
+    assertEquals(2, operations.stream().map(BatchWriteOperation::context).distinct().count());
+    assertEquals(List.of("0", "1"), operations.stream()
+        .map(operation -> (String) operation.context().get("cn"))
+        .sorted()
+        .toList());
+  }
+
+  @Test
+  @DisplayName("test create: should fail every creation of a group when the provider does not return one result each")
+  void testCreateMissingResults() throws InterruptedException, ExecutionException {
+    Mockito.when(((BatchWriteProvider) provider).applyBatch(Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenReturn(List.of(new BatchWriteResult(true, null)));
+
+    var results = assertTimeoutPreemptively(Duration.ofSeconds(5),
+        () -> createConcurrently(2, Duration.ofMinutes(1), 2));
+
+    assertEquals(2, results.stream()
+        .map(ApiException.class::cast)
+        .filter(exception -> exception.getStatusCode() == 502)
+        .filter(exception -> "error.provider.batch.results".equals(exception.getError().key()))
+        .count());
+  }
+
+  @Test
+  @DisplayName("test create: should stop waiting for a group that is not sent in time")
+  void testCreateTimeout() {
+    Mockito.when(((BatchWriteProvider) provider).applyBatch(Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenAnswer(invocation -> {
+          Thread.sleep(5000);
+          return List.of();
+        });
+
+    var result = assertTimeoutPreemptively(Duration.ofSeconds(4), () -> {
+      try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+        var leader = executor.submit(() -> committer.create(new TaskExecutionContext(), entity("a"), provider,
+            new ProviderConfiguration(), Duration.ofMillis(100), 10, TIMEOUT));
+        Thread.sleep(20);
+        var follower = executor.submit(() -> committer.create(new TaskExecutionContext(), entity("b"), provider,
+            new ProviderConfiguration(), Duration.ofMillis(1), 10, Duration.ofMillis(200)));
+        try {
+          return follower.get();
+        } catch (ExecutionException exception) {
+          return exception.getCause();
+        } finally {
+          leader.cancel(true);
+        }
+      }
+    });
+
+    assertEquals(504, ((ApiException) result).getStatusCode());
+    assertEquals("error.entity.create.timeout", ((ApiException) result).getError().key());
+  }
+
+  @Test
+  @DisplayName("test create: should fail every creation of a group whose batch fails")
+  void testCreateBatchFailure() throws InterruptedException, ExecutionException {
+    var failure = new ApiException(503, I18nMessage.of("error.key", Map.of()));
+    Mockito.when(((BatchWriteProvider) provider).applyBatch(Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenThrow(failure);
+
+    var results = createConcurrently(3, Duration.ofMinutes(1), 3);
+
+    assertEquals(List.of(failure, failure, failure), results);
+    Mockito.verify(provider, Mockito.never()).create(Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test create: should propagate the error of a lone creation")
+  void testCreateAloneFailure() {
+    var failure = new ApiException(400, I18nMessage.of("error.key", Map.of()));
+    Mockito.when(provider.create(Mockito.any(), Mockito.any(), Mockito.any())).thenThrow(failure);
+
+    var exception = assertThrows(ApiException.class, () -> committer.create(new TaskExecutionContext(), entity("a"),
+        provider, new ProviderConfiguration(), Duration.ofMillis(1), 10, TIMEOUT));
+
+    assertEquals(failure, exception);
+  }
+}
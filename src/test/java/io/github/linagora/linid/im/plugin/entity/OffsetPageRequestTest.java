@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+@DisplayName("Test class: OffsetPageRequest")
+class OffsetPageRequestTest {
+
+  @Test
+  @DisplayName("test getOffset: should keep offsets that are not a multiple of the page size")
+  void testGetOffset() {
+    var pageable = new OffsetPageRequest(5, 2, Sort.by("name"));
+
+    assertEquals(5, pageable.getOffset());
+    assertEquals(2, pageable.getPageNumber());
+    assertEquals(2, pageable.getPageSize());
+    assertEquals(Sort.by("name"), pageable.getSort());
+    assertTrue(pageable.hasPrevious());
+  }
+
+  @Test
+  @DisplayName("test next: should move by one page size from the offset")
+  void testNavigation() {
+    var pageable = new OffsetPageRequest(5, 2, null);
+
+    assertEquals(new OffsetPageRequest(7, 2, Sort.unsorted()), pageable.next());
+    assertEquals(new OffsetPageRequest(3, 2, Sort.unsorted()), pageable.previousOrFirst());
+    assertEquals(new OffsetPageRequest(0, 2, Sort.unsorted()), pageable.first());
+    assertEquals(new OffsetPageRequest(6, 2, Sort.unsorted()), pageable.withPage(3));
+    assertFalse(pageable.first().hasPrevious());
+  }
+
+  @Test
+  @DisplayName("test constructor: should reject negative offsets and empty pages")
+  void testConstructor() {
+    assertThrows(IllegalArgumentException.class, () -> new OffsetPageRequest(-1, 2, null));
+    assertThrows(IllegalArgumentException.class, () -> new OffsetPageRequest(0, 0, null));
+  }
+}
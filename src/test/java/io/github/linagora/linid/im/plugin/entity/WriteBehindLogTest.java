@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@DisplayName("Test class: WriteBehindLog")
+class WriteBehindLogTest {
+
+  @TempDir
+  private Path directory;
+
+  private WriteBehindLog open() {
+    var log = new WriteBehindLog();
+    ReflectionTestUtils.setField(log, "path", directory.toString());
+    log.open();
+    return log;
+  }
+
+  private WriteBehindOperation operation(String operationId) {
+    return new WriteBehindOperation(operationId, "user", "patch", "1", Map.of("mail", operationId + "@test"), 1L);
+  }
+
+  @Test
+  @DisplayName("test rotate: should turn pending operations into segments read back in order")
+  void testRotate() throws IOException {
+    var log = open();
+    log.append(operation("a"));
+    log.append(operation("b"));
+
+    var first = log.rotate();
+    log.append(operation("c"));
+    var segments = log.rotate();
+
+    assertEquals(1, first.size());
+    assertEquals(2, segments.size());
+    assertEquals(first.getFirst(), segments.getFirst());
+    assertEquals(List.of(operation("a"), operation("b")), log.read(segments.get(0)));
+    assertEquals(List.of(operation("c")), log.read(segments.get(1)));
+
+    log.delete(segments.get(0));
+    log.delete(segments.get(1));
+    assertTrue(log.rotate().isEmpty());
+    log.close();
+  }
+
+  @Test
+  @DisplayName("test read: should skip lines that cannot be read")
+  void testReadTornLine() throws IOException {
+    var log = open();
+    log.append(operation("a"));
+    log.close();
+    Files.writeString(directory.resolve(WriteBehindLog.PENDING_FILE), "{\"operationId\":\"b\",\"ent",
+        StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+    var segments = log.rotate();
+
+    assertEquals(List.of(operation("a")), log.read(segments.getFirst()));
+  }
+
+  @Test
+  @DisplayName("test reject: should record the operation with its error")
+  void testReject() throws IOException {
+    var log = open();
+
+    log.reject(operation("a"), Map.of("status", 404));
+
+    var lines = Files.readAllLines(directory.resolve(WriteBehindLog.FAILED_FILE));
+    assertEquals(1, lines.size());
+    assertTrue(lines.getFirst().contains("\"operationId\":\"a\""));
+    assertTrue(lines.getFirst().contains("\"status\":404"));
+  }
+}
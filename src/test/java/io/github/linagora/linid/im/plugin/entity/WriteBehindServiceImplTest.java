@@ -0,0 +1,330 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.ProviderConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.provider.ProviderPlugin;
+import io.github.linagora.linid.im.plugin.config.EntitySettingsService;
+import io.github.linagora.linid.im.plugin.provider.BatchWriteOperation;
+import io.github.linagora.linid.im.plugin.provider.BatchWriteProvider;
+import io.github.linagora.linid.im.plugin.provider.BatchWriteResult;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Test class: WriteBehindServiceImpl")
+class WriteBehindServiceImplTest {
+  @Mock
+  private DynamicEntityServiceImpl entityService;
+  @Mock
+  private EntitySettingsService settingsService;
+  @Mock
+  private WriteBehindLog writeLog;
+
+  @InjectMocks
+  private WriteBehindServiceImpl service;
+
+  private void passCalls() {
+    Mockito.when(entityService.callProvider(Mockito.any(), Mockito.any()))
+        .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+  }
+
+  private WriteBehindOperation operation(String operationId, String action, String id, Map<String, Object> attributes) {
+    return new WriteBehindOperation(operationId, "user", action, id, attributes, 1L);
+  }
+
+  @Test
+  @DisplayName("test isEnabled: should only be enabled in write-behind mode without If-Match header")
+  void testIsEnabled() {
+    var request = Mockito.mock(HttpServletRequest.class);
+    Mockito.when(settingsService.getSetting("user", "write-mode", String.class, null)).thenReturn("write-behind");
+    Mockito.when(settingsService.getSetting("group", "write-mode", String.class, null)).thenReturn(null);
+
+    assertTrue(service.isEnabled(request, "user"));
+    assertFalse(service.isEnabled(request, "group"));
+
+    Mockito.when(request.getHeader(HttpHeaders.IF_MATCH)).thenReturn("W/\"v.MQ\"");
+    assertFalse(service.isEnabled(request, "user"));
+  }
+
+  @Test
+  @DisplayName("test handleWrite: should validate the patch then record it")
+  void testHandleWrite() {
+    var request = Mockito.mock(HttpServletRequest.class);
+    var operation = service.handleWrite(request, "user", "patch", "1", Map.of("mail", "a@test"));
+
+    assertEquals("user", operation.entity());
+    assertEquals("1", operation.id());
+    assertEquals(Map.of("mail", "a@test"), operation.attributes());
+    Mockito.verify(entityService).authenticate(Mockito.eq(request), Mockito.any(), Mockito.any(), Mockito.eq("Patch"));
+    Mockito.verify(entityService).beforeWrite(Mockito.any(), Mockito.any(), Mockito.eq("Patch"));
+    Mockito.verify(writeLog).append(operation);
+  }
+
+  @Test
+  @DisplayName("test handleWrite: should not record a write failing validation")
+  void testHandleWriteInvalid() {
+    var request = Mockito.mock(HttpServletRequest.class);
+    Mockito.doThrow(new ApiException(400, I18nMessage.of("error.key", Map.of())))
+        .when(entityService).beforeWrite(Mockito.any(), Mockito.any(), Mockito.eq("Create"));
+
+    var exception = assertThrows(ApiException.class, () -> service.handleWrite(request, "user", "create", null, Map.of()));
+
+    assertEquals(400, exception.getStatusCode());
+
+    Mockito.verify(writeLog, Mockito.never()).append(Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test handleFindOperation: should return the status of an accepted operation")
+  void testHandleFindOperation() {
+    var request = Mockito.mock(HttpServletRequest.class);
+    var operation = service.handleWrite(request, "user", "create", null, Map.of("cn", "C"));
+
+    var status = service.handleFindOperation(request, "user", operation.operationId());
+
+    assertEquals(operation.operationId(), status.operationId());
+    assertEquals(WriteBehindStatus.State.PENDING, status.state());
+    Mockito.verify(entityService).authenticate(Mockito.eq(request), Mockito.any(), Mockito.any(),
+        Mockito.eq("FindOperation"));
+  }
+
+  @Test
+  @DisplayName("test handleFindOperation: should throw for unknown operations and operations of another entity")
+  void testHandleFindOperationUnknown() {
+    var request = Mockito.mock(HttpServletRequest.class);
+    var operation = service.handleWrite(request, "user", "create", null, Map.of("cn", "C"));
+
+    var exception = assertThrows(ApiException.class, () -> service.handleFindOperation(request, "user", "unknown"));
+    assertEquals(404, exception.getStatusCode());
+    assertEquals("error.write.behind.operation.unknown", exception.getError().key());
+
+    exception = assertThrows(ApiException.class,
+        () -> service.handleFindOperation(request, "group", operation.operationId()));
+    assertEquals(404, exception.getStatusCode());
+  }
+
+  @Test
+  @DisplayName("test evictFinishedStatuses: should only remove the statuses finished for longer than the retention")
+  void testEvictFinishedStatuses() {
+    ReflectionTestUtils.setField(service, "statusRetention", Duration.ZERO);
+    var request = Mockito.mock(HttpServletRequest.class);
+    var pending = service.handleWrite(request, "user", "create", null, Map.of("cn", "C"));
+    var applied = operation("applied", "patch", "a", Map.of("cn", "A"));
+    service.markApplied(new WriteBehindServiceImpl.PendingWrite(applied));
+
+    service.evictFinishedStatuses();
+
+    assertEquals(WriteBehindStatus.State.PENDING,
+        service.handleFindOperation(request, "user", pending.operationId()).state());
+    assertThrows(ApiException.class, () -> service.handleFindOperation(request, "user", "applied"));
+  }
+
+  @Test
+  @DisplayName("test coalesce: should merge consecutive patches of the same entity only")
+  void testCoalesce() {
+    var writes = service.coalesce(List.of(
+        operation("1", "patch", "a", Map.of("mail", "old", "cn", "A")),
+        operation("2", "create", null, Map.of("cn", "C")),
+        operation("3", "patch", "b", Map.of("cn", "B")),
+        operation("4", "patch", "a", Map.of("mail", "new")),
+        operation("5", "update", "b", Map.of("cn", "B2")),
+        operation("6", "patch", "b", Map.of("mail", "b"))
+    ));
+
+    assertEquals(5, writes.size());
+    assertEquals(2, writes.getFirst().operations().size());
+    assertEquals(Map.of("mail", "new", "cn", "A"), writes.getFirst().attributes());
+    assertEquals("create", writes.get(1).action());
+    assertEquals("3", writes.get(2).operations().getFirst().operationId());
+    assertEquals("update", writes.get(3).action());
+    assertEquals("patch", writes.get(4).action());
+  }
+
+  @Test
+  @DisplayName("test drain: should apply every segment in order and delete it")
+  void testDrain() throws IOException {
+    passCalls();
+    ReflectionTestUtils.setField(service, "batchSize", 10);
+    ReflectionTestUtils.setField(service, "statusRetention", Duration.ofHours(1));
+    var provider = Mockito.mock(ProviderPlugin.class);
+    var segment = Path.of("segment-1.log");
+    var created = new DynamicEntity();
+    var patched = new DynamicEntity();
+
+    Mockito.when(writeLog.rotate()).thenReturn(List.of(segment));
+    Mockito.when(writeLog.read(segment)).thenReturn(List.of(
+        operation("1", "create", null, Map.of("cn", "C")),
+        operation("2", "patch", "a", Map.of("cn", "A")),
+        operation("3", "patch", "a", Map.of("mail", "a"))
+    ));
+    Mockito.when(entityService.getProvider(Mockito.any())).thenReturn(provider);
+    Mockito.when(entityService.getProviderConfiguration(Mockito.any())).thenReturn(new ProviderConfiguration());
+    Mockito.when(provider.create(Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(created);
+    Mockito.when(provider.patch(Mockito.any(), Mockito.any(), Mockito.eq("a"), Mockito.any())).thenReturn(patched);
+
+    service.drain();
+
+    var captor = ArgumentCaptor.forClass(DynamicEntity.class);
+    Mockito.verify(provider).patch(Mockito.any(), Mockito.any(), Mockito.eq("a"), captor.capture());
+    assertEquals(Map.of("cn", "A", "mail", "a"), captor.getValue().getAttributes());
+    Mockito.verify(entityService).afterWrite(Mockito.any(), Mockito.eq(created), Mockito.eq("Create"));
+    Mockito.verify(entityService).afterWrite(Mockito.any(), Mockito.eq(patched), Mockito.eq("Patch"));
+    Mockito.verify(writeLog).delete(segment);
+    Mockito.verify(writeLog, Mockito.never()).reject(Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test applyChunk: should send the chunk in a single batch and reject operations not applied")
+  void testApplyChunkBatch() {
+    passCalls();
+    var provider = Mockito.mock(ProviderPlugin.class, Mockito.withSettings().extraInterfaces(BatchWriteProvider.class));
+    var updated = new DynamicEntity();
+    var first = operation("1", "update", "a", Map.of("cn", "A"));
+    var second = operation("2", "patch", "b", Map.of("cn", "B"));
+
+    Mockito.when(entityService.getProvider(Mockito.any())).thenReturn(provider);
+    Mockito.when(((BatchWriteProvider) provider).applyBatch(Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenReturn(List.of(new BatchWriteResult(true, updated), new BatchWriteResult(false, null)));
+
+    service.applyChunk("user", service.coalesce(List.of(first, second)));
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<BatchWriteOperation>> captor = ArgumentCaptor.forClass(List.class);
+    Mockito.verify((BatchWriteProvider) provider).applyBatch(Mockito.any(), Mockito.any(), captor.capture());
+    assertEquals(List.of("update", "patch"), captor.getValue().stream().map(BatchWriteOperation::action).toList());
+    Mockito.verify(entityService).afterWrite(Mockito.any(), Mockito.eq(updated), Mockito.eq("Update"));
+    Mockito.verify(writeLog)
+        .reject(Mockito.eq(second), Mockito.argThat(error -> Integer.valueOf(404).equals(error.get("status"))));
+    Mockito.verify(writeLog, Mockito.never()).reject(Mockito.eq(first), Mockito.any());
+
+    var request = Mockito.mock(HttpServletRequest.class);
+    assertEquals(WriteBehindStatus.State.APPLIED, service.handleFindOperation(request, "user", "1").state());
+    var rejected = service.handleFindOperation(request, "user", "2");
+    assertEquals(WriteBehindStatus.State.FAILED, rejected.state());
+    assertEquals("error.entity.id.unknown", rejected.error().get("errorKey"));
+  }
+
+  @Test
+  @DisplayName("test applyChunk: should reject the writes refused by the provider guards without calling the provider")
+  void testApplyChunkGuarded() {
+    var provider = Mockito.mock(ProviderPlugin.class);
+    var write = operation("1", "patch", "a", Map.of("cn", "A"));
+
+    Mockito.when(entityService.getProvider(Mockito.any())).thenReturn(provider);
+    Mockito.when(entityService.callProvider(Mockito.any(), Mockito.any()))
+        .thenThrow(new ApiException(503, I18nMessage.of("error.circuit.open", Map.of())));
+
+    service.applyChunk("user", service.coalesce(List.of(write)));
+
+    Mockito.verify(writeLog)
+        .reject(Mockito.eq(write), Mockito.argThat(error -> "error.circuit.open".equals(error.get("errorKey"))));
+    Mockito.verifyNoInteractions(provider);
+  }
+
+  @Test
+  @DisplayName("test applyChunk: should reject a creation not applied by the batch as a conflict")
+  void testApplyChunkBatchCreateRejected() {
+    passCalls();
+    var provider = Mockito.mock(ProviderPlugin.class, Mockito.withSettings().extraInterfaces(BatchWriteProvider.class));
+    var created = operation("1", "create", null, Map.of("cn", "C"));
+
+    Mockito.when(entityService.getProvider(Mockito.any())).thenReturn(provider);
+    Mockito.when(((BatchWriteProvider) provider).applyBatch(Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenReturn(List.of(new BatchWriteResult(false, null)));
+
+    service.applyChunk("user", service.coalesce(List.of(created)));
+
+    Mockito.verify(writeLog)
+        .reject(Mockito.eq(created), Mockito.argThat(error -> Integer.valueOf(409).equals(error.get("status"))
+            && "error.entity.create.rejected".equals(error.get("errorKey"))));
+    Mockito.verify(entityService, Mockito.never()).afterWrite(Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test applyChunk: should reject the whole chunk when the batch does not return one result per write")
+  void testApplyChunkBatchMissingResults() {
+    passCalls();
+    var provider = Mockito.mock(ProviderPlugin.class, Mockito.withSettings().extraInterfaces(BatchWriteProvider.class));
+    var first = operation("1", "update", "a", Map.of("cn", "A"));
+    var second = operation("2", "patch", "b", Map.of("cn", "B"));
+
+    Mockito.when(entityService.getProvider(Mockito.any())).thenReturn(provider);
+    Mockito.when(((BatchWriteProvider) provider).applyBatch(Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenReturn(List.of(new BatchWriteResult(true, new DynamicEntity())));
+
+    service.applyChunk("user", service.coalesce(List.of(first, second)));
+
+    Mockito.verify(writeLog)
+        .reject(Mockito.eq(first), Mockito.argThat(error -> Integer.valueOf(502).equals(error.get("status"))));
+    Mockito.verify(writeLog)
+        .reject(Mockito.eq(second), Mockito.argThat(error -> Integer.valueOf(502).equals(error.get("status"))));
+    Mockito.verify(entityService, Mockito.never()).afterWrite(Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test applyChunk: should reject every merged operation of a failing write")
+  void testApplyChunkFailure() {
+    passCalls();
+    var provider = Mockito.mock(ProviderPlugin.class);
+    var first = operation("1", "patch", "a", Map.of("cn", "A"));
+    var second = operation("2", "patch", "a", Map.of("mail", "a"));
+
+    Mockito.when(entityService.getProvider(Mockito.any())).thenReturn(provider);
+    Mockito.when(provider.patch(Mockito.any(), Mockito.any(), Mockito.eq("a"), Mockito.any()))
+        .thenThrow(new IllegalStateException("down"));
+
+    service.applyChunk("user", service.coalesce(List.of(first, second)));
+
+    Mockito.verify(writeLog).reject(Mockito.eq(first), Mockito.argThat(error -> "down".equals(error.get("reason"))));
+    Mockito.verify(writeLog).reject(Mockito.eq(second), Mockito.any());
+    Mockito.verify(entityService, Mockito.never()).afterWrite(Mockito.any(), Mockito.any(), Mockito.any());
+  }
+}
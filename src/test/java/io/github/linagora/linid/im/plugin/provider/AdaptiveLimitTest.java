@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.provider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Test class: AdaptiveLimit")
+class AdaptiveLimitTest {
+
+  @Test
+  @DisplayName("test tryAcquire: should reject calls beyond the limit")
+  void testTryAcquire() {
+    var limit = new AdaptiveLimit(2, 1, 10, 2.0);
+
+    assertTrue(limit.tryAcquire());
+    assertTrue(limit.tryAcquire());
+    assertFalse(limit.tryAcquire());
+    assertEquals(2, limit.getInFlight());
+
+    limit.release(1_000, false);
+    assertTrue(limit.tryAcquire());
+  }
+
+  @Test
+  @DisplayName("test release: should increase the limit after fast saturated calls, up to the maximum")
+  void testReleaseIncrease() {
+    var limit = new AdaptiveLimit(2, 1, 3, 2.0);
+
+    for (int index = 0; index < 5; index++) {
+      limit.tryAcquire();
+      limit.release(1_000, false);
+    }
+
+    assertEquals(3, limit.getLimit());
+    assertEquals(0, limit.getInFlight());
+  }
+
+  @Test
+  @DisplayName("test release: should decrease the limit after slow or failed calls, down to the minimum")
+  void testReleaseDecrease() {
+    var limit = new AdaptiveLimit(10, 8, 20, 2.0);
+
+    limit.tryAcquire();
+    limit.release(1_000, false);
+    assertEquals(10, limit.getLimit());
+
+    limit.tryAcquire();
+    limit.release(5_000, false);
+    assertEquals(9, limit.getLimit());
+
+    for (int index = 0; index < 5; index++) {
+      limit.tryAcquire();
+      limit.release(1_000, true);
+    }
+    assertEquals(8, limit.getLimit());
+  }
+
+  @Test
+  @DisplayName("test cancel: should release the call without adapting the limit nor the average latency")
+  void testCancel() {
+    var limit = new AdaptiveLimit(10, 1, 20, 2.0);
+
+    limit.tryAcquire();
+    limit.release(1_000, false);
+    for (int index = 0; index < 50; index++) {
+      limit.tryAcquire();
+      limit.cancel();
+    }
+    assertEquals(10, limit.getLimit());
+    assertEquals(0, limit.getInFlight());
+
+    limit.tryAcquire();
+    limit.release(1_500, false);
+    assertEquals(10, limit.getLimit());
+  }
+}
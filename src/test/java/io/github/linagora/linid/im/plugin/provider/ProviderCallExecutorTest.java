@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.provider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.mock.env.MockEnvironment;
+
+@DisplayName("Test class: ProviderCallExecutor")
+class ProviderCallExecutorTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final TaskExecutionContext context = new TaskExecutionContext();
+
+  private final DynamicEntity entity = new DynamicEntity();
+
+  private ProviderCallExecutor newExecutor(MockEnvironment environment) {
+    environment.setConversionService(new ApplicationConversionService());
+    return new ProviderCallExecutor(environment, meterRegistry);
+  }
+
+  @Test
+  @DisplayName("test read: should fail with a gateway timeout when the timeout of the provider expires")
+  void testReadTimeout() {
+    var executor = newExecutor(new MockEnvironment().withProperty("provider.settings.ldap.timeout", "50ms"));
+
+    assertTrue(executor.isGuarded("ldap"));
+    assertFalse(executor.isGuarded("sql"));
+
+    var exception = assertThrows(ApiException.class, () -> executor.read("ldap", context, entity, (readContext, readEntity) -> {
+      sleep(5000);
+      readContext.put("late", true);
+      return "late";
+    }));
+
+    assertEquals(504, exception.getStatusCode());
+    assertEquals("error.provider.timeout", exception.getError().key());
+    assertEquals(1, meterRegistry.counter("linid.provider.timeouts", "provider", "ldap").count());
+    assertFalse(context.containsKey("late"));
+    assertEquals("fast", executor.read("ldap", context, entity, (readContext, readEntity) -> "fast"));
+  }
+
+  @Test
+  @DisplayName("test read: should rethrow the failure of the provider")
+  void testReadFailure() {
+    var executor = newExecutor(new MockEnvironment().withProperty("provider.settings.default.timeout", "1s"));
+    var failure = new IllegalStateException();
+
+    assertSame(failure, assertThrows(IllegalStateException.class,
+        () -> executor.read("ldap", context, entity, (readContext, readEntity) -> {
+          throw failure;
+        })));
+  }
+
+  @Test
+  @DisplayName("test read: should return the result of the hedge and only keep the changes of the hedge")
+  void testReadHedged() throws InterruptedException {
+    var executor = newExecutor(new MockEnvironment()
+        .withProperty("provider.settings.ldap.hedge", "true")
+        .withProperty("provider.settings.ldap.hedge-budget", "1"));
+    context.put("request", "value");
+    entity.setAttributes(new HashMap<>(Map.of("cn", "a")));
+
+    assertTrue(executor.isGuarded("ldap"));
+    for (int read = 0; read < HedgePolicy.MIN_SAMPLES; read++) {
+      assertEquals("warm", executor.read("ldap", context, entity, (readContext, readEntity) -> "warm"));
+    }
+
+    var attempts = new AtomicInteger();
+    var slowDone = new CountDownLatch(1);
+    var result = executor.read("ldap", context, entity, (readContext, readEntity) -> {
+      if (attempts.getAndIncrement() == 0) {
+        sleep(5000);
+        readContext.put("attempt", "slow");
+        readEntity.getAttributes().put("cn", "slow");
+        slowDone.countDown();
+        return "slow";
+      }
+      readContext.put("attempt", "fast");
+      readEntity.getAttributes().put("cn", "fast");
+      return "fast";
+    });
+    slowDone.await();
+
+    assertEquals("fast", result);
+    assertEquals(2, attempts.get());
+    assertEquals(Map.of("request", "value", "attempt", "fast"), context);
+    assertEquals(Map.of("cn", "fast"), entity.getAttributes());
+    assertEquals(1, meterRegistry.counter("linid.provider.hedges", "provider", "ldap").count());
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
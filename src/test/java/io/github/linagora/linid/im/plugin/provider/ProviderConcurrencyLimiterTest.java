@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.provider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.plugin.circuit.CircuitBreakers;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@DisplayName("Test class: ProviderConcurrencyLimiter")
+class ProviderConcurrencyLimiterTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final ProviderConcurrencyLimiter limiter = new ProviderConcurrencyLimiter(meterRegistry);
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(limiter, "enabled", true);
+    ReflectionTestUtils.setField(limiter, "initialLimit", 1);
+    ReflectionTestUtils.setField(limiter, "minLimit", 1);
+    ReflectionTestUtils.setField(limiter, "maxLimit", 1);
+    ReflectionTestUtils.setField(limiter, "tolerance", 2.0);
+  }
+
+  @Test
+  @DisplayName("test call: should reject calls beyond the limit of the provider only")
+  void testCallRejected() {
+    var exception = assertThrows(ApiException.class,
+        () -> limiter.call("ldap", () -> limiter.call("ldap", () -> "nested")));
+
+    assertEquals(503, exception.getStatusCode());
+    assertEquals("error.provider.overloaded", exception.getError().key());
+    assertEquals("sql", limiter.call("ldap", () -> limiter.call("sql", () -> "sql")));
+    assertEquals(1, meterRegistry.counter("linid.provider.limit.rejected", "provider", "ldap").count());
+  }
+
+  @Test
+  @DisplayName("test call: should release the limit and expose gauges whatever the outcome")
+  void testCallGauges() {
+    var failure = new ApiException(404, I18nMessage.of("error.key", Map.of()));
+
+    assertThrows(ApiException.class, () -> limiter.call("ldap", () -> {
+      throw failure;
+    }));
+    assertEquals("next", limiter.call("ldap", () -> "next"));
+
+    assertEquals(1, meterRegistry.get("linid.provider.limit").tag("provider", "ldap").gauge().value());
+    assertEquals(0, meterRegistry.get("linid.provider.inflight").tag("provider", "ldap").gauge().value());
+  }
+
+  @Test
+  @DisplayName("test call: should not lower the limit on calls rejected by an open circuit breaker")
+  void testCallCircuitOpen() {
+    ReflectionTestUtils.setField(limiter, "initialLimit", 4);
+    ReflectionTestUtils.setField(limiter, "maxLimit", 4);
+    var rejection = new ApiException(503, I18nMessage.of(CircuitBreakers.OPEN_ERROR, Map.of()));
+    var failure = new ApiException(503, I18nMessage.of("error.key", Map.of()));
+
+    for (int index = 0; index < 10; index++) {
+      assertThrows(ApiException.class, () -> limiter.call("ldap", () -> {
+        throw rejection;
+      }));
+    }
+    assertEquals(4, meterRegistry.get("linid.provider.limit").tag("provider", "ldap").gauge().value());
+    assertEquals(0, meterRegistry.get("linid.provider.inflight").tag("provider", "ldap").gauge().value());
+
+    assertThrows(ApiException.class, () -> limiter.call("ldap", () -> {
+      throw failure;
+    }));
+    assertEquals(3, meterRegistry.get("linid.provider.limit").tag("provider", "ldap").gauge().value());
+  }
+}
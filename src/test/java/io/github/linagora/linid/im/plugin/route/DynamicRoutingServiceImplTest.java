@@ -35,9 +35,11 @@ import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration
 import io.github.linagora.linid.im.corelib.plugin.config.dto.RouteConfiguration;
 import io.github.linagora.linid.im.corelib.plugin.route.RouteDescription;
 import io.github.linagora.linid.im.corelib.plugin.route.RoutePlugin;
+import io.github.linagora.linid.im.plugin.circuit.CircuitBreakers;
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -56,6 +58,8 @@ class DynamicRoutingServiceImplTest {
   private PluginRegistry<RoutePlugin, String> routeRegistry;
   @Mock
   private PluginConfigurationService configurationService;
+  @Mock
+  private CircuitBreakers circuitBreakers;
 
   @InjectMocks
   private DynamicRoutingServiceImpl service;
@@ -183,6 +187,35 @@ class DynamicRoutingServiceImplTest {
     assertEquals(404, exception.getStatusCode());
   }
 
+  @Test
+  @DisplayName("test route: should execute route through the circuit breaker of its configuration when enabled")
+  void testRouteCircuitBreaker() {
+    HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+
+    RouteConfiguration config1 = new RouteConfiguration();
+    config1.setType("test");
+    config1.addOption("route", "/alpha");
+
+    RouteConfiguration config2 = new RouteConfiguration();
+    config2.setType("test");
+    config2.addOption("route", "/beta");
+
+    Mockito.when(request.getRequestURI()).thenReturn("/beta");
+    Mockito.when(request.getMethod()).thenReturn("GET");
+
+    Mockito.when(routeRegistry.getPlugins()).thenReturn(List.of(new SimpleRoutePlugin()));
+    Mockito.when(configurationService.getRoutesConfiguration()).thenReturn(List.of(config1, config2));
+    Mockito.when(circuitBreakers.isEnabled()).thenReturn(true);
+    Mockito.when(circuitBreakers.call(Mockito.eq(CircuitBreakers.ROUTE), Mockito.eq("test#1"), Mockito.any()))
+        .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+
+    var response = service.route(request);
+
+    assertNotNull(response);
+    assertEquals(200, response.getStatusCode().value());
+    Mockito.verify(circuitBreakers).call(Mockito.eq(CircuitBreakers.ROUTE), Mockito.eq("test#1"), Mockito.any());
+  }
+
   public class SimpleRoutePlugin implements RoutePlugin {
     @Override
     public List<RouteDescription> getRoutes(RouteConfiguration configuration, List<EntityConfiguration> entities) {
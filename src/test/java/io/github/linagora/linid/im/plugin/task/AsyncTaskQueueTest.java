@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.plugin.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@DisplayName("Test class: AsyncTaskQueue")
+class AsyncTaskQueueTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private AsyncTaskQueue queue;
+
+  private AsyncTaskQueue start(String overflow) {
+    queue = new AsyncTaskQueue(meterRegistry);
+    ReflectionTestUtils.setField(queue, "workers", 1);
+    ReflectionTestUtils.setField(queue, "queueCapacity", 1);
+    ReflectionTestUtils.setField(queue, "overflow", overflow);
+    ReflectionTestUtils.setField(queue, "shutdownTimeout", Duration.ofSeconds(5));
+    queue.start();
+    return queue;
+  }
+
+  @AfterEach
+  void tearDown() {
+    queue.stop();
+  }
+
+  @Test
+  @DisplayName("test submit: should execute tasks and count failures without propagating them")
+  void testSubmit() throws InterruptedException {
+    start("caller-runs");
+    var done = new CountDownLatch(2);
+
+    queue.submit("failing", () -> {
+      done.countDown();
+      throw new IllegalStateException("failure");
+    });
+    queue.submit("working", done::countDown);
+
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    queue.stop();
+    assertEquals(1, meterRegistry.counter("linid.task.async.failures").count());
+    assertEquals(2, meterRegistry.timer("linid.task.async.lag").count());
+  }
+
+  /**
+   * Fills the queue: the single worker runs a task waiting for the given latch, and another task waits in the queue.
+   *
+   * @param release the latch releasing the worker
+   */
+  private void fill(CountDownLatch release) {
+    queue.submit("blocking", () -> {
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    queue.submit("queued", () -> { });
+  }
+
+  @Test
+  @DisplayName("test submit: should drop tasks when the queue is full with the drop policy")
+  void testSubmitDrop() {
+    var release = new CountDownLatch(1);
+    start("drop");
+    fill(release);
+
+    assertEquals(1.0, meterRegistry.get("linid.task.async.queue.depth").gauge().value());
+    queue.submit("dropped", () -> { });
+    assertEquals(1, meterRegistry.counter("linid.task.async.dropped").count());
+    release.countDown();
+  }
+
+  @Test
+  @DisplayName("test submit: should run tasks in the calling thread when the queue is full with the caller-runs policy")
+  void testSubmitCallerRuns() {
+    var release = new CountDownLatch(1);
+    var ranInline = new AtomicBoolean();
+    var caller = Thread.currentThread();
+    start("caller-runs");
+    fill(release);
+
+    queue.submit("inline", () -> ranInline.set(Thread.currentThread() == caller));
+    assertTrue(ranInline.get());
+    release.countDown();
+  }
+}
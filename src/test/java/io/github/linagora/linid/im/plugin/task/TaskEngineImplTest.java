@@ -27,22 +27,30 @@
 package io.github.linagora.linid.im.plugin.task;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
 import io.github.linagora.linid.im.corelib.plugin.config.PluginConfigurationService;
 import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration;
 import io.github.linagora.linid.im.corelib.plugin.config.dto.TaskConfiguration;
 import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
 import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
 import io.github.linagora.linid.im.corelib.plugin.task.TaskPlugin;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -60,6 +68,9 @@ class TaskEngineImplTest {
   @Mock
   private PluginConfigurationService configurationService;
 
+  @Mock
+  private AsyncTaskQueue asyncTaskQueue;
+
   @InjectMocks
   private TaskEngineImpl taskEngine;
 
@@ -224,6 +235,153 @@ class TaskEngineImplTest {
     Mockito.verifyNoInteractions(configurationService);
   }
 
+  @Test
+  @DisplayName("test execute: should execute parallel tasks concurrently and merge their context changes")
+  void testExecuteParallel() {
+    var latch = new CountDownLatch(2);
+    var plugin = new DummyPlugin() {
+      @Override
+      public void execute(TaskConfiguration configuration, DynamicEntity dynamicEntity, TaskExecutionContext context) {
+        if ("last".equals(configuration.getName())) {
+          context.put("last", context.get("first") + "," + context.get("second"));
+          return;
+        }
+        latch.countDown();
+        try {
+          if (latch.await(5, TimeUnit.SECONDS)) {
+            context.put(configuration.getName(), "done");
+          }
+        } catch (InterruptedException exception) {
+          Thread.currentThread().interrupt();
+        }
+        context.remove("removed");
+      }
+    };
+
+    var entityConfig = new EntityConfiguration();
+    entityConfig.setTasks(List.of(task("first", true), task("second", true), task("last", false)));
+    var entity = new DynamicEntity();
+    entity.setConfiguration(entityConfig);
+    var context = new TaskExecutionContext();
+    context.put("removed", "value");
+
+    Mockito.when(configurationService.getTaskConfiguration(Mockito.anyString())).thenReturn(Optional.empty());
+    Mockito.when(taskRegistry.getPlugins()).thenReturn(List.of(plugin));
+
+    taskEngine.execute(entity, context, "myphase");
+
+    assertEquals("done,done", context.get("last"));
+    assertFalse(context.containsKey("removed"));
+  }
+
+  @Test
+  @DisplayName("test execute: should rethrow the failure of a parallel task and keep the context unchanged")
+  void testExecuteParallelFailure() {
+    var plugin = new DummyPlugin() {
+      @Override
+      public void execute(TaskConfiguration configuration, DynamicEntity dynamicEntity, TaskExecutionContext context) {
+        context.put(configuration.getName(), "done");
+        if ("second".equals(configuration.getName())) {
+          throw new ApiException(500, I18nMessage.of("error.test", Map.of()));
+        }
+      }
+    };
+
+    var entityConfig = new EntityConfiguration();
+    entityConfig.setTasks(List.of(task("first", true), task("second", true)));
+    var entity = new DynamicEntity();
+    entity.setConfiguration(entityConfig);
+    var context = new TaskExecutionContext();
+
+    Mockito.when(configurationService.getTaskConfiguration(Mockito.anyString())).thenReturn(Optional.empty());
+    Mockito.when(taskRegistry.getPlugins()).thenReturn(List.of(plugin));
+
+    var exception = assertThrows(ApiException.class, () -> taskEngine.execute(entity, context, "myphase"));
+    assertEquals("error.test", exception.getError().key());
+    assertTrue(context.isEmpty());
+  }
+
+  @Test
+  @DisplayName("test execute: should queue asynchronous tasks of after-write phases with snapshots")
+  void testExecuteAsync() {
+    List<String> executed = new ArrayList<>();
+    var plugin = new DummyPlugin() {
+      @Override
+      public void execute(TaskConfiguration configuration, DynamicEntity dynamicEntity, TaskExecutionContext context) {
+        executed.add(configuration.getName() + ":" + dynamicEntity.getAttributes().get("id"));
+        context.put(configuration.getName(), "done");
+      }
+    };
+
+    var audit = task("audit", false);
+    audit.addOption("async", true);
+    audit.setPhases(List.of("afterCreate"));
+    var sync = task("sync", false);
+    sync.setPhases(List.of("afterCreate"));
+
+    var entityConfig = new EntityConfiguration();
+    entityConfig.setName("users");
+    entityConfig.setTasks(List.of(audit, sync));
+    var entity = new DynamicEntity();
+    entity.setConfiguration(entityConfig);
+    entity.setAttributes(new HashMap<>(Map.of("id", "1")));
+    var context = new TaskExecutionContext();
+
+    Mockito.when(configurationService.getTaskConfiguration(Mockito.anyString())).thenReturn(Optional.empty());
+    Mockito.when(taskRegistry.getPlugins()).thenReturn(List.of(plugin));
+
+    taskEngine.execute(entity, context, "afterCreate");
+
+    assertEquals(List.of("sync:1"), executed);
+    ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+    Mockito.verify(asyncTaskQueue).submit(Mockito.eq("users.afterCreate"), captor.capture());
+
+    entity.getAttributes().put("id", "2");
+    captor.getValue().run();
+
+    assertEquals(List.of("sync:1", "audit:1"), executed);
+    assertFalse(context.containsKey("audit"));
+  }
+
+  @Test
+  @DisplayName("test execute: should run asynchronous tasks synchronously outside after-write phases")
+  void testExecuteAsyncIgnoredOutsideAfterPhases() {
+    var plugin = Mockito.spy(new DummyPlugin());
+    var config = task("mytask", false);
+    config.addOption("async", true);
+
+    var entityConfig = new EntityConfiguration();
+    entityConfig.setTasks(List.of(config));
+    var entity = new DynamicEntity();
+    entity.setConfiguration(entityConfig);
+
+    Mockito.when(configurationService.getTaskConfiguration("mytask")).thenReturn(Optional.empty());
+    Mockito.when(taskRegistry.getPlugins()).thenReturn(List.of(plugin));
+
+    taskEngine.execute(entity, new TaskExecutionContext(), "myphase");
+
+    Mockito.verify(plugin).execute(Mockito.any(), Mockito.eq(entity), Mockito.any());
+    Mockito.verifyNoInteractions(asyncTaskQueue);
+  }
+
+  /**
+   * Builds a task configuration of the {@code myphase} phase.
+   *
+   * @param name the name of the task
+   * @param parallel whether the task has the {@code parallel} option
+   * @return the task configuration
+   */
+  private TaskConfiguration task(String name, boolean parallel) {
+    var config = new TaskConfiguration();
+    config.setName(name);
+    config.setType("dummy-type");
+    config.setPhases(List.of("myphase"));
+    if (parallel) {
+      config.addOption("parallel", true);
+    }
+    return config;
+  }
+
   public static class DummyPlugin implements TaskPlugin {
     @Override
     public boolean supports(@NonNull String type) {
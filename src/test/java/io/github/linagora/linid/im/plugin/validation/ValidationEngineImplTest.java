@@ -41,9 +41,16 @@ import io.github.linagora.linid.im.corelib.plugin.config.dto.ValidationConfigura
 import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
 import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
 import io.github.linagora.linid.im.corelib.plugin.validation.ValidationPlugin;
+import io.github.linagora.linid.im.plugin.config.EntitySettingsService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -53,6 +60,7 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.lang.NonNull;
 import org.springframework.plugin.core.PluginRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("Test class: ValidationEngineImpl")
@@ -64,9 +72,17 @@ class ValidationEngineImplTest {
   @Mock
   private PluginConfigurationService configurationService;
 
+  @Mock
+  private EntitySettingsService settingsService;
+
   @InjectMocks
   private ValidationEngineImpl validationEngine;
 
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(validationEngine, "timeout", Duration.ofSeconds(10));
+  }
+
   @Test
   @DisplayName("test mergeConfigurationWithGlobal: should return provided configuration without global")
   void testMergeWithoutGlobal() {
@@ -225,6 +241,212 @@ class ValidationEngineImplTest {
     assertFalse(errors.isEmpty());
   }
 
+  @Test
+  @DisplayName("test validate: should only apply the validations of present attributes when partial")
+  void testValidatePartial() {
+    var plugin = Mockito.spy(new DummyPlugin());
+
+    var config = new ValidationConfiguration();
+    config.setName("val1");
+    config.setType("type1");
+    config.setPhases(List.of("beforePatch"));
+
+    var always = new ValidationConfiguration();
+    always.setName("val2");
+    always.setType("type1");
+    always.setPhases(List.of("beforePatch"));
+    always.addOption("alwaysRun", true);
+
+    var presentConfig = new AttributeConfiguration();
+    presentConfig.setName("present");
+    presentConfig.setValidations(List.of(config));
+    var absentConfig = new AttributeConfiguration();
+    absentConfig.setName("absent");
+    absentConfig.setValidations(List.of(config, always));
+
+    var entityConfig = new EntityConfiguration();
+    entityConfig.setName("MyEntity");
+    entityConfig.setAttributes(List.of(presentConfig, absentConfig));
+
+    var entity = Mockito.mock(DynamicEntity.class);
+    Mockito.when(entity.getConfiguration()).thenReturn(entityConfig);
+    Mockito.when(entity.getAttributes()).thenReturn(Map.of("present", "ok"));
+
+    Mockito.when(configurationService.getValidationConfiguration(Mockito.anyString())).thenReturn(Optional.empty());
+    Mockito.when(validationRegistry.getPlugins()).thenReturn(List.of(plugin));
+
+    var context = new TaskExecutionContext();
+    context.put(ValidationEngineImpl.PARTIAL_CONTEXT_KEY, true);
+    validationEngine.validate(entity, "beforePatch", context);
+
+    Mockito.verify(plugin).validate(config, "ok", context);
+    Mockito.verify(plugin).validate(always, null, context);
+    Mockito.verify(plugin, Mockito.times(2)).validate(Mockito.any(), Mockito.any(), Mockito.any());
+
+    validationEngine.validate(entity, "beforePatch", new TaskExecutionContext());
+    Mockito.verify(plugin, Mockito.times(5)).validate(Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("test validate: should apply cheap validations first and report errors in declaration order")
+  void testValidateOrderedByCost() {
+    List<String> applied = new ArrayList<>();
+    var plugin = new DummyPlugin() {
+      @Override
+      public Optional<I18nMessage> validate(ValidationConfiguration configuration, Object value,
+          TaskExecutionContext context) {
+        applied.add(configuration.getName());
+        return Optional.of(I18nMessage.of("error." + configuration.getName(), new HashMap<>()));
+      }
+    };
+
+    var remote = new ValidationConfiguration();
+    remote.setName("remote");
+    remote.setType("type1");
+    remote.setPhases(List.of("create"));
+    remote.addOption("cost", "remote");
+
+    var local = new ValidationConfiguration();
+    local.setName("local");
+    local.setType("type1");
+    local.setPhases(List.of("create"));
+
+    var attrConfig = new AttributeConfiguration();
+    attrConfig.setName("attr1");
+    attrConfig.setValidations(List.of(remote, local));
+
+    var entityConfig = new EntityConfiguration();
+    entityConfig.setName("MyEntity");
+    entityConfig.setAttributes(List.of(attrConfig));
+
+    var entity = Mockito.mock(DynamicEntity.class);
+    Mockito.when(entity.getConfiguration()).thenReturn(entityConfig);
+    Mockito.when(entity.getAttributes()).thenReturn(Map.of("attr1", "value"));
+
+    Mockito.when(configurationService.getValidationConfiguration(Mockito.anyString())).thenReturn(Optional.empty());
+    Mockito.when(validationRegistry.getPlugins()).thenReturn(List.of(plugin));
+
+    var ex = assertThrows(ApiException.class, () -> validationEngine.validate(entity, "create", null));
+    assertEquals(List.of("local", "remote"), applied);
+    var errors = (List<?>) ex.getDetails().get("errors");
+    assertEquals("error.remote", ((I18nMessage) errors.get(0)).key());
+    assertEquals("error.local", ((I18nMessage) errors.get(1)).key());
+
+    applied.clear();
+    Mockito.when(settingsService.getSetting("MyEntity", "validation-mode", String.class, null)).thenReturn("fail-fast");
+
+    ex = assertThrows(ApiException.class, () -> validationEngine.validate(entity, "create", null));
+    assertEquals(List.of("local"), applied);
+    assertEquals(1, ((List<?>) ex.getDetails().get("errors")).size());
+  }
+
+  @Test
+  @DisplayName("test getCost: should prefer the option over the plugin cost")
+  void testGetCost() {
+    var configuration = new ValidationConfiguration();
+    configuration.setName("val1");
+    var plugin = Mockito.mock(ValidationPlugin.class, Mockito.withSettings().extraInterfaces(CostAwareValidationPlugin.class));
+    Mockito.when(((CostAwareValidationPlugin) plugin).getCost(configuration)).thenReturn(50);
+
+    assertEquals(0, validationEngine.getCost(configuration, new DummyPlugin()));
+    assertEquals(50, validationEngine.getCost(configuration, plugin));
+
+    configuration.addOption("cost", 10);
+    assertEquals(10, validationEngine.getCost(configuration, plugin));
+    configuration.addOption("cost", "REMOTE");
+    assertEquals(100, validationEngine.getCost(configuration, plugin));
+    configuration.addOption("cost", "high");
+    var ex = assertThrows(ApiException.class, () -> validationEngine.getCost(configuration, plugin));
+    assertEquals("error.validation.cost.invalid", ex.getError().key());
+  }
+
+  @Test
+  @DisplayName("test validate: should apply parallel validations concurrently and merge their errors in order")
+  void testValidateParallel() {
+    var latch = new CountDownLatch(2);
+    var plugin = new DummyPlugin() {
+      @Override
+      public Optional<I18nMessage> validate(ValidationConfiguration configuration, Object value,
+          TaskExecutionContext context) {
+        latch.countDown();
+        try {
+          if (!latch.await(5, TimeUnit.SECONDS)) {
+            return Optional.empty();
+          }
+        } catch (InterruptedException exception) {
+          Thread.currentThread().interrupt();
+        }
+        return Optional.of(I18nMessage.of("error." + configuration.getName(), new HashMap<>()));
+      }
+    };
+
+    var entity = parallelEntity(List.of("first", "second"));
+    Mockito.when(configurationService.getValidationConfiguration(Mockito.anyString())).thenReturn(Optional.empty());
+    Mockito.when(validationRegistry.getPlugins()).thenReturn(List.of(plugin));
+
+    var ex = assertThrows(ApiException.class, () -> validationEngine.validate(entity, "create", new TaskExecutionContext()));
+    var errors = (List<?>) ex.getDetails().get("errors");
+    assertEquals(2, errors.size());
+    assertEquals("error.first", ((I18nMessage) errors.get(0)).key());
+    assertEquals("error.second", ((I18nMessage) errors.get(1)).key());
+  }
+
+  @Test
+  @DisplayName("test validate: should give up parallel validations after the timeout")
+  void testValidateParallelTimeout() {
+    ReflectionTestUtils.setField(validationEngine, "timeout", Duration.ofMillis(50));
+    var plugin = new DummyPlugin() {
+      @Override
+      public Optional<I18nMessage> validate(ValidationConfiguration configuration, Object value,
+          TaskExecutionContext context) {
+        try {
+          Thread.sleep(5_000);
+        } catch (InterruptedException exception) {
+          Thread.currentThread().interrupt();
+        }
+        return Optional.empty();
+      }
+    };
+
+    var entity = parallelEntity(List.of("slow"));
+    Mockito.when(configurationService.getValidationConfiguration(Mockito.anyString())).thenReturn(Optional.empty());
+    Mockito.when(validationRegistry.getPlugins()).thenReturn(List.of(plugin));
+
+    var ex = assertThrows(ApiException.class, () -> validationEngine.validate(entity, "create", null));
+    assertEquals(504, ex.getStatusCode());
+    assertEquals("error.validation.timeout", ex.getError().key());
+  }
+
+  /**
+   * Builds an entity whose single attribute has the given parallel validations, in the {@code create} phase.
+   *
+   * @param names the names of the validations
+   * @return the entity
+   */
+  private DynamicEntity parallelEntity(List<String> names) {
+    var validations = names.stream().map(name -> {
+      var config = new ValidationConfiguration();
+      config.setName(name);
+      config.setType("type1");
+      config.setPhases(List.of("create"));
+      config.addOption("parallel", true);
+      return config;
+    }).toList();
+
+    var attrConfig = new AttributeConfiguration();
+    attrConfig.setName("attr1");
+    attrConfig.setValidations(validations);
+
+    var entityConfig = new EntityConfiguration();
+    entityConfig.setName("MyEntity");
+    entityConfig.setAttributes(List.of(attrConfig));
+
+    var entity = new DynamicEntity();
+    entity.setConfiguration(entityConfig);
+    entity.setAttributes(Map.of("attr1", "value"));
+    return entity;
+  }
+
   @Test
   @DisplayName("test validateAttribute: should not throw when validation succeeds")
   void testValidateAttributeShouldNotThrow() {